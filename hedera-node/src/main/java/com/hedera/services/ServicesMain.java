@@ -121,13 +121,9 @@ public class ServicesMain implements SwirldMain {
 		if (ctx.platformStatus().get() == MAINTENANCE) {
 			((ServicesState)signedState).printHashes();
 		}
+		ctx.signedStateSnapshots().update((ServicesState) signedState);
 		if (ctx.globalDynamicProperties().shouldExportBalances() && ctx.balancesExporter().isTimeToExport(when)) {
-			try {
-				ctx.balancesExporter().toCsvFile((ServicesState) signedState, when);
-			} catch (IllegalStateException ise) {
-				log.error("HederaNode#{} has invalid total balance in signed state, exiting!", ctx.id(), ise);
-				systemExits.fail(1);
-			}
+			ctx.balancesExporter().toCsvFile((ServicesState) signedState, when);
 		}
 	}
 
@@ -166,6 +162,8 @@ public class ServicesMain implements SwirldMain {
 		log.info("Accounts exported.");
 		reviewRecordExpirations();
 		log.info("Record expiration reviewed.");
+		resumeConsensusThrottling();
+		log.info("Consensus throttling resumed.");
 		loadFeeSchedule();
 		log.info("Fee schedule loaded.");
 		initializeStats();
@@ -287,6 +285,10 @@ public class ServicesMain implements SwirldMain {
 		ctx.recordsHistorian().reviewExistingRecords();
 	}
 
+	private void resumeConsensusThrottling() {
+		ctx.consensusThrottling().resumeFrom(ctx.networkCtx().throttleUsages());
+	}
+
 	void logInfoWithConsoleEcho(String s) {
 		log.info(s);
 		if (ctx.consoleOut() != null) {
@@ -27,6 +27,8 @@ import com.hedera.services.context.properties.StandardizedPropertySources;
 import com.hedera.services.exceptions.ContextNotFoundException;
 import com.hedera.services.state.merkle.MerkleAccount;
 import com.hedera.services.state.merkle.MerkleBlobMeta;
+import com.hedera.services.state.merkle.MerkleContractSlot;
+import com.hedera.services.state.merkle.MerkleContractSlotId;
 import com.hedera.services.state.merkle.MerkleDiskFs;
 import com.hedera.services.state.merkle.MerkleEntityAssociation;
 import com.hedera.services.state.merkle.MerkleEntityId;
@@ -51,6 +53,7 @@ import com.swirlds.common.merkle.MerkleInternal;
 import com.swirlds.common.merkle.MerkleNode;
 import com.swirlds.common.merkle.utility.AbstractMerkleInternal;
 import com.swirlds.fcmap.FCMap;
+import com.swirlds.platform.FreezeManager;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -60,11 +63,13 @@ import java.io.IOException;
 import java.time.Instant;
 import java.util.List;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 import static com.hedera.services.context.SingletonContextsManager.CONTEXTS;
 import static com.hedera.services.sigs.HederaToPlatformSigOps.expandIn;
 import static com.hedera.services.sigs.sourcing.DefaultSigBytesProvider.DEFAULT_SIG_BYTES;
+import static com.hedera.services.state.merkle.MerkleNetworkContext.NO_PAYER_EXPIRIES_SNAPSHOT;
 import static com.hedera.services.state.merkle.MerkleNetworkContext.UNKNOWN_CONSENSUS_TIME;
 import static com.hedera.services.utils.EntityIdUtils.accountParsedFromString;
 import static com.hedera.services.utils.EntityIdUtils.asLiteralString;
@@ -75,11 +80,13 @@ public class ServicesState extends AbstractMerkleInternal implements SwirldState
 	static final int RELEASE_070_VERSION = 1;
 	static final int RELEASE_080_VERSION = 2;
 	static final int RELEASE_090_VERSION = 3;
-	static final int MERKLE_VERSION = RELEASE_090_VERSION;
+	static final int RELEASE_091_VERSION = 4;
+	static final int MERKLE_VERSION = RELEASE_091_VERSION;
 	static final long RUNTIME_CONSTRUCTABLE_ID = 0x8e300b0dfdafbb1aL;
 
 	static Consumer<MerkleNode> merkleDigest = CryptoFactory.getInstance()::digestTreeSync;
 	static Supplier<AddressBook> legacyTmpBookSupplier = AddressBook::new;
+	static Predicate<Instant> inFreezePeriod = FreezeManager::isInFreezePeriod;
 
 	NodeId nodeId = null;
 	boolean skipDiskFsHashCheck = false;
@@ -97,6 +104,8 @@ public class ServicesState extends AbstractMerkleInternal implements SwirldState
 		static final int TOKEN_ASSOCIATIONS = 6;
 		static final int DISK_FS = 7;
 		static final int NUM_090_CHILDREN = 8;
+		static final int CONTRACT_STORAGE = 8;
+		static final int NUM_091_CHILDREN = 9;
 	}
 
 	ServicesContext ctx;
@@ -105,7 +114,7 @@ public class ServicesState extends AbstractMerkleInternal implements SwirldState
 	}
 
 	public ServicesState(List<MerkleNode> children) {
-		super(ChildIndices.NUM_090_CHILDREN);
+		super(ChildIndices.NUM_091_CHILDREN);
 		addDeserializedChildren(children, MERKLE_VERSION);
 	}
 
@@ -133,10 +142,12 @@ public class ServicesState extends AbstractMerkleInternal implements SwirldState
 	public int getMinimumChildCount(int version) {
 		if (version == RELEASE_070_VERSION) {
 			return ChildIndices.NUM_070_CHILDREN;
+		} else if (version == RELEASE_080_VERSION) {
+			return ChildIndices.NUM_080_CHILDREN;
 		} else {
-			return (version == RELEASE_080_VERSION)
-					? ChildIndices.NUM_080_CHILDREN
-					: ChildIndices.NUM_090_CHILDREN;
+			return (version == RELEASE_090_VERSION)
+					? ChildIndices.NUM_090_CHILDREN
+					: ChildIndices.NUM_091_CHILDREN;
 		}
 	}
 
@@ -157,6 +168,11 @@ public class ServicesState extends AbstractMerkleInternal implements SwirldState
 			log.info("Created disk file system after <=0.9.0 state restoration");
 			skipDiskFsHashCheck = true;
 		}
+		if (contractStorage() == null) {
+			setChild(ChildIndices.CONTRACT_STORAGE,
+					new FCMap<>(MerkleContractSlotId.LEGACY_PROVIDER, MerkleContractSlot.LEGACY_PROVIDER));
+			log.info("Created contract storage FCMap after <=0.9.0 state restoration");
+		}
 	}
 
 	@Override
@@ -181,7 +197,7 @@ public class ServicesState extends AbstractMerkleInternal implements SwirldState
 		} catch (ContextNotFoundException ignoreToInstantiateNewContext) {
 			ctx = new ServicesContext(nodeId, platform, this, properties);
 		}
-		if (getNumberOfChildren() < ChildIndices.NUM_090_CHILDREN) {
+		if (getNumberOfChildren() < ChildIndices.NUM_091_CHILDREN) {
 			log.info("Init called on Services node {} WITHOUT Merkle saved state", nodeId);
 			long seqStart = bootstrapProps.getLongProperty("hedera.numReservedSystemEntities") + 1;
 			setChild(ChildIndices.NETWORK_CTX,
@@ -198,6 +214,8 @@ public class ServicesState extends AbstractMerkleInternal implements SwirldState
 					new FCMap<>(MerkleEntityAssociation.LEGACY_PROVIDER, MerkleTokenRelStatus.LEGACY_PROVIDER));
 			setChild(ChildIndices.DISK_FS,
 					new MerkleDiskFs(diskFsBaseDirPath, asLiteralString(ctx.nodeAccount())));
+			setChild(ChildIndices.CONTRACT_STORAGE,
+					new FCMap<>(MerkleContractSlotId.LEGACY_PROVIDER, MerkleContractSlot.LEGACY_PROVIDER));
 		} else {
 			log.info("Init called on Services node {} WITH Merkle saved state", nodeId);
 
@@ -245,7 +263,10 @@ public class ServicesState extends AbstractMerkleInternal implements SwirldState
 	public void expandSignatures(Transaction platformTxn) {
 		try {
 			var accessor = new PlatformTxnAccessor(platformTxn);
+			accessor.getFunction();
+			accessor.getHash();
 			expandIn(accessor, ctx.lookupRetryingKeyOrder(), DEFAULT_SIG_BYTES);
+			ctx.accessorCache().put(accessor);
 		} catch (InvalidProtocolBufferException e) {
 			log.warn("expandSignatures called with non-gRPC txn!", e);
 		} catch (Exception race) {
@@ -260,8 +281,15 @@ public class ServicesState extends AbstractMerkleInternal implements SwirldState
 	/* --- FastCopyable --- */
 	@Override
 	public synchronized ServicesState copy() {
+		var lastHandledTime = networkCtx().consensusTimeOfLastHandledTxn();
+		if (isPayerExpiryIndexDue(lastHandledTime)) {
+			networkCtx().setPayerExpiries(ctx.expiries().pendingPayerExpiries());
+			networkCtx().setLastPayerExpiriesSnapshotSecs(lastHandledTime.getEpochSecond());
+		}
+		networkCtx().setThrottleUsages(ctx.consensusThrottling().usageSnapshot());
+		ctx.accessorCache().roundDone();
 		setImmutable(true);
-		return new ServicesState(ctx, nodeId, List.of(
+		var copy = new ServicesState(ctx, nodeId, List.of(
 				addressBook().copy(),
 				networkCtx().copy(),
 				topics().copy(),
@@ -269,7 +297,33 @@ public class ServicesState extends AbstractMerkleInternal implements SwirldState
 				accounts().copy(),
 				tokens().copy(),
 				tokenAssociations().copy(),
-				diskFs().copy()));
+				diskFs().copy(),
+				contractStorage().copy()));
+		return copy;
+	}
+
+	/**
+	 * Decides if this state should carry the payer expiry index when it becomes immutable. Since
+	 * the index only speeds up a restart, it is taken only when the handled consensus time crosses
+	 * an index period boundary, or enters a freeze period---that is, for the states the platform
+	 * is going to save, given a save period that is a multiple of the index period. A saved state
+	 * without the index is still valid, and just rebuilds the index with a full scan on restart.
+	 *
+	 * The boundary is found from the time of the last snapshot recorded in the network context,
+	 * never from node-local memory; so a node that just restarted from a saved state decides
+	 * exactly as its peers do, and their states hash the same.
+	 */
+	private boolean isPayerExpiryIndexDue(Instant lastHandledTime) {
+		if (lastHandledTime == null) {
+			return false;
+		}
+		long lastSnapshotSecs = networkCtx().lastPayerExpiriesSnapshotSecs();
+		if (lastSnapshotSecs == NO_PAYER_EXPIRIES_SNAPSHOT) {
+			return true;
+		}
+		long period = ctx.globalDynamicProperties().payerExpiryIndexPeriodSecs();
+		return lastHandledTime.getEpochSecond() / period > lastSnapshotSecs / period
+				|| inFreezePeriod.test(lastHandledTime);
 	}
 
 	@Override
@@ -319,6 +373,7 @@ public class ServicesState extends AbstractMerkleInternal implements SwirldState
 						"  Tokens            :: %s\n" +
 						"  TokenAssociations :: %s\n" +
 						"  DiskFs            :: %s\n" +
+						"  ContractStorage   :: %s\n" +
 						"  NetworkContext    :: %s\n" +
 						"  AddressBook       :: %s",
 				getHash(),
@@ -328,6 +383,7 @@ public class ServicesState extends AbstractMerkleInternal implements SwirldState
 				tokens().getHash(),
 				tokenAssociations().getHash(),
 				diskFs().getHash(),
+				contractStorage().getHash(),
 				networkCtx().getHash(),
 				addressBook().getHash()));
 	}
@@ -363,4 +419,8 @@ public class ServicesState extends AbstractMerkleInternal implements SwirldState
 	public MerkleDiskFs diskFs() {
 		return getChild((ChildIndices.DISK_FS));
 	}
+
+	public FCMap<MerkleContractSlotId, MerkleContractSlot> contractStorage() {
+		return getChild(ChildIndices.CONTRACT_STORAGE);
+	}
 }
@@ -53,6 +53,7 @@ import com.hedera.services.fees.calculation.token.txns.TokenWipeResourceUsage;
 import com.hedera.services.files.EntityExpiryMapFactory;
 import com.hedera.services.queries.contract.GetContractRecordsAnswer;
 import com.hedera.services.state.merkle.MerkleDiskFs;
+import com.hedera.services.state.merkle.MerkleNetworkContext;
 import com.hedera.services.grpc.controllers.TokenController;
 import com.hedera.services.keys.LegacyEd25519KeyReader;
 import com.hedera.services.ledger.accounts.BackingStore;
@@ -70,6 +71,7 @@ import com.hedera.services.security.ops.SystemOpPolicies;
 import com.hedera.services.sigs.metadata.DelegatingSigMetadataLookup;
 import com.hedera.services.state.expiry.ExpiringCreations;
 import com.hedera.services.state.expiry.ExpiryManager;
+import com.hedera.services.state.exports.AsyncBalancesExporter;
 import com.hedera.services.state.exports.SignedStateBalancesExporter;
 import com.hedera.services.state.initialization.BackedSystemAccountsCreator;
 import com.hedera.services.state.merkle.MerkleEntityAssociation;
@@ -78,10 +80,12 @@ import com.hedera.services.state.merkle.MerkleTokenRelStatus;
 import com.hedera.services.state.merkle.MerkleTopic;
 import com.hedera.services.context.primitives.StateView;
 import com.hedera.services.context.properties.StandardizedPropertySources;
+import com.hedera.services.contracts.execution.CachingCommonConfig;
+import com.hedera.services.contracts.execution.SignedStateSnapshots;
 import com.hedera.services.contracts.execution.SolidityLifecycle;
 import com.hedera.services.contracts.execution.SoliditySigsVerifier;
 import com.hedera.services.contracts.execution.TxnAwareSoliditySigsVerifier;
-import com.hedera.services.contracts.persistence.BlobStoragePersistence;
+import com.hedera.services.contracts.persistence.SlotStoragePersistence;
 import com.hedera.services.fees.FeeCalculator;
 import com.hedera.services.fees.FeeExemptions;
 import com.hedera.services.fees.HbarCentExchange;
@@ -127,6 +131,7 @@ import com.hedera.services.files.interceptors.TxnAwareRatesManager;
 import com.hedera.services.files.interceptors.ValidatingCallbackInterceptor;
 import com.hedera.services.files.store.FcBlobsBytesStore;
 import com.hedera.services.grpc.GrpcServerManager;
+import com.hedera.services.grpc.HeavyQueryInterceptor;
 import com.hedera.services.grpc.NettyGrpcServerManager;
 import com.hedera.services.grpc.controllers.ConsensusController;
 import com.hedera.services.grpc.controllers.CryptoController;
@@ -139,6 +144,7 @@ import com.hedera.services.ledger.ids.SeqNoEntityIdSource;
 import com.hedera.services.ledger.properties.ChangeSummaryManager;
 import com.hedera.services.ledger.HederaLedger;
 import com.hedera.services.ledger.properties.AccountProperty;
+import com.hedera.services.ledger.TransactionalAccountsLedger;
 import com.hedera.services.ledger.TransactionalLedger;
 import com.hedera.services.queries.answering.StakedAnswerFlow;
 import com.hedera.services.queries.consensus.GetTopicInfoAnswer;
@@ -155,18 +161,19 @@ import com.hedera.services.state.validation.BasedLedgerValidator;
 import com.hedera.services.stats.CounterFactory;
 import com.hedera.services.stats.HapiOpCounters;
 import com.hedera.services.stats.HapiOpSpeedometers;
+import com.hedera.services.stats.IngestStageLatencies;
 import com.hedera.services.stats.MiscRunningAvgs;
 import com.hedera.services.stats.MiscSpeedometers;
 import com.hedera.services.stats.RunningAvgFactory;
 import com.hedera.services.stats.ServicesStatsManager;
 import com.hedera.services.stats.SpeedometerFactory;
 import com.hedera.services.throttling.BucketThrottling;
+import com.hedera.services.throttling.ConsensusThrottling;
 import com.hedera.services.throttling.ThrottlingPropsBuilder;
 import com.hedera.services.throttling.TransactionThrottling;
 
 import static com.hedera.services.context.ServicesNodeType.STAKED_NODE;
 import static com.hedera.services.context.ServicesNodeType.ZERO_STAKE_NODE;
-import static com.hedera.services.ledger.HederaLedger.ACCOUNT_ID_COMPARATOR;
 import static com.hedera.services.ledger.accounts.BackingTokenRels.RELATIONSHIP_COMPARATOR;
 import static com.hedera.services.security.ops.SystemOpAuthorization.AUTHORIZED;
 import static com.hedera.services.sigs.metadata.DelegatingSigMetadataLookup.backedLookupsFor;
@@ -233,22 +240,22 @@ import com.hedera.services.records.RecordCache;
 import com.hedera.services.records.RecordCacheFactory;
 import com.hedera.services.sigs.order.HederaSigningOrder;
 import com.hedera.services.sigs.sourcing.DefaultSigBytesProvider;
+import com.hedera.services.sigs.verification.BatchingSyncVerifier;
 import com.hedera.services.sigs.verification.PrecheckKeyReqs;
 import com.hedera.services.sigs.verification.PrecheckVerifier;
 import com.hedera.services.sigs.verification.SyncVerifier;
-import com.hedera.services.state.exports.BalancesExporter;
 import com.hedera.services.state.initialization.SystemAccountsCreator;
 import com.hedera.services.state.validation.LedgerValidator;
 import com.hedera.services.state.exports.AccountsExporter;
 
 import static com.hedera.services.contracts.sources.AddressKeyedMapFactory.bytecodeMapFrom;
-import static com.hedera.services.contracts.sources.AddressKeyedMapFactory.storageMapFrom;
 import static com.hedera.services.ledger.ids.ExceptionalEntityIdSource.NOOP_ID_SOURCE;
 import static com.hedera.services.records.NoopRecordsHistorian.NOOP_RECORDS_HISTORIAN;
 import static com.hedera.services.tokens.ExceptionalTokenStore.NOOP_TOKEN_STORE;
 import static com.hedera.services.utils.EntityIdUtils.accountParsedFromString;
 import static com.hedera.services.utils.MiscUtils.lookupInCustomStore;
 
+import com.hedera.services.utils.JvmSystemExits;
 import com.hedera.services.utils.MiscUtils;
 import com.hedera.services.utils.Pause;
 import com.hederahashgraph.api.proto.java.HederaFunctionality;
@@ -268,6 +275,7 @@ import com.hedera.services.legacy.handler.TransactionHandler;
 import com.hedera.services.legacy.netty.NettyServerManager;
 import com.hedera.services.contracts.sources.LedgerAccountsSource;
 import com.hedera.services.contracts.sources.BlobStorageSource;
+import com.hedera.services.contracts.sources.BytecodeCache;
 import com.hedera.services.legacy.service.FreezeServiceImpl;
 import com.hedera.services.legacy.service.SmartContractServiceImpl;
 import com.hedera.services.state.submerkle.ExchangeRates;
@@ -277,10 +285,13 @@ import com.hedera.services.state.migration.StdStateMigrations;
 import com.hedera.services.legacy.services.state.AwareProcessLogic;
 import com.hedera.services.state.migration.StateMigrations;
 import com.hedera.services.utils.SleepingPause;
+import com.hedera.services.utils.TxnAccessorCache;
 import com.hederahashgraph.api.proto.java.AccountID;
 import com.hedera.services.state.merkle.MerkleEntityId;
 import com.hedera.services.state.merkle.MerkleAccount;
 import com.hedera.services.state.merkle.MerkleBlobMeta;
+import com.hedera.services.state.merkle.MerkleContractSlot;
+import com.hedera.services.state.merkle.MerkleContractSlotId;
 import com.hedera.services.state.merkle.MerkleOptionalBlob;
 import com.hedera.services.legacy.services.utils.DefaultAccountsExporter;
 import com.hedera.services.legacy.stream.RecordStream;
@@ -290,6 +301,7 @@ import com.swirlds.common.Console;
 import com.swirlds.common.NodeId;
 import com.swirlds.common.Platform;
 import com.swirlds.fcmap.FCMap;
+import org.ethereum.config.CommonConfig;
 import org.ethereum.core.AccountState;
 import org.ethereum.datasource.Source;
 import org.ethereum.datasource.StoragePersistence;
@@ -350,6 +362,7 @@ public class ServicesContext {
 	private TokenAnswers tokenAnswers;
 	private HederaLedger ledger;
 	private SyncVerifier syncVerifier;
+	private SyncVerifier precheckSyncVerifier;
 	private IssEventInfo issEventInfo;
 	private ProcessLogic logic;
 	private RecordStream recordStream;
@@ -378,11 +391,12 @@ public class ServicesContext {
 	private SystemOpPolicies systemOpPolicies;
 	private CryptoController cryptoGrpc;
 	private BucketThrottling bucketThrottling;
+	private ConsensusThrottling consensusThrottling;
 	private HbarCentExchange exchange;
 	private SemanticVersions semVers;
 	private PrecheckVerifier precheckVerifier;
 	private BackingTokenRels backingTokenRels;
-	private BalancesExporter balancesExporter;
+	private AsyncBalancesExporter balancesExporter;
 	private SolidityLifecycle solidityLifecycle;
 	private ExpiringCreations creator;
 	private NetworkController networkGrpc;
@@ -391,6 +405,8 @@ public class ServicesContext {
 	private TxnResponseHelper txnResponseHelper;
 	private TransactionContext txnCtx;
 	private BlobStorageSource bytecodeDb;
+	private BytecodeCache bytecodeCache;
+	private CommonConfig evmConfig;
 	private TransactionHandler txns;
 	private HederaSigningOrder keyOrder;
 	private HederaSigningOrder backedKeyOrder;
@@ -404,9 +420,12 @@ public class ServicesContext {
 	private Map<String, byte[]> blobStore;
 	private Map<EntityId, Long> entityExpiries;
 	private NodeLocalProperties nodeLocalProperties;
+	private TxnAccessorCache accessorCache;
 	private TxnFeeChargingPolicy txnChargingPolicy;
 	private TxnAwareRatesManager exchangeRatesManager;
 	private ServicesStatsManager statsManager;
+	private IngestStageLatencies ingestLatencies;
+	private HeavyQueryInterceptor heavyQueryInterceptor;
 	private LedgerAccountsSource accountSource;
 	private FCMapBackingAccounts backingAccounts;
 	private TransitionLogicLookup transitionLogic;
@@ -426,12 +445,14 @@ public class ServicesContext {
 	private ValidatingCallbackInterceptor apiPermissionsReloading;
 	private ValidatingCallbackInterceptor applicationPropertiesReloading;
 	private Supplier<ServicesRepositoryRoot> newPureRepo;
+	private SignedStateSnapshots signedStateSnapshots;
 	private Map<TransactionID, TxnIdRecentHistory> txnHistories;
 	private AtomicReference<FCMap<MerkleEntityId, MerkleTopic>> queryableTopics;
 	private AtomicReference<FCMap<MerkleEntityId, MerkleToken>> queryableTokens;
 	private AtomicReference<FCMap<MerkleEntityId, MerkleAccount>> queryableAccounts;
 	private AtomicReference<FCMap<MerkleBlobMeta, MerkleOptionalBlob>> queryableStorage;
 	private AtomicReference<FCMap<MerkleEntityAssociation, MerkleTokenRelStatus>> queryableTokenAssociations;
+	private AtomicReference<FCMap<MerkleContractSlotId, MerkleContractSlot>> queryableContractStorage;
 
 	/* Context-free infrastructure. */
 	private static Pause pause;
@@ -466,6 +487,7 @@ public class ServicesContext {
 		queryableStorage().set(storage());
 		queryableTokens().set(tokens());
 		queryableTokenAssociations().set(tokenAssociations());
+		queryableContractStorage().set(contractStorage());
 	}
 
 	public HapiOpCounters opCounters() {
@@ -496,6 +518,13 @@ public class ServicesContext {
 		return semVers;
 	}
 
+	public IngestStageLatencies ingestLatencies() {
+		if (ingestLatencies == null) {
+			ingestLatencies = new IngestStageLatencies(new CounterFactory() {});
+		}
+		return ingestLatencies;
+	}
+
 	public ServicesStatsManager statsManager() {
 		if (statsManager == null) {
 			var opSpeedometers = new HapiOpSpeedometers(
@@ -508,6 +537,9 @@ public class ServicesContext {
 					runningAvgs(),
 					speedometers(),
 					opSpeedometers,
+					ingestLatencies(),
+					heavyQueryInterceptor(),
+					balancesExporter(),
 					nodeLocalProperties());
 		}
 		return statsManager;
@@ -549,6 +581,7 @@ public class ServicesContext {
 					() -> queryableAccounts().get(),
 					() -> queryableStorage().get(),
 					() -> queryableTokenAssociations().get(),
+					() -> queryableContractStorage().get(),
 					this::diskFs,
 					properties());
 		}
@@ -563,6 +596,7 @@ public class ServicesContext {
 					this::accounts,
 					this::storage,
 					this::tokenAssociations,
+					this::contractStorage,
 					this::diskFs,
 					properties());
 		}
@@ -599,7 +633,7 @@ public class ServicesContext {
 
 	public TransactionThrottling txnThrottling() {
 		if (txnThrottling == null) {
-			txnThrottling = new TransactionThrottling(bucketThrottling());
+			txnThrottling = new TransactionThrottling(bucketThrottling(), globalDynamicProperties()::maxGas);
 		}
 		return txnThrottling;
 	}
@@ -615,6 +649,17 @@ public class ServicesContext {
 		return bucketThrottling;
 	}
 
+	public ConsensusThrottling consensusThrottling() {
+		if (consensusThrottling == null) {
+			consensusThrottling = new ConsensusThrottling(
+					this::addressBook,
+					properties(),
+					props -> bucketsIn(props).stream().collect(toMap(Function.identity(), b -> namedIn(props, b))),
+					ThrottlingPropsBuilder::withPrioritySource);
+		}
+		return consensusThrottling;
+	}
+
 	public ItemizableFeeCharging charging() {
 		if (itemizableFeeCharging == null) {
 			itemizableFeeCharging = new ItemizableFeeCharging(
@@ -631,7 +676,8 @@ public class ServicesContext {
 					nodeType(),
 					txns(),
 					transitionLogic(),
-					submissionManager());
+					submissionManager(),
+					ingestLatencies());
 		}
 		return submissionFlow;
 	}
@@ -881,7 +927,7 @@ public class ServicesContext {
 
 	public StoragePersistence storagePersistence() {
 		if (storagePersistence == null) {
-			storagePersistence = new BlobStoragePersistence(storageMapFrom(blobStore()));
+			storagePersistence = new SlotStoragePersistence(this::contractStorage);
 		}
 		return storagePersistence;
 	}
@@ -893,11 +939,27 @@ public class ServicesContext {
 		return syncVerifier;
 	}
 
+	public SyncVerifier precheckSyncVerifier() {
+		if (precheckSyncVerifier == null) {
+			var properties = nodeLocalProperties();
+			if (properties.precheckSigVerifyMaxBatchSize() > 1) {
+				precheckSyncVerifier = new BatchingSyncVerifier(
+						syncVerifier(),
+						properties.precheckSigVerifyMaxBatchSize(),
+						properties.precheckSigVerifyMaxLingerMicros(),
+						properties.precheckSigVerifyThreads());
+			} else {
+				precheckSyncVerifier = syncVerifier();
+			}
+		}
+		return precheckSyncVerifier;
+	}
+
 	public PrecheckVerifier precheckVerifier() {
 		if (precheckVerifier == null) {
 			Predicate<TransactionBody> isQueryPayment = queryPaymentTestFor(nodeAccount());
 			PrecheckKeyReqs reqs = new PrecheckKeyReqs(keyOrder(), lookupRetryingKeyOrder(), isQueryPayment);
-			precheckVerifier = new PrecheckVerifier(syncVerifier(), reqs, DefaultSigBytesProvider.DEFAULT_SIG_BYTES);
+			precheckVerifier = new PrecheckVerifier(precheckSyncVerifier(), reqs, DefaultSigBytesProvider.DEFAULT_SIG_BYTES);
 		}
 		return precheckVerifier;
 	}
@@ -906,12 +968,16 @@ public class ServicesContext {
 		return Optional.ofNullable(console()).map(c -> c.out).orElse(null);
 	}
 
-	public BalancesExporter balancesExporter() {
+	public AsyncBalancesExporter balancesExporter() {
 		if (balancesExporter == null) {
-			balancesExporter = new SignedStateBalancesExporter(
+			var signedStateExporter = new SignedStateBalancesExporter(
 					properties(),
 					platform()::sign,
 					globalDynamicProperties());
+			balancesExporter = new AsyncBalancesExporter(
+					signedStateExporter,
+					new JvmSystemExits(),
+					nodeLocalProperties());
 		}
 		return balancesExporter;
 	}
@@ -1105,6 +1171,7 @@ public class ServicesContext {
 					recordCache(),
 					txnCtx(),
 					this::accounts,
+					this::networkCtx,
 					expiries());
 		}
 		return recordsHistorian;
@@ -1145,6 +1212,15 @@ public class ServicesContext {
 		return nodeLocalProperties;
 	}
 
+	/* Synchronized since the cache is first used from either the signature expansion
+	threads or the handle thread, whichever gets there first. */
+	public synchronized TxnAccessorCache accessorCache() {
+		if (accessorCache == null) {
+			accessorCache = new TxnAccessorCache(nodeLocalProperties().txnAccessorCacheRoundsToKeep());
+		}
+		return accessorCache;
+	}
+
 	public GlobalDynamicProperties globalDynamicProperties() {
 		if (globalDynamicProperties == null) {
 			globalDynamicProperties = new GlobalDynamicProperties(hederaNums(), properties());
@@ -1175,12 +1251,7 @@ public class ServicesContext {
 	public HederaLedger ledger() {
 		if (ledger == null) {
 			TransactionalLedger<AccountID, AccountProperty, MerkleAccount> accountsLedger =
-					new TransactionalLedger<>(
-							AccountProperty.class,
-							MerkleAccount::new,
-							backingAccounts(),
-							new ChangeSummaryManager<>());
-			accountsLedger.setKeyComparator(ACCOUNT_ID_COMPARATOR);
+					new TransactionalAccountsLedger(backingAccounts(), new ChangeSummaryManager<>());
 			ledger = new HederaLedger(
 					tokenStore(),
 					ids(),
@@ -1194,7 +1265,7 @@ public class ServicesContext {
 	public ExpiryManager expiries() {
 		if (expiries == null) {
 			var histories = txnHistories();
-			expiries = new ExpiryManager(recordCache(), histories);
+			expiries = new ExpiryManager(recordCache(), histories, globalDynamicProperties());
 		}
 		return expiries;
 	}
@@ -1358,6 +1429,13 @@ public class ServicesContext {
 		return consensusGrpc;
 	}
 
+	public HeavyQueryInterceptor heavyQueryInterceptor() {
+		if (heavyQueryInterceptor == null) {
+			heavyQueryInterceptor = new HeavyQueryInterceptor(nodeLocalProperties());
+		}
+		return heavyQueryInterceptor;
+	}
+
 	public GrpcServerManager grpc() {
 		if (grpc == null) {
 			grpc = new NettyGrpcServerManager(
@@ -1371,7 +1449,8 @@ public class ServicesContext {
 							consensusGrpc(),
 							networkGrpc(),
 							tokenGrpc()),
-					Collections.emptyList());
+					Collections.emptyList(),
+					List.of(heavyQueryInterceptor()));
 		}
 		return grpc;
 	}
@@ -1389,7 +1468,9 @@ public class ServicesContext {
 					solidityLifecycle(),
 					soliditySigsVerifier(),
 					entityExpiries(),
-					globalDynamicProperties());
+					globalDynamicProperties(),
+					evmConfig(),
+					signedStateSnapshots());
 		}
 		return contracts;
 	}
@@ -1437,13 +1518,15 @@ public class ServicesContext {
 			between the initializing threads. */
 			var throttles = bucketThrottling();
 			PropertiesLoader.registerUpdateCallback(throttles::rebuild);
+			var consensusThrottles = consensusThrottling();
+			PropertiesLoader.registerUpdateCallback(consensusThrottles::rebuild);
 		}
 		return systemFilesManager;
 	}
 
 	public ServicesRepositoryRoot repository() {
 		if (repository == null) {
-			repository = new ServicesRepositoryRoot(accountSource(), bytecodeDb());
+			repository = new ServicesRepositoryRoot(accountSource(), bytecodeCache());
 			repository.setStoragePersistence(storagePersistence());
 		}
 		return repository;
@@ -1451,22 +1534,9 @@ public class ServicesContext {
 
 	public Supplier<ServicesRepositoryRoot> newPureRepo() {
 		if (newPureRepo == null) {
-			TransactionalLedger<AccountID, AccountProperty, MerkleAccount> pureDelegate = new TransactionalLedger<>(
-					AccountProperty.class,
-					MerkleAccount::new,
-					new PureFCMapBackingAccounts(this::accounts),
-					new ChangeSummaryManager<>());
-			HederaLedger pureLedger = new HederaLedger(
-					NOOP_TOKEN_STORE,
-					NOOP_ID_SOURCE,
-					NOOP_EXPIRING_CREATIONS,
-					NOOP_RECORDS_HISTORIAN,
-					pureDelegate);
-			Source<byte[], AccountState> pureAccountSource = new LedgerAccountsSource(
-					pureLedger,
-					globalDynamicProperties());
+			Source<byte[], AccountState> pureAccountSource = pureAccountSource(this::accounts);
 			newPureRepo = () -> {
-				var pureRepository = new ServicesRepositoryRoot(pureAccountSource, bytecodeDb());
+				var pureRepository = new ServicesRepositoryRoot(pureAccountSource, bytecodeCache());
 				pureRepository.setStoragePersistence(storagePersistence());
 				return pureRepository;
 			};
@@ -1474,6 +1544,30 @@ public class ServicesContext {
 		return newPureRepo;
 	}
 
+	public SignedStateSnapshots signedStateSnapshots() {
+		if (signedStateSnapshots == null) {
+			signedStateSnapshots = new SignedStateSnapshots(bytecodeCache(), this::pureAccountSource);
+		}
+		return signedStateSnapshots;
+	}
+
+	private Source<byte[], AccountState> pureAccountSource(
+			Supplier<FCMap<MerkleEntityId, MerkleAccount>> accounts
+	) {
+		TransactionalLedger<AccountID, AccountProperty, MerkleAccount> pureDelegate = new TransactionalLedger<>(
+				AccountProperty.class,
+				MerkleAccount::new,
+				new PureFCMapBackingAccounts(accounts),
+				new ChangeSummaryManager<>());
+		HederaLedger pureLedger = new HederaLedger(
+				NOOP_TOKEN_STORE,
+				NOOP_ID_SOURCE,
+				NOOP_EXPIRING_CREATIONS,
+				NOOP_RECORDS_HISTORIAN,
+				pureDelegate);
+		return new LedgerAccountsSource(pureLedger, globalDynamicProperties());
+	}
+
 	public ConsensusStatusCounts statusCounts() {
 		if (statusCounts == null) {
 			statusCounts = new ConsensusStatusCounts(new ObjectMapper());
@@ -1495,6 +1589,23 @@ public class ServicesContext {
 		return bytecodeDb;
 	}
 
+	public BytecodeCache bytecodeCache() {
+		if (bytecodeCache == null) {
+			bytecodeCache = new BytecodeCache(
+					bytecodeDb(),
+					nodeLocalProperties().bytecodeCacheMaxBytes(),
+					runningAvgs());
+		}
+		return bytecodeCache;
+	}
+
+	public CommonConfig evmConfig() {
+		if (evmConfig == null) {
+			evmConfig = new CachingCommonConfig(bytecodeCache());
+		}
+		return evmConfig;
+	}
+
 	public TransactionHandler txns() {
 		if (txns == null) {
 			txns = new TransactionHandler(
@@ -1550,6 +1661,13 @@ public class ServicesContext {
 		return queryableStorage;
 	}
 
+	public AtomicReference<FCMap<MerkleContractSlotId, MerkleContractSlot>> queryableContractStorage() {
+		if (queryableContractStorage == null) {
+			queryableContractStorage = new AtomicReference<>(contractStorage());
+		}
+		return queryableContractStorage;
+	}
+
 	public AtomicReference<FCMap<MerkleEntityId, MerkleAccount>> queryableAccounts() {
 		if (queryableAccounts == null) {
 			queryableAccounts = new AtomicReference<>(accounts());
@@ -1633,6 +1751,10 @@ public class ServicesContext {
 		return propertySources;
 	}
 
+	public MerkleNetworkContext networkCtx() {
+		return state.networkCtx();
+	}
+
 	public Instant consensusTimeOfLastHandledTxn() {
 		return state.networkCtx().consensusTimeOfLastHandledTxn();
 	}
@@ -1676,4 +1798,8 @@ public class ServicesContext {
 	public MerkleDiskFs diskFs() {
 		return state.diskFs();
 	}
+
+	public FCMap<MerkleContractSlotId, MerkleContractSlot> contractStorage() {
+		return state.contractStorage();
+	}
 }
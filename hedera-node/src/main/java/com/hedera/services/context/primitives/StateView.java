@@ -21,8 +21,11 @@ package com.hedera.services.context.primitives;
  */
 
 import com.hedera.services.context.properties.PropertySource;
+import com.hedera.services.contracts.persistence.SlotStoragePersistence;
 import com.hedera.services.contracts.sources.AddressKeyedMapFactory;
 import com.hedera.services.queries.crypto.GetAccountRecordsAnswer;
+import com.hedera.services.state.merkle.MerkleContractSlot;
+import com.hedera.services.state.merkle.MerkleContractSlotId;
 import com.hedera.services.state.merkle.MerkleDiskFs;
 import com.hedera.services.state.merkle.MerkleEntityAssociation;
 import com.hedera.services.state.merkle.MerkleToken;
@@ -55,6 +58,7 @@ import com.hederahashgraph.api.proto.java.TokenRelationship;
 import com.swirlds.fcmap.FCMap;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.ethereum.datasource.StoragePersistence;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -105,12 +109,17 @@ public class StateView {
 	public static final Supplier<FCMap<MerkleEntityAssociation, MerkleTokenRelStatus>> EMPTY_TOKEN_ASSOCS_SUPPLIER =
 			() -> EMPTY_TOKEN_ASSOCIATIONS;
 
+	public static final FCMap<MerkleContractSlotId, MerkleContractSlot> EMPTY_CONTRACT_STORAGE =
+			new FCMap<>(MerkleContractSlotId.LEGACY_PROVIDER, MerkleContractSlot.LEGACY_PROVIDER);
+	public static final Supplier<FCMap<MerkleContractSlotId, MerkleContractSlot>> EMPTY_CONTRACT_STORAGE_SUPPLIER =
+			() -> EMPTY_CONTRACT_STORAGE;
+
 	public static final StateView EMPTY_VIEW = new StateView(
 			EMPTY_TOPICS_SUPPLIER,
 			EMPTY_ACCOUNTS_SUPPLIER,
 			null, null);
 
-	Map<byte[], byte[]> contractStorage;
+	StoragePersistence contractStorage;
 	Map<byte[], byte[]> contractBytecode;
 	Map<FileID, byte[]> fileContents;
 	Map<FileID, JFileInfo> fileAttrs;
@@ -149,6 +158,19 @@ public class StateView {
 			Supplier<FCMap<MerkleEntityAssociation, MerkleTokenRelStatus>> tokenAssociations,
 			Supplier<MerkleDiskFs> diskFs,
 			PropertySource properties
+	) {
+		this(tokenStore, topics, accounts, storage, tokenAssociations, EMPTY_CONTRACT_STORAGE_SUPPLIER, diskFs, properties);
+	}
+
+	public StateView(
+			TokenStore tokenStore,
+			Supplier<FCMap<MerkleEntityId, MerkleTopic>> topics,
+			Supplier<FCMap<MerkleEntityId, MerkleAccount>> accounts,
+			Supplier<FCMap<MerkleBlobMeta, MerkleOptionalBlob>> storage,
+			Supplier<FCMap<MerkleEntityAssociation, MerkleTokenRelStatus>> tokenAssociations,
+			Supplier<FCMap<MerkleContractSlotId, MerkleContractSlot>> contractStorage,
+			Supplier<MerkleDiskFs> diskFs,
+			PropertySource properties
 	) {
 		this.topics = topics;
 		this.accounts = accounts;
@@ -159,7 +181,7 @@ public class StateView {
 
 		fileContents = DataMapFactory.dataMapFrom(blobStore);
 		fileAttrs = MetadataMapFactory.metaMapFrom(blobStore);
-		contractStorage = AddressKeyedMapFactory.storageMapFrom(blobStore);
+		this.contractStorage = new SlotStoragePersistence(contractStorage);
 		contractBytecode = AddressKeyedMapFactory.bytecodeMapFrom(blobStore);
 		this.properties = properties;
 		this.diskFs = diskFs;
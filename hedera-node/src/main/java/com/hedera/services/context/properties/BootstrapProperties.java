@@ -188,16 +188,22 @@ public class BootstrapProperties implements PropertySource {
 	);
 
 	static final Set<String> GLOBAL_DYNAMIC_PROPS = Set.of(
+			"balances.compressBinary",
+			"balances.exportBinary",
 			"balances.exportDir.path",
 			"balances.exportEnabled",
+			"balances.exportParallelism",
 			"balances.exportPeriodSecs",
 			"balances.exportTokenBalances",
 			"balances.nodeBalanceWarningThreshold",
 			"cache.records.ttl",
 			"contracts.defaultLifetime",
+			"contracts.localCall.maxGas",
+			"contracts.localCall.timeoutMs",
 			"contracts.maxGas",
 			"contracts.maxStorageKb",
 			"files.maxSizeKb",
+			"hedera.recordStream.reuseTxnBytes",
 			"hedera.transaction.maxMemoUtf8Bytes",
 			"hedera.transaction.maxValidDuration",
 			"hedera.transaction.minValidDuration",
@@ -205,6 +211,8 @@ public class BootstrapProperties implements PropertySource {
 			"ledger.keepRecordsInState",
 			"ledger.fundingAccount",
 			"ledger.maxAccountNum",
+			"ledger.records.maxPurgesPerTxn",
+			"ledger.records.expiryIndexPeriodSecs",
 			"ledger.transfers.maxLen",
 			"ledger.tokenTransfers.maxLen",
 			"rates.intradayChangeLimitPercent",
@@ -214,11 +222,18 @@ public class BootstrapProperties implements PropertySource {
 	);
 
 	static final Set<String> NODE_PROPS = Set.of(
+			"contracts.bytecodeCache.maxBytes",
+			"grpc.heavyQueries.queueCapacityPerService",
+			"grpc.heavyQueries.threadsPerService",
 			"grpc.port",
 			"grpc.tlsPort",
 			"hedera.profiles.active",
+			"hedera.txnAccessorCache.roundsToKeep",
 			"precheck.account.maxLookupRetries",
 			"precheck.account.lookupRetryBackoffIncrementMs",
+			"precheck.sigVerify.maxBatchSize",
+			"precheck.sigVerify.maxLingerMicros",
+			"precheck.sigVerify.threads",
 			"stats.hapiOps.speedometerUpdateIntervalMs",
 			"stats.runningAvgHalfLifeSecs",
 			"stats.speedometerHalfLifeSecs"
@@ -244,7 +259,10 @@ public class BootstrapProperties implements PropertySource {
 			entry("accounts.systemAdmin.firstManaged", AS_LONG),
 			entry("accounts.systemAdmin.lastManaged", AS_LONG),
 			entry("accounts.treasury", AS_LONG),
+			entry("balances.compressBinary", AS_BOOLEAN),
+			entry("balances.exportBinary", AS_BOOLEAN),
 			entry("balances.exportEnabled", AS_BOOLEAN),
+			entry("balances.exportParallelism", AS_INT),
 			entry("balances.exportPeriodSecs", AS_INT),
 			entry("balances.nodeBalanceWarningThreshold", AS_LONG),
 			entry("cache.records.ttl", AS_INT),
@@ -256,18 +274,25 @@ public class BootstrapProperties implements PropertySource {
 			entry("files.hapiPermissions", AS_LONG),
 			entry("files.softwareUpdateZip", AS_LONG),
 			entry("files.nodeDetails", AS_LONG),
+			entry("grpc.heavyQueries.queueCapacityPerService", AS_INT),
+			entry("grpc.heavyQueries.threadsPerService", AS_INT),
 			entry("grpc.port", AS_INT),
 			entry("grpc.tlsPort", AS_INT),
 			entry("hedera.numReservedSystemEntities", AS_LONG),
 			entry("hedera.profiles.active", AS_PROFILE),
+			entry("hedera.recordStream.reuseTxnBytes", AS_BOOLEAN),
 			entry("hedera.realm", AS_LONG),
 			entry("hedera.shard", AS_LONG),
 			entry("hedera.transaction.maxMemoUtf8Bytes", AS_INT),
 			entry("hedera.transaction.maxValidDuration", AS_LONG),
 			entry("hedera.transaction.minValidDuration", AS_LONG),
 			entry("hedera.transaction.minValidityBufferSecs", AS_INT),
+			entry("hedera.txnAccessorCache.roundsToKeep", AS_INT),
 			entry("precheck.account.maxLookupRetries", AS_INT),
 			entry("precheck.account.lookupRetryBackoffIncrementMs", AS_INT),
+			entry("precheck.sigVerify.maxBatchSize", AS_INT),
+			entry("precheck.sigVerify.maxLingerMicros", AS_LONG),
+			entry("precheck.sigVerify.threads", AS_INT),
 			entry("bootstrap.ledger.nodeAccounts.initialBalance", AS_LONG),
 			entry("bootstrap.ledger.systemAccounts.initialBalance", AS_LONG),
 			entry("bootstrap.rates.currentHbarEquiv", AS_INT),
@@ -282,15 +307,20 @@ public class BootstrapProperties implements PropertySource {
 			entry("ledger.keepRecordsInState", AS_BOOLEAN),
 			entry("ledger.maxAccountNum", AS_LONG),
 			entry("ledger.numSystemAccounts", AS_INT),
+			entry("ledger.records.maxPurgesPerTxn", AS_INT),
+			entry("ledger.records.expiryIndexPeriodSecs", AS_INT),
 			entry("ledger.transfers.maxLen", AS_INT),
 			entry("ledger.tokenTransfers.maxLen", AS_INT),
 			entry("ledger.totalTinyBarFloat", AS_LONG),
 			entry("tokens.maxPerAccount", AS_INT),
 			entry("tokens.maxSymbolLength", AS_INT),
 			entry("tokens.maxTokenNameLength", AS_INT),
+			entry("contracts.bytecodeCache.maxBytes", AS_INT),
 			entry("contracts.maxStorageKb", AS_INT),
 			entry("contracts.defaultLifetime", AS_LONG),
 			entry("contracts.maxGas", AS_INT),
+			entry("contracts.localCall.maxGas", AS_INT),
+			entry("contracts.localCall.timeoutMs", AS_LONG),
 			entry("rates.intradayChangeLimitPercent", AS_INT),
 			entry("stats.hapiOps.speedometerUpdateIntervalMs", AS_LONG),
 			entry("stats.runningAvgHalfLifeSecs", AS_DOUBLE),
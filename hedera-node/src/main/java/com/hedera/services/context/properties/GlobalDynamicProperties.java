@@ -34,6 +34,9 @@ public class GlobalDynamicProperties {
 	private int cacheRecordsTtl;
 	private int maxContractStorageKb;
 	private int balancesExportPeriodSecs;
+	private int balancesExportParallelism;
+	private int maxRecordPurgesPerTxn;
+	private int payerExpiryIndexPeriodSecs;
 	private int ratesIntradayChangeLimitPercent;
 	private long maxAccountNum;
 	private long nodeBalanceWarningThreshold;
@@ -41,6 +44,9 @@ public class GlobalDynamicProperties {
 	private boolean shouldKeepRecordsInState;
 	private boolean shouldExportBalances;
 	private boolean shouldExportTokenBalances;
+	private boolean shouldExportBinaryBalances;
+	private boolean shouldCompressBinaryBalances;
+	private boolean shouldStreamReceivedTxnBytes;
 	private AccountID fundingAccount;
 	private int maxTransfersLen;
 	private int maxTokenTransfersLen;
@@ -50,6 +56,8 @@ public class GlobalDynamicProperties {
 	private int minValidityBuffer;
 	private int maxGas;
 	private long defaultContractLifetime;
+	private int maxLocalCallGas;
+	private long localCallTimeoutMs;
 
 	public GlobalDynamicProperties(
 			HederaNumbers hederaNums,
@@ -81,6 +89,11 @@ public class GlobalDynamicProperties {
 		nodeBalanceWarningThreshold = properties.getLongProperty("balances.nodeBalanceWarningThreshold");
 		pathToBalancesExportDir = properties.getStringProperty("balances.exportDir.path");
 		shouldExportTokenBalances = properties.getBooleanProperty("balances.exportTokenBalances");
+		shouldExportBinaryBalances = properties.getBooleanProperty("balances.exportBinary");
+		shouldCompressBinaryBalances = properties.getBooleanProperty("balances.compressBinary");
+		balancesExportParallelism = properties.getIntProperty("balances.exportParallelism");
+		maxRecordPurgesPerTxn = Math.max(1, properties.getIntProperty("ledger.records.maxPurgesPerTxn"));
+		payerExpiryIndexPeriodSecs = Math.max(1, properties.getIntProperty("ledger.records.expiryIndexPeriodSecs"));
 		maxTransfersLen = properties.getIntProperty("ledger.transfers.maxLen");
 		maxTokenTransfersLen = properties.getIntProperty("ledger.tokenTransfers.maxLen");
 		maxMemoUtf8Bytes = properties.getIntProperty("hedera.transaction.maxMemoUtf8Bytes");
@@ -89,6 +102,9 @@ public class GlobalDynamicProperties {
 		minValidityBuffer = properties.getIntProperty("hedera.transaction.minValidityBufferSecs");
 		maxGas = properties.getIntProperty("contracts.maxGas");
 		defaultContractLifetime = properties.getLongProperty("contracts.defaultLifetime");
+		maxLocalCallGas = properties.getIntProperty("contracts.localCall.maxGas");
+		localCallTimeoutMs = properties.getLongProperty("contracts.localCall.timeoutMs");
+		shouldStreamReceivedTxnBytes = properties.getBooleanProperty("hedera.recordStream.reuseTxnBytes");
 	}
 
 	public int maxTokensPerAccount() {
@@ -151,6 +167,26 @@ public class GlobalDynamicProperties {
 		return shouldExportTokenBalances;
 	}
 
+	public boolean shouldExportBinaryBalances() {
+		return shouldExportBinaryBalances;
+	}
+
+	public boolean shouldCompressBinaryBalances() {
+		return shouldCompressBinaryBalances;
+	}
+
+	public int balancesExportParallelism() {
+		return balancesExportParallelism;
+	}
+
+	public int maxRecordPurgesPerTxn() {
+		return maxRecordPurgesPerTxn;
+	}
+
+	public int payerExpiryIndexPeriodSecs() {
+		return payerExpiryIndexPeriodSecs;
+	}
+
 	public int maxTransferListSize() {
 		return maxTransfersLen;
 	}
@@ -182,4 +218,16 @@ public class GlobalDynamicProperties {
 	public long defaultContractLifetime() {
 		return defaultContractLifetime;
 	}
+
+	public int maxLocalCallGas() {
+		return maxLocalCallGas;
+	}
+
+	public long localCallTimeoutMs() {
+		return localCallTimeoutMs;
+	}
+
+	public boolean shouldStreamReceivedTxnBytes() {
+		return shouldStreamReceivedTxnBytes;
+	}
 }
@@ -31,6 +31,13 @@ public class NodeLocalProperties {
 	private Profile activeProfile;
 	private double statsSpeedometerHalfLifeSecs;
 	private double statsRunningAvgHalfLifeSecs;
+	private int txnAccessorCacheRoundsToKeep;
+	private int heavyQueryThreadsPerService;
+	private int heavyQueryQueueCapacityPerService;
+	private int precheckSigVerifyMaxBatchSize;
+	private long precheckSigVerifyMaxLingerMicros;
+	private int precheckSigVerifyThreads;
+	private int bytecodeCacheMaxBytes;
 
 	public NodeLocalProperties(PropertySource properties) {
 		this.properties = properties;
@@ -47,6 +54,13 @@ public class NodeLocalProperties {
 		statsHapiOpsSpeedometerUpdateIntervalMs = properties.getLongProperty("stats.hapiOps.speedometerUpdateIntervalMs");
 		statsSpeedometerHalfLifeSecs = properties.getDoubleProperty("stats.speedometerHalfLifeSecs");
 		statsRunningAvgHalfLifeSecs = properties.getDoubleProperty("stats.runningAvgHalfLifeSecs");
+		txnAccessorCacheRoundsToKeep = properties.getIntProperty("hedera.txnAccessorCache.roundsToKeep");
+		heavyQueryThreadsPerService = properties.getIntProperty("grpc.heavyQueries.threadsPerService");
+		heavyQueryQueueCapacityPerService = properties.getIntProperty("grpc.heavyQueries.queueCapacityPerService");
+		precheckSigVerifyMaxBatchSize = properties.getIntProperty("precheck.sigVerify.maxBatchSize");
+		precheckSigVerifyMaxLingerMicros = properties.getLongProperty("precheck.sigVerify.maxLingerMicros");
+		precheckSigVerifyThreads = properties.getIntProperty("precheck.sigVerify.threads");
+		bytecodeCacheMaxBytes = properties.getIntProperty("contracts.bytecodeCache.maxBytes");
 	}
 
 	public int port() {
@@ -80,4 +94,32 @@ public class NodeLocalProperties {
 	public double statsRunningAvgHalfLifeSecs() {
 		return statsRunningAvgHalfLifeSecs;
 	}
+
+	public int txnAccessorCacheRoundsToKeep() {
+		return txnAccessorCacheRoundsToKeep;
+	}
+
+	public int heavyQueryThreadsPerService() {
+		return heavyQueryThreadsPerService;
+	}
+
+	public int heavyQueryQueueCapacityPerService() {
+		return heavyQueryQueueCapacityPerService;
+	}
+
+	public int precheckSigVerifyMaxBatchSize() {
+		return precheckSigVerifyMaxBatchSize;
+	}
+
+	public long precheckSigVerifyMaxLingerMicros() {
+		return precheckSigVerifyMaxLingerMicros;
+	}
+
+	public int precheckSigVerifyThreads() {
+		return precheckSigVerifyThreads;
+	}
+
+	public int bytecodeCacheMaxBytes() {
+		return bytecodeCacheMaxBytes;
+	}
 }
@@ -0,0 +1,44 @@
+package com.hedera.services.contracts.execution;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2020 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hedera.services.contracts.sources.BytecodeCache;
+import org.ethereum.config.CommonConfig;
+import org.ethereum.datasource.Source;
+import org.ethereum.vm.program.ProgramPrecompile;
+
+/**
+ * An EVM {@link CommonConfig} that, unlike {@link CommonConfig#getDefault()}, gives every
+ * {@link org.ethereum.vm.program.Program} the jump destination analyses of a shared
+ * {@link BytecodeCache}, instead of no {@code precompileSource()} at all.
+ */
+public class CachingCommonConfig extends CommonConfig {
+	private final Source<byte[], ProgramPrecompile> precompiles;
+
+	public CachingCommonConfig(BytecodeCache bytecodeCache) {
+		this.precompiles = bytecodeCache.precompiles();
+	}
+
+	@Override
+	public Source<byte[], ProgramPrecompile> precompileSource() {
+		return precompiles;
+	}
+}
@@ -0,0 +1,67 @@
+package com.hedera.services.contracts.execution;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2020 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import org.ethereum.vm.OpCode;
+import org.ethereum.vm.hook.VMHook;
+import org.ethereum.vm.program.Program;
+
+import java.util.function.LongSupplier;
+
+/**
+ * A {@link VMHook} that halts a local call once it has run past its wall-clock time limit; the
+ * hook is inherited by every nested call, so the whole call stack is halted. To keep the cost of
+ * the hook negligible, the clock is only read every {@code STEPS_PER_CHECK} opcodes.
+ */
+public class LocalCallDeadline implements VMHook {
+	static final int STEPS_PER_CHECK = 256;
+
+	public static final String TIMEOUT_ERROR_MSG_TPL = "Local call exceeded its time limit of %d ms";
+
+	private final long timeoutMs;
+	private final long deadline;
+	private final LongSupplier nanoTime;
+
+	private int steps = 0;
+
+	public LocalCallDeadline(long timeoutMs) {
+		this(timeoutMs, System::nanoTime);
+	}
+
+	LocalCallDeadline(long timeoutMs, LongSupplier nanoTime) {
+		this.timeoutMs = timeoutMs;
+		this.nanoTime = nanoTime;
+		this.deadline = nanoTime.getAsLong() + timeoutMs * 1_000_000L;
+	}
+
+	@Override
+	public void step(Program program, OpCode opcode) {
+		if (++steps % STEPS_PER_CHECK == 0 && nanoTime.getAsLong() - deadline > 0) {
+			throw new TimeoutException(String.format(TIMEOUT_ERROR_MSG_TPL, timeoutMs));
+		}
+	}
+
+	public static class TimeoutException extends RuntimeException {
+		public TimeoutException(String message) {
+			super(message);
+		}
+	}
+}
@@ -0,0 +1,180 @@
+package com.hedera.services.contracts.execution;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2020 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hedera.services.ServicesState;
+import com.hedera.services.contracts.persistence.SlotStoragePersistence;
+import com.hedera.services.state.merkle.MerkleAccount;
+import com.hedera.services.state.merkle.MerkleContractSlot;
+import com.hedera.services.state.merkle.MerkleContractSlotId;
+import com.hedera.services.state.merkle.MerkleEntityId;
+import com.swirlds.fcmap.FCMap;
+import org.ethereum.core.AccountState;
+import org.ethereum.datasource.Source;
+import org.ethereum.db.ServicesRepositoryRoot;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static com.hedera.services.state.merkle.MerkleEntityId.fromAccountId;
+import static com.hedera.services.utils.EntityIdUtils.accountParsedFromSolidityAddress;
+
+/**
+ * Keeps the accounts and contract storage of the latest signed state, so that {@code ContractCallLocal}
+ * queries can execute against an immutable snapshot, concurrently with each other and without
+ * contending with the handle thread for the mutable working state.
+ *
+ * The platform is free to release a signed state once {@code newSignedState} returns; so each snapshot
+ * holds a Merkle reference on the maps it uses, and only gives it up when it has been superseded by a
+ * newer snapshot <i>and</i> every query that acquired it has closed it.
+ */
+public class SignedStateSnapshots {
+	private final Source<byte[], byte[]> bytecode;
+	private final Function<Supplier<FCMap<MerkleEntityId, MerkleAccount>>, Source<byte[], AccountState>> accountSources;
+	private final AtomicReference<Snapshot> latest = new AtomicReference<>();
+
+	public SignedStateSnapshots(
+			Source<byte[], byte[]> bytecode,
+			Function<Supplier<FCMap<MerkleEntityId, MerkleAccount>>, Source<byte[], AccountState>> accountSources
+	) {
+		this.bytecode = bytecode;
+		this.accountSources = accountSources;
+	}
+
+	/**
+	 * Makes the given signed state the one new snapshots are acquired from; must be called while the
+	 * platform still guarantees the state is not released, that is, from {@code newSignedState}.
+	 *
+	 * @param signedState the latest signed state
+	 */
+	public void update(ServicesState signedState) {
+		var prior = latest.getAndSet(new Snapshot(signedState.accounts(), signedState.contractStorage()));
+		if (prior != null) {
+			prior.close();
+		}
+	}
+
+	/**
+	 * Acquires the snapshot of the latest signed state, which the caller must close when done with it.
+	 *
+	 * @return the latest snapshot, or null if no state has been signed since this node started
+	 */
+	public Snapshot acquire() {
+		while (true) {
+			var snapshot = latest.get();
+			if (snapshot == null || snapshot.tryAcquire()) {
+				return snapshot;
+			}
+		}
+	}
+
+	public class Snapshot implements AutoCloseable {
+		private final FCMap<MerkleEntityId, MerkleAccount> accounts;
+		private final FCMap<MerkleContractSlotId, MerkleContractSlot> contractStorage;
+		private final AtomicInteger holders = new AtomicInteger(1);
+
+		private volatile Source<byte[], AccountState> accountSource;
+
+		Snapshot(
+				FCMap<MerkleEntityId, MerkleAccount> accounts,
+				FCMap<MerkleContractSlotId, MerkleContractSlot> contractStorage
+		) {
+			this.accounts = accounts;
+			this.contractStorage = contractStorage;
+			accounts.incrementReferenceCount();
+			contractStorage.incrementReferenceCount();
+		}
+
+		public FCMap<MerkleEntityId, MerkleAccount> accounts() {
+			return accounts;
+		}
+
+		/**
+		 * Returns a new pure repository over this snapshot. Bytecode is read through the shared
+		 * source, since the bytecode of a contract never changes; but only for contracts that
+		 * exist in this snapshot.
+		 *
+		 * @return a repository for a local call
+		 */
+		public ServicesRepositoryRoot newPureRepo() {
+			var repo = new ServicesRepositoryRoot(accountSource(), new SnapshotBytecode());
+			repo.setStoragePersistence(new SlotStoragePersistence(() -> contractStorage));
+			return repo;
+		}
+
+		@Override
+		public void close() {
+			if (holders.decrementAndGet() == 0) {
+				accounts.decrementReferenceCount();
+				contractStorage.decrementReferenceCount();
+			}
+		}
+
+		boolean tryAcquire() {
+			int n;
+			do {
+				n = holders.get();
+				if (n == 0) {
+					return false;
+				}
+			} while (!holders.compareAndSet(n, n + 1));
+			return true;
+		}
+
+		int holders() {
+			return holders.get();
+		}
+
+		private Source<byte[], AccountState> accountSource() {
+			var source = accountSource;
+			if (source == null) {
+				source = accountSources.apply(() -> accounts);
+				accountSource = source;
+			}
+			return source;
+		}
+
+		private class SnapshotBytecode implements Source<byte[], byte[]> {
+			@Override
+			public byte[] get(byte[] address) {
+				var id = fromAccountId(accountParsedFromSolidityAddress(address));
+				return accounts.containsKey(id) ? bytecode.get(address) : null;
+			}
+
+			@Override
+			public void put(byte[] address, byte[] code) {
+				throw new UnsupportedOperationException();
+			}
+
+			@Override
+			public void delete(byte[] address) {
+				throw new UnsupportedOperationException();
+			}
+
+			@Override
+			public boolean flush() {
+				return false;
+			}
+		}
+	}
+}
@@ -0,0 +1,149 @@
+package com.hedera.services.contracts.persistence;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2020 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hedera.services.state.merkle.MerkleContractSlot;
+import com.hedera.services.state.merkle.MerkleContractSlotId;
+import com.swirlds.fcmap.FCMap;
+import org.ethereum.datasource.StoragePersistence;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static com.hedera.services.state.merkle.MerkleContractSlot.WORD_BYTES;
+import static com.hedera.services.utils.EntityIdUtils.accountParsedFromSolidityAddress;
+
+/**
+ * Persists each contract's storage as one {@link MerkleContractSlot} per non-empty slot, instead of
+ * as a single blob. The repository still reads and writes a contract's storage as a whole, encoded
+ * as a sequence of 64-byte key/value records; but on {@code persist}, only slots whose value changed,
+ * and slots added or removed, are written to the map, so only they need to be rehashed.
+ *
+ * A contract's slots stay dense at indices {@code 0} to {@code n - 1}; a new key takes the index of
+ * a removed key if there is one, and otherwise the next index. Any indices still free after that are
+ * filled, highest first, by moving the slot at the last index into them.
+ */
+public class SlotStoragePersistence implements StoragePersistence {
+	static final int RECORD_BYTES = 2 * WORD_BYTES;
+
+	private final Supplier<FCMap<MerkleContractSlotId, MerkleContractSlot>> slots;
+
+	public SlotStoragePersistence(Supplier<FCMap<MerkleContractSlotId, MerkleContractSlot>> slots) {
+		this.slots = slots;
+	}
+
+	@Override
+	public boolean storageExist(byte[] address) {
+		var id = accountParsedFromSolidityAddress(address);
+		return slots.get().containsKey(new MerkleContractSlotId(id.getRealmNum(), id.getAccountNum(), 0));
+	}
+
+	@Override
+	public byte[] get(byte[] address) {
+		var current = slotsOf(address);
+		if (current.isEmpty()) {
+			return null;
+		}
+		var storage = new byte[current.size() * RECORD_BYTES];
+		for (int i = 0, n = current.size(); i < n; i++) {
+			var slot = current.get(i);
+			System.arraycopy(slot.getKey(), 0, storage, i * RECORD_BYTES, WORD_BYTES);
+			System.arraycopy(slot.getValue(), 0, storage, i * RECORD_BYTES + WORD_BYTES, WORD_BYTES);
+		}
+		return storage;
+	}
+
+	@Override
+	public void persist(byte[] address, byte[] cache, long ignoredExpiry, long ignoredNow) {
+		if (cache.length % RECORD_BYTES != 0) {
+			throw new IllegalArgumentException(String.format(
+					"Storage of %d bytes is not a sequence of %d-byte records!",
+					cache.length,
+					RECORD_BYTES));
+		}
+		var id = accountParsedFromSolidityAddress(address);
+		long realm = id.getRealmNum(), num = id.getAccountNum();
+		var map = slots.get();
+
+		var current = slotsOf(address);
+		Map<ByteBuffer, Integer> indices = new HashMap<>();
+		for (int i = 0, n = current.size(); i < n; i++) {
+			indices.put(ByteBuffer.wrap(current.get(i).getKey()), i);
+		}
+
+		var kept = new BitSet(current.size());
+		List<MerkleContractSlot> added = new ArrayList<>();
+		for (int offset = 0; offset < cache.length; offset += RECORD_BYTES) {
+			var key = Arrays.copyOfRange(cache, offset, offset + WORD_BYTES);
+			var value = Arrays.copyOfRange(cache, offset + WORD_BYTES, offset + RECORD_BYTES);
+			var index = indices.get(ByteBuffer.wrap(key));
+			if (index == null) {
+				added.add(new MerkleContractSlot(key, value));
+			} else {
+				kept.set(index);
+				if (!Arrays.equals(current.get(index).getValue(), value)) {
+					map.replace(new MerkleContractSlotId(realm, num, index), new MerkleContractSlot(key, value));
+				}
+			}
+		}
+
+		var free = new ArrayDeque<Integer>();
+		for (int i = kept.nextClearBit(0), n = current.size(); i < n; i = kept.nextClearBit(i + 1)) {
+			free.add(i);
+		}
+		int size = current.size();
+		for (var slot : added) {
+			if (free.isEmpty()) {
+				map.put(new MerkleContractSlotId(realm, num, size++), slot);
+			} else {
+				map.replace(new MerkleContractSlotId(realm, num, free.poll()), slot);
+			}
+		}
+		while (!free.isEmpty()) {
+			int hole = free.pollLast();
+			var last = new MerkleContractSlotId(realm, num, --size);
+			if (hole != size) {
+				map.replace(new MerkleContractSlotId(realm, num, hole), map.get(last).copy());
+			}
+			map.remove(last);
+		}
+	}
+
+	private List<MerkleContractSlot> slotsOf(byte[] address) {
+		var id = accountParsedFromSolidityAddress(address);
+		var map = slots.get();
+		List<MerkleContractSlot> current = new ArrayList<>();
+		for (int i = 0; ; i++) {
+			var slot = map.get(new MerkleContractSlotId(id.getRealmNum(), id.getAccountNum(), i));
+			if (slot == null) {
+				return current;
+			}
+			current.add(slot);
+		}
+	}
+}
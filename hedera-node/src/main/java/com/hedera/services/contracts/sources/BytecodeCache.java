@@ -0,0 +1,199 @@
+package com.hedera.services.contracts.sources;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2020 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hedera.services.stats.MiscRunningAvgs;
+import org.ethereum.datasource.Source;
+import org.ethereum.db.ByteArrayWrapper;
+import org.ethereum.vm.program.ProgramPrecompile;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A size-bounded, least-recently-used cache of contract bytecode in front of the blob store,
+ * shared by the consensus repository and every pure repository built for a local call.
+ *
+ * Each entry holds the bytecode of a contract together with its jump destination analysis,
+ * computed at most once per entry; so a contract that is called repeatedly is neither fetched
+ * from the blob store, nor scanned for {@code JUMPDEST}s, more than once while it stays cached.
+ * The analyses are exposed to the EVM through {@link BytecodeCache#precompiles()}, which a
+ * {@link org.ethereum.config.CommonConfig} can return as its {@code precompileSource()}.
+ *
+ * Entries are keyed by contract address, which is also the "code hash" the EVM uses for a
+ * contract (in this fork, {@code getCodeHash(address)} returns the address). This is safe because
+ * the bytecode saved for an address never changes. Only bytecode that has been committed to the
+ * blob store is ever analyzed here; analyses the EVM offers back for code it just created are
+ * ignored, since that code may not survive its transaction.
+ *
+ * The returned bytecode arrays are shared, and must not be modified by callers.
+ */
+public class BytecodeCache implements Source<byte[], byte[]> {
+	private final long maxBytes;
+	private final MiscRunningAvgs runningAvgs;
+	private final Source<byte[], byte[]> delegate;
+	private final Map<ByteArrayWrapper, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+	private final Source<byte[], ProgramPrecompile> precompiles = new PrecompileSource();
+
+	private long cachedBytes = 0;
+
+	public BytecodeCache(Source<byte[], byte[]> delegate, long maxBytes, MiscRunningAvgs runningAvgs) {
+		this.delegate = delegate;
+		this.maxBytes = maxBytes;
+		this.runningAvgs = runningAvgs;
+	}
+
+	@Override
+	public byte[] get(byte[] address) {
+		var entry = entryFor(address, true);
+		return (entry == null) ? null : entry.code;
+	}
+
+	@Override
+	public void put(byte[] address, byte[] code) {
+		delegate.put(address, code);
+		synchronized (this) {
+			evict(new ByteArrayWrapper(address));
+			cache(new ByteArrayWrapper(address), new Entry(code));
+		}
+	}
+
+	@Override
+	public void delete(byte[] address) {
+		delegate.delete(address);
+		synchronized (this) {
+			evict(new ByteArrayWrapper(address));
+		}
+	}
+
+	@Override
+	public boolean flush() {
+		return delegate.flush();
+	}
+
+	/**
+	 * Returns a view of the jump destination analyses of the cached bytecode, keyed by
+	 * contract address; writes to the view are ignored.
+	 *
+	 * @return the analyses of the cached bytecode
+	 */
+	public Source<byte[], ProgramPrecompile> precompiles() {
+		return precompiles;
+	}
+
+	synchronized long cachedBytes() {
+		return cachedBytes;
+	}
+
+	synchronized int size() {
+		return entries.size();
+	}
+
+	private Entry entryFor(byte[] address, boolean isCodeLookup) {
+		var key = new ByteArrayWrapper(address);
+		synchronized (this) {
+			var entry = entries.get(key);
+			if (entry != null) {
+				if (isCodeLookup) {
+					runningAvgs.recordBytecodeCacheLookup(true);
+				}
+				return entry;
+			}
+		}
+		if (isCodeLookup) {
+			runningAvgs.recordBytecodeCacheLookup(false);
+		}
+		var code = delegate.get(address);
+		if (code == null) {
+			return null;
+		}
+		var entry = new Entry(code);
+		synchronized (this) {
+			var raced = entries.get(key);
+			if (raced != null) {
+				return raced;
+			}
+			cache(key, entry);
+		}
+		return entry;
+	}
+
+	private void cache(ByteArrayWrapper key, Entry entry) {
+		if (entry.code.length > maxBytes) {
+			return;
+		}
+		entries.put(key, entry);
+		cachedBytes += entry.code.length;
+		var eldest = entries.entrySet().iterator();
+		while (cachedBytes > maxBytes) {
+			cachedBytes -= eldest.next().getValue().code.length;
+			eldest.remove();
+		}
+	}
+
+	private void evict(ByteArrayWrapper key) {
+		var evicted = entries.remove(key);
+		if (evicted != null) {
+			cachedBytes -= evicted.code.length;
+		}
+	}
+
+	private static final class Entry {
+		private final byte[] code;
+		private volatile ProgramPrecompile analysis;
+
+		Entry(byte[] code) {
+			this.code = code;
+		}
+	}
+
+	private class PrecompileSource implements Source<byte[], ProgramPrecompile> {
+		@Override
+		public ProgramPrecompile get(byte[] address) {
+			var entry = entryFor(address, false);
+			if (entry == null) {
+				return null;
+			}
+			var analysis = entry.analysis;
+			runningAvgs.recordJumpDestCacheLookup(analysis != null);
+			if (analysis == null) {
+				analysis = ProgramPrecompile.compile(entry.code);
+				entry.analysis = analysis;
+			}
+			return analysis;
+		}
+
+		@Override
+		public void put(byte[] address, ProgramPrecompile analysis) {
+			/* No-op; only analyses of committed bytecode are cached. */
+		}
+
+		@Override
+		public void delete(byte[] address) {
+			/* No-op; entries are evicted with their bytecode. */
+		}
+
+		@Override
+		public boolean flush() {
+			return false;
+		}
+	}
+}
@@ -31,12 +31,14 @@ import static com.hedera.services.fees.TxnFeeType.*;
 
 /**
  * Provides the transaction fee-charging policy for the processing
- * logic. The policy offers three basic entry points:
+ * logic. The policy offers four basic entry points:
  * <ol>
  *    <li>For a txn whose submitting node seemed to ignore due diligence
  *    (e.g. submitted a txn with an impermissible valid duration); and, </li>
  *    <li>For a txn that looks to have been submitted responsibly, but is
  *    a duplicate of a txn already submitted by a different node; and,</li>
+ *    <li>For a txn that looks to have been submitted responsibly, but was
+ *    throttled at consensus; and,</li>
  *    <li>For a txn that was submitted responsibly, and is believed unique.</li>
  * </ol>
  *
@@ -44,7 +46,9 @@ import static com.hedera.services.fees.TxnFeeType.*;
  */
 public class TxnFeeChargingPolicy {
 	private final Consumer<ItemizableFeeCharging> NO_DISCOUNT = c -> {};
-	private final Consumer<ItemizableFeeCharging> DUPLICATE_TXN_DISCOUNT = c -> c.setFor(SERVICE, 0);
+	/* Waives the service fee of a txn whose operation will not be performed; either
+	because it is a duplicate, or because it was throttled at consensus. */
+	private final Consumer<ItemizableFeeCharging> UNPERFORMED_TXN_DISCOUNT = c -> c.setFor(SERVICE, 0);
 
 	/**
 	 * Apply the fee charging policy to a txn that was submitted responsibly, and
@@ -67,7 +71,19 @@ public class TxnFeeChargingPolicy {
 	 * @return the outcome of applying the policy
 	 */
 	public ResponseCodeEnum applyForDuplicate(ItemizableFeeCharging charging, FeeObject fee) {
-		return applyWithDiscount(charging, fee, DUPLICATE_TXN_DISCOUNT);
+		return applyWithDiscount(charging, fee, UNPERFORMED_TXN_DISCOUNT);
+	}
+
+	/**
+	 * Apply the fee charging policy to a txn that was submitted responsibly, but
+	 * was throttled at consensus, so its operation will not be performed.
+	 *
+	 * @param charging the charging facility to use
+	 * @param fee the fee to charge
+	 * @return the outcome of applying the policy
+	 */
+	public ResponseCodeEnum applyForThrottled(ItemizableFeeCharging charging, FeeObject fee) {
+		return applyWithDiscount(charging, fee, UNPERFORMED_TXN_DISCOUNT);
 	}
 
 	/**
@@ -20,11 +20,9 @@ package com.hedera.services.files;
  * ‍
  */
 
-import com.hedera.services.files.store.BytesStoreAdapter;
 import com.hederahashgraph.api.proto.java.FileID;
 
 import java.util.Map;
-import java.util.function.Function;
 import java.util.regex.Pattern;
 
 public class DataMapFactory {
@@ -37,14 +35,12 @@ public class DataMapFactory {
 		throw new IllegalStateException();
 	}
 
-	public static Map<FileID, byte[]> dataMapFrom(Map<String, byte[]> store) {
-		return new BytesStoreAdapter<>(
-				FileID.class,
-				Function.identity(),
-				Function.identity(),
-				DataMapFactory::toFid,
-				DataMapFactory::toKeyString,
-				store);
+	public static SegmentedFileData dataMapFrom(Map<String, byte[]> store) {
+		return new SegmentedFileData(store);
+	}
+
+	static boolean isDataKey(String key) {
+		return LEGACY_PATH_PATTERN.matcher(key).matches();
 	}
 
 	static FileID toFid(String key) {
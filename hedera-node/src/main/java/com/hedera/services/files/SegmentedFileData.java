@@ -0,0 +1,205 @@
+package com.hedera.services.files;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2020 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hederahashgraph.api.proto.java.FileID;
+
+import java.nio.ByteBuffer;
+import java.util.AbstractMap;
+import java.util.Map;
+import java.util.Set;
+
+import static com.hedera.services.files.DataMapFactory.toFid;
+import static com.hedera.services.files.DataMapFactory.toKeyString;
+import static java.util.stream.Collectors.toSet;
+
+/**
+ * A map from {@link FileID} to file contents that stores each file as an ordered list of
+ * immutable segments in a blob store, so that appending to a file only writes (and hashes)
+ * the appended bytes.
+ *
+ * The first segment of a file is the blob at its legacy path; each append adds one more blob
+ * at a derived path, and records the segment lengths in a small index blob. A file without
+ * an index is thus exactly a file written before segmentation, and {@link Map#put(Object, Object)}
+ * collapses a file back to that single-segment form.
+ */
+public class SegmentedFileData extends AbstractMap<FileID, byte[]> {
+	static final String SEGMENT_PATH_TPL = "%s/%d";
+	static final String INDEX_PATH_TPL = "%s/segments";
+
+	private final Map<String, byte[]> store;
+
+	public SegmentedFileData(Map<String, byte[]> store) {
+		this.store = store;
+	}
+
+	/**
+	 * Appends the given bytes to an existing file as a new segment, without reading
+	 * or rewriting any of its existing segments.
+	 *
+	 * @param fid the file to append to
+	 * @param moreContents the bytes to append
+	 */
+	public void append(FileID fid, byte[] moreContents) {
+		var key = toKeyString(fid);
+		var lengths = segmentLengths(key);
+		store.put(String.format(SEGMENT_PATH_TPL, key, lengths.length), moreContents);
+
+		var index = ByteBuffer.allocate(Integer.BYTES * (lengths.length + 1));
+		for (int length : lengths) {
+			index.putInt(length);
+		}
+		index.putInt(moreContents.length);
+		store.put(String.format(INDEX_PATH_TPL, key), index.array());
+	}
+
+	/**
+	 * Returns the length of the logical contents of a file, reading only its segment index
+	 * if it has more than one segment.
+	 *
+	 * @param fid the file of interest
+	 * @return its length in bytes
+	 */
+	public long sizeOf(FileID fid) {
+		long size = 0;
+		for (int length : segmentLengths(toKeyString(fid))) {
+			size += length;
+		}
+		return size;
+	}
+
+	/**
+	 * Returns the concatenated segments of the given file.
+	 *
+	 * @param fid the file of interest
+	 * @return its logical contents, or null if it has none
+	 */
+	@Override
+	public byte[] get(Object fid) {
+		var key = toKeyString((FileID) fid);
+		var index = store.get(String.format(INDEX_PATH_TPL, key));
+		if (index == null) {
+			return store.get(key);
+		}
+
+		var lengths = lengthsIn(index);
+		int size = 0;
+		for (int length : lengths) {
+			size += length;
+		}
+		var contents = new byte[size];
+		for (int i = 0, offset = 0; i < lengths.length; offset += lengths[i++]) {
+			var segment = (i == 0) ? store.get(key) : store.get(String.format(SEGMENT_PATH_TPL, key, i));
+			System.arraycopy(segment, 0, contents, offset, lengths[i]);
+		}
+		return contents;
+	}
+
+	/**
+	 * Replaces the contents of the given file with a single segment.
+	 *
+	 * <B>NOTE:</B> Like the blob store, this method does not return the previous contents.
+	 *
+	 * @return {@code null}
+	 */
+	@Override
+	public byte[] put(FileID fid, byte[] contents) {
+		var key = toKeyString(fid);
+		store.put(key, contents);
+		removeAppendedSegments(key);
+		return null;
+	}
+
+	/**
+	 * Removes every segment of the given file.
+	 *
+	 * <B>NOTE:</B> Like the blob store, this method does not return the removed contents.
+	 *
+	 * @return {@code null}
+	 */
+	@Override
+	public byte[] remove(Object fid) {
+		var key = toKeyString((FileID) fid);
+		store.remove(key);
+		removeAppendedSegments(key);
+		return null;
+	}
+
+	@Override
+	public boolean containsKey(Object fid) {
+		return store.containsKey(toKeyString((FileID) fid));
+	}
+
+	@Override
+	public void clear() {
+		store.clear();
+	}
+
+	@Override
+	public Set<Entry<FileID, byte[]>> entrySet() {
+		return store.keySet()
+				.stream()
+				.filter(DataMapFactory::isDataKey)
+				.map(key -> new SimpleEntry<>(toFid(key), get(toFid(key))))
+				.collect(toSet());
+	}
+
+	@Override
+	public int size() {
+		return (int) store.keySet().stream().filter(DataMapFactory::isDataKey).count();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return store.keySet().stream().noneMatch(DataMapFactory::isDataKey);
+	}
+
+	private int[] segmentLengths(String key) {
+		var index = store.get(String.format(INDEX_PATH_TPL, key));
+		if (index != null) {
+			return lengthsIn(index);
+		}
+		var contents = store.get(key);
+		return (contents == null) ? new int[0] : new int[] { contents.length };
+	}
+
+	private int[] lengthsIn(byte[] index) {
+		var buffer = ByteBuffer.wrap(index);
+		var lengths = new int[index.length / Integer.BYTES];
+		for (int i = 0; i < lengths.length; i++) {
+			lengths[i] = buffer.getInt();
+		}
+		return lengths;
+	}
+
+	private void removeAppendedSegments(String key) {
+		var indexKey = String.format(INDEX_PATH_TPL, key);
+		var index = store.get(indexKey);
+		if (index == null) {
+			return;
+		}
+		int n = index.length / Integer.BYTES;
+		for (int i = 1; i < n; i++) {
+			store.remove(String.format(SEGMENT_PATH_TPL, key, i));
+		}
+		store.remove(indexKey);
+	}
+}
@@ -38,7 +38,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
-import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 import static com.hedera.services.files.TieredHederaFs.IllegalArgumentType.*;
@@ -56,7 +56,7 @@ public class TieredHederaFs implements HederaFs {
 
 	private final EntityIdSource ids;
 	private final Supplier<Instant> now;
-	private final Map<FileID, byte[]> data;
+	private final SegmentedFileData data;
 	private final Map<FileID, JFileInfo> metadata;
 	private final GlobalDynamicProperties properties;
 
@@ -85,7 +85,7 @@ public class TieredHederaFs implements HederaFs {
 			EntityIdSource ids,
 			GlobalDynamicProperties properties,
 			Supplier<Instant> now,
-			Map<FileID, byte[]> data,
+			SegmentedFileData data,
 			Map<FileID, JFileInfo> metadata,
 			Supplier<MerkleDiskFs> diskFs
 	) {
@@ -178,34 +178,38 @@ public class TieredHederaFs implements HederaFs {
 	public UpdateResult append(FileID id, byte[] moreContents) {
 		assertUsable(id);
 
-		byte[] contents;
-
-		boolean isDiskBased = isOnDisk(id);
-		if (isDiskBased) {
-			contents = diskFs.get().contentsOf(id);
-		} else {
-			contents = data.get(id);
+		if (isOnDisk(id)) {
+			log.debug("Appending {} bytes to {} on disk.", moreContents.length, EntityIdUtils.readableId(id));
+			return uncheckedUpdate(
+					id,
+					() -> ArrayUtils.addAll(diskFs.get().contentsOf(id), moreContents),
+					() -> diskFs.get().append(id, moreContents));
 		}
-		var newContents = ArrayUtils.addAll(contents, moreContents);
-		String idStr = EntityIdUtils.readableId(id);
+
+		long newSize = data.sizeOf(id) + moreContents.length;
+		logAppend(id, moreContents, newSize);
+		assertWithinSizeLimits(newSize);
+
+		/* Only interceptors need the logical whole file; otherwise the append just adds a segment */
+		return uncheckedUpdate(
+				id,
+				() -> ArrayUtils.addAll(data.get(id), moreContents),
+				() -> data.append(id, moreContents));
+	}
+
+	private void logAppend(FileID id, byte[] moreContents, long newSize) {
 		log.debug(
 				"Appending {} bytes to {} :: new file will have {} bytes.",
 				moreContents.length,
-				idStr,
-				newContents.length);
-
-		if (!isDiskBased) {
-			assertWithinSizeLimits(newContents);
-		}
-
-		return uncheckedUpdate(id, newContents);
+				EntityIdUtils.readableId(id),
+				newSize);
 	}
 
 	@Override
 	public UpdateResult delete(FileID id) {
 		assertUsable(id);
 
-		var verdict = judge(id, FileUpdateInterceptor::preDelete);
+		var verdict = judge(interceptorsFor(id), interceptor -> interceptor.preDelete(id));
 		if (verdict.getValue()) {
 			var attr = metadata.get(id);
 			attr.setDeleted(true);
@@ -259,7 +263,7 @@ public class TieredHederaFs implements HederaFs {
 	}
 
 	private UpdateResult uncheckedSetattr(FileID id, JFileInfo attr) {
-		var verdict = judge(id, (interceptor, ignore) -> interceptor.preAttrChange(id, attr));
+		var verdict = judge(interceptorsFor(id), interceptor -> interceptor.preAttrChange(id, attr));
 
 		if (verdict.getValue()) {
 			metadata.put(id, attr);
@@ -270,29 +274,36 @@ public class TieredHederaFs implements HederaFs {
 
 
 	private UpdateResult uncheckedUpdate(FileID id, byte[] newContents) {
-		var verdict = judge(id, (interceptor, ignore) -> interceptor.preUpdate(id, newContents));
-
-		if (verdict.getValue()) {
+		return uncheckedUpdate(id, () -> newContents, () -> {
 			if (diskFs.get().contains(id)) {
 				diskFs.get().put(id, newContents);
 			} else {
 				data.put(id, newContents);
 			}
-			interceptorsFor(id).forEach(interceptor -> interceptor.postUpdate(id, newContents));
+		});
+	}
+
+	private UpdateResult uncheckedUpdate(FileID id, Supplier<byte[]> newContents, Runnable update) {
+		var orderedInterceptors = interceptorsFor(id);
+		var contents = orderedInterceptors.isEmpty() ? null : newContents.get();
+		var verdict = judge(orderedInterceptors, interceptor -> interceptor.preUpdate(id, contents));
+
+		if (verdict.getValue()) {
+			update.run();
+			orderedInterceptors.forEach(interceptor -> interceptor.postUpdate(id, contents));
 		}
 		return new SimpleUpdateResult(false, verdict.getValue(), verdict.getKey());
 	}
 
 	private Map.Entry<ResponseCodeEnum, Boolean> judge(
-			FileID id,
-			BiFunction<FileUpdateInterceptor, FileID, Map.Entry<ResponseCodeEnum, Boolean>> judgment
+			List<FileUpdateInterceptor> orderedInterceptors,
+			Function<FileUpdateInterceptor, Map.Entry<ResponseCodeEnum, Boolean>> judgment
 	) {
 		var outcome = SUCCESS;
 		var should = true;
 
-		var orderedInterceptors = interceptorsFor(id);
 		for (var interceptor : orderedInterceptors) {
-			var vote = judgment.apply(interceptor, id);
+			var vote = judgment.apply(interceptor);
 			outcome = firstUnsuccessful(outcome, vote.getKey());
 			if (!vote.getValue()) {
 				should = false;
@@ -329,7 +340,11 @@ public class TieredHederaFs implements HederaFs {
 	}
 
 	private void assertWithinSizeLimits(byte[] data) {
-		if (data.length > properties.maxFileSizeKb() * BYTES_PER_KB) {
+		assertWithinSizeLimits(data.length);
+	}
+
+	private void assertWithinSizeLimits(long size) {
+		if (size > properties.maxFileSizeKb() * BYTES_PER_KB) {
 			throwIllegal(OVERSIZE_CONTENTS);
 		}
 	}
@@ -0,0 +1,248 @@
+package com.hedera.services.grpc;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2020 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hedera.services.context.properties.NodeLocalProperties;
+import com.hedera.services.stats.CounterFactory;
+import com.hedera.services.stats.RunningAvgFactory;
+import com.hederahashgraph.api.proto.java.ContractCallLocalResponse;
+import com.hederahashgraph.api.proto.java.ContractGetBytecodeResponse;
+import com.hederahashgraph.api.proto.java.ContractGetRecordsResponse;
+import com.hederahashgraph.api.proto.java.CryptoGetAccountRecordsResponse;
+import com.hederahashgraph.api.proto.java.FileGetContentsResponse;
+import com.hederahashgraph.api.proto.java.Response;
+import com.hederahashgraph.api.proto.java.ResponseHeader;
+import com.hederahashgraph.service.proto.java.CryptoServiceGrpc;
+import com.hederahashgraph.service.proto.java.FileServiceGrpc;
+import com.hederahashgraph.service.proto.java.SmartContractServiceGrpc;
+import com.swirlds.common.Platform;
+import com.swirlds.platform.StatsRunningAverage;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.hederahashgraph.api.proto.java.ResponseCodeEnum.BUSY;
+
+/**
+ * Moves the few queries that can take a long time to answer (local contract calls, and
+ * record and file content lookups) off the Netty event loop that received them, and onto
+ * a small pool of threads for their gRPC service. Every other call still runs inline on
+ * the event loop, as with a {@code directExecutor()}.
+ *
+ * Each pool has a bounded queue; when it is full, the query is answered immediately with
+ * a {@link com.hederahashgraph.api.proto.java.ResponseCodeEnum#BUSY} precheck code instead
+ * of being queued. The depth of each queue, the average time a query waits in it, and the
+ * number of queries shed are published as app stats.
+ */
+public class HeavyQueryInterceptor implements ServerInterceptor {
+	private static final Logger log = LogManager.getLogger(HeavyQueryInterceptor.class);
+
+	static final String THREAD_NAME_TPL = "%sQueries-%d";
+
+	private static final ResponseHeader BUSY_HEADER = ResponseHeader.newBuilder()
+			.setNodeTransactionPrecheckCode(BUSY)
+			.build();
+
+	private final List<QueryPool> pools;
+	private final Map<String, HeavyQuery> heavyQueries = new HashMap<>();
+
+	public HeavyQueryInterceptor(NodeLocalProperties properties) {
+		int numThreads = Math.max(1, properties.heavyQueryThreadsPerService());
+		int queueCapacity = Math.max(1, properties.heavyQueryQueueCapacityPerService());
+		double halfLife = properties.statsRunningAvgHalfLifeSecs();
+
+		var contractPool = new QueryPool("contract", numThreads, queueCapacity, halfLife);
+		var cryptoPool = new QueryPool("crypto", numThreads, queueCapacity, halfLife);
+		var filePool = new QueryPool("file", numThreads, queueCapacity, halfLife);
+		pools = List.of(contractPool, cryptoPool, filePool);
+
+		offload(
+				SmartContractServiceGrpc.getContractCallLocalMethodMethod().getFullMethodName(),
+				contractPool,
+				Response.newBuilder()
+						.setContractCallLocal(ContractCallLocalResponse.newBuilder().setHeader(BUSY_HEADER))
+						.build());
+		offload(
+				SmartContractServiceGrpc.getGetTxRecordByContractIDMethod().getFullMethodName(),
+				contractPool,
+				Response.newBuilder()
+						.setContractGetRecordsResponse(ContractGetRecordsResponse.newBuilder().setHeader(BUSY_HEADER))
+						.build());
+		offload(
+				SmartContractServiceGrpc.getContractGetBytecodeMethod().getFullMethodName(),
+				contractPool,
+				Response.newBuilder()
+						.setContractGetBytecodeResponse(ContractGetBytecodeResponse.newBuilder().setHeader(BUSY_HEADER))
+						.build());
+		offload(
+				CryptoServiceGrpc.getGetAccountRecordsMethod().getFullMethodName(),
+				cryptoPool,
+				Response.newBuilder()
+						.setCryptoGetAccountRecords(CryptoGetAccountRecordsResponse.newBuilder().setHeader(BUSY_HEADER))
+						.build());
+		offload(
+				FileServiceGrpc.getGetFileContentMethod().getFullMethodName(),
+				filePool,
+				Response.newBuilder()
+						.setFileGetContents(FileGetContentsResponse.newBuilder().setHeader(BUSY_HEADER))
+						.build());
+	}
+
+	private void offload(String fullMethodName, QueryPool pool, Response busyResponse) {
+		heavyQueries.put(fullMethodName, new HeavyQuery(pool, busyResponse));
+	}
+
+	public void registerWith(Platform platform) {
+		var counter = new CounterFactory() {};
+		var runningAvg = new RunningAvgFactory() {};
+		for (QueryPool pool : pools) {
+			platform.addAppStatEntry(counter.from(
+					String.format(Names.QUEUE_DEPTH_TPL, pool.service),
+					String.format(Descriptions.QUEUE_DEPTH_TPL, pool.service),
+					() -> pool.executor.getQueue().size()));
+			platform.addAppStatEntry(runningAvg.from(
+					String.format(Names.WAIT_MS_TPL, pool.service),
+					String.format(Descriptions.WAIT_MS_TPL, pool.service),
+					pool.waitMs));
+			platform.addAppStatEntry(counter.from(
+					String.format(Names.SHED_TPL, pool.service),
+					String.format(Descriptions.SHED_TPL, pool.service),
+					pool.numShed::get));
+		}
+	}
+
+	List<QueryPool> pools() {
+		return pools;
+	}
+
+	@Override
+	public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(
+			ServerCall<ReqT, RespT> call,
+			Metadata headers,
+			ServerCallHandler<ReqT, RespT> next
+	) {
+		var heavyQuery = heavyQueries.get(call.getMethodDescriptor().getFullMethodName());
+		if (heavyQuery == null) {
+			return next.startCall(call, headers);
+		}
+		return new OffloadingListener<>(next.startCall(call, headers), call, heavyQuery);
+	}
+
+	private static class OffloadingListener<ReqT, RespT>
+			extends ForwardingServerCallListener.SimpleForwardingServerCallListener<ReqT> {
+		private final ServerCall<ReqT, RespT> call;
+		private final HeavyQuery heavyQuery;
+
+		OffloadingListener(ServerCall.Listener<ReqT> delegate, ServerCall<ReqT, RespT> call, HeavyQuery heavyQuery) {
+			super(delegate);
+			this.call = call;
+			this.heavyQuery = heavyQuery;
+		}
+
+		/* A unary call is answered when its client half-closes, so that is the callback to move. */
+		@Override
+		@SuppressWarnings("unchecked")
+		public void onHalfClose() {
+			var pool = heavyQuery.pool;
+			long enqueued = System.nanoTime();
+			try {
+				pool.executor.execute(() -> {
+					pool.waitMs.recordValue((System.nanoTime() - enqueued) / 1_000_000.0);
+					try {
+						super.onHalfClose();
+					} catch (RuntimeException e) {
+						log.warn("Unhandled exception answering {}!", call.getMethodDescriptor().getFullMethodName(), e);
+						call.close(Status.fromThrowable(e), new Metadata());
+					}
+				});
+			} catch (RejectedExecutionException busy) {
+				pool.numShed.incrementAndGet();
+				call.sendHeaders(new Metadata());
+				call.sendMessage((RespT) heavyQuery.busyResponse);
+				call.close(Status.OK, new Metadata());
+			}
+		}
+	}
+
+	private static class HeavyQuery {
+		private final QueryPool pool;
+		private final Response busyResponse;
+
+		HeavyQuery(QueryPool pool, Response busyResponse) {
+			this.pool = pool;
+			this.busyResponse = busyResponse;
+		}
+	}
+
+	static class QueryPool {
+		final String service;
+		final ThreadPoolExecutor executor;
+		final StatsRunningAverage waitMs;
+		final AtomicLong numShed = new AtomicLong();
+
+		QueryPool(String service, int numThreads, int queueCapacity, double halfLife) {
+			this.service = service;
+			var threadNum = new AtomicInteger();
+			executor = new ThreadPoolExecutor(
+					numThreads,
+					numThreads,
+					0L,
+					TimeUnit.MILLISECONDS,
+					new ArrayBlockingQueue<>(queueCapacity),
+					runnable -> {
+						var thread = new Thread(runnable, String.format(THREAD_NAME_TPL, service, threadNum.getAndIncrement()));
+						thread.setDaemon(true);
+						return thread;
+					});
+			waitMs = new StatsRunningAverage(halfLife);
+		}
+	}
+
+	static class Names {
+		public static final String QUEUE_DEPTH_TPL = "%sQueryQueueDepth";
+		public static final String WAIT_MS_TPL = "%sQueryAvgWaitMs";
+		public static final String SHED_TPL = "%sQueriesShedBusy";
+	}
+
+	static class Descriptions {
+		public static final String QUEUE_DEPTH_TPL =
+				"number of %s service queries waiting for a query thread";
+		public static final String WAIT_MS_TPL =
+				"average millis a %s service query waited for a query thread";
+		public static final String SHED_TPL =
+				"number of %s service queries answered BUSY because their queue was full";
+	}
+}
@@ -23,6 +23,7 @@ package com.hedera.services.grpc;
 import com.hedera.services.legacy.netty.NettyServerManager;
 import io.grpc.BindableService;
 import io.grpc.Server;
+import io.grpc.ServerInterceptor;
 import io.grpc.ServerServiceDefinition;
 import io.grpc.netty.NettyServerBuilder;
 import org.apache.logging.log4j.LogManager;
@@ -45,17 +46,20 @@ public class NettyGrpcServerManager implements GrpcServerManager {
 	private final NettyServerManager nettyManager;
 	private final List<BindableService> bindableServices;
 	private final List<ServerServiceDefinition> serviceDefinitions;
+	private final List<ServerInterceptor> interceptors;
 
 	public NettyGrpcServerManager(
 			Consumer<Thread> hookAdder,
 			NettyServerManager nettyManager,
 			List<BindableService> bindableServices,
-			List<ServerServiceDefinition> serviceDefinitions
+			List<ServerServiceDefinition> serviceDefinitions,
+			List<ServerInterceptor> interceptors
 	) {
 		this.hookAdder = hookAdder;
 		this.nettyManager = nettyManager;
 		this.bindableServices = bindableServices;
 		this.serviceDefinitions = serviceDefinitions;
+		this.interceptors = interceptors;
 	}
 
 	@Override
@@ -80,6 +84,7 @@ public class NettyGrpcServerManager implements GrpcServerManager {
 		NettyServerBuilder builder = nettyManager.buildNettyServer(port, tlsSupport);
 		bindableServices.forEach(builder::addService);
 		serviceDefinitions.forEach(builder::addService);
+		interceptors.forEach(builder::intercept);
 		Server server = builder.build();
 		server.start();
 
@@ -0,0 +1,177 @@
+package com.hedera.services.keys;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2020 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hedera.services.legacy.core.jproto.JKey;
+import com.hedera.services.legacy.core.jproto.JKeyList;
+import com.hedera.services.legacy.core.jproto.JThresholdKey;
+import com.swirlds.common.crypto.TransactionSignature;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+import static com.hedera.services.keys.DefaultActivationCharacteristics.DEFAULT_ACTIVATION_CHARACTERISTICS;
+
+/**
+ * A Hedera key flattened into arrays in DFS pre-order, so that testing its activation
+ * needs neither a {@link java.util.stream.Stream} nor any other allocation. Each node
+ * records the index just past its subtree, so the children of a list or threshold node
+ * are found by skipping from one subtree to the next.
+ *
+ * Activation is tested exactly as by the recursive form in {@link HederaKeyActivation};
+ * in particular, every child of a list or threshold key is tested, in DFS order, and only
+ * the top-level key uses any non-default {@link KeyActivationCharacteristics}.
+ *
+ * A compiled key is immutable, and is memoized on the {@link JKey} it was compiled from.
+ */
+public final class CompiledKey {
+	static final int SIMPLE = -1;
+
+	private final JKey[] nodes;
+	private final byte[][] ed25519s;
+	private final int[] sigsNeeded;
+	private final int[] subtreeEnds;
+
+	private CompiledKey(JKey[] nodes, byte[][] ed25519s, int[] sigsNeeded, int[] subtreeEnds) {
+		this.nodes = nodes;
+		this.ed25519s = ed25519s;
+		this.sigsNeeded = sigsNeeded;
+		this.subtreeEnds = subtreeEnds;
+	}
+
+	/**
+	 * Returns the compiled form of the given key, compiling it on first use.
+	 *
+	 * @param key the key to compile
+	 * @return its compiled form
+	 */
+	public static CompiledKey of(JKey key) {
+		var compiled = key.getCompiled();
+		if (compiled == null) {
+			compiled = compile(key);
+			key.setCompiled(compiled);
+		}
+		return compiled;
+	}
+
+	static CompiledKey compile(JKey key) {
+		List<JKey> preOrder = new ArrayList<>();
+		addPreOrder(key, preOrder);
+
+		int n = preOrder.size();
+		var nodes = preOrder.toArray(new JKey[n]);
+		var ed25519s = new byte[n][];
+		var sigsNeeded = new int[n];
+		var subtreeEnds = new int[n];
+		for (int i = n - 1; i >= 0; i--) {
+			var node = nodes[i];
+			if (isSimple(node)) {
+				ed25519s[i] = node.getEd25519();
+				sigsNeeded[i] = SIMPLE;
+				subtreeEnds[i] = i + 1;
+			} else {
+				sigsNeeded[i] = node.hasKeyList()
+						? DEFAULT_ACTIVATION_CHARACTERISTICS.sigsNeededForList((JKeyList) node)
+						: DEFAULT_ACTIVATION_CHARACTERISTICS.sigsNeededForThreshold((JThresholdKey) node);
+				int end = i + 1;
+				for (int j = 0, numChildren = childrenOf(node).size(); j < numChildren; j++) {
+					end = subtreeEnds[end];
+				}
+				subtreeEnds[i] = end;
+			}
+		}
+		return new CompiledKey(nodes, ed25519s, sigsNeeded, subtreeEnds);
+	}
+
+	/**
+	 * Tests whether the compiled key is active, given the same arguments as
+	 * {@link HederaKeyActivation#isActive(JKey, Function, BiPredicate, KeyActivationCharacteristics)}.
+	 *
+	 * @param sigsFn the source of platform signatures for the simple keys
+	 * @param tests the logic deciding if a given simple key is activated by a given platform sig
+	 * @param characteristics the activation characteristics of the top-level key
+	 * @return whether the key is active
+	 */
+	public boolean isActive(
+			Function<byte[], TransactionSignature> sigsFn,
+			BiPredicate<JKey, TransactionSignature> tests,
+			KeyActivationCharacteristics characteristics
+	) {
+		if (sigsNeeded[0] == SIMPLE || characteristics == DEFAULT_ACTIVATION_CHARACTERISTICS) {
+			return isActive(0, sigsFn, tests);
+		}
+		var root = nodes[0];
+		int rootSigsNeeded = root.hasKeyList()
+				? characteristics.sigsNeededForList((JKeyList) root)
+				: characteristics.sigsNeededForThreshold((JThresholdKey) root);
+		return numActiveChildren(0, sigsFn, tests) >= rootSigsNeeded;
+	}
+
+	int numNodes() {
+		return nodes.length;
+	}
+
+	private boolean isActive(
+			int i,
+			Function<byte[], TransactionSignature> sigsFn,
+			BiPredicate<JKey, TransactionSignature> tests
+	) {
+		if (sigsNeeded[i] == SIMPLE) {
+			return tests.test(nodes[i], sigsFn.apply(ed25519s[i]));
+		}
+		return numActiveChildren(i, sigsFn, tests) >= sigsNeeded[i];
+	}
+
+	private int numActiveChildren(
+			int i,
+			Function<byte[], TransactionSignature> sigsFn,
+			BiPredicate<JKey, TransactionSignature> tests
+	) {
+		int numActive = 0;
+		for (int child = i + 1, end = subtreeEnds[i]; child < end; child = subtreeEnds[child]) {
+			if (isActive(child, sigsFn, tests)) {
+				numActive++;
+			}
+		}
+		return numActive;
+	}
+
+	private static void addPreOrder(JKey key, List<JKey> preOrder) {
+		preOrder.add(key);
+		if (!isSimple(key)) {
+			for (JKey child : childrenOf(key)) {
+				addPreOrder(child, preOrder);
+			}
+		}
+	}
+
+	private static boolean isSimple(JKey key) {
+		return !key.hasKeyList() && !key.hasThresholdKey();
+	}
+
+	private static List<JKey> childrenOf(JKey key) {
+		return key.hasKeyList()
+				? key.getKeyList().getKeysList()
+				: key.getThresholdKey().getKeys().getKeysList();
+	}
+}
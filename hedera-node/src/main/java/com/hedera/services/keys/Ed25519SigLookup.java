@@ -0,0 +1,101 @@
+package com.hedera.services.keys;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2020 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.swirlds.common.crypto.TransactionSignature;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+import static com.hedera.services.keys.HederaKeyActivation.INVALID_SIG;
+
+/**
+ * A source of platform signatures by the raw bytes of their Ed25519 public keys, which
+ * compares those bytes in place instead of copying them into {@code ByteString}s.
+ *
+ * A few signatures (the usual case) are just scanned; more are put in a small
+ * open-addressed table hashed on the leading bytes of their keys. As with a map merging
+ * duplicates in favor of the first, the first signature with a given key is returned; and
+ * as with {@code ByteString.copyFrom}, a {@code null} key is rejected.
+ */
+public final class Ed25519SigLookup implements Function<byte[], TransactionSignature> {
+	static final int MAX_SCANNED_SIGS = 8;
+
+	private final List<TransactionSignature> sigs;
+	private final TransactionSignature[] table;
+	private final int mask;
+
+	public Ed25519SigLookup(List<TransactionSignature> sigs) {
+		for (TransactionSignature sig : sigs) {
+			Objects.requireNonNull(sig.getExpandedPublicKeyDirect());
+		}
+		this.sigs = sigs;
+		int n = sigs.size();
+		if (n <= MAX_SCANNED_SIGS) {
+			table = null;
+			mask = 0;
+		} else {
+			int capacity = Integer.highestOneBit(n - 1) << 2;
+			table = new TransactionSignature[capacity];
+			mask = capacity - 1;
+			for (TransactionSignature sig : sigs) {
+				var pk = sig.getExpandedPublicKeyDirect();
+				int i = slotOf(pk);
+				while (table[i] != null && !Arrays.equals(table[i].getExpandedPublicKeyDirect(), pk)) {
+					i = (i + 1) & mask;
+				}
+				if (table[i] == null) {
+					table[i] = sig;
+				}
+			}
+		}
+	}
+
+	@Override
+	public TransactionSignature apply(byte[] ed25519) {
+		Objects.requireNonNull(ed25519);
+		if (table == null) {
+			for (int i = 0, n = sigs.size(); i < n; i++) {
+				var sig = sigs.get(i);
+				if (Arrays.equals(sig.getExpandedPublicKeyDirect(), ed25519)) {
+					return sig;
+				}
+			}
+		} else {
+			for (int i = slotOf(ed25519); table[i] != null; i = (i + 1) & mask) {
+				if (Arrays.equals(table[i].getExpandedPublicKeyDirect(), ed25519)) {
+					return table[i];
+				}
+			}
+		}
+		return INVALID_SIG;
+	}
+
+	private int slotOf(byte[] pk) {
+		int h = pk.length;
+		for (int i = 0, n = Math.min(pk.length, 8); i < n; i++) {
+			h = 31 * h + pk[i];
+		}
+		return (h ^ (h >>> 16)) & mask;
+	}
+}
@@ -20,29 +20,24 @@ package com.hedera.services.keys;
  * ‍
  */
 
-import com.google.protobuf.ByteString;
 import com.hedera.services.sigs.order.HederaSigningOrder;
 import com.hedera.services.sigs.order.SigningOrderResult;
 import com.hedera.services.sigs.order.SigningOrderResultFactory;
 import com.hedera.services.utils.PlatformTxnAccessor;
 import com.hederahashgraph.api.proto.java.TransactionBody;
 import com.hedera.services.legacy.core.jproto.JKey;
-import com.hedera.services.legacy.core.jproto.JKeyList;
-import com.hedera.services.legacy.core.jproto.JThresholdKey;
 import com.hedera.services.legacy.crypto.SignatureStatus;
 import com.swirlds.common.crypto.Signature;
 import com.swirlds.common.crypto.TransactionSignature;
 import com.swirlds.common.crypto.VerificationStatus;
 
 import java.util.List;
-import java.util.Map;
 import java.util.function.BiPredicate;
 import java.util.function.Function;
 
 import static com.hedera.services.keys.DefaultActivationCharacteristics.DEFAULT_ACTIVATION_CHARACTERISTICS;
 import static com.swirlds.common.crypto.VerificationStatus.*;
 import static java.util.Arrays.copyOfRange;
-import static java.util.stream.Collectors.toMap;
 
 /**
  * Provides a static method to determine if a Hedera key is <i>active</i> relative to
@@ -145,17 +140,7 @@ public class HederaKeyActivation {
 			BiPredicate<JKey, TransactionSignature> tests,
 			KeyActivationCharacteristics characteristics
 	) {
-		if (!key.hasKeyList() && !key.hasThresholdKey()) {
-			return tests.test(key, sigsFn.apply(key.getEd25519()));
-		} else {
-			List<JKey> children = key.hasKeyList()
-					? key.getKeyList().getKeysList()
-					: key.getThresholdKey().getKeys().getKeysList();
-			int M = key.hasKeyList()
-					? characteristics.sigsNeededForList((JKeyList)key)
-					: characteristics.sigsNeededForThreshold((JThresholdKey)key);
-			return children.stream().mapToInt(child -> isActive(child, sigsFn, tests) ? 1 : 0).sum() >= M;
-		}
+		return CompiledKey.of(key).isActive(sigsFn, tests, characteristics);
 	}
 
 	/**
@@ -165,11 +150,7 @@ public class HederaKeyActivation {
 	 * @return a supplier that produces the backing list sigs by public key.
 	 */
 	public static Function<byte[], TransactionSignature> pkToSigMapFrom(List<TransactionSignature> sigs) {
-		final Map<ByteString, TransactionSignature> pkSigs = sigs
-				.stream()
-				.collect(toMap(s -> ByteString.copyFrom(s.getExpandedPublicKeyDirect()), s -> s, (a, b) -> a));
-
-		return ed25519 -> pkSigs.getOrDefault(ByteString.copyFrom(ed25519), INVALID_SIG);
+		return new Ed25519SigLookup(sigs);
 	}
 
 	private static class InvalidSignature extends TransactionSignature {
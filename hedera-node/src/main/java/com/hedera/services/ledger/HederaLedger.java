@@ -104,6 +104,7 @@ public class HederaLedger {
 			MerkleTokenRelStatus> UNUSABLE_TOKEN_RELS_LEDGER = null;
 
 	private static final int MAX_CONCEIVABLE_TOKENS_PER_TXN = 1_000;
+	private static final int NUM_CACHED_PURGE_IDS = 1 << 10;
 	private static final long[] NO_NEW_BALANCES = new long[0];
 
 	static final String NO_ACTIVE_TXN_CHANGE_SET = "{*NO ACTIVE TXN*}";
@@ -127,6 +128,7 @@ public class HederaLedger {
 
 	int numTouches = 0;
 	final TokenID[] tokensTouched = new TokenID[MAX_CONCEIVABLE_TOKENS_PER_TXN];
+	final AccountID[] purgeIds = new AccountID[NUM_CACHED_PURGE_IDS];
 	final Map<TokenID, TransferList.Builder> netTokenTransfers = new HashMap<>();
 	TransactionalLedger<
 			Map.Entry<AccountID, TokenID>,
@@ -475,6 +477,30 @@ public class HederaLedger {
 		return purge(id, RECORDS, now, cb);
 	}
 
+	/**
+	 * Purges the expired records of the account with the given number in shard and realm zero.
+	 * Since the same payers tend to expire records again and again, the ids used are kept in a
+	 * small direct-mapped cache; so repeated purges of an account do not build a new id each time.
+	 *
+	 * @param num the number of the account to purge
+	 * @param now the consensus second up to which records are expired
+	 * @param cb the callback to receive each purged record
+	 * @return the earliest expiry of the account's remaining records, or -1 if it has none
+	 */
+	public long purgeExpiredRecords(long num, long now, Consumer<ExpirableTxnRecord> cb) {
+		return purge(purgeIdFor(num), RECORDS, now, cb);
+	}
+
+	AccountID purgeIdFor(long num) {
+		int slot = (int) (num & (NUM_CACHED_PURGE_IDS - 1));
+		var id = purgeIds[slot];
+		if (id == null || id.getAccountNum() != num) {
+			id = AccountID.newBuilder().setAccountNum(num).build();
+			purgeIds[slot] = id;
+		}
+		return id;
+	}
+
 	private long purge(
 			AccountID id,
 			AccountProperty recordsProp,
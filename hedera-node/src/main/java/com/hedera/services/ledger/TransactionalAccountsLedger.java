@@ -0,0 +1,396 @@
+package com.hedera.services.ledger;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2020 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hedera.services.exceptions.MissingAccountException;
+import com.hedera.services.exceptions.NegativeAccountBalanceException;
+import com.hedera.services.ledger.accounts.BackingStore;
+import com.hedera.services.ledger.properties.AccountProperty;
+import com.hedera.services.ledger.properties.ChangeSummaryManager;
+import com.hedera.services.state.merkle.MerkleAccount;
+import com.hederahashgraph.api.proto.java.AccountID;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+
+import static com.hedera.services.ledger.properties.AccountProperty.BALANCE;
+import static com.hedera.services.utils.EntityIdUtils.readableId;
+import static com.hedera.services.utils.MiscUtils.readableProperty;
+
+/**
+ * A {@link TransactionalLedger} specialized to accounts, which keeps its pending changes in
+ * a small open-addressed table keyed by account number, instead of a {@code HashMap} of
+ * {@code EnumMap}s plus a {@code HashSet} of dead accounts.
+ *
+ * Each touched account gets one (pooled) {@link PendingChange} per transaction, with an
+ * unboxed slot for its {@link AccountProperty#BALANCE}; and the pending changes are kept
+ * in {@link HederaLedger#ACCOUNT_ID_COMPARATOR} order as they are inserted, so that a
+ * commit can pass them to the backing store's batch methods in that order without sorting.
+ */
+public class TransactionalAccountsLedger extends TransactionalLedger<AccountID, AccountProperty, MerkleAccount> {
+	private static final Logger log = LogManager.getLogger(TransactionalAccountsLedger.class);
+
+	static final int INITIAL_CAPACITY = 16;
+
+	private final BackingStore<AccountID, MerkleAccount> accounts;
+	private final ChangeSummaryManager<MerkleAccount, AccountProperty> changeManager;
+
+	/* Open-addressed with linear probing; always at most half full. */
+	private PendingChange[] table = new PendingChange[INITIAL_CAPACITY];
+	private int mask = INITIAL_CAPACITY - 1;
+	/* The same pending changes as the table, in ACCOUNT_ID_COMPARATOR order. */
+	private PendingChange[] ordered = new PendingChange[INITIAL_CAPACITY / 2];
+	private int numPending = 0;
+	/* Cleared pending changes available for reuse. */
+	private PendingChange[] spares = new PendingChange[INITIAL_CAPACITY / 2];
+	private int numSpares = 0;
+	/* Reused batches for the backing store. */
+	private final List<AccountID> savedIds = new ArrayList<>();
+	private final List<MerkleAccount> savedAccounts = new ArrayList<>();
+	private final List<AccountID> deadIds = new ArrayList<>();
+
+	public TransactionalAccountsLedger(
+			BackingStore<AccountID, MerkleAccount> accounts,
+			ChangeSummaryManager<MerkleAccount, AccountProperty> changeManager
+	) {
+		super(AccountProperty.class, MerkleAccount::new, accounts, changeManager);
+		this.accounts = accounts;
+		this.changeManager = changeManager;
+	}
+
+	@Override
+	void rollback() {
+		if (!isInTransaction()) {
+			throw new IllegalStateException("Cannot perform rollback, no transaction is active!");
+		}
+		clearPending();
+
+		endTransaction();
+	}
+
+	@Override
+	void commit() {
+		if (!isInTransaction()) {
+			throw new IllegalStateException("Cannot perform commit, no transaction is active!");
+		}
+
+		log.debug("Changes to be committed: {}", this::changeSetSoFar);
+		try {
+			clearBatches();
+			for (int i = 0; i < numPending; i++) {
+				var change = ordered[i];
+				if (change.isChanged && !change.isDead) {
+					savedIds.add(change.id);
+					savedAccounts.add(get(change.id));
+				}
+			}
+			accounts.putAll(savedIds, savedAccounts);
+			for (int i = 0; i < numPending; i++) {
+				var change = ordered[i];
+				if (change.isDead) {
+					deadIds.add(change.id);
+				}
+			}
+			accounts.removeAll(deadIds);
+			clearPending();
+
+			endTransaction();
+		} catch (Exception e) {
+			String changeDesc = "<N/A>";
+			try {
+				changeDesc = changeSetSoFar();
+			} catch (Exception f) {
+				log.warn("Unable to describe pending change set!", f);
+			}
+			log.error("Catastrophic failure during commit of {}!", changeDesc);
+			throw e;
+		}
+	}
+
+	@Override
+	public String changeSetSoFar() {
+		var desc = new StringBuilder("{");
+		boolean isFirstChange = true;
+		for (int i = 0; i < numPending; i++) {
+			var change = ordered[i];
+			if (!isFirstChange) {
+				desc.append(", ");
+			}
+			if (change.isChanged) {
+				String prefix;
+				if (accounts.contains(change.id)) {
+					prefix = change.isDead ? "*DEAD* " : "";
+				} else {
+					prefix = change.isDead ? "*NEW -> DEAD* " : "*NEW* ";
+				}
+				desc.append(prefix).append(readableId(change.id)).append(": [");
+				boolean isFirstProperty = true;
+				for (var entry : change.summary().entrySet()) {
+					if (!isFirstProperty) {
+						desc.append(", ");
+					}
+					desc.append(entry.getKey()).append(" -> ").append(readableProperty(entry.getValue()));
+					isFirstProperty = false;
+				}
+				desc.append("]");
+			} else {
+				desc.append("*DEAD* ").append(readableId(change.id));
+			}
+			isFirstChange = false;
+		}
+		return desc.append("}").toString();
+	}
+
+	@Override
+	public boolean exists(AccountID id) {
+		var change = pendingChange(id);
+		if (change == null) {
+			return accounts.contains(id);
+		}
+		return (change.isChanged || accounts.contains(id)) && !change.isDead;
+	}
+
+	@Override
+	public boolean existsPending(AccountID id) {
+		var change = pendingChange(id);
+		return change != null && change.isChanged && !accounts.contains(id);
+	}
+
+	@Override
+	public void set(AccountID id, AccountProperty property, Object value) {
+		throwIfNotInTxn();
+		throwIfMissing(id);
+
+		var change = pendingChangeFor(id);
+		change.isChanged = true;
+		if (property == BALANCE) {
+			change.hasBalance = true;
+			change.balance = (long) value;
+		} else {
+			changeManager.update(change.others(), property, value);
+		}
+	}
+
+	@Override
+	public MerkleAccount get(AccountID id) {
+		throwIfMissing(id);
+
+		var change = pendingChange(id);
+		var account = accounts.contains(id) ? accounts.getRef(id) : new MerkleAccount();
+		if (change != null && change.isChanged) {
+			if (change.others != null) {
+				changeManager.persist(change.others, account);
+			}
+			if (change.hasBalance) {
+				try {
+					account.setBalance(change.balance);
+				} catch (NegativeAccountBalanceException nabe) {
+					throw new IllegalArgumentException("Account balances must be nonnegative!");
+				}
+			}
+		}
+		return account;
+	}
+
+	@Override
+	public Object get(AccountID id, AccountProperty property) {
+		throwIfMissing(id);
+
+		var change = pendingChange(id);
+		if (change != null && change.isChanged) {
+			if (property == BALANCE) {
+				if (change.hasBalance) {
+					return change.balance;
+				}
+			} else if (change.others != null && change.others.containsKey(property)) {
+				return change.others.get(property);
+			}
+		}
+		var target = (change != null && change.isChanged && !accounts.contains(id))
+				? new MerkleAccount()
+				: accounts.getRef(id);
+		return property.getter().apply(target);
+	}
+
+	@Override
+	public void create(AccountID id) {
+		if (!isInTransaction()) {
+			throw new IllegalStateException("No active transaction!");
+		}
+		var change = pendingChange(id);
+		if (accounts.contains(id) || (change != null && change.isChanged)) {
+			throw new IllegalArgumentException("An account already exists with key '" + id + "'!");
+		}
+
+		pendingChangeFor(id).isChanged = true;
+	}
+
+	@Override
+	public void destroy(AccountID id) {
+		throwIfNotInTxn();
+
+		pendingChangeFor(id).isDead = true;
+	}
+
+	int numPendingChanges() {
+		return numPending;
+	}
+
+	private void throwIfMissing(AccountID id) {
+		if (!exists(id)) {
+			throw new MissingAccountException(id);
+		}
+	}
+
+	private PendingChange pendingChange(AccountID id) {
+		long num = id.getAccountNum();
+		for (int i = slotOf(num); ; i = (i + 1) & mask) {
+			var change = table[i];
+			if (change == null || change.isFor(id, num)) {
+				return change;
+			}
+		}
+	}
+
+	private PendingChange pendingChangeFor(AccountID id) {
+		long num = id.getAccountNum();
+		int i = slotOf(num);
+		for (; table[i] != null; i = (i + 1) & mask) {
+			if (table[i].isFor(id, num)) {
+				return table[i];
+			}
+		}
+
+		var change = (numSpares > 0) ? spares[--numSpares] : new PendingChange();
+		change.id = id;
+		table[i] = change;
+		insertOrdered(change);
+		if (2 * numPending > table.length) {
+			rehashInto(new PendingChange[2 * table.length]);
+		}
+		return change;
+	}
+
+	private void insertOrdered(PendingChange change) {
+		if (numPending == ordered.length) {
+			ordered = Arrays.copyOf(ordered, 2 * ordered.length);
+		}
+		int lo = 0, hi = numPending;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (HederaLedger.ACCOUNT_ID_COMPARATOR.compare(ordered[mid].id, change.id) < 0) {
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+		System.arraycopy(ordered, lo, ordered, lo + 1, numPending - lo);
+		ordered[lo] = change;
+		numPending++;
+	}
+
+	private void rehashInto(PendingChange[] newTable) {
+		table = newTable;
+		mask = newTable.length - 1;
+		for (int j = 0; j < numPending; j++) {
+			var change = ordered[j];
+			int i = slotOf(change.id.getAccountNum());
+			while (table[i] != null) {
+				i = (i + 1) & mask;
+			}
+			table[i] = change;
+		}
+	}
+
+	private void clearPending() {
+		clearBatches();
+		if (numSpares + numPending > spares.length) {
+			spares = Arrays.copyOf(spares, Math.max(2 * spares.length, numSpares + numPending));
+		}
+		for (int i = 0; i < numPending; i++) {
+			var change = ordered[i];
+			change.clear();
+			spares[numSpares++] = change;
+			ordered[i] = null;
+		}
+		numPending = 0;
+		Arrays.fill(table, null);
+	}
+
+	private void clearBatches() {
+		savedIds.clear();
+		savedAccounts.clear();
+		deadIds.clear();
+	}
+
+	private int slotOf(long num) {
+		long h = num * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32)) & mask;
+	}
+
+	static final class PendingChange {
+		private AccountID id;
+		private boolean isDead;
+		private boolean isChanged;
+		private boolean hasBalance;
+		private long balance;
+		private EnumMap<AccountProperty, Object> others;
+
+		boolean isFor(AccountID id, long num) {
+			return this.id.getAccountNum() == num
+					&& this.id.getRealmNum() == id.getRealmNum()
+					&& this.id.getShardNum() == id.getShardNum();
+		}
+
+		EnumMap<AccountProperty, Object> others() {
+			if (others == null) {
+				others = new EnumMap<>(AccountProperty.class);
+			}
+			return others;
+		}
+
+		EnumMap<AccountProperty, Object> summary() {
+			var summary = new EnumMap<AccountProperty, Object>(AccountProperty.class);
+			if (others != null) {
+				summary.putAll(others);
+			}
+			if (hasBalance) {
+				summary.put(BALANCE, balance);
+			}
+			return summary;
+		}
+
+		void clear() {
+			id = null;
+			isDead = false;
+			isChanged = false;
+			hasBalance = false;
+			balance = 0L;
+			if (others != null) {
+				others.clear();
+			}
+		}
+	}
+}
@@ -28,10 +28,12 @@ import com.hedera.services.utils.EntityIdUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -43,6 +45,7 @@ import java.util.stream.Stream;
 import static com.hedera.services.utils.EntityIdUtils.readableId;
 import static com.hedera.services.utils.MiscUtils.readableProperty;
 import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
 
 /**
  * Provides a ledger with transactional semantics. Changes during a transaction
@@ -107,12 +110,10 @@ public class TransactionalLedger<K, P extends Enum<P> & BeanProperty<A>, A> impl
 		if (!isInTransaction) {
 			throw new IllegalStateException("Cannot perform rollback, no transaction is active!");
 		}
-		entities.flushMutableRefs();
-
 		changes.clear();
 		deadEntities.clear();
 
-		isInTransaction = false;
+		endTransaction();
 	}
 
 	void commit() {
@@ -125,20 +126,24 @@ public class TransactionalLedger<K, P extends Enum<P> & BeanProperty<A>, A> impl
 			Stream<K> changedKeys = keyComparator.isPresent()
 					? changes.keySet().stream().sorted(keyComparator.get())
 					: changes.keySet().stream();
+			List<K> savedKeys = new ArrayList<>(changes.size());
+			List<A> savedEntities = new ArrayList<>(changes.size());
 			changedKeys
 					.filter(id -> !deadEntities.contains(id))
-					.forEach(id -> entities.put(id, get(id)));
+					.forEach(id -> {
+						savedKeys.add(id);
+						savedEntities.add(get(id));
+					});
+			entities.putAll(savedKeys, savedEntities);
 			changes.clear();
 
 			Stream<K> deadKeys = keyComparator.isPresent()
 					? deadEntities.stream().sorted(keyComparator.get())
 					: deadEntities.stream();
-			deadKeys.forEach(entities::remove);
+			entities.removeAll(deadKeys.collect(toList()));
 			deadEntities.clear();
 
-			entities.flushMutableRefs();
-
-			isInTransaction = false;
+			endTransaction();
 		} catch (Exception e) {
 			String changeDesc = "<N/A>";
 			try {
@@ -151,6 +156,11 @@ public class TransactionalLedger<K, P extends Enum<P> & BeanProperty<A>, A> impl
 		}
 	}
 
+	void endTransaction() {
+		entities.flushMutableRefs();
+		isInTransaction = false;
+	}
+
 	public String changeSetSoFar() {
 		StringBuilder desc = new StringBuilder("{");
 		AtomicBoolean isFirstChange = new AtomicBoolean(true);
@@ -0,0 +1,126 @@
+package com.hedera.services.ledger.accounts;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2020 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hedera.services.utils.LongHashSet;
+import com.hederahashgraph.api.proto.java.AccountID;
+
+import java.util.AbstractSet;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A {@code Set<AccountID>} that keeps the number of each {@code 0.0.x} account in a
+ * {@link LongHashSet}, instead of holding a protobuf id per account; ids in any other
+ * shard or realm (which a running network never has) fall back to a {@link HashSet}.
+ *
+ * Iterating the set creates each {@code AccountID} on demand, so it is meant for rare
+ * uses such as system account creation, and not for hot paths.
+ */
+public class AccountIdSet extends AbstractSet<AccountID> {
+	private final LongHashSet nums;
+	private final Set<AccountID> others = new HashSet<>();
+
+	public AccountIdSet() {
+		nums = new LongHashSet();
+	}
+
+	public AccountIdSet(int expectedSize) {
+		nums = new LongHashSet(expectedSize);
+	}
+
+	/**
+	 * Adds the account with the given id, without first creating an {@code AccountID} for it.
+	 *
+	 * @param shard the shard of the account
+	 * @param realm the realm of the account
+	 * @param num the number of the account
+	 */
+	public void add(long shard, long realm, long num) {
+		if (shard == 0 && realm == 0) {
+			nums.add(num);
+		} else {
+			others.add(AccountID.newBuilder().setShardNum(shard).setRealmNum(realm).setAccountNum(num).build());
+		}
+	}
+
+	@Override
+	public boolean add(AccountID id) {
+		return isPacked(id) ? nums.add(id.getAccountNum()) : others.add(id);
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		if (!(o instanceof AccountID)) {
+			return false;
+		}
+		var id = (AccountID) o;
+		return isPacked(id) ? nums.contains(id.getAccountNum()) : others.contains(id);
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		if (!(o instanceof AccountID)) {
+			return false;
+		}
+		var id = (AccountID) o;
+		return isPacked(id) ? nums.remove(id.getAccountNum()) : others.remove(id);
+	}
+
+	@Override
+	public int size() {
+		return nums.size() + others.size();
+	}
+
+	@Override
+	public void clear() {
+		nums.clear();
+		others.clear();
+	}
+
+	@Override
+	public Iterator<AccountID> iterator() {
+		var packed = nums.cursor();
+		var rest = others.iterator();
+		return new Iterator<>() {
+			@Override
+			public boolean hasNext() {
+				return packed.hasNext() || rest.hasNext();
+			}
+
+			@Override
+			public AccountID next() {
+				if (packed.hasNext()) {
+					return AccountID.newBuilder().setAccountNum(packed.next()).build();
+				} else if (rest.hasNext()) {
+					return rest.next();
+				}
+				throw new NoSuchElementException();
+			}
+		};
+	}
+
+	private static boolean isPacked(AccountID id) {
+		return id.getShardNum() == 0 && id.getRealmNum() == 0;
+	}
+}
@@ -21,6 +21,7 @@ package com.hedera.services.ledger.accounts;
  */
 
 
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -65,6 +66,20 @@ public interface BackingStore<K, A> {
 	 */
 	void put(K id, A account);
 
+	/**
+	 * Updates (or creates, if absent) each account in a batch, in the order given; that is,
+	 * equivalent to calling {@link BackingStore#put(Object, Object)} for each id and the
+	 * account at the same index, but allowing an implementation to do so in a single pass.
+	 *
+	 * @param ids the ids of the relevant accounts.
+	 * @param accounts the accounts that should have these ids.
+	 */
+	default void putAll(List<K> ids, List<A> accounts) {
+		for (int i = 0, n = ids.size(); i < n; i++) {
+			put(ids.get(i), accounts.get(i));
+		}
+	}
+
 	/**
 	 * Frees the account with the given id for reclamation.
 	 *
@@ -72,6 +87,19 @@ public interface BackingStore<K, A> {
 	 */
 	void remove(K id);
 
+	/**
+	 * Frees each account in a batch for reclamation, in the order given; that is, equivalent
+	 * to calling {@link BackingStore#remove(Object)} for each id, but allowing an implementation
+	 * to do so in a single pass.
+	 *
+	 * @param ids the ids of the relevant accounts.
+	 */
+	default void removeAll(List<K> ids) {
+		for (int i = 0, n = ids.size(); i < n; i++) {
+			remove(ids.get(i));
+		}
+	}
+
 	/**
 	 * Checks if the collection contains the account with the given id.
 	 *
@@ -30,7 +30,7 @@ import com.swirlds.fcmap.FCMap;
 import java.util.AbstractMap;
 import java.util.Comparator;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.Supplier;
@@ -53,7 +53,7 @@ public class BackingTokenRels implements BackingStore<Map.Entry<AccountID, Token
 			.<Map.Entry<AccountID, TokenID>, AccountID>comparing(Map.Entry::getKey, ACCOUNT_ID_COMPARATOR)
 			.thenComparing(Map.Entry::getValue, TOKEN_ID_COMPARATOR);
 
-	Set<Map.Entry<AccountID, TokenID>> existingRels = new HashSet<>();
+	Set<Map.Entry<AccountID, TokenID>> existingRels = new TokenRelSet();
 	Map<Map.Entry<AccountID, TokenID>, MerkleTokenRelStatus> cache = new HashMap<>();
 
 	private final Supplier<FCMap<MerkleEntityAssociation, MerkleTokenRelStatus>> delegate;
@@ -61,9 +61,12 @@ public class BackingTokenRels implements BackingStore<Map.Entry<AccountID, Token
 	public BackingTokenRels(Supplier<FCMap<MerkleEntityAssociation, MerkleTokenRelStatus>> delegate) {
 		this.delegate = delegate;
 
-		delegate.get().keySet().stream()
-				.map(MerkleEntityAssociation::asAccountTokenRel)
-				.forEach(existingRels::add);
+		var rels = delegate.get();
+		var keys = new TokenRelSet(rels.size());
+		for (MerkleEntityAssociation rel : rels.keySet()) {
+			keys.add(rel.asAccountTokenRel());
+		}
+		existingRels = keys;
 	}
 
 	@Override
@@ -105,6 +108,43 @@ public class BackingTokenRels implements BackingStore<Map.Entry<AccountID, Token
 		delegate.get().remove(fromAccountTokenRel(key));
 	}
 
+	/**
+	 * {@inheritDoc}
+	 *
+	 * Resolves the delegate map once for the whole batch; and replaces each changed
+	 * existing relationship as it is saved, so it need not be replaced again (or sorted)
+	 * by the next {@link BackingTokenRels#flushMutableRefs()}.
+	 */
+	@Override
+	public void putAll(List<Map.Entry<AccountID, TokenID>> keys, List<MerkleTokenRelStatus> statuses) {
+		var map = delegate.get();
+		for (int i = 0, n = keys.size(); i < n; i++) {
+			var key = keys.get(i);
+			var status = statuses.get(i);
+			if (!existingRels.contains(key)) {
+				map.put(fromAccountTokenRel(key), status);
+				existingRels.add(key);
+			} else if (cache.get(key) == status) {
+				map.replace(fromAccountTokenRel(key), status);
+				cache.remove(key);
+			} else {
+				throw new IllegalArgumentException(String.format(
+						"Existing relationship status '%s' can only be changed using a mutable ref!",
+						fromAccountTokenRel(key).toAbbrevString()));
+			}
+		}
+	}
+
+	@Override
+	public void removeAll(List<Map.Entry<AccountID, TokenID>> keys) {
+		var map = delegate.get();
+		for (int i = 0, n = keys.size(); i < n; i++) {
+			var key = keys.get(i);
+			existingRels.remove(key);
+			map.remove(fromAccountTokenRel(key));
+		}
+	}
+
 	@Override
 	public MerkleTokenRelStatus getUnsafeRef(Map.Entry<AccountID, TokenID> id) {
 		throw new UnsupportedOperationException();
@@ -27,7 +27,7 @@ import com.hedera.services.state.merkle.MerkleAccount;
 import com.swirlds.fcmap.FCMap;
 
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.Supplier;
@@ -36,7 +36,7 @@ import static com.hedera.services.state.merkle.MerkleEntityId.fromAccountId;
 import static com.hedera.services.utils.EntityIdUtils.readableId;
 
 public class FCMapBackingAccounts implements BackingStore<AccountID, MerkleAccount> {
-	Set<AccountID> existingAccounts = new HashSet<>();
+	Set<AccountID> existingAccounts = new AccountIdSet();
 	Map<AccountID, MerkleAccount> cache = new HashMap<>();
 
 	private final Supplier<FCMap<MerkleEntityId, MerkleAccount>> delegate;
@@ -44,9 +44,12 @@ public class FCMapBackingAccounts implements BackingStore<AccountID, MerkleAccou
 	public FCMapBackingAccounts(Supplier<FCMap<MerkleEntityId, MerkleAccount>> delegate) {
 		this.delegate = delegate;
 
-		delegate.get().keySet().stream()
-				.map(MerkleEntityId::toAccountId)
-				.forEach(existingAccounts::add);
+		var accounts = delegate.get();
+		var ids = new AccountIdSet(accounts.size());
+		for (MerkleEntityId id : accounts.keySet()) {
+			ids.add(id.getShard(), id.getRealm(), id.getNum());
+		}
+		existingAccounts = ids;
 	}
 
 	@Override
@@ -76,6 +79,33 @@ public class FCMapBackingAccounts implements BackingStore<AccountID, MerkleAccou
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 *
+	 * Resolves the delegate map once for the whole batch; and replaces each changed
+	 * existing account as it is saved, so it need not be replaced again (or sorted)
+	 * by the next {@link FCMapBackingAccounts#flushMutableRefs()}.
+	 */
+	@Override
+	public void putAll(List<AccountID> ids, List<MerkleAccount> accounts) {
+		var map = delegate.get();
+		for (int i = 0, n = ids.size(); i < n; i++) {
+			var id = ids.get(i);
+			var account = accounts.get(i);
+			if (!existingAccounts.contains(id)) {
+				map.put(fromAccountId(id), account);
+				existingAccounts.add(id);
+			} else if (cache.get(id) == account) {
+				map.replace(fromAccountId(id), account);
+				cache.remove(id);
+			} else {
+				throw new IllegalArgumentException(String.format(
+						"Existing account '%s' can only be changed using a mutable ref!",
+						readableId(id)));
+			}
+		}
+	}
+
 	@Override
 	public boolean contains(AccountID id) {
 		return existingAccounts.contains(id);
@@ -87,6 +117,16 @@ public class FCMapBackingAccounts implements BackingStore<AccountID, MerkleAccou
 		delegate.get().remove(fromAccountId(id));
 	}
 
+	@Override
+	public void removeAll(List<AccountID> ids) {
+		var map = delegate.get();
+		for (int i = 0, n = ids.size(); i < n; i++) {
+			var id = ids.get(i);
+			existingAccounts.remove(id);
+			map.remove(fromAccountId(id));
+		}
+	}
+
 	@Override
 	public Set<AccountID> idSet() {
 		return existingAccounts;
@@ -0,0 +1,140 @@
+package com.hedera.services.ledger.accounts;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2020 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hedera.services.utils.LongHashSet;
+import com.hederahashgraph.api.proto.java.AccountID;
+import com.hederahashgraph.api.proto.java.TokenID;
+
+import java.util.AbstractSet;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import static com.hedera.services.ledger.accounts.BackingTokenRels.asTokenRel;
+
+/**
+ * A {@code Set} of account-token relationships that packs each relationship between a
+ * {@code 0.0.a} account and a {@code 0.0.t} token, with {@code a} and {@code t} below
+ * 2<sup>32</sup>, into the single {@code long} {@code (a << 32) | t} of a {@link LongHashSet};
+ * any other relationship falls back to a {@link HashSet} of entries.
+ *
+ * Iterating the set creates each relationship on demand, so it is not meant for hot paths.
+ */
+public class TokenRelSet extends AbstractSet<Map.Entry<AccountID, TokenID>> {
+	private static final long MAX_PACKED_NUM = 0xFFFFFFFFL;
+
+	private final LongHashSet packedRels;
+	private final Set<Map.Entry<AccountID, TokenID>> others = new HashSet<>();
+
+	public TokenRelSet() {
+		packedRels = new LongHashSet();
+	}
+
+	public TokenRelSet(int expectedSize) {
+		packedRels = new LongHashSet(expectedSize);
+	}
+
+	@Override
+	public boolean add(Map.Entry<AccountID, TokenID> rel) {
+		return isPackable(rel) ? packedRels.add(packed(rel)) : others.add(rel);
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		var rel = typed(o);
+		if (rel == null) {
+			return false;
+		}
+		return isPackable(rel) ? packedRels.contains(packed(rel)) : others.contains(rel);
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		var rel = typed(o);
+		if (rel == null) {
+			return false;
+		}
+		return isPackable(rel) ? packedRels.remove(packed(rel)) : others.remove(rel);
+	}
+
+	@Override
+	public int size() {
+		return packedRels.size() + others.size();
+	}
+
+	@Override
+	public void clear() {
+		packedRels.clear();
+		others.clear();
+	}
+
+	@Override
+	public Iterator<Map.Entry<AccountID, TokenID>> iterator() {
+		var packed = packedRels.cursor();
+		var rest = others.iterator();
+		return new Iterator<>() {
+			@Override
+			public boolean hasNext() {
+				return packed.hasNext() || rest.hasNext();
+			}
+
+			@Override
+			public Map.Entry<AccountID, TokenID> next() {
+				if (packed.hasNext()) {
+					long rel = packed.next();
+					return asTokenRel(
+							AccountID.newBuilder().setAccountNum(rel >>> 32).build(),
+							TokenID.newBuilder().setTokenNum(rel & MAX_PACKED_NUM).build());
+				} else if (rest.hasNext()) {
+					return rest.next();
+				}
+				throw new NoSuchElementException();
+			}
+		};
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map.Entry<AccountID, TokenID> typed(Object o) {
+		if (o instanceof Map.Entry) {
+			var rel = (Map.Entry<?, ?>) o;
+			if (rel.getKey() instanceof AccountID && rel.getValue() instanceof TokenID) {
+				return (Map.Entry<AccountID, TokenID>) rel;
+			}
+		}
+		return null;
+	}
+
+	private static boolean isPackable(Map.Entry<AccountID, TokenID> rel) {
+		var account = rel.getKey();
+		var token = rel.getValue();
+		return account.getShardNum() == 0 && account.getRealmNum() == 0
+				&& token.getShardNum() == 0 && token.getRealmNum() == 0
+				&& account.getAccountNum() >= 0 && account.getAccountNum() <= MAX_PACKED_NUM
+				&& token.getTokenNum() >= 0 && token.getTokenNum() <= MAX_PACKED_NUM;
+	}
+
+	private static long packed(Map.Entry<AccountID, TokenID> rel) {
+		return (rel.getKey().getAccountNum() << 32) | rel.getValue().getTokenNum();
+	}
+}
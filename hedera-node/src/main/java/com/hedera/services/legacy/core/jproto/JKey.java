@@ -22,6 +22,7 @@ package com.hedera.services.legacy.core.jproto;
 
 import com.google.protobuf.ByteString;
 import com.google.protobuf.TextFormat;
+import com.hedera.services.keys.CompiledKey;
 import com.hedera.services.utils.MiscUtils;
 import com.hederahashgraph.api.proto.java.ContractID;
 import com.hederahashgraph.api.proto.java.Key;
@@ -51,6 +52,9 @@ public abstract class JKey implements Serializable, Cloneable {
 	private static final Logger log = LogManager.getLogger(JKey.class);
 	private static boolean USE_HEX_ENCODED_KEY = KeyExpansion.USE_HEX_ENCODED_KEY;
 
+	/* Memoizes the flattened form of this key used to test its activation. */
+	private transient CompiledKey compiled;
+
 	/**
 	 * Maps a proto Key to Jkey.
 	 *
@@ -240,6 +244,14 @@ public abstract class JKey implements Serializable, Cloneable {
 		return JKeySerializer.serialize(this);
 	}
 
+	public CompiledKey getCompiled() {
+		return compiled;
+	}
+
+	public void setCompiled(CompiledKey compiled) {
+		this.compiled = compiled;
+	}
+
 	public abstract boolean isEmpty();
 
 	//Key is not empty and has valid format
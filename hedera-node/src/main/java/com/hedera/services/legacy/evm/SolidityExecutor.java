@@ -114,6 +114,7 @@ public class SolidityExecutor {
 	private final boolean localCall;
 	private final Transaction solidityTxn;
 	private final CommonConfig commonConfig;
+	private final VMHook vmHook;
 	private final SequenceNumber seqNo;
 	private final TransactionBody txn;
 	private final SystemProperties config;
@@ -165,7 +166,9 @@ public class SolidityExecutor {
 			TransactionContext txnCtx,
 			boolean localCall,
 			SoliditySigsVerifier sigsVerifier,
-			GlobalDynamicProperties dynamicProperties
+			GlobalDynamicProperties dynamicProperties,
+			CommonConfig commonConfig,
+			VMHook vmHook
 	) {
 		this.txn = txn;
 		this.rbh = rbh;
@@ -189,7 +192,8 @@ public class SolidityExecutor {
 				.map(ByteUtil::hexStringToBytes)
 				.orElse(EMPTY_BYTE_ARRAY);
 
-		commonConfig = CommonConfig.getDefault();
+		this.commonConfig = commonConfig;
+		this.vmHook = vmHook;
 		config = commonConfig.systemProperties();
 		blockchainConfig = config.getBlockchainConfig().getConfigForBlock(block.getNumber());
 	}
@@ -273,14 +277,14 @@ public class SolidityExecutor {
 				var programInvoke = programInvokeFactory.createProgramInvoke(
 						solidityTxn, block, trackingRepository, repository, NULL_BLOCK_STORE);
 				((ProgramInvokeImpl) programInvoke).setStaticCall(localCall);
-				this.vm = new VM(config, VMHook.EMPTY);
+				this.vm = new VM(config, vmHook);
 				this.program = new Program(
 						repository.getCodeHash(targetAddress),
 						code,
 						programInvoke,
 						solidityTxn,
 						config,
-						VMHook.EMPTY,
+						vmHook,
 						contractCreateAdaptor,
 						fundingAddress,
 						rbh,
@@ -336,14 +340,14 @@ public class SolidityExecutor {
 			ProgramInvoke programInvoke = programInvokeFactory.createProgramInvoke(
 					solidityTxn, block, trackingRepository, repository, NULL_BLOCK_STORE);
 			((ProgramInvokeImpl) programInvoke).setStaticCall(localCall);
-			this.vm = new VM(config, VMHook.EMPTY);
+			this.vm = new VM(config, vmHook);
 			this.program = new Program(
 					null,
 					solidityTxn.getData(),
 					programInvoke,
 					solidityTxn,
 					config,
-					VMHook.EMPTY,
+					vmHook,
 					contractCreateAdaptor,
 					fundingAddress,
 					rbh,
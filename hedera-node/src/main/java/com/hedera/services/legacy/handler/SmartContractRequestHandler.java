@@ -24,6 +24,8 @@ import com.google.protobuf.ByteString;
 import com.google.protobuf.TextFormat;
 import com.hedera.services.context.TransactionContext;
 import com.hedera.services.context.properties.GlobalDynamicProperties;
+import com.hedera.services.contracts.execution.LocalCallDeadline;
+import com.hedera.services.contracts.execution.SignedStateSnapshots;
 import com.hedera.services.contracts.execution.SolidityLifecycle;
 import com.hedera.services.contracts.execution.SoliditySigsVerifier;
 import com.hedera.services.fees.HbarCentExchange;
@@ -67,9 +69,11 @@ import com.hederahashgraph.fee.FeeBuilder;
 import com.swirlds.fcmap.FCMap;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.ethereum.config.CommonConfig;
 import org.ethereum.core.Transaction;
 import org.ethereum.db.ServicesRepositoryRoot;
 import org.ethereum.util.ByteUtil;
+import org.ethereum.vm.hook.VMHook;
 import org.spongycastle.pqc.math.linearalgebra.ByteUtils;
 import org.spongycastle.util.encoders.DecoderException;
 
@@ -125,6 +129,8 @@ public class SmartContractRequestHandler {
 	private SolidityLifecycle lifecycle;
 	private SoliditySigsVerifier sigsVerifier;
 	private GlobalDynamicProperties dynamicProperties;
+	private CommonConfig evmConfig;
+	private SignedStateSnapshots snapshots;
 
 	public SmartContractRequestHandler(
 			ServicesRepositoryRoot repository,
@@ -137,7 +143,9 @@ public class SmartContractRequestHandler {
 			SolidityLifecycle lifecycle,
 			SoliditySigsVerifier sigsVerifier,
 			Map<EntityId, Long> entityExpiries,
-			GlobalDynamicProperties dynamicProperties
+			GlobalDynamicProperties dynamicProperties,
+			CommonConfig evmConfig,
+			SignedStateSnapshots snapshots
 	) {
 		this.repository = repository;
 		this.newPureRepo = newPureRepo;
@@ -150,6 +158,8 @@ public class SmartContractRequestHandler {
 		this.sigsVerifier = sigsVerifier;
 		this.entityExpiries = entityExpiries;
 		this.dynamicProperties = dynamicProperties;
+		this.evmConfig = evmConfig;
+		this.snapshots = snapshots;
 	}
 
 	/**
@@ -294,10 +304,10 @@ public class SmartContractRequestHandler {
 	private ContractCallLocalResponse runPure(
 			Transaction solidityTxn,
 			Instant startTime,
-			long maxResultSize
+			long maxResultSize,
+			ServicesRepositoryRoot pureRepository
 	) {
 		var mockConsensusTime = Timestamp.newBuilder().setSeconds(startTime.getEpochSecond()).build();
-		var pureRepository = newPureRepo.get();
 		var executor = new SolidityExecutor(
 				solidityTxn,
 				pureRepository,
@@ -312,7 +322,9 @@ public class SmartContractRequestHandler {
 				txnCtx,
 		true,
 				sigsVerifier,
-				dynamicProperties);
+				dynamicProperties,
+				evmConfig,
+				new LocalCallDeadline(dynamicProperties.localCallTimeoutMs()));
 
 		var result = lifecycle.runPure(maxResultSize, executor);
 
@@ -348,7 +360,9 @@ public class SmartContractRequestHandler {
 				txnCtx,
 				false,
 				sigsVerifier,
-				dynamicProperties);
+				dynamicProperties,
+				evmConfig,
+				VMHook.EMPTY);
 		var result = lifecycle.run(executor, repository);
 
 		var receiptBuilder = RequestBuilder.getTransactionReceipt(
@@ -544,38 +558,51 @@ public class SmartContractRequestHandler {
 				.setRealmNum(transactionContractCallLocal.getContractID().getRealmNum())
 				.setShardNum(transactionContractCallLocal.getContractID().getShardNum()).build();
 		String receiverAccountEthAddress = asSolidityAddressHex(receiverAccount);
-		ResponseCodeEnum callResponseStatus =
-				validateContractExistence(transactionContractCallLocal.getContractID());
-		if (callResponseStatus == ResponseCodeEnum.OK) {
-			BigInteger gas;
-			if (transactionContractCallLocal.getGas() <= dynamicProperties.maxGas()) {
-				gas = BigInteger.valueOf(transactionContractCallLocal.getGas());
+		/* Prefer the latest signed state, so the call neither sees nor blocks the handle thread */
+		var snapshot = snapshots.acquire();
+		try {
+			ResponseCodeEnum callResponseStatus = (snapshot == null)
+					? validateContractExistence(transactionContractCallLocal.getContractID())
+					: PureValidation.queryableContractStatus(
+							transactionContractCallLocal.getContractID(),
+							snapshot.accounts());
+			if (callResponseStatus == ResponseCodeEnum.OK) {
+				BigInteger gas;
+				long maxGas = Math.min(dynamicProperties.maxGas(), dynamicProperties.maxLocalCallGas());
+				if (transactionContractCallLocal.getGas() <= maxGas) {
+					gas = BigInteger.valueOf(transactionContractCallLocal.getGas());
+				} else {
+					gas = BigInteger.valueOf(maxGas);
+					log.debug("Gas offered: {} reduced to maxGasLimit: {} in local call",
+							() -> transactionContractCallLocal.getGas(), () -> maxGas);
+				}
+				String data = "";
+				if (transactionContractCallLocal.getFunctionParameters() != null
+						&& !transactionContractCallLocal.getFunctionParameters().isEmpty()) {
+					data = ByteUtil
+							.toHexString(transactionContractCallLocal.getFunctionParameters().toByteArray());
+				}
+				BigInteger value = BigInteger.ZERO;
+
+				tx = new Transaction(BigInteger.ZERO, BigInteger.ONE, gas, senderAccountEthAddress,
+						receiverAccountEthAddress, value, data);
+				responseToReturn = runPure(
+						tx,
+						Instant.ofEpochMilli(currentTimeMs),
+						transactionContractCallLocal.getMaxResultSize(),
+						(snapshot == null) ? newPureRepo.get() : snapshot.newPureRepo());
 			} else {
-				gas = BigInteger.valueOf(dynamicProperties.maxGas());
-				log.debug("Gas offered: {} reduced to maxGasLimit: {} in local call",
-						() -> transactionContractCallLocal.getGas(), () -> dynamicProperties.maxGas());
-			}
-			String data = "";
-			if (transactionContractCallLocal.getFunctionParameters() != null
-					&& !transactionContractCallLocal.getFunctionParameters().isEmpty()) {
-				data = ByteUtil
-						.toHexString(transactionContractCallLocal.getFunctionParameters().toByteArray());
+				ResponseHeader responseHeader = RequestBuilder.getResponseHeader(callResponseStatus, 0l,
+						ANSWER_ONLY, ByteString.EMPTY);
+				responseToReturn = ContractCallLocalResponse.newBuilder().setHeader(responseHeader).build();
+				if (log.isDebugEnabled()) {
+					log.debug("contractCallLocal  -Invalid Contract ID "
+							+ TextFormat.shortDebugString(transactionContractCallLocal.getContractID()));
+				}
 			}
-			BigInteger value = BigInteger.ZERO;
-
-			tx = new Transaction(BigInteger.ZERO, BigInteger.ONE, gas, senderAccountEthAddress,
-					receiverAccountEthAddress, value, data);
-			responseToReturn = runPure(
-					tx,
-					Instant.ofEpochMilli(currentTimeMs),
-					transactionContractCallLocal.getMaxResultSize());
-		} else {
-			ResponseHeader responseHeader = RequestBuilder.getResponseHeader(callResponseStatus, 0l,
-					ANSWER_ONLY, ByteString.EMPTY);
-			responseToReturn = ContractCallLocalResponse.newBuilder().setHeader(responseHeader).build();
-			if (log.isDebugEnabled()) {
-				log.debug("contractCallLocal  -Invalid Contract ID "
-						+ TextFormat.shortDebugString(transactionContractCallLocal.getContractID()));
+		} finally {
+			if (snapshot != null) {
+				snapshot.close();
 			}
 		}
 		return responseToReturn;
@@ -319,6 +319,18 @@ public class TransactionHandler {
     return returnCode;
   }
 
+  /**
+   * Returns the gas a transaction offered to the throttle bucket it was charged against
+   * by a successful precheck, when this node will not submit the transaction after all.
+   *
+   * @param txn the transaction that passed precheck
+   */
+  public void refundGasOffered(TransactionBody txn) {
+    if (!IS_THROTTLE_EXEMPT.test(txn.getTransactionID().getAccountID())) {
+      txnThrottling.refundGasOffered(txn);
+    }
+  }
+
   private ResponseCodeEnum validateTransactionThrottling(TransactionBody txn) {
     AccountID payer = txn.getTransactionID().getAccountID();
     if (IS_THROTTLE_EXEMPT.test(payer)) {
@@ -443,13 +455,44 @@ public class TransactionHandler {
   }
 
   public TxnValidityAndFeeReq validateTransactionPreConsensus(Transaction transaction, boolean isQueryPayment) {
-    ResponseCodeEnum returnCode = validateTransactionContents(transaction);
+    ResponseCodeEnum returnCode = validateUnparsed(transaction);
+    if (OK != returnCode) {
+      return new TxnValidityAndFeeReq(returnCode);
+    }
+
+    SignedTxnAccessor accessor;
+    try {
+      accessor = new SignedTxnAccessor(transaction);
+    } catch (InvalidProtocolBufferException e1) {
+      return new TxnValidityAndFeeReq(INVALID_TRANSACTION_BODY);
+    }
+    return validateParsed(accessor, isQueryPayment);
+  }
+
+  /**
+   * Runs the same checks as {@link TransactionHandler#validateTransactionPreConsensus(Transaction, boolean)},
+   * but re-uses the given accessor for the parsed body of the transaction, instead of parsing it again.
+   *
+   * @param accessor the already-parsed transaction to validate
+   * @param isQueryPayment whether the transaction is a query payment
+   * @return the validity of the transaction and, if relevant, the fee it requires
+   */
+  public TxnValidityAndFeeReq validateTransactionPreConsensus(SignedTxnAccessor accessor, boolean isQueryPayment) {
+    ResponseCodeEnum returnCode = validateUnparsed(accessor.getSignedTxn());
     if (OK != returnCode) {
       return new TxnValidityAndFeeReq(returnCode);
     }
+    return validateParsed(accessor, isQueryPayment);
+  }
+
+  private ResponseCodeEnum validateUnparsed(Transaction transaction) {
+    ResponseCodeEnum returnCode = validateTransactionContents(transaction);
+    if (OK != returnCode) {
+      return returnCode;
+    }
 
     if (platformStatus.get() != ACTIVE) {
-      return new TxnValidityAndFeeReq(ResponseCodeEnum.PLATFORM_NOT_ACTIVE);
+      return ResponseCodeEnum.PLATFORM_NOT_ACTIVE;
     }
 
     if (!TransactionValidationUtils.validateTxSize(transaction)) {
@@ -457,25 +500,20 @@ public class TransactionHandler {
         log.debug("Size of the transaction exceeds transactionMaxBytes: "
             + Platform.getTransactionMaxBytes());
       }
-      return new TxnValidityAndFeeReq(ResponseCodeEnum.TRANSACTION_OVERSIZE);
+      return ResponseCodeEnum.TRANSACTION_OVERSIZE;
     }
 
-    if (!TransactionValidationUtils.validateTxDepth(transaction)) {
-      log.debug("Request transaction has too many layers.");
-      return new TxnValidityAndFeeReq(ResponseCodeEnum.TRANSACTION_TOO_MANY_LAYERS);
-    }
+    /* No depth check here; a Transaction only nests a SignatureMap of flat SignaturePairs,
+    so it can never approach the limit. Only the body (with its keys) needs to be walked. */
+    return OK;
+  }
 
+  private TxnValidityAndFeeReq validateParsed(SignedTxnAccessor accessor, boolean isQueryPayment) {
+    ResponseCodeEnum returnCode = OK;
     long feeRequired = 0L;
-    SignedTxnAccessor accessor = null;
-    TransactionBody txn = TransactionBody.getDefaultInstance();
-    try {
-      accessor = new SignedTxnAccessor(transaction);
-      txn = accessor.getTxn();
-    } catch (InvalidProtocolBufferException e1) {
-      returnCode = INVALID_TRANSACTION_BODY;
-    }
+    TransactionBody txn = accessor.getTxn();
 
-    if (returnCode == OK && !TransactionValidationUtils.validateTxBodyDepth(txn)) {
+    if (!TransactionValidationUtils.validateTxBodyDepth(txn)) {
       return new TxnValidityAndFeeReq(ResponseCodeEnum.TRANSACTION_TOO_MANY_LAYERS);
     }
 
@@ -508,7 +546,7 @@ public class TransactionHandler {
 
     if (returnCode == OK) {
       try {
-        if (!verifySignature(transaction)) {
+        if (!precheckVerifier.hasNecessarySignatures(accessor)) {
           returnCode = ResponseCodeEnum.INVALID_SIGNATURE;
         }
       } catch (KeySignatureTypeMismatchException e) {
@@ -538,10 +576,6 @@ public class TransactionHandler {
       returnCode = queryFeeCheck.validateQueryPaymentTransfers(txn);
     }
 
-    if (!(isQueryPayment && txn.hasCryptoTransfer()) && returnCode == OK) {
-      returnCode = validateTransactionThrottling(txn);
-    }
-
     if (returnCode == OK) {
       returnCode = validateContractPositiveValues(txn);
     }
@@ -550,6 +584,11 @@ public class TransactionHandler {
       returnCode = validateContractMemoSize(txn);
     }
 
+    /* Throttling charges the gas a contract operation offers, so it must be the last check. */
+    if (!(isQueryPayment && txn.hasCryptoTransfer()) && returnCode == OK) {
+      returnCode = validateTransactionThrottling(txn);
+    }
+
     return new TxnValidityAndFeeReq(returnCode, feeRequired);
   }
 
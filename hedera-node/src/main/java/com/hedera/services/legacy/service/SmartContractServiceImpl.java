@@ -390,6 +390,7 @@ public class SmartContractServiceImpl extends SmartContractServiceGrpc.SmartCont
           transactionRequest + " :: request : " + TextFormat.shortDebugString(transactionBody));
     }
     precheckResult = txHandler.validateTransactionPreConsensus(request, false);
+    boolean chargedGasOffered = precheckResult.getValidity() == OK;
 
     if (precheckResult.getValidity() == OK) {
       /* should check if ContractID is invalid, if so return INVALID_CONTRACT_ID */
@@ -420,6 +421,9 @@ public class SmartContractServiceImpl extends SmartContractServiceGrpc.SmartCont
     }
 
     if (precheckResult.getValidity() != OK) {
+      if (chargedGasOffered) {
+        txHandler.refundGasOffered(transactionBody);
+      }
       transactionResponse(responseObserver, precheckResult);
       return;
     }
@@ -435,6 +439,7 @@ public class SmartContractServiceImpl extends SmartContractServiceGrpc.SmartCont
     if (transactionBody.hasContractCreateInstance()) {
       long duration = transactionBody.getContractCreateInstance().getAutoRenewPeriod().getSeconds();
       if (durationRangeCheck(responseObserver, minimumDuration, maximumDuration, duration)) {
+        txHandler.refundGasOffered(transactionBody);
         return;
       }
     }
@@ -443,6 +448,7 @@ public class SmartContractServiceImpl extends SmartContractServiceGrpc.SmartCont
       if (transactionBody.getContractUpdateInstance().hasAutoRenewPeriod()) {
         long duration = transactionBody.getContractUpdateInstance().getAutoRenewPeriod().getSeconds();
         if (durationRangeCheck(responseObserver, minimumDuration, maximumDuration, duration)) {
+          txHandler.refundGasOffered(transactionBody);
           return;
         }
       }
@@ -450,6 +456,7 @@ public class SmartContractServiceImpl extends SmartContractServiceGrpc.SmartCont
     }
 
     if (submissionManager.trySubmission(uncheckedFrom(request)) != OK) {
+      txHandler.refundGasOffered(transactionBody);
       logAndConstructResponseWhenCreateTxFailed(log, responseObserver);
       return;
     }
@@ -50,6 +50,7 @@ import static com.hedera.services.context.domain.trackers.IssEventStatus.ONGOING
 import static com.hedera.services.keys.HederaKeyActivation.otherPartySigsAreActive;
 import static com.hedera.services.keys.HederaKeyActivation.payerSigIsActive;
 import static com.hedera.services.keys.RevocationServiceCharacteristics.forTopLevelFile;
+import static com.hedera.services.legacy.handler.TransactionHandler.IS_THROTTLE_EXEMPT;
 import static com.hedera.services.legacy.crypto.SignatureStatusCode.SUCCESS_VERIFY_ASYNC;
 import static com.hedera.services.sigs.HederaToPlatformSigOps.rationalizeIn;
 import static com.hedera.services.sigs.Rationalization.IN_HANDLE_SUMMARY_FACTORY;
@@ -58,6 +59,7 @@ import static com.hedera.services.txns.diligence.DuplicateClassification.BELIEVE
 import static com.hedera.services.txns.diligence.DuplicateClassification.DUPLICATE;
 import static com.hedera.services.txns.diligence.DuplicateClassification.NODE_DUPLICATE;
 import static com.hedera.services.utils.EntityIdUtils.readableId;
+import static com.hederahashgraph.api.proto.java.ResponseCodeEnum.BUSY;
 import static com.hederahashgraph.api.proto.java.ResponseCodeEnum.CONTRACT_FILE_EMPTY;
 import static com.hederahashgraph.api.proto.java.ResponseCodeEnum.DUPLICATE_TRANSACTION;
 import static com.hederahashgraph.api.proto.java.ResponseCodeEnum.FAIL_INVALID;
@@ -99,6 +101,8 @@ public class AwareProcessLogic implements ProcessLogic {
 			this::warnOf);
 	private final ServicesContext ctx;
 
+	private long gasUsedByHandledTxn;
+
 	public AwareProcessLogic(ServicesContext ctx) {
 		this.ctx = ctx;
 	}
@@ -110,8 +114,9 @@ public class AwareProcessLogic implements ProcessLogic {
 	@Override
 	public void incorporateConsensusTxn(Transaction platformTxn, Instant consensusTime, long submittingMember) {
 		try {
-			PlatformTxnAccessor accessor = new PlatformTxnAccessor(platformTxn);
+			PlatformTxnAccessor accessor = ctx.accessorCache().takeOrParse(platformTxn);
 			if (!txnSanityChecks(accessor, consensusTime, submittingMember)) {
+				reconcileGasIfSubmittedHere(accessor.getTxn(), submittingMember, 0L);
 				return;
 			}
 			txnManager.process(accessor, consensusTime, submittingMember, ctx);
@@ -144,7 +149,13 @@ public class AwareProcessLogic implements ProcessLogic {
 	}
 
 	private void processTxnInCtx() {
-		doProcess(ctx.txnCtx().accessor(), ctx.txnCtx().consensusTime());
+		var accessor = ctx.txnCtx().accessor();
+		gasUsedByHandledTxn = 0L;
+		try {
+			doProcess(accessor, ctx.txnCtx().consensusTime());
+		} finally {
+			reconcileGasIfSubmittedHere(accessor.getTxn(), ctx.txnCtx().submittingSwirldsMember(), gasUsedByHandledTxn);
+		}
 	}
 
 	private void warnOf(Exception e, String context) {
@@ -162,9 +173,24 @@ public class AwareProcessLogic implements ProcessLogic {
 		}
 	}
 
+	/**
+	 * Serializes the final record (and, unless the network streams the signed transaction
+	 * bytes the accessor was parsed from, the transaction) exactly once, here; so the stream
+	 * thread has no gRPC serialization left to do.
+	 */
 	private void addRecordToStream() {
+		if (!PropertiesLoader.isEnableRecordStreaming()) {
+			return;
+		}
 		var finalRecord = ctx.recordsHistorian().lastCreatedRecord().get();
-		addForStreaming(ctx.txnCtx().accessor().getSignedTxn(), finalRecord, ctx.txnCtx().consensusTime());
+		var accessor = ctx.txnCtx().accessor();
+		var transactionBytes = ctx.globalDynamicProperties().shouldStreamReceivedTxnBytes()
+				? accessor.getSignedTxnBytes()
+				: accessor.getSignedTxn().toByteArray();
+		ctx.recordStream().addSerializedRecord(
+				transactionBytes,
+				finalRecord.toByteArray(),
+				ctx.txnCtx().consensusTime());
 	}
 
 	private void doProcess(PlatformTxnAccessor accessor, Instant consensusTime) {
@@ -203,6 +229,12 @@ public class AwareProcessLogic implements ProcessLogic {
 			return;
 		}
 
+		if (ctx.consensusThrottling().shouldThrottle(accessor.getFunction(), consensusTime)) {
+			var throttledOutcome = ctx.txnChargingPolicy().applyForThrottled(ctx.charging(), fee);
+			ctx.txnCtx().setStatus((throttledOutcome == OK) ? BUSY : throttledOutcome);
+			return;
+		}
+
 		var chargingOutcome = ctx.txnChargingPolicy().apply(ctx.charging(), fee);
 		if (chargingOutcome != OK) {
 			ctx.txnCtx().setStatus(chargingOutcome);
@@ -241,6 +273,7 @@ public class AwareProcessLogic implements ProcessLogic {
 			TransactionRecord record = processTransaction(accessor.getTxn(), consensusTime);
 			if (record != null && record.isInitialized()) {
 				mapLegacyRecordToTxnCtx(record);
+				gasUsedByHandledTxn = gasUsedIn(record);
 			} else {
 				log.warn("Legacy process returned null record for {}!", accessor.getTxn());
 			}
@@ -358,14 +391,23 @@ public class AwareProcessLogic implements ProcessLogic {
 		}
 	}
 
-	private void addForStreaming(
-			com.hederahashgraph.api.proto.java.Transaction grpcTransaction,
-			TransactionRecord transactionRecord,
-			Instant consensusTimeStamp
-	) {
-		if (PropertiesLoader.isEnableRecordStreaming()) {
-			ctx.recordStream().addRecord(grpcTransaction, transactionRecord, consensusTimeStamp);
+	private long gasUsedIn(TransactionRecord legacyRecord) {
+		if (legacyRecord.hasContractCallResult()) {
+			return legacyRecord.getContractCallResult().getGasUsed();
+		} else if (legacyRecord.hasContractCreateResult()) {
+			return legacyRecord.getContractCreateResult().getGasUsed();
+		}
+		return 0L;
+	}
+
+	/* Only the node a transaction was submitted to charged its gas bucket for the gas offered;
+	and then only if the payer was not exempt from throttling. Whatever path the transaction
+	takes through handling, all gas it did not use goes back to the bucket. */
+	private void reconcileGasIfSubmittedHere(TransactionBody txn, long submittingMember, long gasUsed) {
+		if (submittingMember != ctx.id().getId() || IS_THROTTLE_EXEMPT.test(txn.getTransactionID().getAccountID())) {
+			return;
 		}
+		ctx.txnThrottling().reconcileGasUsed(txn, gasUsed);
 	}
 
 	private TransactionRecord processTransaction(TransactionBody txn, Instant consensusTime) {
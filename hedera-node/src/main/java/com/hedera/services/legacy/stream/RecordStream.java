@@ -30,10 +30,8 @@ import com.hederahashgraph.api.proto.java.Transaction;
 import com.hederahashgraph.api.proto.java.TransactionRecord;
 import com.swirlds.common.Platform;
 import org.apache.commons.codec.binary.Hex;
-import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.apache.commons.lang3.tuple.Pair;
-import org.apache.commons.lang3.tuple.Triple;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -46,15 +44,33 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.security.DigestOutputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 
+/**
+ * Writes the records of handled transactions to a sequence of record stream files, one
+ * per {@code hedera.recordStream.logPeriod}, each chained to its predecessor by hash.
+ *
+ * The work is staged. The stream thread drains the queue in batches of up to
+ * {@link RecordStream#MAX_BATCH_SIZE} records, writing each batch through a buffered stream
+ * that updates the running content hash as bytes are written; so the hash of a finished
+ * file is available without re-reading it. Flushing, syncing, and closing a finished file,
+ * and signing its hash, are then handed off to a single completion thread (preserving the
+ * order of signature files) while the stream thread opens the file for the next period.
+ */
 public class RecordStream implements Runnable {
 
 	/** use this for all logging, as controlled by the optional data/log4j2.xml file */
@@ -62,6 +78,8 @@ public class RecordStream implements Runnable {
 
 	static final String EXCEPTION = "EXCEPTION";
 	static final int STREAM_DELAY = 500;
+	static final int MAX_BATCH_SIZE = 1024;
+	static final int FILE_BUFFER_SIZE = 64 * 1024;
 
 	static final int HAPI_VERSION = 3;
 	static final int RECORD_FORMAT_VERSION = 2;
@@ -74,10 +92,14 @@ public class RecordStream implements Runnable {
 	private String logDirectory;
 	private String nodeAccountID;
 	private FileOutputStream stream = null;
+	private DigestOutputStream digestStream = null;
 	private DataOutputStream dos = null;
 	private String fileName;
 	private File file;
-	private LinkedBlockingQueue<Triple<Transaction, TransactionRecord, Instant>> recordBuffer;
+	private LinkedBlockingQueue<QueuedRecord> recordBuffer;
+	private final List<QueuedRecord> batch = new ArrayList<>(MAX_BATCH_SIZE);
+	private final ExecutorService fileCompletion;
+	private Future<?> lastFileCompletion = null;
 	private Instant lastRecordConsensusTimeStamp = null;
 	private byte[] prevFileHash;
 	MessageDigest md;
@@ -96,6 +118,23 @@ public class RecordStream implements Runnable {
 			String directory,
 			PropertySource properties
 	) {
+		this(platform, runningAvgs, nodeAccountID, directory, properties, Executors.newSingleThreadExecutor(r -> {
+			var thread = new Thread(r);
+			thread.setName("record_stream_completion_" + EntityIdUtils.asLiteralString(nodeAccountID));
+			thread.setDaemon(true);
+			return thread;
+		}));
+	}
+
+	RecordStream(
+			Platform platform,
+			MiscRunningAvgs runningAvgs,
+			AccountID nodeAccountID,
+			String directory,
+			PropertySource properties,
+			ExecutorService fileCompletion
+	) {
+		this.fileCompletion = fileCompletion;
 		this.runningAvgs = runningAvgs;
 		this.platform = platform;
 		this.properties = properties;
@@ -135,9 +174,25 @@ public class RecordStream implements Runnable {
 	}
 
 	public void addRecord(Transaction transaction, TransactionRecord record, Instant consensusTimeStamp) {
+		addSerializedRecord(transaction.toByteArray(), record.toByteArray(), consensusTimeStamp);
+	}
+
+	/**
+	 * Queues a record whose gRPC {@code Transaction} and {@code TransactionRecord} have already
+	 * been serialized, so the stream thread only needs to write (and hash) the given bytes.
+	 *
+	 * @param transactionBytes the serialized gRPC transaction
+	 * @param recordBytes the serialized gRPC record of the transaction
+	 * @param consensusTimeStamp the consensus time of the transaction
+	 */
+	public void addSerializedRecord(byte[] transactionBytes, byte[] recordBytes, Instant consensusTimeStamp) {
+		enqueue(new QueuedRecord(transactionBytes, recordBytes, consensusTimeStamp));
+	}
+
+	private void enqueue(QueuedRecord queuedRecord) {
 		if (recordBuffer != null) {
 			try {
-				recordBuffer.put(Triple.of(transaction, record, consensusTimeStamp));
+				recordBuffer.put(queuedRecord);
 			} catch (InterruptedException e) {
 				log.error(EXCEPTION, "thread interruption ignored in addRecord: {}", e);
 			}
@@ -171,7 +226,11 @@ public class RecordStream implements Runnable {
 					return;
 				} else {
 					stream = new FileOutputStream(file, false);
-					dos = new DataOutputStream(new BufferedOutputStream(stream));
+					/* Everything after the previous file hash goes into the content hash as it is written. */
+					digestStream = new DigestOutputStream(
+							new BufferedOutputStream(stream, FILE_BUFFER_SIZE), mdForContent);
+					digestStream.on(false);
+					dos = new DataOutputStream(digestStream);
 					if (log.isDebugEnabled()) {
 						log.debug("Record file {} created ", fileName);
 					}
@@ -195,6 +254,7 @@ public class RecordStream implements Runnable {
 					} else {
 						md.update(prevFileHash);
 					}
+					digestStream.on(true);
 				}
 
 			} catch (IOException e) {
@@ -203,38 +263,6 @@ public class RecordStream implements Runnable {
 		}
 	}
 
-	private void fileHashCheck(String fileName) {
-		byte[] array;
-		try {
-			array = Files.readAllBytes(Paths.get(fileName));
-			mdForContent.reset();
-			md.reset();
-
-			// Check the hash calculation to do h[i] = hash(p[i-1] || h[i-1] || hash(c[i-1])) where
-			// h[i] is the hash of the current file
-			// p[i-1] is the contents in the file before the previousHash
-			// h[i-1] is the previousHash
-			// c[i-1] is the contents of the file after previousHash
-
-			byte[] prevHashBytes = Arrays.copyOfRange(array, 0, 57);
-			byte[] fileContentHash = mdForContent.digest(Arrays.copyOfRange(array, 57, array.length));
-			byte[] fileHash = md.digest(ArrayUtils.addAll(prevHashBytes, fileContentHash));
-
-			if(log.isDebugEnabled()){
-    			log.debug("Hash from stream record file " + Hex.encodeHexString(prevFileHash));
-    			log.debug("Hash from read record file   " + Hex.encodeHexString(fileHash));
-			}
-
-			if (!Arrays.equals(prevFileHash, fileHash)) {
-				log.error("Error Exception, hash does not match ");
-			}
-		} catch (IOException e) {
-			log.error("Exception {}", ExceptionUtils.getStackTrace(e));
-		}
-
-	}
-
-
 	/**
 	 * Create a signature file for a RecordStream/AccountBalance file;
 	 * This signature file contains the Hash of the file to be signed, and a signature signed by the node's Key
@@ -264,118 +292,89 @@ public class RecordStream implements Runnable {
 	}
 
 
+	/**
+	 * Computes the hash of the current file from the running digests, and hands off the file
+	 * to the completion stage; which flushes, syncs, and closes it, and then writes its signature file.
+	 */
 	private void closeFile() {
-		try {
+		// Update the hash calculation to do h[i] = hash(p[i-1] || h[i-1] || hash(c[i-1])) where
+		// h[i] is the hash of the current file
+		// p[i-1] is the contents in the file before the previousHash
+		// h[i-1] is the previousHash
+		// c[i-1] is the contents of the file after previousHash
+
+		md.update(mdForContent.digest());
+		prevFileHash = md.digest();
+		log.info("Hash of current record stream file after closing {}", Hex.encodeHexString(prevFileHash));
+
+		var completedFileName = fileName;
+		var completedStream = stream;
+		var completedDos = dos;
+		var completedFileHash = prevFileHash;
+		lastFileCompletion = fileCompletion.submit(() ->
+				completeFile(completedFileName, completedStream, completedDos, completedFileHash));
+
+		file = null;
+		stream = null;
+		digestStream = null;
+		dos = null;
+	}
+
+	void completeFile(String fileName, FileOutputStream stream, DataOutputStream dos, byte[] fileHash) {
+		try (stream; dos) {
 			dos.flush();
-			stream.flush();
+			sync(fileName, stream);
+		} catch (IOException e) {
+			log.error("Could not complete record stream file {}, so it will not be signed", fileName, e);
+			return;
+		}
+
+		byte[] signature = platform.sign(fileHash);
+		if (log.isDebugEnabled()) {
+			log.debug("Signature: " + Hex.encodeHexString(signature));
+		}
+		generateSigFile(fileName, signature, fileHash);
+		log.info("Finish closing File {} at {}", fileName, Instant.now());
+	}
 
+	/* The file is complete once flushed, so a failed sync does not stop it from being signed. */
+	private void sync(String fileName, FileOutputStream stream) {
+		try {
 			stream.getChannel().force(true);
 			stream.getFD().sync();
-
-			dos.close();
-			stream.close();
-
-			// Update the hash calculation to do h[i] = hash(p[i-1] || h[i-1] || hash(c[i-1])) where
-			// h[i] is the hash of the current file
-			// p[i-1] is the contents in the file before the previousHash
-			// h[i-1] is the previousHash
-			// c[i-1] is the contents of the file after previousHash
-
-			md.update(mdForContent.digest());
-			prevFileHash = md.digest();
-			log.info("Hash of current record stream file after closing {}", Hex.encodeHexString(prevFileHash));
-
-			byte[] signature = platform.sign(prevFileHash);
-
-			if (log.isDebugEnabled()) {
-				log.debug("Signature: " + Hex.encodeHexString(signature));
-			}
-			mdForContent.reset();
-			md.reset();
-
-			fileHashCheck(fileName);
-
-			generateSigFile(fileName, signature, prevFileHash);
-
-			file = null;
-			stream = null;
-			dos = null;
 		} catch (IOException e) {
-			log.warn(EXCEPTION, "Exception in close file {}", e);
+			log.error("Could not sync record stream file {} to disk", fileName, e);
 		}
 	}
 
-
-	private void close() {
+	void close() {
 		if (stream != null) {
 			log.info("Start to close File {} at {}", fileName, Instant.now());
 			closeFile();
-			log.info("Finish closing File {} at {}", fileName, Instant.now());
 		}
 	}
 
+	private void awaitFileCompletion() {
+		if (lastFileCompletion != null) {
+			try {
+				lastFileCompletion.get();
+			} catch (ExecutionException e) {
+				log.error("Completion of last record stream file failed {}", ExceptionUtils.getStackTrace(e));
+			} catch (InterruptedException e) {
+				log.error("Interrupted awaiting completion of last record stream file");
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
 
 	/**
 	 * Main thread to write record to file
 	 */
 	@Override
 	public void run() {
-
 		while (true) {
 			try {
-				// when the platform is in freeze period, and recordBuffer is empty, and stream is not null, which means the last record has been written into current RecordStream file, we should close and sign it.
-				if (inFreeze && recordBuffer.isEmpty() && stream != null) {
-					log.info("Finished writing the last record to file before restart.");
-					close();
-				}
-
-				Triple<Transaction, TransactionRecord, Instant> record = recordBuffer.poll(STREAM_DELAY,
-						TimeUnit.MILLISECONDS);
-				runningAvgs.recordStreamQueueSize(getRecordStreamQueueSize());
-
-				long recordLogPeriod = properties.getLongProperty("hedera.recordStream.logPeriod");
-				if (record != null) {
-					Instant currentCensusesTimeStamp = record.getRight();
-
-					//check timestamp decide whether to create new file
-					if (lastRecordConsensusTimeStamp != null) {
-						long previousSeconds = lastRecordConsensusTimeStamp.getEpochSecond() / recordLogPeriod;
-						long currentSeconds = currentCensusesTimeStamp.getEpochSecond() / recordLogPeriod;
-						if (currentSeconds != previousSeconds) {
-							// close old file
-							close();
-							// a new day start
-							createFile(currentCensusesTimeStamp);
-						}
-
-					} else if (stream == null) {
-						createFile(currentCensusesTimeStamp);
-					} else {
-						//NoOp
-					}
-
-					dos.write(TYPE_RECORD);
-
-					// write to current file
-					byte[] rawBytes = record.getLeft().toByteArray();
-					dos.writeInt(rawBytes.length);
-					dos.write(rawBytes);
-
-					mdForContent.update(TYPE_RECORD);
-					mdForContent.update(Ints.toByteArray(rawBytes.length));
-					mdForContent.update(rawBytes);
-
-					rawBytes = record.getMiddle().toByteArray();
-					dos.writeInt(rawBytes.length);
-					dos.write(rawBytes);
-
-					mdForContent.update(Ints.toByteArray(rawBytes.length));
-					mdForContent.update(rawBytes);
-
-					dos.flush();
-
-					lastRecordConsensusTimeStamp = currentCensusesTimeStamp;
-				}
+				writeNextBatch();
 			} catch (InterruptedException e) {
 				log.error("Exception {}", ExceptionUtils.getStackTrace(e));
 				//close existing file to protect data
@@ -388,6 +387,70 @@ public class RecordStream implements Runnable {
 		}
 	}
 
+	/**
+	 * Writes the next batch of queued records; or, if writing the last batch failed, the
+	 * records of that batch after the one that failed, so a failure loses at most one record.
+	 */
+	void writeNextBatch() throws InterruptedException, IOException {
+		// when the platform is in freeze period, and recordBuffer is empty, and stream is not null, which means the last record has been written into current RecordStream file, we should close and sign it.
+		if (inFreeze && batch.isEmpty() && recordBuffer.isEmpty() && stream != null) {
+			log.info("Finished writing the last record to file before restart.");
+			close();
+			awaitFileCompletion();
+		}
+
+		if (batch.isEmpty()) {
+			var first = recordBuffer.poll(STREAM_DELAY, TimeUnit.MILLISECONDS);
+			runningAvgs.recordStreamQueueSize(getRecordStreamQueueSize());
+			if (first == null) {
+				return;
+			}
+			batch.add(first);
+			recordBuffer.drainTo(batch, MAX_BATCH_SIZE - 1);
+		} else {
+			log.warn("Retrying {} records left unwritten by a failed batch", batch.size());
+		}
+
+		int numAttempted = 0;
+		try {
+			long recordLogPeriod = properties.getLongProperty("hedera.recordStream.logPeriod");
+			for (var record : batch) {
+				numAttempted++;
+				Instant currentConsensusTimeStamp = record.consensusTimeStamp;
+				if (stream == null) {
+					createFile(currentConsensusTimeStamp);
+				} else if (lastRecordConsensusTimeStamp != null) {
+					//check timestamp decide whether to create new file
+					long previousSeconds = lastRecordConsensusTimeStamp.getEpochSecond() / recordLogPeriod;
+					long currentSeconds = currentConsensusTimeStamp.getEpochSecond() / recordLogPeriod;
+					if (currentSeconds != previousSeconds) {
+						// close old file
+						close();
+						// a new period starts
+						createFile(currentConsensusTimeStamp);
+					}
+				}
+				write(record);
+				lastRecordConsensusTimeStamp = currentConsensusTimeStamp;
+			}
+			dos.flush();
+		} finally {
+			batch.subList(0, numAttempted).clear();
+		}
+	}
+
+	private void write(QueuedRecord record) throws IOException {
+		dos.write(TYPE_RECORD);
+
+		byte[] rawBytes = record.transactionBytes();
+		dos.writeInt(rawBytes.length);
+		dos.write(rawBytes);
+
+		rawBytes = record.recordBytes();
+		dos.writeInt(rawBytes.length);
+		dos.write(rawBytes);
+	}
+
 	public int getRecordStreamQueueSize() {
 		if (recordBuffer == null) {
 			return 0;
@@ -477,5 +540,27 @@ public class RecordStream implements Runnable {
 		}
 		return null;
 	}
-}
 
+	/**
+	 * A record waiting to be streamed, with its gRPC messages already serialized.
+	 */
+	static final class QueuedRecord {
+		private final byte[] transactionBytes;
+		private final byte[] recordBytes;
+		private final Instant consensusTimeStamp;
+
+		QueuedRecord(byte[] transactionBytes, byte[] recordBytes, Instant consensusTimeStamp) {
+			this.transactionBytes = transactionBytes;
+			this.recordBytes = recordBytes;
+			this.consensusTimeStamp = consensusTimeStamp;
+		}
+
+		byte[] transactionBytes() {
+			return transactionBytes;
+		}
+
+		byte[] recordBytes() {
+			return recordBytes;
+		}
+	}
+}
@@ -72,7 +72,35 @@ public class TransactionValidationUtils {
 	}
 
 	public static boolean validateTxBodyDepth(TransactionBody transactionBody) {
-		return getDepth(transactionBody) < MESSAGE_MAX_DEPTH;
+		return !hasDepthAtLeast(transactionBody, MESSAGE_MAX_DEPTH);
+	}
+
+	/**
+	 * Tests if the given message has a nesting depth (as defined by {@link TransactionValidationUtils#getDepth})
+	 * of at least the given depth. Unlike {@code getDepth}, it visits only the message-typed fields that are
+	 * present, without building a map of all fields at each level; and stops as soon as the answer is known.
+	 */
+	static boolean hasDepthAtLeast(final GeneratedMessageV3 message, int depth) {
+		if (depth <= 0) {
+			return true;
+		}
+		for (Descriptors.FieldDescriptor descriptor : message.getDescriptorForType().getFields()) {
+			if (descriptor.getJavaType() != Descriptors.FieldDescriptor.JavaType.MESSAGE) {
+				continue;
+			}
+			if (descriptor.isRepeated()) {
+				for (int i = 0, n = message.getRepeatedFieldCount(descriptor); i < n; i++) {
+					Object ele = message.getRepeatedField(descriptor, i);
+					if (ele instanceof GeneratedMessageV3 && hasDepthAtLeast((GeneratedMessageV3) ele, depth - 1)) {
+						return true;
+					}
+				}
+			} else if (message.hasField(descriptor)
+					&& hasDepthAtLeast((GeneratedMessageV3) message.getField(descriptor), depth - 1)) {
+				return true;
+			}
+		}
+		return false;
 	}
 
 	/**
@@ -98,7 +126,7 @@ public class TransactionValidationUtils {
 	}
 
 	public static boolean validateTxSize(Transaction transaction) {
-		return transaction.toByteArray().length <= Platform.getTransactionMaxBytes();
+		return transaction.getSerializedSize() <= Platform.getTransactionMaxBytes();
 	}
 
 	public static boolean validateQueryHeader(QueryHeader queryHeader, boolean hasPayment) {
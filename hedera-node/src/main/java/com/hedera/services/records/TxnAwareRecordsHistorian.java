@@ -26,6 +26,7 @@ import com.hedera.services.state.EntityCreator;
 import com.hedera.services.state.expiry.ExpiryManager;
 import com.hedera.services.state.merkle.MerkleAccount;
 import com.hedera.services.state.merkle.MerkleEntityId;
+import com.hedera.services.state.merkle.MerkleNetworkContext;
 import com.hederahashgraph.api.proto.java.TransactionRecord;
 import com.swirlds.fcmap.FCMap;
 
@@ -47,16 +48,19 @@ public class TxnAwareRecordsHistorian implements AccountRecordsHistorian {
 	private final ExpiryManager expiries;
 	private final TransactionContext txnCtx;
 	private final Supplier<FCMap<MerkleEntityId, MerkleAccount>> accounts;
+	private final Supplier<MerkleNetworkContext> networkCtx;
 
 	public TxnAwareRecordsHistorian(
 			RecordCache recordCache,
 			TransactionContext txnCtx,
 			Supplier<FCMap<MerkleEntityId, MerkleAccount>> accounts,
+			Supplier<MerkleNetworkContext> networkCtx,
 			ExpiryManager expiries
 	) {
 		this.expiries = expiries;
 		this.txnCtx = txnCtx;
 		this.accounts = accounts;
+		this.networkCtx = networkCtx;
 		this.recordCache = recordCache;
 	}
 
@@ -101,6 +105,6 @@ public class TxnAwareRecordsHistorian implements AccountRecordsHistorian {
 
 	@Override
 	public void reviewExistingRecords() {
-		expiries.resumeTrackingFrom(accounts.get());
+		expiries.resumeTrackingFrom(accounts.get(), networkCtx.get());
 	}
 }
@@ -0,0 +1,198 @@
+package com.hedera.services.sigs.verification;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2020 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.swirlds.common.crypto.TransactionSignature;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@link SyncVerifier} that gathers the signatures from concurrent callers into batches,
+ * and verifies each batch with a single call to a delegate verifier on a dedicated pool of
+ * threads. Each caller still blocks until its own signatures are verified.
+ *
+ * A caller that finds no other verification in flight has nothing to batch with, and so
+ * verifies its signatures directly on its own thread, with no added latency. Otherwise a
+ * batch is closed as soon as it holds {@code maxBatchSize} signatures, or when
+ * {@code maxLingerMicros} have passed since its first request arrived. At most one closed
+ * batch per verifier thread waits for a free thread; beyond that, the collector verifies the
+ * next batch itself, and so stops collecting until the verifiers catch up.
+ *
+ * If verifying a batch fails, each of its requests is verified again on its own; so one bad
+ * submission cannot fail the others it happened to be batched with.
+ */
+public class BatchingSyncVerifier implements SyncVerifier {
+	private static final Logger log = LogManager.getLogger(BatchingSyncVerifier.class);
+
+	static final String COLLECTOR_THREAD_NAME = "sigBatchCollector";
+	static final String VERIFIER_THREAD_NAME_TPL = "sigBatchVerifier-%d";
+
+	private final int maxBatchSize;
+	private final long maxLingerNanos;
+	private final SyncVerifier delegate;
+	private final ExecutorService verifiers;
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final BlockingQueue<PendingVerification> pending = new LinkedBlockingQueue<>();
+
+	public BatchingSyncVerifier(SyncVerifier delegate, int maxBatchSize, long maxLingerMicros, int numVerifierThreads) {
+		this.delegate = delegate;
+		this.maxBatchSize = Math.max(1, maxBatchSize);
+		this.maxLingerNanos = TimeUnit.MICROSECONDS.toNanos(Math.max(0L, maxLingerMicros));
+
+		var threadNum = new AtomicInteger();
+		int numThreads = Math.max(1, numVerifierThreads);
+		verifiers = new ThreadPoolExecutor(
+				numThreads,
+				numThreads,
+				0L,
+				TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(numThreads),
+				runnable -> {
+					var thread = new Thread(runnable, String.format(VERIFIER_THREAD_NAME_TPL, threadNum.getAndIncrement()));
+					thread.setDaemon(true);
+					return thread;
+				},
+				new ThreadPoolExecutor.CallerRunsPolicy());
+		var collector = new Thread(this::collectBatches, COLLECTOR_THREAD_NAME);
+		collector.setDaemon(true);
+		collector.start();
+	}
+
+	@Override
+	public void verifySync(List<TransactionSignature> unknownSigs) {
+		if (unknownSigs.isEmpty()) {
+			return;
+		}
+		try {
+			if (inFlight.getAndIncrement() == 0) {
+				delegate.verifySync(unknownSigs);
+			} else {
+				verifyBatched(unknownSigs);
+			}
+		} finally {
+			inFlight.decrementAndGet();
+		}
+	}
+
+	private void verifyBatched(List<TransactionSignature> unknownSigs) {
+		var verification = new PendingVerification(unknownSigs);
+		pending.add(verification);
+		try {
+			verification.done.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			} else if (e.getCause() instanceof Error) {
+				throw (Error) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+	private void collectBatches() {
+		while (!Thread.currentThread().isInterrupted()) {
+			try {
+				var batch = nextBatch();
+				verifiers.execute(() -> verify(batch));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	List<PendingVerification> nextBatch() throws InterruptedException {
+		List<PendingVerification> batch = new ArrayList<>();
+		var first = pending.take();
+		batch.add(first);
+		int numSigs = first.sigs.size();
+		long deadline = System.nanoTime() + maxLingerNanos;
+		while (numSigs < maxBatchSize) {
+			long remaining = deadline - System.nanoTime();
+			var next = (remaining > 0) ? pending.poll(remaining, TimeUnit.NANOSECONDS) : pending.poll();
+			if (next == null) {
+				break;
+			}
+			batch.add(next);
+			numSigs += next.sigs.size();
+		}
+		return batch;
+	}
+
+	/**
+	 * Verifies the given batch, and completes every caller's verification; if the batch as
+	 * a whole fails, each request is retried alone, and completed exceptionally only if it
+	 * fails by itself. Whatever is thrown, no caller is left waiting; and even an
+	 * {@link Error} is rethrown only on the callers' threads, since this may run on the
+	 * collector thread.
+	 */
+	void verify(List<PendingVerification> batch) {
+		if (batch.size() == 1) {
+			verifyAlone(batch.get(0));
+			return;
+		}
+		try {
+			List<TransactionSignature> allSigs = new ArrayList<>();
+			for (PendingVerification verification : batch) {
+				allSigs.addAll(verification.sigs);
+			}
+			delegate.verifySync(allSigs);
+			for (PendingVerification verification : batch) {
+				verification.done.complete(null);
+			}
+		} catch (Throwable t) {
+			log.warn("Unable to verify a batch of {} requests, verifying each alone", batch.size(), t);
+			for (PendingVerification verification : batch) {
+				verifyAlone(verification);
+			}
+		}
+	}
+
+	private void verifyAlone(PendingVerification verification) {
+		try {
+			delegate.verifySync(verification.sigs);
+			verification.done.complete(null);
+		} catch (Throwable t) {
+			log.warn("Unable to verify a request with {} signatures!", verification.sigs.size(), t);
+			verification.done.completeExceptionally(t);
+		}
+	}
+
+	static class PendingVerification {
+		final List<TransactionSignature> sigs;
+		final CompletableFuture<Void> done = new CompletableFuture<>();
+
+		PendingVerification(List<TransactionSignature> sigs) {
+			this.sigs = sigs;
+		}
+	}
+}
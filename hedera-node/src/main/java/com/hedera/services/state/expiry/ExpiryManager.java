@@ -20,66 +20,109 @@ package com.hedera.services.state.expiry;
  * ‍
  */
 
+import com.hedera.services.context.properties.GlobalDynamicProperties;
 import com.hedera.services.ledger.HederaLedger;
 import com.hedera.services.records.RecordCache;
 import com.hedera.services.records.TxnIdRecentHistory;
 import com.hedera.services.state.merkle.MerkleAccount;
 import com.hedera.services.state.merkle.MerkleEntityId;
+import com.hedera.services.state.merkle.MerkleNetworkContext;
 import com.hedera.services.state.submerkle.ExpirableTxnRecord;
 import com.hederahashgraph.api.proto.java.AccountID;
 import com.hederahashgraph.api.proto.java.TransactionID;
 import com.swirlds.fcmap.FCMap;
 import com.swirlds.fcqueue.FCQueue;
 
-import java.util.AbstractMap;
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.List;
+import java.util.Arrays;
 import java.util.Map;
+import java.util.function.Consumer;
 
+/**
+ * Tracks the expiries of payer records in a {@link TimingWheelExpiries}, and purges at
+ * most {@link GlobalDynamicProperties#maxRecordPurgesPerTxn()} accounts' expired records
+ * per handled transaction; any backlog is worked off by the following transactions.
+ *
+ * Each account is purged only of records expiring at or before the second it was
+ * drained for, so the state after a budgeted purge does not depend on how far behind
+ * the purging was; and a node that resumes tracking from saved state purges the same
+ * accounts in the same order as a node that never stopped.
+ */
 public class ExpiryManager {
 	private final RecordCache recordCache;
 	private final Map<TransactionID, TxnIdRecentHistory> txnHistories;
+	private final GlobalDynamicProperties dynamicProperties;
+	private final Consumer<ExpirableTxnRecord> historyUpdate = this::updateHistory;
 
 	long sharedNow;
-	MonotonicFullQueueExpiries<Long> payerExpiries = new MonotonicFullQueueExpiries<>();
+	HederaLedger purgingLedger;
+	TimingWheelExpiries payerExpiries = new TimingWheelExpiries();
 
 	public ExpiryManager(
 			RecordCache recordCache,
-			Map<TransactionID, TxnIdRecentHistory> txnHistories
+			Map<TransactionID, TxnIdRecentHistory> txnHistories,
+			GlobalDynamicProperties dynamicProperties
 	) {
 		this.recordCache = recordCache;
 		this.txnHistories = txnHistories;
+		this.dynamicProperties = dynamicProperties;
 	}
 
 	public void trackRecord(AccountID owner, long expiry) {
 		payerExpiries.track(owner.getAccountNum(), expiry);
 	}
 
-	public void resumeTrackingFrom(FCMap<MerkleEntityId, MerkleAccount> accounts) {
-		var _payerExpiries = new ArrayList<Map.Entry<Long, Long>>();
-		accounts.forEach((id, account) -> {
-			addUniqueExpiries(id.getNum(), account.records(), _payerExpiries);
-		});
+	public long[] pendingPayerExpiries() {
+		return payerExpiries.pendingExpiries();
+	}
 
-		var cmp = Comparator.comparing(Map.Entry<Long, Long>::getValue).thenComparing(Map.Entry::getKey);
-		_payerExpiries.sort(cmp);
-		_payerExpiries.forEach(entry -> payerExpiries.track(entry.getKey(), entry.getValue()));
+	/**
+	 * Resumes tracking the expiries of the payer records in the given accounts; using the
+	 * index of pending expiries in the given network context if it has one, so that only
+	 * accounts with records are visited. Otherwise falls back to scanning every account.
+	 *
+	 * @param accounts the accounts whose payer records are to be tracked
+	 * @param networkCtx the network context with any saved index of pending expiries
+	 */
+	public void resumeTrackingFrom(
+			FCMap<MerkleEntityId, MerkleAccount> accounts,
+			MerkleNetworkContext networkCtx
+	) {
+		var index = networkCtx.payerExpiries();
+		if (index == null) {
+			accounts.forEach((id, account) -> trackUniqueExpiries(id.getNum(), account.records()));
+		} else {
+			for (int i = 0; i < index.length; i += 2) {
+				payerExpiries.track(index[i + 1], index[i]);
+			}
+			stageRecordsOfIndexed(index, accounts);
+		}
 
 		txnHistories.values().forEach(TxnIdRecentHistory::observeStaged);
 	}
 
-	private void addUniqueExpiries(
-			Long num,
-			FCQueue<ExpirableTxnRecord> records,
-			List<Map.Entry<Long, Long>> expiries
-	) {
+	private void stageRecordsOfIndexed(long[] index, FCMap<MerkleEntityId, MerkleAccount> accounts) {
+		long[] nums = new long[index.length / 2];
+		for (int i = 0; i < nums.length; i++) {
+			nums[i] = index[2 * i + 1];
+		}
+		Arrays.sort(nums);
+		for (int i = 0; i < nums.length; i++) {
+			if (i == 0 || nums[i] != nums[i - 1]) {
+				var account = accounts.get(new MerkleEntityId(0, 0, nums[i]));
+				if (account != null) {
+					account.records().forEach(this::stage);
+				}
+			}
+		}
+	}
+
+	private void trackUniqueExpiries(long num, FCQueue<ExpirableTxnRecord> records) {
 		long lastAdded = -1;
 		for (ExpirableTxnRecord record : records) {
 			stage(record);
 			var expiry = record.getExpiry();
 			if (expiry != lastAdded) {
-				expiries.add(new AbstractMap.SimpleImmutableEntry<>(num, expiry));
+				payerExpiries.track(num, expiry);
 				lastAdded = expiry;
 			}
 		}
@@ -92,12 +135,16 @@ public class ExpiryManager {
 
 	public void purgeExpiredRecordsAt(long now, HederaLedger ledger) {
 		sharedNow = now;
-		while (payerExpiries.hasExpiringAt(now)) {
-			ledger.purgeExpiredRecords(accountWith(payerExpiries.expireNextAt(now)), now, this::updateHistory);
-		}
+		purgingLedger = ledger;
+		payerExpiries.expireUpTo(now, dynamicProperties.maxRecordPurgesPerTxn(), this::purgeExpiredRecords);
+		purgingLedger = null;
 		recordCache.forgetAnyOtherExpiredHistory(now);
 	}
 
+	void purgeExpiredRecords(long num, long second) {
+		purgingLedger.purgeExpiredRecords(num, second, historyUpdate);
+	}
+
 	void updateHistory(ExpirableTxnRecord record) {
 		var txnId = record.getTxnId().toGrpc();
 		var history = txnHistories.get(txnId);
@@ -108,12 +155,4 @@ public class ExpiryManager {
 			}
 		}
 	}
-
-	AccountID accountWith(long num) {
-		return AccountID.newBuilder()
-				.setShardNum(0)
-				.setRealmNum(0)
-				.setAccountNum(num)
-				.build();
-	}
 }
@@ -0,0 +1,252 @@
+package com.hedera.services.state.expiry;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2020 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A hierarchical timing wheel of (primitive) entity numbers keyed by their consensus
+ * second of expiry. Seconds within {@link TimingWheelExpiries#WHEEL_SECONDS} of the
+ * wheel's cursor have a slot in the wheel itself; later seconds wait in an overflow
+ * level, and cascade into the wheel as the cursor advances.
+ *
+ * Expirations are drained in order of second and then of entity number, with any
+ * duplicates in a second dropped; and at most a given number per call to
+ * {@link TimingWheelExpiries#expireUpTo(long, int, Expirer)}, so a burst of expirations
+ * is spread over several calls. Since the drain order depends only on which
+ * (number, second) pairs are tracked, a wheel rebuilt from saved state drains its
+ * remaining expirations in the same order as the wheel that was saved.
+ */
+public class TimingWheelExpiries {
+	static final int WHEEL_SECONDS = 512;
+	static final long NOT_STARTED = Long.MIN_VALUE;
+
+	private static final int MASK = WHEEL_SECONDS - 1;
+	private static final int INITIAL_BUCKET_CAPACITY = 4;
+
+	@FunctionalInterface
+	public interface Expirer {
+		/**
+		 * Expires whatever the given entity has expiring at or before the given second.
+		 *
+		 * @param num the number of the entity with expirations
+		 * @param second the consensus second of the expirations
+		 */
+		void expire(long num, long second);
+	}
+
+	private final Bucket[] wheel = new Bucket[WHEEL_SECONDS];
+	private final TreeMap<Long, Bucket> overflow = new TreeMap<>();
+
+	long cursor = NOT_STARTED;
+	int numWheelBuckets = 0;
+	/* The last result of pendingExpiries(), until the next track or drain. */
+	private long[] snapshot = null;
+
+	public TimingWheelExpiries() {
+		for (int i = 0; i < WHEEL_SECONDS; i++) {
+			wheel[i] = new Bucket();
+		}
+	}
+
+	/**
+	 * Tracks an expiration of the given entity at the given second. An expiration at a
+	 * second already passed by the cursor is drained with the cursor's current second.
+	 *
+	 * @param num the number of the entity
+	 * @param second the consensus second of the expiration
+	 */
+	public void track(long num, long second) {
+		snapshot = null;
+		if (cursor == NOT_STARTED || second >= cursor + WHEEL_SECONDS) {
+			overflow.computeIfAbsent(second, ignore -> new Bucket()).add(num);
+		} else {
+			addToWheel(num, Math.max(second, cursor));
+		}
+	}
+
+	/**
+	 * Drains expirations at or before the given second to the given {@link Expirer}, in
+	 * order of second and then of number; stopping after the given budget is used.
+	 *
+	 * @param now the current consensus second
+	 * @param budget the maximum number of expirations to drain
+	 * @param expirer the consumer of the drained expirations
+	 * @return the number of expirations drained
+	 */
+	public int expireUpTo(long now, int budget, Expirer expirer) {
+		int used = 0;
+		while (used < budget) {
+			if (numWheelBuckets == 0) {
+				if (overflow.isEmpty() || overflow.firstKey() > now) {
+					return used;
+				}
+				cursor = overflow.firstKey();
+				cascade();
+			}
+			if (cursor > now) {
+				return used;
+			}
+			var bucket = wheel[slotOf(cursor)];
+			if (bucket.second == cursor && bucket.hasNext()) {
+				snapshot = null;
+				expirer.expire(bucket.next(), cursor);
+				used++;
+			} else {
+				if (bucket.second == cursor) {
+					bucket.reset();
+					numWheelBuckets--;
+				}
+				if (cursor == now) {
+					return used;
+				}
+				cursor++;
+				cascade();
+			}
+		}
+		return used;
+	}
+
+	/**
+	 * Gets the distinct (second, number) pairs not yet drained, flattened into an array
+	 * in order of second and then of number; that is, in drain order.
+	 *
+	 * @return the pending expirations
+	 */
+	public long[] pendingExpiries() {
+		if (snapshot == null) {
+			long[] pairs = new long[2 * numPending()];
+			int n = 0;
+			if (cursor != NOT_STARTED) {
+				for (long second = cursor; second < cursor + WHEEL_SECONDS; second++) {
+					n = appendPairs(wheel[slotOf(second)], second, pairs, n);
+				}
+			}
+			for (var entry : overflow.entrySet()) {
+				n = appendPairs(entry.getValue(), entry.getKey(), pairs, n);
+			}
+			snapshot = (n == pairs.length) ? pairs : Arrays.copyOf(pairs, n);
+		}
+		return snapshot;
+	}
+
+	private int appendPairs(Bucket bucket, long second, long[] pairs, int n) {
+		if (bucket.second == second || bucket.second == NOT_STARTED) {
+			bucket.hasNext();
+			for (int i = bucket.next; i < bucket.size; i++) {
+				pairs[n++] = second;
+				pairs[n++] = bucket.nums[i];
+			}
+		}
+		return n;
+	}
+
+	/**
+	 * Gets the number of tracked (number, second) pairs not yet drained, including any duplicates.
+	 *
+	 * @return the number of pending expirations
+	 */
+	public int numPending() {
+		int n = 0;
+		for (Bucket bucket : wheel) {
+			n += bucket.size - bucket.next;
+		}
+		for (Bucket bucket : overflow.values()) {
+			n += bucket.size;
+		}
+		return n;
+	}
+
+	private void cascade() {
+		while (!overflow.isEmpty() && overflow.firstKey() < cursor + WHEEL_SECONDS) {
+			Map.Entry<Long, Bucket> entry = overflow.pollFirstEntry();
+			long second = Math.max(entry.getKey(), cursor);
+			var from = entry.getValue();
+			for (int i = 0; i < from.size; i++) {
+				addToWheel(from.nums[i], second);
+			}
+		}
+	}
+
+	private void addToWheel(long num, long second) {
+		var bucket = wheel[slotOf(second)];
+		if (bucket.second != second) {
+			bucket.second = second;
+			numWheelBuckets++;
+		}
+		bucket.add(num);
+	}
+
+	private static int slotOf(long second) {
+		return (int) second & MASK;
+	}
+
+	static final class Bucket {
+		private long second = NOT_STARTED;
+		private long[] nums = new long[INITIAL_BUCKET_CAPACITY];
+		private int size = 0;
+		private int next = 0;
+		private boolean isSorted = true;
+
+		void add(long num) {
+			if (size == nums.length) {
+				nums = Arrays.copyOf(nums, 2 * size);
+			}
+			nums[size++] = num;
+			isSorted = false;
+		}
+
+		boolean hasNext() {
+			if (!isSorted) {
+				sortAndDedupeUndrained();
+			}
+			return next < size;
+		}
+
+		long next() {
+			return nums[next++];
+		}
+
+		void reset() {
+			second = NOT_STARTED;
+			size = 0;
+			next = 0;
+			isSorted = true;
+			if (nums.length > INITIAL_BUCKET_CAPACITY * 64) {
+				nums = new long[INITIAL_BUCKET_CAPACITY];
+			}
+		}
+
+		private void sortAndDedupeUndrained() {
+			Arrays.sort(nums, next, size);
+			int distinctEnd = next;
+			for (int i = next; i < size; i++) {
+				if (i == next || nums[i] != nums[distinctEnd - 1]) {
+					nums[distinctEnd++] = nums[i];
+				}
+			}
+			size = distinctEnd;
+			isSorted = true;
+		}
+	}
+}
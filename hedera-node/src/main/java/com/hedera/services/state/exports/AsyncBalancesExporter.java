@@ -0,0 +1,171 @@
+package com.hedera.services.state.exports;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2020 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hedera.services.ServicesState;
+import com.hedera.services.context.properties.NodeLocalProperties;
+import com.hedera.services.stats.CounterFactory;
+import com.hedera.services.stats.RunningAvgFactory;
+import com.hedera.services.utils.SystemExits;
+import com.swirlds.common.Platform;
+import com.swirlds.platform.StatsRunningAverage;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Instant;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Moves balance exports off the platform thread that delivers each signed state, onto a
+ * single exporter thread; each export still runs through the {@link BalancesExporter} this
+ * wraps, and still fails fast if the exported balances do not sum to the expected float.
+ *
+ * The signed state handed to {@link AsyncBalancesExporter#toCsvFile(ServicesState, Instant)}
+ * is reserved (by incrementing its merkle reference count) until its export finishes, so the
+ * platform cannot release it mid-export. At most one export waits while another runs; if a
+ * new period comes due before the waiting export starts, the waiting one is skipped and its
+ * state released, so a slow disk cannot pin an unbounded number of states in memory.
+ */
+public class AsyncBalancesExporter implements BalancesExporter {
+	private static final Logger log = LogManager.getLogger(AsyncBalancesExporter.class);
+
+	static final String EXPORTER_THREAD_NAME = "balancesExporter";
+
+	private final SystemExits systemExits;
+	private final BalancesExporter delegate;
+	private final ExecutorService exporter;
+	private final AtomicReference<PendingExport> waiting = new AtomicReference<>();
+
+	final AtomicLong numSkipped = new AtomicLong();
+	final StatsRunningAverage exportMs;
+	final StatsRunningAverage lagMs;
+
+	public AsyncBalancesExporter(BalancesExporter delegate, SystemExits systemExits, NodeLocalProperties properties) {
+		this(delegate, systemExits, properties, Executors.newSingleThreadExecutor(runnable -> {
+			var thread = new Thread(runnable, EXPORTER_THREAD_NAME);
+			thread.setDaemon(true);
+			return thread;
+		}));
+	}
+
+	AsyncBalancesExporter(
+			BalancesExporter delegate,
+			SystemExits systemExits,
+			NodeLocalProperties properties,
+			ExecutorService exporter
+	) {
+		this.delegate = delegate;
+		this.exporter = exporter;
+		this.systemExits = systemExits;
+
+		double halfLife = properties.statsRunningAvgHalfLifeSecs();
+		exportMs = new StatsRunningAverage(halfLife);
+		lagMs = new StatsRunningAverage(halfLife);
+	}
+
+	public void registerWith(Platform platform) {
+		var runningAvg = new RunningAvgFactory() {};
+		platform.addAppStatEntry(runningAvg.from(Names.EXPORT_MS, Descriptions.EXPORT_MS, exportMs));
+		platform.addAppStatEntry(runningAvg.from(Names.LAG_MS, Descriptions.LAG_MS, lagMs));
+		platform.addAppStatEntry(new CounterFactory() {}.from(Names.SKIPPED, Descriptions.SKIPPED, numSkipped::get));
+	}
+
+	@Override
+	public boolean isTimeToExport(Instant now) {
+		return delegate.isTimeToExport(now);
+	}
+
+	@Override
+	public void toCsvFile(ServicesState signedState, Instant when) {
+		signedState.incrementReferenceCount();
+		var displaced = waiting.getAndSet(new PendingExport(signedState, when, System.nanoTime()));
+		if (displaced == null) {
+			exporter.execute(this::exportWaiting);
+		} else {
+			numSkipped.incrementAndGet();
+			log.warn("Balances export @ {} was still queued, replaced it with export @ {}", displaced.when, when);
+			displaced.signedState.decrementReferenceCount();
+		}
+	}
+
+	/**
+	 * Stops the exporter thread, skipping any export still queued, and closes the wrapped exporter.
+	 */
+	@Override
+	public void close() {
+		var export = waiting.getAndSet(null);
+		if (export != null) {
+			export.signedState.decrementReferenceCount();
+		}
+		exporter.shutdownNow();
+		delegate.close();
+	}
+
+	void exportWaiting() {
+		var export = waiting.getAndSet(null);
+		if (export == null) {
+			return;
+		}
+		long start = System.nanoTime();
+		lagMs.recordValue((start - export.submitted) / 1_000_000.0);
+		try {
+			delegate.toCsvFile(export.signedState, export.when);
+		} catch (IllegalStateException ise) {
+			log.error("Signed state @ {} has invalid total balance, exiting!", export.when, ise);
+			systemExits.fail(1);
+		} catch (RuntimeException e) {
+			log.error("Unable to export balances @ {}!", export.when, e);
+		} finally {
+			export.signedState.decrementReferenceCount();
+			exportMs.recordValue((System.nanoTime() - start) / 1_000_000.0);
+		}
+	}
+
+	private static class PendingExport {
+		private final ServicesState signedState;
+		private final Instant when;
+		private final long submitted;
+
+		PendingExport(ServicesState signedState, Instant when, long submitted) {
+			this.signedState = signedState;
+			this.when = when;
+			this.submitted = submitted;
+		}
+	}
+
+	static class Names {
+		public static final String EXPORT_MS = "avgBalancesExportMs";
+		public static final String LAG_MS = "avgBalancesExportLagMs";
+		public static final String SKIPPED = "balancesExportsSkipped";
+	}
+
+	static class Descriptions {
+		public static final String EXPORT_MS =
+				"average millis to export the balances of a signed state";
+		public static final String LAG_MS =
+				"average millis a signed state waited for the balances exporter";
+		public static final String SKIPPED =
+				"number of balances exports skipped because the previous export was still running";
+	}
+}
@@ -0,0 +1,42 @@
+package com.hedera.services.state.exports;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2020 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hederahashgraph.api.proto.java.TokenBalances;
+
+import java.io.IOException;
+
+/**
+ * Accepts the balances of a signed state one account at a time, in the order given.
+ */
+public interface BalancesAppender {
+	/**
+	 * Writes the balances of the given account.
+	 *
+	 * @param shard the shard of the account
+	 * @param realm the realm of the account
+	 * @param num the number of the account
+	 * @param balance the hbar balance of the account, in tinybars
+	 * @param tokenBalances the token balances of the account, or null if it has none to export
+	 * @throws IOException if the balances cannot be written
+	 */
+	void append(long shard, long realm, long num, long balance, TokenBalances tokenBalances) throws IOException;
+}
@@ -0,0 +1,95 @@
+package com.hedera.services.state.exports;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2020 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * A {@link BalancesWriter.Range} backed by a temporary chunk file, so formatting a range
+ * holds no more than one write buffer in memory however many accounts it covers.
+ */
+abstract class BalancesChunk implements BalancesWriter.Range {
+	private static final Logger log = LogManager.getLogger(BalancesChunk.class);
+
+	static final String CHUNK_PREFIX = "balances";
+	static final String CHUNK_SUFFIX = ".chunk";
+	static final int BUFFER_SIZE = 64 * 1024;
+
+	private final Path chunk;
+
+	private OutputStream out;
+
+	BalancesChunk() throws IOException {
+		chunk = Files.createTempFile(CHUNK_PREFIX, CHUNK_SUFFIX);
+		out = new BufferedOutputStream(Files.newOutputStream(chunk), BUFFER_SIZE);
+	}
+
+	/**
+	 * Gets the stream to the chunk file, for use by subclasses when formatting balances.
+	 *
+	 * @return the open chunk stream
+	 */
+	OutputStream chunkOut() {
+		return out;
+	}
+
+	/**
+	 * Flushes anything a subclass buffers on top of {@link BalancesChunk#chunkOut()};
+	 * called once before the chunk file is closed.
+	 *
+	 * @throws IOException if the buffered bytes cannot be written
+	 */
+	void flushFormatted() throws IOException {
+		/* No-op by default. */
+	}
+
+	@Override
+	public void copyTo(OutputStream to) throws IOException {
+		if (out != null) {
+			flushFormatted();
+			out.close();
+			out = null;
+		}
+		Files.copy(chunk, to);
+	}
+
+	@Override
+	public void discard() {
+		if (out != null) {
+			try {
+				out.close();
+			} catch (IOException ignore) { }
+			out = null;
+		}
+		try {
+			Files.deleteIfExists(chunk);
+		} catch (IOException e) {
+			log.warn("Could not delete balances chunk file '{}'", chunk, e);
+		}
+	}
+}
@@ -27,4 +27,11 @@ import java.time.Instant;
 public interface BalancesExporter {
 	boolean isTimeToExport(Instant now);
 	void toCsvFile(ServicesState signedState, Instant when);
+
+	/**
+	 * Releases any threads or other resources held for exports; by default, there are none.
+	 */
+	default void close() {
+		/* No-op. */
+	}
 }
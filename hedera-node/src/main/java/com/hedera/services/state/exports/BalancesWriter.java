@@ -0,0 +1,106 @@
+package com.hedera.services.state.exports;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2020 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+
+/**
+ * Streams the balances of a signed state to a single file, one account at a time, in
+ * the order given; and computes the SHA-384 hash of the file as it is written, so that
+ * the file need not be re-read before signing.
+ */
+public interface BalancesWriter extends BalancesAppender {
+	/**
+	 * Creates the target file, and writes the header for a state signed at the given time.
+	 *
+	 * @param when the consensus time of the signed state
+	 * @throws IOException if the file cannot be created or written
+	 */
+	void begin(Instant when) throws IOException;
+
+	/**
+	 * Creates a range that formats balances to a temporary chunk file exactly as this writer
+	 * appends them to its file; so that contiguous ranges of accounts can be formatted in
+	 * parallel, and then concatenated in order with {@link BalancesWriter#appendRange(Range)}.
+	 *
+	 * @return a new, empty range
+	 * @throws IOException if the chunk file cannot be created
+	 */
+	Range newRange() throws IOException;
+
+	/**
+	 * Copies the balances formatted by a range this writer created to the end of the file.
+	 *
+	 * @param range the formatted range
+	 * @throws IOException if the chunk file cannot be read, or the file cannot be written
+	 */
+	void appendRange(Range range) throws IOException;
+
+	/**
+	 * Flushes and closes the file.
+	 *
+	 * @return the SHA-384 hash of the complete file
+	 * @throws IOException if the file cannot be flushed or closed
+	 */
+	byte[] finish() throws IOException;
+
+	/**
+	 * Closes the file, if open, without completing it; for use when aborting an export.
+	 */
+	void abandon();
+
+	/**
+	 * Gets the location of the file this writer targets.
+	 *
+	 * @return the target location
+	 */
+	String location();
+
+	/**
+	 * The balances of a contiguous range of accounts, formatted to a temporary chunk file.
+	 */
+	interface Range extends BalancesAppender {
+		/**
+		 * Completes the chunk file, if not already complete, and copies its contents to the given stream.
+		 *
+		 * @param out the stream to copy to
+		 * @throws IOException if the chunk file cannot be completed or read, or the stream written
+		 */
+		void copyTo(OutputStream out) throws IOException;
+
+		/**
+		 * Closes, if open, and deletes the chunk file.
+		 */
+		void discard();
+	}
+
+	static MessageDigest newSha384Digest() {
+		try {
+			return MessageDigest.getInstance("SHA-384");
+		} catch (NoSuchAlgorithmException impossible) {
+			throw new IllegalStateException("SHA-384 not supported by Java API!");
+		}
+	}
+}
@@ -0,0 +1,152 @@
+package com.hedera.services.state.exports;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2020 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hederahashgraph.api.proto.java.AccountID;
+import com.hederahashgraph.api.proto.java.CryptoGetAccountBalanceResponse;
+import com.hederahashgraph.api.proto.java.Timestamp;
+import com.hederahashgraph.api.proto.java.TokenBalances;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes balances as a sequence of length-delimited protobuf messages, optionally gzipped;
+ * first a {@link Timestamp} with the consensus time of the signed state, and then one
+ * {@link CryptoGetAccountBalanceResponse} per account (with no header). A reader can
+ * consume the file with repeated calls to {@code parseDelimitedFrom}.
+ *
+ * The hash used for signing is that of the file as stored; that is, after compression.
+ */
+public class BinaryBalancesWriter implements BalancesWriter {
+	static final int BUFFER_SIZE = 64 * 1024;
+
+	private final String loc;
+	private final boolean compress;
+	private final MessageDigest md = BalancesWriter.newSha384Digest();
+	private final CryptoGetAccountBalanceResponse.Builder entry = CryptoGetAccountBalanceResponse.newBuilder();
+	private final AccountID.Builder accountId = AccountID.newBuilder();
+
+	private OutputStream out;
+
+	public BinaryBalancesWriter(String loc, boolean compress) {
+		this.loc = loc;
+		this.compress = compress;
+	}
+
+	@Override
+	public void begin(Instant when) throws IOException {
+		out = new DigestOutputStream(
+				new BufferedOutputStream(Files.newOutputStream(Paths.get(loc)), BUFFER_SIZE), md);
+		if (compress) {
+			out = new GZIPOutputStream(out, BUFFER_SIZE);
+		}
+		Timestamp.newBuilder()
+				.setSeconds(when.getEpochSecond())
+				.setNanos(when.getNano())
+				.build()
+				.writeDelimitedTo(out);
+	}
+
+	@Override
+	public void append(long shard, long realm, long num, long balance, TokenBalances tokenBalances) throws IOException {
+		writeEntry(out, entry, accountId, shard, realm, num, balance, tokenBalances);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * Chunk files are never compressed; their bytes are compressed (if configured) as they are
+	 * copied to the file, so the file is the same as if its balances were appended one by one.
+	 */
+	@Override
+	public Range newRange() throws IOException {
+		return new BinaryRange();
+	}
+
+	@Override
+	public void appendRange(Range range) throws IOException {
+		range.copyTo(out);
+	}
+
+	private static void writeEntry(
+			OutputStream out,
+			CryptoGetAccountBalanceResponse.Builder entry,
+			AccountID.Builder accountId,
+			long shard,
+			long realm,
+			long num,
+			long balance,
+			TokenBalances tokenBalances
+	) throws IOException {
+		entry.clear()
+				.setAccountID(accountId.setShardNum(shard).setRealmNum(realm).setAccountNum(num))
+				.setBalance(balance);
+		if (tokenBalances != null) {
+			entry.addAllTokenBalances(tokenBalances.getTokenBalancesList());
+		}
+		entry.build().writeDelimitedTo(out);
+	}
+
+	@Override
+	public byte[] finish() throws IOException {
+		out.close();
+		out = null;
+		return md.digest();
+	}
+
+	@Override
+	public void abandon() {
+		if (out != null) {
+			try {
+				out.close();
+			} catch (IOException ignore) { }
+			out = null;
+		}
+	}
+
+	private static class BinaryRange extends BalancesChunk {
+		private final CryptoGetAccountBalanceResponse.Builder rangeEntry = CryptoGetAccountBalanceResponse.newBuilder();
+		private final AccountID.Builder rangeAccountId = AccountID.newBuilder();
+
+		BinaryRange() throws IOException {
+			super();
+		}
+
+		@Override
+		public void append(long shard, long realm, long num, long balance, TokenBalances tokenBalances)
+				throws IOException {
+			writeEntry(chunkOut(), rangeEntry, rangeAccountId, shard, realm, num, balance, tokenBalances);
+		}
+	}
+
+	@Override
+	public String location() {
+		return loc;
+	}
+}
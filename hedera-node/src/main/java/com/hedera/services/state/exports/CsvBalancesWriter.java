@@ -0,0 +1,163 @@
+package com.hedera.services.state.exports;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2020 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hederahashgraph.api.proto.java.TokenBalances;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.Base64;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Writes balances in the CSV format, using the release 0.9.0 header (with a column of
+ * Base64-encoded token balances) if exporting token balances, and the legacy header otherwise.
+ */
+public class CsvBalancesWriter implements BalancesWriter {
+	static final String LINE_SEPARATOR = System.getProperty("line.separator");
+	static final String CURRENT_VERSION = "version:2";
+	static final int BUFFER_SIZE = 64 * 1024;
+
+	static final Base64.Encoder encoder = Base64.getEncoder();
+
+	private final String loc;
+	private final boolean exportTokenBalances;
+	private final MessageDigest md = BalancesWriter.newSha384Digest();
+	private final StringBuilder line = new StringBuilder();
+
+	private OutputStream bytesOut;
+	private Writer out;
+
+	public CsvBalancesWriter(String loc, boolean exportTokenBalances) {
+		this.loc = loc;
+		this.exportTokenBalances = exportTokenBalances;
+	}
+
+	@Override
+	public void begin(Instant when) throws IOException {
+		bytesOut = new DigestOutputStream(
+				new BufferedOutputStream(Files.newOutputStream(Paths.get(loc)), BUFFER_SIZE), md);
+		out = new BufferedWriter(new OutputStreamWriter(bytesOut, UTF_8), BUFFER_SIZE);
+		if (exportTokenBalances) {
+			out.write("# " + CURRENT_VERSION + LINE_SEPARATOR);
+			out.write("# TimeStamp:" + when + LINE_SEPARATOR);
+			out.write("shardNum,realmNum,accountNum,balance,tokenBalances" + LINE_SEPARATOR);
+		} else {
+			out.write("TimeStamp:" + when + LINE_SEPARATOR);
+			out.write("shardNum,realmNum,accountNum,balance" + LINE_SEPARATOR);
+		}
+	}
+
+	@Override
+	public void append(long shard, long realm, long num, long balance, TokenBalances tokenBalances) throws IOException {
+		out.append(formatted(line, shard, realm, num, balance, tokenBalances));
+	}
+
+	@Override
+	public Range newRange() throws IOException {
+		return new CsvRange();
+	}
+
+	@Override
+	public void appendRange(Range range) throws IOException {
+		out.flush();
+		range.copyTo(bytesOut);
+	}
+
+	private StringBuilder formatted(
+			StringBuilder line,
+			long shard,
+			long realm,
+			long num,
+			long balance,
+			TokenBalances tokenBalances
+	) {
+		line.setLength(0);
+		line.append(shard).append(',')
+				.append(realm).append(',')
+				.append(num).append(',')
+				.append(balance);
+		if (exportTokenBalances) {
+			line.append(',');
+			if (tokenBalances != null) {
+				line.append(b64Encode(tokenBalances));
+			}
+		}
+		return line.append(LINE_SEPARATOR);
+	}
+
+	@Override
+	public byte[] finish() throws IOException {
+		out.close();
+		out = null;
+		bytesOut = null;
+		return md.digest();
+	}
+
+	@Override
+	public void abandon() {
+		if (out != null) {
+			try {
+				out.close();
+			} catch (IOException ignore) { }
+			out = null;
+		}
+	}
+
+	private class CsvRange extends BalancesChunk {
+		private final StringBuilder rangeLine = new StringBuilder();
+		private final Writer rangeOut = new OutputStreamWriter(chunkOut(), UTF_8);
+
+		CsvRange() throws IOException {
+			super();
+		}
+
+		@Override
+		public void append(long shard, long realm, long num, long balance, TokenBalances tokenBalances)
+				throws IOException {
+			rangeOut.append(formatted(rangeLine, shard, realm, num, balance, tokenBalances));
+		}
+
+		@Override
+		void flushFormatted() throws IOException {
+			rangeOut.flush();
+		}
+	}
+
+	@Override
+	public String location() {
+		return loc;
+	}
+
+	static String b64Encode(TokenBalances tokenBalances) {
+		return encoder.encodeToString(tokenBalances.toByteArray());
+	}
+}
@@ -37,50 +37,73 @@ import com.swirlds.fcmap.FCMap;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
-import java.io.Writer;
-import java.math.BigInteger;
+import java.io.InterruptedIOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.time.Instant;
 import java.util.ArrayList;
-import java.util.Base64;
-import java.util.Collections;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.function.UnaryOperator;
 
 import static com.hedera.services.state.merkle.MerkleEntityAssociation.fromAccountTokenRel;
 import static com.hedera.services.state.merkle.MerkleEntityId.fromTokenId;
 import static com.hedera.services.utils.EntityIdUtils.readableId;
+import static java.util.stream.Collectors.toList;
 
+/**
+ * Exports the balances of a signed state by streaming its live accounts, in canonical
+ * {@link MerkleEntityId} order, through one or more {@link BalancesWriter}s; so the only
+ * transient memory proportional to the number of accounts is an array of their ids.
+ *
+ * Each file is hashed as it is written, and signed once complete. The sum of all exported
+ * balances must equal {@code ledger.totalTinyBarFloat}; if it does not, the exported files
+ * are deleted and an {@link IllegalStateException} is thrown.
+ *
+ * With {@code balances.exportParallelism} above one, the ordered ids are split into
+ * contiguous ranges which are summarized in parallel on a fork-join pool (created once, and
+ * shut down on {@link SignedStateBalancesExporter#close()}), each formatted by every writer to
+ * a temporary chunk file; the chunks are then concatenated to the files in range order, so the
+ * exported files are byte-identical to those of a sequential export.
+ */
 public class SignedStateBalancesExporter implements BalancesExporter {
 	static Logger log = LogManager.getLogger(SignedStateBalancesExporter.class);
 
-	static final String LINE_SEPARATOR = System.getProperty("line.separator");
 	static final String UNKNOWN_EXPORT_DIR = "";
 	static final String BAD_EXPORT_DIR_ERROR_MSG_TPL = "Cannot ensure existence of export dir '%s'!";
 	static final String LOW_NODE_BALANCE_WARN_MSG_TPL = "Node '%s' has unacceptably low balance %d!";
 	static final String BAD_EXPORT_ATTEMPT_ERROR_MSG_TPL = "Could not export to '%s'!";
 	static final String BAD_SIGNING_ATTEMPT_ERROR_MSG_TPL = "Could not sign balance file '%s'!";
 	static final String GOOD_SIGNING_ATTEMPT_DEBUG_MSG_TPL = "Created balance signature file '%s'.";
-	static final String CURRENT_VERSION = "version:2";
+	static final String CURRENT_VERSION = CsvBalancesWriter.CURRENT_VERSION;
+
+	static final int MIN_ACCOUNTS_PER_RANGE = 10_000;
 
 	static final Instant NEVER = null;
-	static final Base64.Encoder encoder = Base64.getEncoder();
+	static final Comparator<MerkleEntityId> CANONICAL_ORDER = Comparator
+			.comparingLong(MerkleEntityId::getShard)
+			.thenComparingLong(MerkleEntityId::getRealm)
+			.thenComparingLong(MerkleEntityId::getNum);
 
 	final long expectedFloat;
 	final UnaryOperator<byte[]> signer;
 	final GlobalDynamicProperties dynamicProperties;
 
 	SigFileWriter sigFileWriter = new StandardSigFileWriter();
-	FileHashReader hashReader = new Sha384HashReader();
 	DirectoryAssurance directories = loc -> Files.createDirectories(Paths.get(loc));
 
 	String lastUsedExportDir = UNKNOWN_EXPORT_DIR;
 	Instant periodEnd = NEVER;
 
+	ForkJoinPool pool;
+
 	public SignedStateBalancesExporter(
 			PropertySource properties,
 			UnaryOperator<byte[]> signer,
@@ -109,110 +132,227 @@ public class SignedStateBalancesExporter implements BalancesExporter {
 		if (!ensureExportDir(signedState.getNodeAccountId())) {
 			return;
 		}
-		var summary = summarized(signedState);
-		var expected = BigInteger.valueOf(expectedFloat);
-		if (!expected.equals(summary.getTotalFloat())) {
+		var writers = writersFor(when);
+		long totalFloat;
+		try {
+			for (BalancesWriter writer : writers) {
+				writer.begin(when);
+			}
+			totalFloat = streamBalances(signedState, writers);
+		} catch (IOException e) {
+			abandonAll(writers);
+			log.error(String.format(BAD_EXPORT_ATTEMPT_ERROR_MSG_TPL, writers.get(0).location()), e);
+			return;
+		} catch (RuntimeException e) {
+			abandonAll(writers);
+			throw e;
+		}
+		if (totalFloat != expectedFloat) {
+			abandonAll(writers);
 			throw new IllegalStateException(String.format(
 					"Signed state @ %s had total balance %d not %d!",
 					when,
-					summary.getTotalFloat(),
+					totalFloat,
 					expectedFloat));
 		}
 
+		for (BalancesWriter writer : writers) {
+			try {
+				var hash = writer.finish();
+				tryToSign(writer.location(), hash);
+			} catch (IOException e) {
+				log.error(String.format(BAD_EXPORT_ATTEMPT_ERROR_MSG_TPL, writer.location()), e);
+			}
+		}
+	}
+
+	private List<BalancesWriter> writersFor(Instant when) {
+		List<BalancesWriter> writers = new ArrayList<>();
 		var csvLoc = lastUsedExportDir + when + "_Balances.csv";
-		boolean exportSucceeded = exportBalancesFile(summary, csvLoc, when);
-		if (exportSucceeded) {
-			tryToSign(csvLoc);
+		writers.add(new CsvBalancesWriter(csvLoc, dynamicProperties.shouldExportTokenBalances()));
+		if (dynamicProperties.shouldExportBinaryBalances()) {
+			var compress = dynamicProperties.shouldCompressBinaryBalances();
+			var pbLoc = lastUsedExportDir + when + (compress ? "_Balances.pb.gz" : "_Balances.pb");
+			writers.add(new BinaryBalancesWriter(pbLoc, compress));
 		}
+		return writers;
 	}
 
-	private void tryToSign(String csvLoc) {
+	private void abandonAll(List<BalancesWriter> writers) {
+		for (BalancesWriter writer : writers) {
+			writer.abandon();
+			new File(writer.location()).delete();
+		}
+	}
+
+	private void tryToSign(String loc, byte[] hash) {
 		try {
-			var hash = hashReader.readHash(csvLoc);
 			var sig = signer.apply(hash);
-			var sigFileLoc = sigFileWriter.writeSigFile(csvLoc, sig, hash);
+			var sigFileLoc = sigFileWriter.writeSigFile(loc, sig, hash);
 			if (log.isDebugEnabled()) {
 				log.debug(String.format(GOOD_SIGNING_ATTEMPT_DEBUG_MSG_TPL, sigFileLoc));
 			}
 		} catch (Exception e) {
-			log.error(String.format(BAD_SIGNING_ATTEMPT_ERROR_MSG_TPL, csvLoc), e);
+			log.error(String.format(BAD_SIGNING_ATTEMPT_ERROR_MSG_TPL, loc), e);
 		}
 	}
 
-	private boolean exportBalancesFile(BalancesSummary summary, String csvLoc, Instant when) {
-		try (BufferedWriter fout = Files.newBufferedWriter(Paths.get(csvLoc))) {
-			if (dynamicProperties.shouldExportTokenBalances()) {
-				addRelease090Header(fout, when);
-			} else {
-				addLegacyHeader(fout, when);
+	/**
+	 * Streams the balances of every live account in the given state to the given writers,
+	 * in canonical order.
+	 *
+	 * @return the total hbar balance of the streamed accounts
+	 * @throws IOException if any writer fails
+	 * @throws IllegalStateException if the total balance overflows a {@code long}
+	 */
+	long streamBalances(ServicesState signedState, List<BalancesWriter> writers) throws IOException {
+		var ids = signedState.accounts().keySet().toArray(new MerkleEntityId[0]);
+		Arrays.sort(ids, CANONICAL_ORDER);
+		int numRanges = Math.min(dynamicProperties.balancesExportParallelism(), ids.length / MIN_ACCOUNTS_PER_RANGE);
+		if (numRanges < 2) {
+			return streamBalances(signedState, ids, 0, ids.length, writers);
+		}
+		return streamBalancesInRanges(signedState, ids, numRanges, writers);
+	}
+
+	long streamBalancesInRanges(
+			ServicesState signedState,
+			MerkleEntityId[] orderedIds,
+			int numRanges,
+			List<BalancesWriter> writers
+	) throws IOException {
+		List<List<BalancesWriter.Range>> ranges = new ArrayList<>();
+		List<ForkJoinTask<Long>> rangeTotals = new ArrayList<>();
+		var pool = poolFor(numRanges);
+		try {
+			for (int i = 0; i < numRanges; i++) {
+				int from = (int) ((long) orderedIds.length * i / numRanges);
+				int to = (int) ((long) orderedIds.length * (i + 1) / numRanges);
+				List<BalancesWriter.Range> writerRanges = new ArrayList<>();
+				ranges.add(writerRanges);
+				for (BalancesWriter writer : writers) {
+					writerRanges.add(writer.newRange());
+				}
+				rangeTotals.add(pool.submit(() -> streamBalances(signedState, orderedIds, from, to, writerRanges)));
 			}
-			for (AccountBalance entry : summary.getOrderedBalances())  {
-				fout.write(String.format(
-						"%d,%d,%d,%d",
-						entry.getShard(),
-						entry.getRealm(),
-						entry.getNum(),
-						entry.getBalance()));
-				if (dynamicProperties.shouldExportTokenBalances()) {
-					fout.write("," + entry.getB64TokenBalances());
+			long totalFloat = 0L;
+			for (int i = 0; i < numRanges; i++) {
+				try {
+					totalFloat = Math.addExact(totalFloat, joined(rangeTotals.get(i)));
+				} catch (ArithmeticException overflow) {
+					throw new IllegalStateException("Signed state total balance overflowed while merging ranges!");
+				}
+				var writerRanges = ranges.get(i);
+				for (int j = 0; j < writers.size(); j++) {
+					writers.get(j).appendRange(writerRanges.get(j));
+					writerRanges.get(j).discard();
 				}
-				fout.write(LINE_SEPARATOR);
 			}
-		} catch (IOException e) {
-			log.error(String.format(BAD_EXPORT_ATTEMPT_ERROR_MSG_TPL, csvLoc), e);
-			return false;
+			return totalFloat;
+		} finally {
+			/* No range may still be writing to a chunk file when it is discarded. */
+			rangeTotals.forEach(ForkJoinTask::quietlyJoin);
+			ranges.forEach(writerRanges -> writerRanges.forEach(BalancesWriter.Range::discard));
 		}
-		return true;
 	}
 
-	private void addLegacyHeader(Writer writer, Instant at) throws IOException {
-		writer.write(String.format("TimeStamp:%s%s", at, LINE_SEPARATOR));
-		writer.write("shardNum,realmNum,accountNum,balance" + LINE_SEPARATOR);
+	private synchronized ForkJoinPool poolFor(int numRanges) {
+		int parallelism = Math.max(numRanges, dynamicProperties.balancesExportParallelism());
+		if (pool == null || pool.getParallelism() != parallelism) {
+			if (pool != null) {
+				pool.shutdown();
+			}
+			pool = new ForkJoinPool(parallelism);
+		}
+		return pool;
 	}
 
-	private void addRelease090Header(Writer writer, Instant at) throws IOException {
-		writer.write("# " + CURRENT_VERSION + LINE_SEPARATOR);
-		writer.write(String.format("# TimeStamp:%s%s", at, LINE_SEPARATOR));
-		writer.write("shardNum,realmNum,accountNum,balance,tokenBalances" + LINE_SEPARATOR);
+	/**
+	 * Shuts down the pool used for parallel exports, if one was created.
+	 */
+	@Override
+	public synchronized void close() {
+		if (pool != null) {
+			pool.shutdownNow();
+			pool = null;
+		}
+	}
+
+	private long joined(ForkJoinTask<Long> rangeTotal) throws IOException {
+		try {
+			return rangeTotal.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while summarizing balances");
+		} catch (ExecutionException e) {
+			var cause = e.getCause();
+			/* A fork-join pool wraps a checked exception thrown by its task in RuntimeExceptions. */
+			for (var wrapped = cause; wrapped != null; wrapped = wrapped.getCause()) {
+				if (wrapped instanceof IOException) {
+					throw (IOException) wrapped;
+				}
+			}
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw new IllegalStateException(cause);
+		}
 	}
 
-	BalancesSummary summarized(ServicesState signedState) {
+	long streamBalances(
+			ServicesState signedState,
+			MerkleEntityId[] orderedIds,
+			int from,
+			int to,
+			List<? extends BalancesAppender> writers
+	) throws IOException {
 		long nodeBalanceWarnThreshold = dynamicProperties.nodeBalanceWarningThreshold();
-		BigInteger totalFloat = BigInteger.valueOf(0L);
-		List<AccountBalance> accountBalances = new ArrayList<>();
+		boolean exportTokenBalances = dynamicProperties.shouldExportTokenBalances();
+		long totalFloat = 0L;
 
 		var nodeIds = MiscUtils.getNodeAccounts(signedState.addressBook());
 		var tokens = signedState.tokens();
 		var accounts = signedState.accounts();
 		var tokenAssociations = signedState.tokenAssociations();
-		for (MerkleEntityId id : accounts.keySet())	{
+		for (int i = from; i < to; i++) {
+			var id = orderedIds[i];
 			var account = accounts.get(id);
-			if (!account.isDeleted()) {
-				var accountId = id.toAccountId();
-				var balance = account.getBalance();
-				if (nodeIds.contains(accountId) && balance < nodeBalanceWarnThreshold) {
-					log.warn(String.format(
-							LOW_NODE_BALANCE_WARN_MSG_TPL,
-							readableId(accountId),
-							balance));
-				}
-				totalFloat = totalFloat.add(BigInteger.valueOf(account.getBalance()));
-				var balancesEntry = new AccountBalance(id.getShard(), id.getRealm(), id.getNum(), account.getBalance());
-				if (dynamicProperties.shouldExportTokenBalances()) {
-					addTokenBalances(accountId, account, balancesEntry, tokens, tokenAssociations);
-				}
-				accountBalances.add(balancesEntry);
+			if (account.isDeleted()) {
+				continue;
+			}
+			var balance = account.getBalance();
+			warnIfLowNodeBalance(id, balance, nodeIds, nodeBalanceWarnThreshold);
+			try {
+				totalFloat = Math.addExact(totalFloat, balance);
+			} catch (ArithmeticException overflow) {
+				throw new IllegalStateException(String.format(
+						"Signed state total balance overflowed at account '%s'!", readableId(id.toAccountId())));
+			}
+			var tokenBalances = exportTokenBalances
+					? tokenBalancesOf(id.toAccountId(), account, tokens, tokenAssociations)
+					: null;
+			for (BalancesAppender writer : writers) {
+				writer.append(id.getShard(), id.getRealm(), id.getNum(), balance, tokenBalances);
 			}
 		}
-		Collections.sort(accountBalances);
+		return totalFloat;
+	}
 
-		return new BalancesSummary(totalFloat, accountBalances);
+	private void warnIfLowNodeBalance(MerkleEntityId id, long balance, Set<AccountID> nodeIds, long threshold) {
+		if (balance < threshold) {
+			var accountId = id.toAccountId();
+			if (nodeIds.contains(accountId)) {
+				log.warn(String.format(
+						LOW_NODE_BALANCE_WARN_MSG_TPL,
+						readableId(accountId),
+						balance));
+			}
+		}
 	}
 
-	private void addTokenBalances(
+	private TokenBalances tokenBalancesOf(
 			AccountID id,
 			MerkleAccount account,
-			AccountBalance balancesEntry,
 			FCMap<MerkleEntityId, MerkleToken> tokens,
 			FCMap<MerkleEntityAssociation, MerkleTokenRelStatus> tokenAssociations
 	) {
@@ -227,9 +367,10 @@ public class SignedStateBalancesExporter implements BalancesExporter {
 				}
 			}
 			if (tokenBalances.getTokenBalancesCount() > 0) {
-				balancesEntry.setB64TokenBalances(b64Encode(tokenBalances.build()));
+				return tokenBalances.build();
 			}
 		}
+		return null;
 	}
 
 	private TokenBalance tb(TokenID id, long balance) {
@@ -237,7 +378,7 @@ public class SignedStateBalancesExporter implements BalancesExporter {
 	}
 
 	static String b64Encode(TokenBalances tokenBalances) {
-		return encoder.encodeToString(tokenBalances.toByteArray());
+		return CsvBalancesWriter.b64Encode(tokenBalances);
 	}
 
 	private boolean ensureExportDir(AccountID node) {
@@ -259,26 +400,4 @@ public class SignedStateBalancesExporter implements BalancesExporter {
 		}
 		return true;
 	}
-
-	static class BalancesSummary {
-		private final BigInteger totalFloat;
-		private final List<AccountBalance> orderedBalances;
-
-		BalancesSummary(
-				BigInteger totalFloat,
-				List<AccountBalance> orderedBalances
-		) {
-			this.totalFloat = totalFloat;
-			this.orderedBalances = orderedBalances;
-		}
-
-		public BigInteger getTotalFloat() {
-			return totalFloat;
-		}
-
-		public List<AccountBalance> getOrderedBalances() {
-			return orderedBalances;
-		}
-	}
 }
-
@@ -0,0 +1,153 @@
+package com.hedera.services.state.merkle;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2020 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.google.common.base.MoreObjects;
+import com.swirlds.common.FCMValue;
+import com.swirlds.common.FastCopyable;
+import com.swirlds.common.io.SerializableDataInputStream;
+import com.swirlds.common.io.SerializableDataOutputStream;
+import com.swirlds.common.io.SerializedObjectProvider;
+import com.swirlds.common.merkle.utility.AbstractMerkleLeaf;
+import org.spongycastle.util.encoders.Hex;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * One storage slot of a contract; that is, a 32-byte key and its 32-byte value.
+ */
+public class MerkleContractSlot extends AbstractMerkleLeaf implements FCMValue {
+	static final int RELEASE_091_VERSION = 1;
+
+	static final int MERKLE_VERSION = RELEASE_091_VERSION;
+	static final long RUNTIME_CONSTRUCTABLE_ID = 0x019ea1d84c353dafL;
+
+	public static final int WORD_BYTES = 32;
+
+	private byte[] key;
+	private byte[] value;
+
+	@Deprecated
+	public static final MerkleContractSlot.Provider LEGACY_PROVIDER = new MerkleContractSlot.Provider();
+
+	public MerkleContractSlot() { }
+
+	public MerkleContractSlot(byte[] key, byte[] value) {
+		if (key.length != WORD_BYTES || value.length != WORD_BYTES) {
+			throw new IllegalArgumentException(String.format(
+					"Slot key and value must be %d bytes, not %d and %d!",
+					WORD_BYTES,
+					key.length,
+					value.length));
+		}
+		this.key = key;
+		this.value = value;
+	}
+
+	@Deprecated
+	public static class Provider implements SerializedObjectProvider {
+		@Override
+		public FastCopyable deserialize(DataInputStream in) throws IOException {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+	/* --- MerkleLeaf --- */
+	@Override
+	public long getClassId() {
+		return RUNTIME_CONSTRUCTABLE_ID;
+	}
+
+	@Override
+	public int getVersion() {
+		return MERKLE_VERSION;
+	}
+
+	@Override
+	public void deserialize(SerializableDataInputStream in, int version) throws IOException {
+		key = new byte[WORD_BYTES];
+		in.readFully(key);
+		value = new byte[WORD_BYTES];
+		in.readFully(value);
+	}
+
+	@Override
+	public void serialize(SerializableDataOutputStream out) throws IOException {
+		out.write(key);
+		out.write(value);
+	}
+
+	/* --- Object --- */
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (o == null || MerkleContractSlot.class != o.getClass()) {
+			return false;
+		}
+
+		var that = (MerkleContractSlot)o;
+		return Arrays.equals(key, that.key) && Arrays.equals(value, that.value);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * Arrays.hashCode(key) + Arrays.hashCode(value);
+	}
+
+	/* --- Bean --- */
+	public byte[] getKey() {
+		return key;
+	}
+
+	public byte[] getValue() {
+		return value;
+	}
+
+	/* --- FastCopyable --- */
+	@Override
+	public MerkleContractSlot copy() {
+		return new MerkleContractSlot(key, value);
+	}
+
+	@Override
+	@Deprecated
+	public void copyFrom(SerializableDataInputStream in) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	@Deprecated
+	public void copyFromExtra(SerializableDataInputStream in) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public String toString() {
+		return MoreObjects.toStringHelper(this)
+				.add("key", Hex.toHexString(key))
+				.add("value", Hex.toHexString(value))
+				.toString();
+	}
+}
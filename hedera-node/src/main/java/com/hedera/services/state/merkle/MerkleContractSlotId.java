@@ -0,0 +1,159 @@
+package com.hedera.services.state.merkle;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2020 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.google.common.base.MoreObjects;
+import com.swirlds.common.FCMKey;
+import com.swirlds.common.FastCopyable;
+import com.swirlds.common.io.SerializableDataInputStream;
+import com.swirlds.common.io.SerializableDataOutputStream;
+import com.swirlds.common.io.SerializedObjectProvider;
+import com.swirlds.common.merkle.utility.AbstractMerkleLeaf;
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+
+/**
+ * Identifies the storage slot at a given index of a contract; a contract with {@code n}
+ * non-empty slots keeps them at indices {@code 0} to {@code n - 1}, in no particular order.
+ */
+public class MerkleContractSlotId extends AbstractMerkleLeaf implements FCMKey {
+	static final int RELEASE_091_VERSION = 1;
+
+	static final int MERKLE_VERSION = RELEASE_091_VERSION;
+	static final long RUNTIME_CONSTRUCTABLE_ID = 0xcc95ef551cec9125L;
+
+	private long realm;
+	private long contractNum;
+	private int index;
+
+	@Deprecated
+	public static final MerkleContractSlotId.Provider LEGACY_PROVIDER = new MerkleContractSlotId.Provider();
+
+	public MerkleContractSlotId() { }
+
+	public MerkleContractSlotId(long realm, long contractNum, int index) {
+		this.realm = realm;
+		this.contractNum = contractNum;
+		this.index = index;
+	}
+
+	@Deprecated
+	public static class Provider implements SerializedObjectProvider {
+		@Override
+		public FastCopyable deserialize(DataInputStream in) throws IOException {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+	/* --- MerkleLeaf --- */
+	@Override
+	public long getClassId() {
+		return RUNTIME_CONSTRUCTABLE_ID;
+	}
+
+	@Override
+	public int getVersion() {
+		return MERKLE_VERSION;
+	}
+
+	@Override
+	public void deserialize(SerializableDataInputStream in, int version) throws IOException {
+		realm = in.readLong();
+		contractNum = in.readLong();
+		index = in.readInt();
+	}
+
+	@Override
+	public void serialize(SerializableDataOutputStream out) throws IOException {
+		out.writeLong(realm);
+		out.writeLong(contractNum);
+		out.writeInt(index);
+	}
+
+	/* --- Object --- */
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (o == null || MerkleContractSlotId.class != o.getClass()) {
+			return false;
+		}
+
+		var that = (MerkleContractSlotId)o;
+		return new EqualsBuilder()
+				.append(realm, that.realm)
+				.append(contractNum, that.contractNum)
+				.append(index, that.index)
+				.isEquals();
+	}
+
+	@Override
+	public int hashCode() {
+		return new HashCodeBuilder(17, 37)
+				.append(realm)
+				.append(contractNum)
+				.append(index)
+				.toHashCode();
+	}
+
+	/* --- Bean --- */
+	public long getRealm() {
+		return realm;
+	}
+
+	public long getContractNum() {
+		return contractNum;
+	}
+
+	public int getIndex() {
+		return index;
+	}
+
+	/* --- FastCopyable --- */
+	@Override
+	public MerkleContractSlotId copy() {
+		return new MerkleContractSlotId(realm, contractNum, index);
+	}
+
+	@Override
+	@Deprecated
+	public void copyFrom(SerializableDataInputStream in) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	@Deprecated
+	public void copyFromExtra(SerializableDataInputStream in) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public String toString() {
+		return MoreObjects.toStringHelper(this)
+				.add("contract", String.format("0.%d.%d", realm, contractNum))
+				.add("index", index)
+				.toString();
+	}
+}
@@ -27,7 +27,6 @@ import com.swirlds.common.io.SerializableDataInputStream;
 import com.swirlds.common.io.SerializableDataOutputStream;
 import com.swirlds.common.merkle.MerkleExternalLeaf;
 import com.swirlds.common.merkle.utility.AbstractMerkleLeaf;
-import org.apache.commons.io.FileUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -35,25 +34,45 @@ import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static com.hedera.services.ledger.HederaLedger.FILE_ID_COMPARATOR;
+import static com.hedera.services.legacy.proto.utils.CommonUtils.getSha384Hash;
 import static com.hedera.services.legacy.proto.utils.CommonUtils.noThrowSha384HashOf;
 import static com.hedera.services.utils.EntityIdUtils.asLiteralString;
 import static com.swirlds.common.CommonUtils.hex;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
 
 /**
  * Save some special system files on the local file system instead of database to improve access efficiency.
  *
- * All that is kept in memory is a map from {@code FileID} to the SHA-384 hash of the current contents.
+ * All that is kept in memory is a map from {@code FileID} to the SHA-384 hash of the current contents
+ * (plus, for cheap appends, the running digest of each file written since this node started). Contents
+ * are written and hashed in a single pass over fixed-size chunks, and are never buffered whole except
+ * to answer {@link MerkleDiskFs#contentsOf(FileID)}; since every copy of this leaf shares the same disk
+ * files, copies also share a read/write lock that lets readers proceed concurrently.
  */
 public class MerkleDiskFs extends AbstractMerkleLeaf implements MerkleExternalLeaf {
 	static Logger log = LogManager.getLogger(MerkleDiskFs.class);
@@ -66,13 +85,18 @@ public class MerkleDiskFs extends AbstractMerkleLeaf implements MerkleExternalLe
 	static final int HASH_BYTES = 48;
 	static final int MAX_FILE_BYTES = 1_024 * 1_024 * 1_024;
 	static final int MERKLE_VERSION = 1;
+	static final int CHUNK_BYTES = 64 * 1_024;
 
-	static ThrowingBytesWriter writeHelper = (p, c) -> FileUtils.writeByteArrayToFile(p.toFile(), c);
-	static ThrowingBytesGetter bytesHelper = p -> FileUtils.readFileToByteArray(p.toFile());
+	static ThrowingBytesWriter writeHelper = MerkleDiskFs::writeHashing;
+	static ThrowingBytesGetter bytesHelper = MerkleDiskFs::readFully;
+	static ThrowingDigestUpdater digestHelper = MerkleDiskFs::readHashing;
+	static Supplier<MessageDigest> digestSupplier = MerkleDiskFs::newSha384Digest;
 
 	private String fsBaseDir = UNKNOWN_PATH_SEGMENT;
 	private String fsNodeScopedDir = UNKNOWN_PATH_SEGMENT;
 	private Map<FileID, byte[]> fileHashes = new HashMap<>();
+	private ReadWriteLock diskLock = new ReentrantReadWriteLock();
+	private Map<FileID, MessageDigest> runningDigests = new ConcurrentHashMap<>();
 
 	/* --- RuntimeConstructable --- */
 	public MerkleDiskFs() {
@@ -92,11 +116,23 @@ public class MerkleDiskFs extends AbstractMerkleLeaf implements MerkleExternalLe
 		setHashFromContents();
 	}
 
+	private MerkleDiskFs(
+			Map<FileID, byte[]> fileHashes,
+			String fsBaseDir,
+			String fsNodeScopedDir,
+			ReadWriteLock diskLock,
+			Map<FileID, MessageDigest> runningDigests
+	) {
+		this(fileHashes, fsBaseDir, fsNodeScopedDir);
+		this.diskLock = diskLock;
+		this.runningDigests = runningDigests;
+	}
+
 	public MerkleDiskFs copy() {
 		Map<FileID, byte[]> fileHashesCopy = fileHashes.entrySet()
 				.stream()
 				.collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, HashMap::new));
-		return new MerkleDiskFs(fileHashesCopy, fsBaseDir, fsNodeScopedDir);
+		return new MerkleDiskFs(fileHashesCopy, fsBaseDir, fsNodeScopedDir, diskLock, runningDigests);
 	}
 
 	public void setFsBaseDir(String fsBaseDir) {
@@ -108,7 +144,8 @@ public class MerkleDiskFs extends AbstractMerkleLeaf implements MerkleExternalLe
 	}
 
 	public void checkHashesAgainstDiskContents() {
-		for (FileID fid : fileHashes.keySet()) {
+		/* Each file is streamed through its own digest, so the files can be verified in parallel */
+		fileHashes.keySet().parallelStream().forEach(fid -> {
 			byte[] expectedHash = fileHashes.get(fid);
 			byte[] actualHash = diskContentHash(fid);
 			if (!Arrays.equals(expectedHash, actualHash)) {
@@ -118,35 +155,91 @@ public class MerkleDiskFs extends AbstractMerkleLeaf implements MerkleExternalLe
 						hex(expectedHash),
 						hex(actualHash));
 			}
-		}
+		});
 	}
 
 	public byte[] diskContentHash(FileID fid) {
-		return noThrowSha384HashOf(contentsOf(fid));
+		diskLock.readLock().lock();
+		try {
+			var digest = digestSupplier.get();
+			digestHelper.allBytesInto(pathToContentsOf(fid), digest);
+			return digest.digest();
+		} catch (IOException e) {
+			log.error("Error hashing '{}' @ {}!", asLiteralString(fid), pathToContentsOf(fid), e);
+			return noThrowSha384HashOf(MISSING_CONTENT);
+		} finally {
+			diskLock.readLock().unlock();
+		}
 	}
 
-	public synchronized byte[] contentsOf(FileID fid) {
+	public byte[] contentsOf(FileID fid) {
+		diskLock.readLock().lock();
 		try {
 			return bytesHelper.allBytesFrom(pathToContentsOf(fid));
 		} catch (IOException e) {
 			log.error("Error reading '{}' @ {}!", asLiteralString(fid), pathToContentsOf(fid), e);
 			return MISSING_CONTENT;
+		} finally {
+			diskLock.readLock().unlock();
 		}
 	}
 
-	public synchronized void put(FileID fid, byte[] contents) {
+	public void put(FileID fid, byte[] contents) {
+		write(fid, contents, digestSupplier.get(), false);
+	}
+
+	/**
+	 * Appends the given bytes to a file, hashing only the appended bytes if the running digest
+	 * of the file's current contents is still at hand.
+	 *
+	 * @param fid the file to append to
+	 * @param moreContents the bytes to append
+	 */
+	public void append(FileID fid, byte[] moreContents) {
+		diskLock.writeLock().lock();
 		try {
-			byte[] hash = noThrowSha384HashOf(contents);
-			writeHelper.allBytesTo(pathToContentsOf(fid), contents);
-			log.info("Updated '{}' with {} bytes; new hash :: {}", asLiteralString(fid), contents.length, hex(hash));
+			var digest = runningDigests.get(fid);
+			if (digest != null) {
+				write(fid, moreContents, digest, true);
+				return;
+			}
+			digest = digestSupplier.get();
+			try {
+				digestHelper.allBytesInto(pathToContentsOf(fid), digest);
+				write(fid, moreContents, digest, true);
+			} catch (IOException e) {
+				/* As with an unreadable file in contentsOf(), treat the current contents as missing */
+				log.error("Error reading '{}' @ {}!", asLiteralString(fid), pathToContentsOf(fid), e);
+				put(fid, moreContents);
+			}
+		} finally {
+			diskLock.writeLock().unlock();
+		}
+	}
+
+	private void write(FileID fid, byte[] contents, MessageDigest digest, boolean append) {
+		diskLock.writeLock().lock();
+		try {
+			writeHelper.allBytesTo(pathToContentsOf(fid), contents, digest, append);
+			runningDigests.put(fid, copyOf(digest));
+			byte[] hash = digest.digest();
+			log.info(
+					"{} '{}' with {} bytes; new hash :: {}",
+					append ? "Appended to" : "Updated",
+					asLiteralString(fid),
+					contents.length,
+					hex(hash));
 			fileHashes.put(fid, hash);
 			setHashFromContents();
 		} catch (IOException e) {
+			runningDigests.remove(fid);
 			log.error(
 					"Error writing new contents for '{}' to disk @ {}!",
 					asLiteralString(fid),
 					pathToContentsOf(fid),
 					e);
+		} finally {
+			diskLock.writeLock().unlock();
 		}
 	}
 
@@ -210,8 +303,15 @@ public class MerkleDiskFs extends AbstractMerkleLeaf implements MerkleExternalLe
 					.setFileNum(in.readLong())
 					.build();
 			byte[] contents = in.readByteArray(MAX_FILE_BYTES);
-			writeHelper.allBytesTo(pathToContentsOf(fid), contents);
-			byte[] fileHash = noThrowSha384HashOf(contents);
+			var digest = digestSupplier.get();
+			diskLock.writeLock().lock();
+			try {
+				writeHelper.allBytesTo(pathToContentsOf(fid), contents, digest, false);
+				runningDigests.put(fid, copyOf(digest));
+			} finally {
+				diskLock.writeLock().unlock();
+			}
+			byte[] fileHash = digest.digest();
 			fileHashes.put(fid, fileHash);
 			log.info("Restored file '{}' with hash :: {}", asLiteralString(fid), hex(fileHash));
 		}
@@ -221,13 +321,7 @@ public class MerkleDiskFs extends AbstractMerkleLeaf implements MerkleExternalLe
 	@Override
 	public void serialize(SerializableDataOutputStream out) throws IOException {
 		out.writeInt(fileHashes.size());
-		serializeFidInfo(out, fid -> {
-			try {
-				return bytesHelper.allBytesFrom(pathToContentsOf(fid));
-			} catch (IOException e) {
-				throw new UncheckedIOException(e);
-			}
-		});
+		serializeFidInfo(out, this::contentsOrThrow);
 	}
 
 	/* --- MerkleNode --- */
@@ -322,6 +416,77 @@ public class MerkleDiskFs extends AbstractMerkleLeaf implements MerkleExternalLe
 		return fileHashes.keySet().stream().sorted(FILE_ID_COMPARATOR);
 	}
 
+	private byte[] contentsOrThrow(FileID fid) {
+		diskLock.readLock().lock();
+		try {
+			return bytesHelper.allBytesFrom(pathToContentsOf(fid));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			diskLock.readLock().unlock();
+		}
+	}
+
+	static void writeHashing(Path loc, byte[] contents, MessageDigest digest, boolean append) throws IOException {
+		var parent = loc.toAbsolutePath().getParent();
+		if (parent != null) {
+			Files.createDirectories(parent);
+		}
+		var options = append
+				? new StandardOpenOption[] { CREATE, WRITE, APPEND }
+				: new StandardOpenOption[] { CREATE, WRITE, TRUNCATE_EXISTING };
+		try (var channel = FileChannel.open(loc, options)) {
+			for (int offset = 0; offset < contents.length; offset += CHUNK_BYTES) {
+				var chunk = ByteBuffer.wrap(contents, offset, Math.min(CHUNK_BYTES, contents.length - offset));
+				digest.update(chunk.duplicate());
+				while (chunk.hasRemaining()) {
+					channel.write(chunk);
+				}
+			}
+		}
+	}
+
+	static byte[] readFully(Path loc) throws IOException {
+		try (var channel = FileChannel.open(loc, READ)) {
+			var size = channel.size();
+			if (size > MAX_FILE_BYTES) {
+				throw new IOException(String.format("%s has %d bytes, more than the %d allowed", loc, size, MAX_FILE_BYTES));
+			}
+			var contents = ByteBuffer.allocate((int) size);
+			while (contents.hasRemaining() && channel.read(contents) != -1) {
+				/* Keep reading until the buffer is full. */
+			}
+			return contents.array();
+		}
+	}
+
+	static void readHashing(Path loc, MessageDigest digest) throws IOException {
+		try (var channel = FileChannel.open(loc, READ)) {
+			var chunk = ByteBuffer.allocateDirect(CHUNK_BYTES);
+			while (channel.read(chunk) != -1) {
+				chunk.flip();
+				digest.update(chunk);
+				chunk.clear();
+			}
+		}
+	}
+
+	private static MessageDigest newSha384Digest() {
+		try {
+			return getSha384Hash();
+		} catch (NoSuchAlgorithmException impossible) {
+			throw new IllegalStateException(impossible);
+		}
+	}
+
+	private static MessageDigest copyOf(MessageDigest digest) {
+		try {
+			return (MessageDigest) digest.clone();
+		} catch (CloneNotSupportedException impossible) {
+			throw new IllegalStateException(impossible);
+		}
+	}
+
 	@FunctionalInterface
 	interface ThrowingBytesGetter {
 		byte[] allBytesFrom(Path loc) throws IOException;
@@ -329,6 +494,11 @@ public class MerkleDiskFs extends AbstractMerkleLeaf implements MerkleExternalLe
 
 	@FunctionalInterface
 	interface ThrowingBytesWriter {
-		void allBytesTo(Path loc, byte[] contents) throws IOException;
+		void allBytesTo(Path loc, byte[] contents, MessageDigest digest, boolean append) throws IOException;
+	}
+
+	@FunctionalInterface
+	interface ThrowingDigestUpdater {
+		void allBytesInto(Path loc, MessageDigest digest) throws IOException;
 	}
 }
@@ -39,8 +39,13 @@ public class MerkleNetworkContext extends AbstractMerkleLeaf {
 	private static final Logger log = LogManager.getLogger(MerkleNetworkContext.class);
 
 	public static final RichInstant UNKNOWN_CONSENSUS_TIME = null;
+	public static final long NO_PAYER_EXPIRIES_SNAPSHOT = -1L;
 
-	static final int MERKLE_VERSION = 1;
+	static final int RELEASE_070_VERSION = 1;
+	static final int RELEASE_091_VERSION = 2;
+	static final int MERKLE_VERSION = RELEASE_091_VERSION;
+	static final int MAX_CONCEIVABLE_PAYER_EXPIRY_PARTS = 200_000_000;
+	static final int MAX_CONCEIVABLE_THROTTLE_BUCKETS = 1_000;
 	static final long RUNTIME_CONSTRUCTABLE_ID = 0x8d4aa0f0a968a9f3L;
 
 	static DomainSerdes serdes = new DomainSerdes();
@@ -50,6 +55,16 @@ public class MerkleNetworkContext extends AbstractMerkleLeaf {
 	RichInstant consensusTimeOfLastHandledTxn;
 	SequenceNumber seqNo;
 	ExchangeRates midnightRates;
+	/* The pending payer record expiries, as flattened (expiry, account number) pairs in
+	ascending order; or null if unknown. Never carried into a copy, since it is only
+	snapshotted into the states that will be saved to disk. */
+	long[] payerExpiries;
+	/* The consensus second of the last handled transaction when payer expiries were last snapshotted
+	into a state; or NO_PAYER_EXPIRIES_SNAPSHOT if never. Unlike the index itself, carried into every
+	copy, so whether a state is due for a snapshot depends only on consensus data in the state. */
+	long lastPayerExpiriesSnapshotSecs = NO_PAYER_EXPIRIES_SNAPSHOT;
+	/* The empty times of the consensus throttle buckets, in bucket name order; or null if unknown. */
+	long[] throttleUsages;
 
 	public MerkleNetworkContext() { }
 
@@ -67,8 +82,23 @@ public class MerkleNetworkContext extends AbstractMerkleLeaf {
 		this.consensusTimeOfLastHandledTxn = RichInstant.fromJava(consensusTimeOfLastHandledTxn);
 	}
 
+	public void setPayerExpiries(long[] payerExpiries) {
+		this.payerExpiries = payerExpiries;
+	}
+
+	public void setLastPayerExpiriesSnapshotSecs(long lastPayerExpiriesSnapshotSecs) {
+		this.lastPayerExpiriesSnapshotSecs = lastPayerExpiriesSnapshotSecs;
+	}
+
+	public void setThrottleUsages(long[] throttleUsages) {
+		this.throttleUsages = throttleUsages;
+	}
+
 	public MerkleNetworkContext copy() {
-		return new MerkleNetworkContext(consensusTimeOfLastHandledTxn, seqNo.copy(), midnightRates.copy());
+		var copy = new MerkleNetworkContext(consensusTimeOfLastHandledTxn, seqNo.copy(), midnightRates.copy());
+		copy.throttleUsages = throttleUsages;
+		copy.lastPayerExpiriesSnapshotSecs = lastPayerExpiriesSnapshotSecs;
+		return copy;
 	}
 
 	@Override
@@ -77,6 +107,15 @@ public class MerkleNetworkContext extends AbstractMerkleLeaf {
 		seqNo = seqNoSupplier.get();
 		seqNo.deserialize(in);
 		midnightRates = in.readSerializable(true, ratesSupplier);
+		if (version >= RELEASE_091_VERSION) {
+			if (in.readBoolean()) {
+				payerExpiries = in.readLongArray(MAX_CONCEIVABLE_PAYER_EXPIRY_PARTS);
+			}
+			if (in.readBoolean()) {
+				throttleUsages = in.readLongArray(MAX_CONCEIVABLE_THROTTLE_BUCKETS);
+			}
+			lastPayerExpiriesSnapshotSecs = in.readLong();
+		}
 	}
 
 	@Override
@@ -84,6 +123,19 @@ public class MerkleNetworkContext extends AbstractMerkleLeaf {
 		serdes.writeNullableInstant(consensusTimeOfLastHandledTxn, out);
 		seqNo.serialize(out);
 		out.writeSerializable(midnightRates, true);
+		if (payerExpiries == null) {
+			out.writeBoolean(false);
+		} else {
+			out.writeBoolean(true);
+			out.writeLongArray(payerExpiries);
+		}
+		if (throttleUsages == null) {
+			out.writeBoolean(false);
+		} else {
+			out.writeBoolean(true);
+			out.writeLongArray(throttleUsages);
+		}
+		out.writeLong(lastPayerExpiriesSnapshotSecs);
 	}
 
 	public Instant consensusTimeOfLastHandledTxn() {
@@ -98,6 +150,18 @@ public class MerkleNetworkContext extends AbstractMerkleLeaf {
 		return midnightRates;
 	}
 
+	public long[] payerExpiries() {
+		return payerExpiries;
+	}
+
+	public long lastPayerExpiriesSnapshotSecs() {
+		return lastPayerExpiriesSnapshotSecs;
+	}
+
+	public long[] throttleUsages() {
+		return throttleUsages;
+	}
+
 	@Override
 	public long getClassId() {
 		return RUNTIME_CONSTRUCTABLE_ID;
@@ -21,7 +21,6 @@ package com.hedera.services.state.merkle;
  */
 
 import com.google.common.base.MoreObjects;
-import com.hedera.services.legacy.proto.utils.CommonUtils;
 import com.hedera.services.state.serdes.DomainSerdes;
 import com.hedera.services.state.serdes.TopicSerde;
 import com.hedera.services.state.submerkle.EntityId;
@@ -43,10 +42,12 @@ import org.apache.logging.log4j.Logger;
 import org.spongycastle.util.encoders.Hex;
 
 import javax.annotation.Nullable;
-import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.IOException;
-import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -315,23 +316,86 @@ public final class MerkleTopic extends AbstractMerkleLeaf implements FCMValue {
             consensusTimestamp = Instant.ofEpochSecond(0);
         }
 
-        var boas = new ByteArrayOutputStream();
-        try (var out = new ObjectOutputStream(boas)) {
-            out.writeObject(getRunningHash());
-            out.writeLong(RUNNING_HASH_VERSION);
-            out.writeLong(payer.getShardNum());
-            out.writeLong(payer.getRealmNum());
-            out.writeLong(payer.getAccountNum());
-            out.writeLong(topicId.getShardNum());
-            out.writeLong(topicId.getRealmNum());
-            out.writeLong(topicId.getTopicNum());
-            out.writeLong(consensusTimestamp.getEpochSecond());
-            out.writeInt(consensusTimestamp.getNano());
-            ++sequenceNumber;
-            out.writeLong(sequenceNumber);
-            out.writeObject(CommonUtils.noThrowSha384HashOf(message));
-            out.flush();
-            runningHash = CommonUtils.noThrowSha384HashOf(boas.toByteArray());
+        ++sequenceNumber;
+        runningHash = RUNNING_HASHER.get().nextRunningHash(
+                getRunningHash(), payer, topicId, consensusTimestamp, sequenceNumber, message);
+    }
+
+    private static final ThreadLocal<RunningHasher> RUNNING_HASHER = ThreadLocal.withInitial(RunningHasher::new);
+
+    /**
+     * Computes a {@code RUNNING_HASH_VERSION} 3 running hash with a reused digest and buffer, feeding the digest
+     * exactly the bytes that an {@link java.io.ObjectOutputStream} would write for the previous running hash, the
+     * version, payer, topic, consensus timestamp, sequence number, and message hash (in that order); that is,
+     * <ol>
+     *   <li>the stream header, and the previous hash as the first {@code byte[]} (with a full class descriptor);</li>
+     *   <li>the primitives as a single 76-byte block data record;</li>
+     *   <li>the message hash as a second {@code byte[]}, with a back-reference to the first class descriptor.</li>
+     * </ol>
+     */
+    static final class RunningHasher {
+        static final byte[] STREAM_HEADER_AND_BYTE_ARRAY_DESC = {
+                (byte) 0xac, (byte) 0xed, 0x00, 0x05,
+                0x75, 0x72, 0x00, 0x02, '[', 'B',
+                (byte) 0xac, (byte) 0xf3, 0x17, (byte) 0xf8, 0x06, 0x08, 0x54, (byte) 0xe0,
+                0x02, 0x00, 0x00, 0x78, 0x70
+        };
+        static final byte[] BYTE_ARRAY_DESC_BACK_REFERENCE = { 0x75, 0x71, 0x00, 0x7e, 0x00, 0x00 };
+        static final byte TC_BLOCKDATA = 0x77;
+        static final int PRIMITIVES_BYTES = 9 * Long.BYTES + Integer.BYTES;
+
+        static final int PREFIX_BYTES = STREAM_HEADER_AND_BYTE_ARRAY_DESC.length + Integer.BYTES;
+        static final int MESSAGE_HASH_OFFSET = 2 + PRIMITIVES_BYTES + BYTE_ARRAY_DESC_BACK_REFERENCE.length + Integer.BYTES;
+        static final int SUFFIX_BYTES = MESSAGE_HASH_OFFSET + RUNNING_HASH_BYTE_ARRAY_SIZE;
+
+        private final MessageDigest digest;
+        private final ByteBuffer prefix = ByteBuffer.allocate(PREFIX_BYTES);
+        private final ByteBuffer suffix = ByteBuffer.allocate(SUFFIX_BYTES);
+
+        RunningHasher() {
+            try {
+                digest = MessageDigest.getInstance("SHA-384");
+            } catch (NoSuchAlgorithmException fatal) {
+                throw new IllegalStateException(fatal);
+            }
+            prefix.put(STREAM_HEADER_AND_BYTE_ARRAY_DESC);
+        }
+
+        byte[] nextRunningHash(
+                byte[] prevRunningHash,
+                AccountID payer,
+                TopicID topicId,
+                Instant consensusTimestamp,
+                long sequenceNumber,
+                byte[] message
+        ) {
+            suffix.clear();
+            suffix.put(TC_BLOCKDATA)
+                    .put((byte) PRIMITIVES_BYTES)
+                    .putLong(RUNNING_HASH_VERSION)
+                    .putLong(payer.getShardNum())
+                    .putLong(payer.getRealmNum())
+                    .putLong(payer.getAccountNum())
+                    .putLong(topicId.getShardNum())
+                    .putLong(topicId.getRealmNum())
+                    .putLong(topicId.getTopicNum())
+                    .putLong(consensusTimestamp.getEpochSecond())
+                    .putInt(consensusTimestamp.getNano())
+                    .putLong(sequenceNumber)
+                    .put(BYTE_ARRAY_DESC_BACK_REFERENCE)
+                    .putInt(RUNNING_HASH_BYTE_ARRAY_SIZE);
+            digest.update(message);
+            try {
+                digest.digest(suffix.array(), MESSAGE_HASH_OFFSET, RUNNING_HASH_BYTE_ARRAY_SIZE);
+            } catch (DigestException impossible) {
+                throw new IllegalStateException(impossible);
+            }
+
+            prefix.putInt(STREAM_HEADER_AND_BYTE_ARRAY_DESC.length, prevRunningHash.length);
+            digest.update(prefix.array());
+            digest.update(prevRunningHash);
+            digest.update(suffix.array());
+            return digest.digest();
         }
     }
 
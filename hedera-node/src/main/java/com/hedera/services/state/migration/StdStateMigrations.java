@@ -22,8 +22,22 @@ package com.hedera.services.state.migration;
 
 import com.hedera.services.context.ServicesContext;
 import com.hedera.services.utils.Pause;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+
+import static com.hedera.services.contracts.sources.AddressKeyedMapFactory.storageMapFrom;
+import static com.hedera.services.utils.EntityIdUtils.accountParsedFromSolidityAddress;
 
 public class StdStateMigrations implements StateMigrations {
+	private static final Logger log = LogManager.getLogger(StdStateMigrations.class);
+
+	private static final Comparator<byte[]> CONTRACT_ORDER = Comparator
+			.<byte[]>comparingLong(address -> accountParsedFromSolidityAddress(address).getRealmNum())
+			.thenComparingLong(address -> accountParsedFromSolidityAddress(address).getAccountNum());
+
 	private final Pause pause;
 
 	public StdStateMigrations(Pause pause) {
@@ -32,6 +46,28 @@ public class StdStateMigrations implements StateMigrations {
 
 	@Override
 	public void runAllFor(ServicesContext ctx) {
-		/* There are no applicable state migrations at this time. */
+		migrateLegacyContractStorage(ctx);
+	}
+
+	/**
+	 * Moves the storage of every contract still in a legacy {@code /<realm>/d<num>} blob into the
+	 * slots of the contract storage map, and removes the blob. Contracts are migrated in id order,
+	 * so every node builds the same map from the same saved state.
+	 *
+	 * @param ctx the context whose state to migrate
+	 */
+	void migrateLegacyContractStorage(ServicesContext ctx) {
+		var legacyStorage = storageMapFrom(ctx.blobStore());
+		var addresses = new ArrayList<>(legacyStorage.keySet());
+		if (addresses.isEmpty()) {
+			return;
+		}
+		addresses.sort(CONTRACT_ORDER);
+		var persistence = ctx.storagePersistence();
+		for (var address : addresses) {
+			persistence.persist(address, legacyStorage.get(address), 0L, 0L);
+			legacyStorage.remove(address);
+		}
+		log.info("Migrated storage of {} contracts from legacy blobs to slots", addresses.size());
 	}
 }
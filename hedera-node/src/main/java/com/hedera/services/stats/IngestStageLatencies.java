@@ -0,0 +1,107 @@
+package com.hedera.services.stats;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2020 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.swirlds.common.Platform;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A latency histogram for each stage a HAPI transaction passes through on its way from
+ * the gRPC service to the platform. Latencies are counted in power-of-two microsecond
+ * buckets, so recording one is a single atomic increment; and the median and 99th
+ * percentile of each stage are published as app stats, as the upper bounds of the
+ * buckets they fall in.
+ */
+public class IngestStageLatencies {
+	/* Bucket 0 counts latencies under 1μs, and bucket b > 0 counts those in [2^(b-1), 2^b)μs. */
+	static final int NUM_BUCKETS = 32;
+
+	public enum Stage {
+		PRECHECK("precheck"), SYNTAX_CHECK("syntaxCheck"), SUBMISSION("submission");
+
+		private final String statName;
+
+		Stage(String statName) {
+			this.statName = statName;
+		}
+	}
+
+	private final CounterFactory counter;
+	private final AtomicLongArray counts = new AtomicLongArray(Stage.values().length * NUM_BUCKETS);
+
+	public IngestStageLatencies(CounterFactory counter) {
+		this.counter = counter;
+	}
+
+	public void registerWith(Platform platform) {
+		for (Stage stage : Stage.values()) {
+			platform.addAppStatEntry(
+					counter.from(
+							String.format(Names.P50_TPL, stage.statName),
+							String.format(Descriptions.P50_TPL, stage.statName),
+							() -> percentileMicros(stage, 0.50)));
+			platform.addAppStatEntry(
+					counter.from(
+							String.format(Names.P99_TPL, stage.statName),
+							String.format(Descriptions.P99_TPL, stage.statName),
+							() -> percentileMicros(stage, 0.99)));
+		}
+	}
+
+	public void record(Stage stage, long nanos) {
+		long micros = Math.max(0L, nanos / 1_000L);
+		int bucket = Math.min(NUM_BUCKETS - 1, Long.SIZE - Long.numberOfLeadingZeros(micros));
+		counts.incrementAndGet(stage.ordinal() * NUM_BUCKETS + bucket);
+	}
+
+	long percentileMicros(Stage stage, double q) {
+		int base = stage.ordinal() * NUM_BUCKETS;
+		long total = 0;
+		for (int b = 0; b < NUM_BUCKETS; b++) {
+			total += counts.get(base + b);
+		}
+		if (total == 0) {
+			return 0;
+		}
+		long rank = (long) Math.ceil(q * total);
+		long seen = 0;
+		for (int b = 0; b < NUM_BUCKETS; b++) {
+			seen += counts.get(base + b);
+			if (seen >= rank) {
+				return 1L << b;
+			}
+		}
+		return 1L << (NUM_BUCKETS - 1);
+	}
+
+	static class Names {
+		public static final String P50_TPL = "%sP50Us";
+		public static final String P99_TPL = "%sP99Us";
+	}
+
+	static class Descriptions {
+		public static final String P50_TPL =
+				"median microseconds spent in the %s stage of HAPI transaction submission (bucket upper bound)";
+		public static final String P99_TPL =
+				"99th percentile microseconds spent in the %s stage of HAPI transaction submission (bucket upper bound)";
+	}
+}
@@ -31,6 +31,8 @@ public class MiscRunningAvgs {
 	StatsRunningAverage accountLookupRetries;
 	StatsRunningAverage recordStreamQueueSize;
 	StatsRunningAverage handledSubmitMessageSize;
+	StatsRunningAverage bytecodeCacheHitRate;
+	StatsRunningAverage jumpDestCacheHitRate;
 
 	public MiscRunningAvgs(RunningAvgFactory runningAvg, NodeLocalProperties properties) {
 		this.runningAvg = runningAvg;
@@ -41,6 +43,8 @@ public class MiscRunningAvgs {
 		accountLookupRetries = new StatsRunningAverage(halfLife);
 		recordStreamQueueSize = new StatsRunningAverage(halfLife);
 		handledSubmitMessageSize = new StatsRunningAverage(halfLife);
+		bytecodeCacheHitRate = new StatsRunningAverage(halfLife);
+		jumpDestCacheHitRate = new StatsRunningAverage(halfLife);
 	}
 
 	public void registerWith(Platform platform) {
@@ -64,6 +68,16 @@ public class MiscRunningAvgs {
 						Names.HANDLED_SUBMIT_MESSAGE_SIZE,
 						Descriptions.HANDLED_SUBMIT_MESSAGE_SIZE,
 						handledSubmitMessageSize));
+		platform.addAppStatEntry(
+				runningAvg.from(
+						Names.BYTECODE_CACHE_HIT_RATE,
+						Descriptions.BYTECODE_CACHE_HIT_RATE,
+						bytecodeCacheHitRate));
+		platform.addAppStatEntry(
+				runningAvg.from(
+						Names.JUMP_DEST_CACHE_HIT_RATE,
+						Descriptions.JUMP_DEST_CACHE_HIT_RATE,
+						jumpDestCacheHitRate));
 	}
 
 	public void recordAccountLookupRetries(int num) {
@@ -82,11 +96,21 @@ public class MiscRunningAvgs {
 		handledSubmitMessageSize.recordValue(bytes);
 	}
 
+	public void recordBytecodeCacheLookup(boolean hit) {
+		bytecodeCacheHitRate.recordValue(hit ? 1.0 : 0.0);
+	}
+
+	public void recordJumpDestCacheLookup(boolean hit) {
+		jumpDestCacheHitRate.recordValue(hit ? 1.0 : 0.0);
+	}
+
 	static class Names {
 		public static final String ACCOUNT_RETRY_WAIT_MS = "avgAcctRetryWaitMs";
 		public static final String ACCOUNT_LOOKUP_RETRIES = "avgAcctLookupRetryAttempts";
 		public static final String RECORD_STREAM_QUEUE_SIZE = "recordStreamQueueSize";
 		public static final String HANDLED_SUBMIT_MESSAGE_SIZE = "avgHdlSubMsgSize";
+		public static final String BYTECODE_CACHE_HIT_RATE = "bytecodeCacheHitRate";
+		public static final String JUMP_DEST_CACHE_HIT_RATE = "jumpDestCacheHitRate";
 	}
 
 	static class Descriptions {
@@ -98,5 +122,9 @@ public class MiscRunningAvgs {
 				"size of the queue from which we take records and write to RecordStream file";
 		public static final String HANDLED_SUBMIT_MESSAGE_SIZE =
 				"average size of the handled HCS submit message transaction";
+		public static final String BYTECODE_CACHE_HIT_RATE =
+				"fraction of contract bytecode lookups served from the shared bytecode cache";
+		public static final String JUMP_DEST_CACHE_HIT_RATE =
+				"fraction of contract executions reusing a cached jump destination analysis";
 	}
 }
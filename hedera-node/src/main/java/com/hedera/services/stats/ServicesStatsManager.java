@@ -21,6 +21,8 @@ package com.hedera.services.stats;
  */
 
 import com.hedera.services.context.properties.NodeLocalProperties;
+import com.hedera.services.grpc.HeavyQueryInterceptor;
+import com.hedera.services.state.exports.AsyncBalancesExporter;
 import com.hedera.services.utils.Pause;
 import com.swirlds.common.Platform;
 
@@ -42,6 +44,9 @@ public class ServicesStatsManager {
 	private final MiscRunningAvgs runningAvgs;
 	private final MiscSpeedometers speedometers;
 	private final HapiOpSpeedometers opSpeedometers;
+	private final IngestStageLatencies ingestLatencies;
+	private final HeavyQueryInterceptor heavyQueries;
+	private final AsyncBalancesExporter balancesExporter;
 	private final NodeLocalProperties properties;
 
 	public ServicesStatsManager(
@@ -49,6 +54,9 @@ public class ServicesStatsManager {
 			MiscRunningAvgs runningAvgs,
 			MiscSpeedometers speedometers,
 			HapiOpSpeedometers opSpeedometers,
+			IngestStageLatencies ingestLatencies,
+			HeavyQueryInterceptor heavyQueries,
+			AsyncBalancesExporter balancesExporter,
 			NodeLocalProperties properties
 	) {
 		this.properties = properties;
@@ -56,6 +64,9 @@ public class ServicesStatsManager {
 		this.runningAvgs = runningAvgs;
 		this.speedometers = speedometers;
 		this.opSpeedometers = opSpeedometers;
+		this.ingestLatencies = ingestLatencies;
+		this.heavyQueries = heavyQueries;
+		this.balancesExporter = balancesExporter;
 	}
 
 	public void initializeFor(Platform platform) {
@@ -63,6 +74,9 @@ public class ServicesStatsManager {
 		runningAvgs.registerWith(platform);
 		speedometers.registerWith(platform);
 		opSpeedometers.registerWith(platform);
+		ingestLatencies.registerWith(platform);
+		heavyQueries.registerWith(platform);
+		balancesExporter.registerWith(platform);
 
 		platform.appStatInit();
 
@@ -0,0 +1,142 @@
+package com.hedera.services.throttling;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2020 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hedera.services.context.properties.PropertySource;
+import com.hedera.services.throttling.bucket.BucketConfig;
+import com.hedera.services.throttling.bucket.BucketThrottle;
+import com.hederahashgraph.api.proto.java.HederaFunctionality;
+import com.swirlds.common.AddressBook;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Throttles transactions network-wide as they reach consensus, using the same bucket
+ * configuration as node-level {@link BucketThrottling}, but with each bucket holding the
+ * full network capacity, and draining on the clock of consensus time instead of
+ * {@link System#nanoTime()}. Given the same buckets in the same state, every node thus
+ * reaches the same throttling decision for every transaction.
+ *
+ * The state of the buckets is their empty times, which {@link ConsensusThrottling#usageSnapshot()}
+ * returns in bucket name order for saving with the rest of the network context, and
+ * {@link ConsensusThrottling#resumeFrom(long[])} restores. When the bucket config is
+ * rebuilt at consensus, buckets that keep their name keep their state; new buckets start empty.
+ */
+public class ConsensusThrottling extends AbstractBucketThrottling {
+	private static final Logger log = LogManager.getLogger(ConsensusThrottling.class);
+
+	private static final long NANOS_PER_SEC = 1_000_000_000L;
+	static final long EMPTY = 0L;
+
+	public ConsensusThrottling(
+			Supplier<AddressBook> book,
+			PropertySource properties,
+			Function<PropertySource, Map<String, BucketConfig>> getBuckets,
+			BiFunction<PropertySource, Integer, PropertySource> getThrottleProps
+	) {
+		super(book, properties, getBuckets, getThrottleProps);
+	}
+
+	/**
+	 * Consumes the capacity the given function requires at the given consensus time.
+	 * A function with no capacity test (for example, an unrecognized transaction) is
+	 * never throttled here, since node-level throttling has already admitted it.
+	 *
+	 * @param function the function of the transaction reaching consensus
+	 * @param consensusTime the consensus time of the transaction
+	 * @return whether the transaction should be throttled
+	 */
+	public boolean shouldThrottle(HederaFunctionality function, Instant consensusTime) {
+		var capacity = capacities[function.ordinal()];
+		if (capacity == null) {
+			return false;
+		}
+		return !capacity.isAvailableAt(nanosOf(consensusTime));
+	}
+
+	@Override
+	public void rebuild() {
+		var prior = buckets;
+		super.rebuild();
+		buckets.forEach((name, bucket) -> {
+			var priorBucket = prior.get(name);
+			bucket.setEmptyAt((priorBucket == null) ? EMPTY : priorBucket.emptyAt());
+		});
+	}
+
+	/**
+	 * Returns the empty times of the current buckets, in bucket name order.
+	 *
+	 * @return the usage of the buckets
+	 */
+	public long[] usageSnapshot() {
+		var current = buckets;
+		return current.keySet().stream()
+				.sorted()
+				.mapToLong(name -> current.get(name).emptyAt())
+				.toArray();
+	}
+
+	/**
+	 * Restores the empty times of the buckets from a snapshot taken with the same bucket
+	 * config; if there is no snapshot, or it does not match the buckets, they start empty.
+	 *
+	 * @param usages the saved empty times, in bucket name order
+	 */
+	public void resumeFrom(long[] usages) {
+		if (buckets.isEmpty()) {
+			rebuild();
+		}
+		var current = buckets;
+		if (usages == null || usages.length != current.size()) {
+			if (usages != null) {
+				log.warn("Saved usage of {} consensus throttle buckets does not match the {} configured, ignoring it",
+						usages.length,
+						current.size());
+			}
+			return;
+		}
+		var names = current.keySet().stream().sorted().toArray(String[]::new);
+		for (int i = 0; i < names.length; i++) {
+			current.get(names[i]).setEmptyAt(usages[i]);
+		}
+	}
+
+	@Override
+	BucketThrottle throttleFor(BucketConfig config, int networkSize) {
+		return config.asNetworkThrottle();
+	}
+
+	@Override
+	String level() {
+		return "consensus";
+	}
+
+	static long nanosOf(Instant consensusTime) {
+		return consensusTime.getEpochSecond() * NANOS_PER_SEC + consensusTime.getNano();
+	}
+}
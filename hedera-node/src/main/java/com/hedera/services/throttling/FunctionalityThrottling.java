@@ -26,4 +26,26 @@ import java.util.EnumSet;
 
 public interface FunctionalityThrottling {
 	boolean shouldThrottle(HederaFunctionality function);
+
+	/**
+	 * Consumes the given amount of gas for the given function from its gas-per-second
+	 * bucket, if it has one.
+	 *
+	 * @param function the function offering the gas
+	 * @param gas the gas offered
+	 * @return whether the function should be throttled for lack of gas capacity
+	 */
+	default boolean shouldThrottleGas(HederaFunctionality function, long gas) {
+		return false;
+	}
+
+	/**
+	 * Returns gas consumed by {@link FunctionalityThrottling#shouldThrottleGas(HederaFunctionality, long)}
+	 * but not used, to the gas-per-second bucket of the given function, if it has one.
+	 *
+	 * @param function the function that offered the gas
+	 * @param gas the gas not used
+	 */
+	default void refundGas(HederaFunctionality function, long gas) {
+	}
 }
@@ -63,10 +63,14 @@ public class ThrottlingPropsBuilder {
 			String.format("%s.%s.bucket", API_THROTTLING_OPS_PREFIX, function);
 	private static final UnaryOperator<String> capacityRequiredProperty = function ->
 			String.format("%s.%s.capacityRequired", API_THROTTLING_OPS_PREFIX, function);
+	private static final UnaryOperator<String> gasBucketProperty = function ->
+			String.format("%s.%s.gasBucket", API_THROTTLING_OPS_PREFIX, function);
 	static final Function<HederaFunctionality, String> asBucketProperty = function ->
 			bucketProperty.apply(wordCase(function));
 	public static final Function<HederaFunctionality, String> asCapacityRequiredProperty = function ->
 			capacityRequiredProperty.apply(wordCase(function));
+	public static final Function<HederaFunctionality, String> asGasBucketProperty = function ->
+			gasBucketProperty.apply(wordCase(function));
 
 	static Consumer<String> displayFn = log::info;
 
@@ -25,20 +25,83 @@ import com.hederahashgraph.api.proto.java.HederaFunctionality;
 import com.hederahashgraph.api.proto.java.TransactionBody;
 
 import java.util.Optional;
+import java.util.function.IntSupplier;
 
 import static com.hedera.services.utils.MiscUtils.functionOf;
 
+/**
+ * Throttles transactions as they are submitted; first by the gas they offer, if they
+ * are contract operations whose function has a gas bucket, and then by count. The gas
+ * consumed for a transaction then throttled by count is refunded at once; gas not used
+ * by a transaction that reaches consensus is refunded by
+ * {@link TransactionThrottling#reconcileGasUsed(TransactionBody, long)}; and all the gas
+ * offered by a transaction that is never submitted, or is rejected at consensus before
+ * it runs, by {@link TransactionThrottling#refundGasOffered(TransactionBody)}.
+ */
 public class TransactionThrottling {
+	private final IntSupplier maxGas;
 	private final FunctionalityThrottling throttles;
 
 	public TransactionThrottling(FunctionalityThrottling throttles) {
+		this(throttles, () -> Integer.MAX_VALUE);
+	}
+
+	public TransactionThrottling(FunctionalityThrottling throttles, IntSupplier maxGas) {
+		this.maxGas = maxGas;
 		this.throttles = throttles;
 	}
 
 	public boolean shouldThrottle(TransactionBody txn) {
 		Optional<HederaFunctionality> function = functionToThrottle(txn);
+		if (function.isEmpty()) {
+			return true;
+		}
+
+		var gas = gasOffered(txn);
+		if (gas > 0 && throttles.shouldThrottleGas(function.get(), gas)) {
+			return true;
+		}
+		if (throttles.shouldThrottle(function.get())) {
+			throttles.refundGas(function.get(), gas);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Refunds the gas a transaction offered (up to the max gas) but did not use, to the
+	 * gas bucket that was charged when this node admitted it.
+	 *
+	 * @param txn the transaction submitted by this node
+	 * @param gasUsed the gas it used
+	 */
+	public void reconcileGasUsed(TransactionBody txn, long gasUsed) {
+		var gas = gasOffered(txn);
+		if (gas > gasUsed) {
+			functionToThrottle(txn).ifPresent(function -> throttles.refundGas(function, gas - gasUsed));
+		}
+	}
+
+	/**
+	 * Refunds all the gas a transaction offered (up to the max gas) to the gas bucket that
+	 * was charged when this node admitted it.
+	 *
+	 * @param txn the transaction admitted by this node
+	 */
+	public void refundGasOffered(TransactionBody txn) {
+		reconcileGasUsed(txn, 0L);
+	}
 
-		return function.map(throttles::shouldThrottle).orElse(true);
+	private long gasOffered(TransactionBody txn) {
+		long gas;
+		if (txn.hasContractCall()) {
+			gas = txn.getContractCall().getGas();
+		} else if (txn.hasContractCreateInstance()) {
+			gas = txn.getContractCreateInstance().getGas();
+		} else {
+			return 0L;
+		}
+		return Math.max(0L, Math.min(gas, maxGas.getAsInt()));
 	}
 
 	private Optional<HederaFunctionality> functionToThrottle(TransactionBody txn) {
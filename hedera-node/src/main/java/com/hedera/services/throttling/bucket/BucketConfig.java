@@ -22,7 +22,6 @@ package com.hedera.services.throttling.bucket;
 
 import com.hedera.services.context.properties.PropertySource;
 import com.hedera.services.throttling.ThrottlingPropsBuilder;
-import com.swirlds.common.throttle.Throttle;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -102,7 +101,11 @@ public class BucketConfig {
 	}
 
 	public BucketThrottle asNodeThrottle(int networkSize) {
-		return new BucketThrottle(name, new Throttle((capacity / networkSize) / burstPeriod, burstPeriod));
+		return new BucketThrottle(name, (capacity / networkSize) / burstPeriod, burstPeriod);
+	}
+
+	public BucketThrottle asNetworkThrottle() {
+		return new BucketThrottle(name, capacity / burstPeriod, burstPeriod);
 	}
 
 	public static BucketConfig namedIn(PropertySource properties, String name) {
@@ -21,69 +21,170 @@ package com.hedera.services.throttling.bucket;
  */
 
 import com.google.common.base.MoreObjects;
-import com.swirlds.common.throttle.Throttle;
-
-import java.util.Optional;
 
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A leaky bucket that drains at {@code tps} units per second and holds at most
+ * {@code tps * burstPeriod} units, tracked without locks as the time in nanos (by
+ * default, the {@link System#nanoTime()}) at which it will next be empty. Admitting {@code amount} units costs
+ * {@code amount / tps} seconds of that time, and succeeds iff the bucket would then
+ * still empty within one burst period; so a single compare-and-set on one
+ * {@code long} both checks and consumes capacity.
+ *
+ * Costs are precomputed in nanos by each {@link CapacityTest} when throttles are rebuilt,
+ * which also widens the burst period of any bucket too small to ever admit a required
+ * amount, and resolves the chain of overflow buckets to try.
+ */
 public class BucketThrottle {
-	private static final double RESCALE_BUFFER = 0.01;
+	private static final long NANOS_PER_SEC = 1_000_000_000L;
+	private static final long RESCALE_BUFFER_NANOS = 10_000_000L;
+
+	static final long NEVER_AVAILABLE = Long.MAX_VALUE;
+	static final double EFFECTIVELY_UNLIMITED_CAPACITY = 1_000_000.0;
 
 	private final String name;
-	private Optional<BucketThrottle> overflow = Optional.empty();
+	private final double tps;
+	private final AtomicLong emptyAt = new AtomicLong(System.nanoTime());
 
-	Throttle primary;
+	private volatile long burstNanos;
+	private BucketThrottle overflow;
 
-	static final double EFFECTIVELY_UNLIMITED_CAPACITY = 1_000_000.0;
+	public BucketThrottle(String name, double tps, double burstPeriod) {
+		this.name = name;
+		this.tps = Math.max(0.0, tps);
+		this.burstNanos = Math.round(Math.max(0.0, burstPeriod) * NANOS_PER_SEC);
+	}
 
-	public BucketThrottle(Throttle primary) {
-		this.name = "<N/A>";
-		this.primary = primary;
+	/**
+	 * Returns the nanos of drain time that admitting the given amount costs in this bucket,
+	 * or {@link BucketThrottle#NEVER_AVAILABLE} if the bucket does not drain.
+	 *
+	 * @param amount the capacity required
+	 * @return the cost of the amount in nanos
+	 */
+	public long costNanosOf(double amount) {
+		if (tps == 0.0) {
+			return NEVER_AVAILABLE;
+		}
+		return Math.round(amount * NANOS_PER_SEC / tps);
 	}
 
-	BucketThrottle(String name, Throttle primary) {
-		this.name = name;
-		this.primary = primary;
+	/**
+	 * Widens the burst period of this bucket, if necessary, so it can admit the given cost
+	 * when empty (with a 10ms buffer, as a rescaled platform throttle had).
+	 *
+	 * @param costNanos the cost the bucket must be able to admit
+	 */
+	void ensureRoomFor(long costNanos) {
+		if (costNanos != NEVER_AVAILABLE && costNanos > burstNanos) {
+			burstNanos = costNanos + RESCALE_BUFFER_NANOS;
+		}
+	}
+
+	/**
+	 * Admits the given cost if the bucket has room for it at the given time.
+	 *
+	 * @param costNanos the cost of the amount to admit, from {@link BucketThrottle#costNanosOf(double)}
+	 * @param now the current time in nanos, on the same clock as the bucket's empty time
+	 * @return whether the amount was admitted
+	 */
+	public boolean tryConsume(long costNanos, long now) {
+		long burst = burstNanos;
+		if (costNanos > burst) {
+			return false;
+		}
+		for (;;) {
+			long current = emptyAt.get();
+			/* Compare by difference, since nanoTime may wrap. */
+			long drainedFrom = (current - now > 0) ? current : now;
+			long next = drainedFrom + costNanos;
+			if (next - now > burst) {
+				return false;
+			}
+			if (emptyAt.compareAndSet(current, next)) {
+				return true;
+			}
+		}
 	}
 
-	public boolean hasAvailableCapacity(double amount) {
-		if (amount > primary.getCapacity()) {
-			double targetTps = amount / primary.getBurstPeriod();
-			double networkSizeRatio = amount / primary.getCapacity();
-			double rescaledTargetTps = targetTps / networkSizeRatio;
-			primary = new Throttle(rescaledTargetTps, amount / rescaledTargetTps + RESCALE_BUFFER);
+	/**
+	 * Returns capacity admitted earlier but not used, so the bucket empties sooner; though
+	 * never sooner than the given time, so no unused capacity accumulates for later.
+	 *
+	 * @param costNanos the cost of the unused amount, from {@link BucketThrottle#costNanosOf(double)}
+	 * @param now the current time in nanos, on the same clock as the bucket's empty time
+	 */
+	public void refund(long costNanos, long now) {
+		if (costNanos <= 0 || costNanos == NEVER_AVAILABLE) {
+			return;
 		}
-		return primary.allow(amount) || overflow.map(b -> b.hasAvailableCapacity(amount)).orElse(false);
+		for (;;) {
+			long current = emptyAt.get();
+			if (current - now <= 0) {
+				return;
+			}
+			long next = (current - now > costNanos) ? current - costNanos : now;
+			if (emptyAt.compareAndSet(current, next)) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Returns the time in nanos at which this bucket will next be empty.
+	 *
+	 * @return the empty time
+	 */
+	public long emptyAt() {
+		return emptyAt.get();
 	}
 
-	Throttle primary() {
-		return primary;
+	/**
+	 * Moves the empty time of this bucket; for example, onto a clock other than
+	 * {@link System#nanoTime()}, or to restore usage saved earlier on that clock.
+	 *
+	 * @param nanos the new empty time
+	 */
+	public void setEmptyAt(long nanos) {
+		emptyAt.set(nanos);
 	}
 
 	public void setOverflow(BucketThrottle overflow) {
-		this.overflow = Optional.of(overflow);
+		this.overflow = overflow;
 	}
 
 	public boolean hasOverflow() {
-		return overflow.isPresent();
+		return overflow != null;
 	}
 
 	public BucketThrottle overflow() {
-		return overflow.get();
+		return overflow;
 	}
 
 	public String name() {
 		return name;
 	}
 
+	double tps() {
+		return tps;
+	}
+
+	double burstPeriod() {
+		return (double) burstNanos / NANOS_PER_SEC;
+	}
+
 	@Override
 	public String toString() {
 		var helper = MoreObjects.toStringHelper("Bucket");
 		helper.add("name", name);
-		var capacity = primary.getTps() * primary.getBurstPeriod();
+		var capacity = tps * burstPeriod();
 		var repr = (capacity >= EFFECTIVELY_UNLIMITED_CAPACITY) ? "UNLIMITED" : String.format("%.1f", capacity);
 		helper.add("cap", repr);
-		helper.add("bp", String.format("%.1f", primary.getBurstPeriod()));
-		overflow.ifPresent(o -> helper.add("overflow", o.toString()));
+		helper.add("bp", String.format("%.1f", burstPeriod()));
+		if (overflow != null) {
+			helper.add("overflow", overflow.toString());
+		}
 		return helper.toString();
 	}
 }
@@ -22,19 +22,59 @@ package com.hedera.services.throttling.bucket;
 
 import com.google.common.base.MoreObjects;
 
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests for a fixed required capacity in a bucket, or else in its chain of overflow buckets.
+ * The chain and the cost of the requirement in each of its buckets are resolved once, when
+ * the test is created, so {@link CapacityTest#isAvailable()} neither allocates nor locks.
+ */
 public class CapacityTest {
 	private final double capacityRequired;
 	private final BucketThrottle bucket;
+	private final BucketThrottle[] chain;
+	private final long[] costs;
 
 	public CapacityTest(double capacityRequired, BucketThrottle bucket) {
 		this.capacityRequired = capacityRequired;
 		this.bucket = bucket;
-		/* Ensure the bucket re-configures its primary throttle if necessary. */
-		bucket.hasAvailableCapacity(capacityRequired);
+
+		chain = chainFrom(bucket);
+		costs = new long[chain.length];
+		for (int i = 0; i < chain.length; i++) {
+			costs[i] = chain[i].costNanosOf(capacityRequired);
+			chain[i].ensureRoomFor(costs[i]);
+		}
 	}
 
 	public boolean isAvailable() {
-		return bucket.hasAvailableCapacity(capacityRequired);
+		return isAvailableAt(System.nanoTime());
+	}
+
+	/**
+	 * Consumes the required capacity from the first bucket in the chain that has room for
+	 * it at the given time, on the same clock as the buckets' empty times.
+	 *
+	 * @param now the current time in nanos
+	 * @return whether any bucket in the chain had room
+	 */
+	public boolean isAvailableAt(long now) {
+		for (int i = 0; i < chain.length; i++) {
+			if (chain[i].tryConsume(costs[i], now)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	static BucketThrottle[] chainFrom(BucketThrottle bucket) {
+		List<BucketThrottle> resolved = new ArrayList<>();
+		/* Stop at the first repeat, in case the overflow config has a cycle. */
+		for (var next = bucket; next != null && !resolved.contains(next); next = next.overflow()) {
+			resolved.add(next);
+		}
+		return resolved.toArray(BucketThrottle[]::new);
 	}
 
 	public double getCapacityRequired() {
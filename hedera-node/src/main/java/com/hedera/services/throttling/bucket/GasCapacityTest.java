@@ -0,0 +1,67 @@
+package com.hedera.services.throttling.bucket;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2020 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Tests for an amount of gas, known only per transaction, in a bucket whose capacity is
+ * measured in gas per second; or else in its chain of overflow buckets. Unlike a
+ * {@link CapacityTest}, the cost of the amount in each bucket is computed on each test.
+ *
+ * Gas not used after all is refunded only to the first bucket in the chain, which is where
+ * it was consumed unless that bucket was full; so a refund can briefly let the first bucket
+ * admit more than its rate while an overflow bucket drains the rest.
+ */
+public class GasCapacityTest {
+	private final BucketThrottle bucket;
+	private final BucketThrottle[] chain;
+
+	public GasCapacityTest(BucketThrottle bucket) {
+		this.bucket = bucket;
+		this.chain = CapacityTest.chainFrom(bucket);
+	}
+
+	public boolean isAvailable(long gas) {
+		long now = System.nanoTime();
+		for (BucketThrottle next : chain) {
+			if (next.tryConsume(next.costNanosOf(gas), now)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public void refund(long gas) {
+		bucket.refund(bucket.costNanosOf(gas), System.nanoTime());
+	}
+
+	public BucketThrottle getBucket() {
+		return bucket;
+	}
+
+	@Override
+	public String toString() {
+		var helper = MoreObjects.toStringHelper("GasTest");
+		helper.add("in", bucket.toString());
+		return helper.toString();
+	}
+}
@@ -22,6 +22,7 @@ package com.hedera.services.txns.submission;
 
 import com.google.protobuf.InvalidProtocolBufferException;
 import com.hedera.services.context.ServicesNodeType;
+import com.hedera.services.stats.IngestStageLatencies;
 import com.hedera.services.txns.SubmissionFlow;
 import com.hedera.services.txns.TransitionLogic;
 import com.hedera.services.txns.TransitionLogicLookup;
@@ -36,6 +37,9 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import static com.hedera.services.context.ServicesNodeType.ZERO_STAKE_NODE;
+import static com.hedera.services.stats.IngestStageLatencies.Stage.PRECHECK;
+import static com.hedera.services.stats.IngestStageLatencies.Stage.SUBMISSION;
+import static com.hedera.services.stats.IngestStageLatencies.Stage.SYNTAX_CHECK;
 import static com.hederahashgraph.api.proto.java.ResponseCodeEnum.*;
 
 import java.util.Optional;
@@ -50,17 +54,20 @@ public class TxnHandlerSubmissionFlow implements SubmissionFlow {
 	private final TransactionHandler legacyTxnHandler;
 	private final TransitionLogicLookup transitionLogic;
 	private final PlatformSubmissionManager submissionManager;
+	private final IngestStageLatencies latencies;
 
 	public TxnHandlerSubmissionFlow(
 			ServicesNodeType nodeType,
 			TransactionHandler legacyTxnHandler,
 			TransitionLogicLookup transitionLogic,
-			PlatformSubmissionManager submissionManager
+			PlatformSubmissionManager submissionManager,
+			IngestStageLatencies latencies
 	) {
 		this.nodeType = nodeType;
 		this.legacyTxnHandler = legacyTxnHandler;
 		this.transitionLogic = transitionLogic;
 		this.submissionManager = submissionManager;
+		this.latencies = latencies;
 	}
 
 	@Override
@@ -70,9 +77,12 @@ public class TxnHandlerSubmissionFlow implements SubmissionFlow {
 		}
 
 		try {
+			/* This accessor is the only parse of the submission; every later stage re-uses it. */
 			SignedTxnAccessor accessor = new SignedTxnAccessor(signedTxn);
 
+			long start = System.nanoTime();
 			TxnValidityAndFeeReq metaValidity = metaValidityOf(accessor);
+			start = recordSince(start, PRECHECK);
 			if (metaValidity.getValidity() != OK) {
 				return responseWith(metaValidity.getValidity(), metaValidity.getRequiredFee());
 			}
@@ -82,18 +92,31 @@ public class TxnHandlerSubmissionFlow implements SubmissionFlow {
 					.map(TransitionLogic::syntaxCheck)
 					.orElse(FALLBACK_SYNTAX_CHECK);
 			ResponseCodeEnum validity = syntaxCheck.apply(accessor.getTxn());
+			start = recordSince(start, SYNTAX_CHECK);
 			if (validity != OK) {
+				legacyTxnHandler.refundGasOffered(accessor.getTxn());
 				return responseWith(validity);
 			}
 
-			return responseWith(submissionManager.trySubmission(accessor));
+			validity = submissionManager.trySubmission(accessor);
+			recordSince(start, SUBMISSION);
+			if (validity != OK) {
+				legacyTxnHandler.refundGasOffered(accessor.getTxn());
+			}
+			return responseWith(validity);
 		} catch (InvalidProtocolBufferException impossible) {
 			return responseWith(INVALID_TRANSACTION_BODY);
 		}
 	}
 
 	private TxnValidityAndFeeReq metaValidityOf(SignedTxnAccessor accessor) {
-		return legacyTxnHandler.validateTransactionPreConsensus(accessor.getSignedTxn(), false);
+		return legacyTxnHandler.validateTransactionPreConsensus(accessor, false);
+	}
+
+	private long recordSince(long start, IngestStageLatencies.Stage stage) {
+		long now = System.nanoTime();
+		latencies.record(stage, now - start);
+		return now;
 	}
 
 	private TransactionResponse responseWith(ResponseCodeEnum validity) {
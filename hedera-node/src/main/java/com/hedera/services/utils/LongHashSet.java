@@ -0,0 +1,222 @@
+package com.hedera.services.utils;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2020 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * An open-addressed set of primitive {@code long}s with linear probing, which needs about
+ * 8 to 16 bytes per element instead of the ~60 bytes of a boxed {@code HashSet<Long>} entry
+ * (or much more for a set of protobuf ids). Removal shifts later entries of a probe chain
+ * back, so the table never fills with tombstones. This class is <b>not</b> thread-safe.
+ */
+public class LongHashSet {
+	private static final int MIN_CAPACITY = 16;
+	private static final double MAX_LOAD = 0.6;
+	/* Zero marks a free slot, so whether the set holds zero is tracked separately. */
+	private static final long FREE = 0L;
+
+	private long[] slots;
+	private int size;
+	private int resizeAt;
+	private boolean hasZero;
+
+	public LongHashSet() {
+		this(MIN_CAPACITY);
+	}
+
+	public LongHashSet(int expectedSize) {
+		allocate(capacityFor(expectedSize));
+	}
+
+	public boolean contains(long value) {
+		if (value == FREE) {
+			return hasZero;
+		}
+		int mask = slots.length - 1;
+		for (int i = indexFor(value, mask); ; i = (i + 1) & mask) {
+			long slot = slots[i];
+			if (slot == value) {
+				return true;
+			} else if (slot == FREE) {
+				return false;
+			}
+		}
+	}
+
+	/**
+	 * Adds the given value to the set, if not already present.
+	 *
+	 * @param value the value to add
+	 * @return whether the set changed
+	 */
+	public boolean add(long value) {
+		if (value == FREE) {
+			if (hasZero) {
+				return false;
+			}
+			hasZero = true;
+			size++;
+			return true;
+		}
+		int mask = slots.length - 1;
+		int i = indexFor(value, mask);
+		for (long slot = slots[i]; slot != FREE; slot = slots[i]) {
+			if (slot == value) {
+				return false;
+			}
+			i = (i + 1) & mask;
+		}
+		slots[i] = value;
+		if (++size > resizeAt) {
+			rehash(slots.length << 1);
+		}
+		return true;
+	}
+
+	/**
+	 * Removes the given value from the set, if present.
+	 *
+	 * @param value the value to remove
+	 * @return whether the set changed
+	 */
+	public boolean remove(long value) {
+		if (value == FREE) {
+			if (!hasZero) {
+				return false;
+			}
+			hasZero = false;
+			size--;
+			return true;
+		}
+		int mask = slots.length - 1;
+		int i = indexFor(value, mask);
+		for (long slot = slots[i]; slot != value; slot = slots[i]) {
+			if (slot == FREE) {
+				return false;
+			}
+			i = (i + 1) & mask;
+		}
+		shiftBackFrom(i, mask);
+		size--;
+		return true;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public void clear() {
+		Arrays.fill(slots, FREE);
+		hasZero = false;
+		size = 0;
+	}
+
+	/**
+	 * Returns a cursor over the values in the set, in no particular order. The cursor
+	 * must not be used after the set is changed.
+	 */
+	public Cursor cursor() {
+		return new Cursor();
+	}
+
+	public class Cursor {
+		private int next = hasZero ? -1 : advanceFrom(0);
+
+		public boolean hasNext() {
+			return next < slots.length;
+		}
+
+		public long next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			long value = (next == -1) ? FREE : slots[next];
+			next = advanceFrom(next + 1);
+			return value;
+		}
+
+		private int advanceFrom(int i) {
+			while (i < slots.length && slots[i] == FREE) {
+				i++;
+			}
+			return i;
+		}
+	}
+
+	/* Fills the slot at i from the rest of its probe chain, so no later lookup stops short. */
+	private void shiftBackFrom(int i, int mask) {
+		int free = i;
+		for (int j = (i + 1) & mask; slots[j] != FREE; j = (j + 1) & mask) {
+			int home = indexFor(slots[j], mask);
+			/* The entry at j may move to free only if its home is not cyclically in (free, j]. */
+			if (((j - home) & mask) >= ((j - free) & mask)) {
+				slots[free] = slots[j];
+				free = j;
+			}
+		}
+		slots[free] = FREE;
+	}
+
+	private void rehash(int newCapacity) {
+		long[] old = slots;
+		allocate(newCapacity);
+		int mask = slots.length - 1;
+		for (long value : old) {
+			if (value != FREE) {
+				int i = indexFor(value, mask);
+				while (slots[i] != FREE) {
+					i = (i + 1) & mask;
+				}
+				slots[i] = value;
+			}
+		}
+	}
+
+	private void allocate(int capacity) {
+		slots = new long[capacity];
+		resizeAt = (int) (capacity * MAX_LOAD);
+	}
+
+	private static int capacityFor(int expectedSize) {
+		long needed = (long) Math.ceil(Math.max(expectedSize, 1) / MAX_LOAD) + 1;
+		int capacity = MIN_CAPACITY;
+		while (capacity < needed) {
+			capacity <<= 1;
+		}
+		return capacity;
+	}
+
+	private static int indexFor(long value, int mask) {
+		/* The finalizer of MurmurHash3, since entity numbers are dense and sequential. */
+		value ^= value >>> 33;
+		value *= 0xff51afd7ed558ccdL;
+		value ^= value >>> 33;
+		value *= 0xc4ceb9fe1a85ec53L;
+		value ^= value >>> 33;
+		return (int) value & mask;
+	}
+}
@@ -65,16 +65,19 @@ public class SignedTxnAccessor {
 	}
 
 	public SignedTxnAccessor(byte[] signedTxnBytes) throws InvalidProtocolBufferException {
+		this(signedTxnBytes, Transaction.parseFrom(signedTxnBytes));
+	}
+
+	public SignedTxnAccessor(Transaction signedTxn) throws InvalidProtocolBufferException {
+		this(null, signedTxn);
+	}
+
+	private SignedTxnAccessor(byte[] signedTxnBytes, Transaction signedTxn) throws InvalidProtocolBufferException {
 		this.signedTxnBytes = signedTxnBytes;
-		signedTxn = Transaction.parseFrom(signedTxnBytes);
+		this.signedTxn = signedTxn;
 		txnBytes = CommonUtils.extractTransactionBodyBytes(signedTxn);
 		txn = TransactionBody.parseFrom(txnBytes);
 		txnId = txn.getTransactionID();
-		hash = CommonUtils.sha384HashOf(signedTxn);
-	}
-
-	public SignedTxnAccessor(Transaction signedTxn) throws InvalidProtocolBufferException {
-		this(signedTxn.toByteArray());
 	}
 
 	public HederaFunctionality getFunction() {
@@ -108,11 +111,31 @@ public class SignedTxnAccessor {
 		return getTxnId().getAccountID();
 	}
 
+	/**
+	 * Returns the serialized signed transaction; if this accessor was not created from those
+	 * bytes, they are computed on first use, since most transactions submitted via HAPI never
+	 * need them.
+	 *
+	 * @return the bytes of the signed transaction.
+	 */
 	public byte[] getSignedTxnBytes() {
+		if (signedTxnBytes == null) {
+			signedTxnBytes = signedTxn.toByteArray();
+		}
 		return signedTxnBytes;
 	}
 
+	/**
+	 * Returns the SHA-384 hash of the signed transaction, computing it on first use; since
+	 * most transactions submitted via HAPI never need their hash until handled, this keeps
+	 * the cost of hashing out of precheck.
+	 *
+	 * @return the hash of the signed transaction.
+	 */
 	public ByteString getHash() {
+		if (hash == null) {
+			hash = CommonUtils.sha384HashOf(signedTxn);
+		}
 		return hash;
 	}
 }
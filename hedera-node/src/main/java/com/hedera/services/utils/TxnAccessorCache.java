@@ -0,0 +1,121 @@
+package com.hedera.services.utils;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2020 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.swirlds.common.Transaction;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Holds the {@link PlatformTxnAccessor}s built while expanding the signatures of platform
+ * transactions, so that the handle thread can reuse the parsed body, function, and hash of
+ * each transaction instead of parsing it again.
+ *
+ * Accessors are keyed by the <i>identity</i> of their platform transaction, since two
+ * transactions with equal contents may still carry different expanded signatures. An accessor
+ * is evicted when taken for handling; or, if its transaction is still not handled after
+ * {@code roundsToKeep} more rounds have reached consensus (for example, because it was in a
+ * stale event), once the next round is done. Since eviction follows consensus progress instead
+ * of the number of pending accessors, a backlog of events waiting for consensus never evicts
+ * the accessors about to be handled. A transaction whose accessor was evicted is simply parsed again.
+ */
+public class TxnAccessorCache {
+	private final int roundsToKeep;
+	/* In insertion order, hence also in order of the round each accessor was put in. */
+	private final Map<IdentityKey, Pending> accessors = new LinkedHashMap<>();
+
+	private long round = 0;
+
+	public TxnAccessorCache(int roundsToKeep) {
+		this.roundsToKeep = roundsToKeep;
+	}
+
+	/**
+	 * Caches the given accessor for its platform transaction.
+	 *
+	 * @param accessor the accessor to cache.
+	 */
+	public synchronized void put(PlatformTxnAccessor accessor) {
+		accessors.put(new IdentityKey(accessor.getPlatformTxn()), new Pending(accessor, round));
+	}
+
+	/**
+	 * Removes and returns the accessor cached for the given platform transaction; or,
+	 * if there is none, parses a new accessor for it.
+	 *
+	 * @param platformTxn the platform transaction about to be handled.
+	 * @return an accessor for the transaction.
+	 * @throws InvalidProtocolBufferException if there was no cached accessor, and the transaction is not gRPC.
+	 */
+	public PlatformTxnAccessor takeOrParse(Transaction platformTxn) throws InvalidProtocolBufferException {
+		Pending pending;
+		synchronized (this) {
+			pending = accessors.remove(new IdentityKey(platformTxn));
+		}
+		return (pending != null) ? pending.accessor : new PlatformTxnAccessor(platformTxn);
+	}
+
+	/**
+	 * Notes that another round has reached consensus, and evicts every accessor put
+	 * more than {@code roundsToKeep} rounds ago.
+	 */
+	public synchronized void roundDone() {
+		round++;
+		var iter = accessors.values().iterator();
+		while (iter.hasNext() && round - iter.next().round > roundsToKeep) {
+			iter.remove();
+		}
+	}
+
+	synchronized int size() {
+		return accessors.size();
+	}
+
+	private static final class Pending {
+		private final PlatformTxnAccessor accessor;
+		private final long round;
+
+		Pending(PlatformTxnAccessor accessor, long round) {
+			this.accessor = accessor;
+			this.round = round;
+		}
+	}
+
+	private static final class IdentityKey {
+		private final Transaction platformTxn;
+
+		IdentityKey(Transaction platformTxn) {
+			this.platformTxn = platformTxn;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof IdentityKey && ((IdentityKey) o).platformTxn == platformTxn;
+		}
+
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(platformTxn);
+		}
+	}
+}
@@ -27,19 +27,22 @@ import com.hedera.services.context.properties.NodeLocalProperties;
 import com.hedera.services.context.properties.Profile;
 import com.hedera.services.context.properties.PropertySource;
 import com.hedera.services.context.properties.PropertySources;
+import com.hedera.services.contracts.execution.SignedStateSnapshots;
 import com.hedera.services.fees.FeeCalculator;
 import com.hedera.services.grpc.GrpcServerManager;
 import com.hedera.services.ledger.accounts.BackingStore;
 import com.hedera.services.legacy.stream.RecordStream;
 import com.hedera.services.records.AccountRecordsHistorian;
 import com.hedera.services.state.exports.AccountsExporter;
-import com.hedera.services.state.exports.BalancesExporter;
+import com.hedera.services.state.exports.AsyncBalancesExporter;
 import com.hedera.services.state.forensics.IssListener;
 import com.hedera.services.state.initialization.SystemAccountsCreator;
 import com.hedera.services.state.initialization.SystemFilesManager;
 import com.hedera.services.state.merkle.MerkleAccount;
+import com.hedera.services.state.merkle.MerkleNetworkContext;
 import com.hedera.services.state.migration.StateMigrations;
 import com.hedera.services.state.validation.LedgerValidator;
+import com.hedera.services.throttling.ConsensusThrottling;
 import com.hedera.services.stats.ServicesStatsManager;
 import com.hedera.services.utils.Pause;
 import com.hedera.services.utils.SystemExits;
@@ -102,7 +105,8 @@ public class ServicesMainTest {
 	LedgerValidator ledgerValidator;
 	AccountsExporter accountsExporter;
 	PropertySources propertySources;
-	BalancesExporter balancesExporter;
+	AsyncBalancesExporter balancesExporter;
+	SignedStateSnapshots signedStateSnapshots;
 	StateMigrations stateMigrations;
 	ServicesStatsManager statsManager;
 	GrpcServerManager grpc;
@@ -111,6 +115,8 @@ public class ServicesMainTest {
 	SystemAccountsCreator systemAccountsCreator;
 	CurrentPlatformStatus platformStatus;
 	AccountRecordsHistorian recordsHistorian;
+	MerkleNetworkContext networkCtx;
+	ConsensusThrottling consensusThrottling;
 	GlobalDynamicProperties globalDynamicProperties;
 	BackingStore<AccountID, MerkleAccount> backingAccounts;
 
@@ -132,9 +138,12 @@ public class ServicesMainTest {
 		backingAccounts = (BackingStore<AccountID, MerkleAccount>)mock(BackingStore.class);
 		statsManager = mock(ServicesStatsManager.class);
 		stateMigrations = mock(StateMigrations.class);
-		balancesExporter = mock(BalancesExporter.class);
+		balancesExporter = mock(AsyncBalancesExporter.class);
+		signedStateSnapshots = mock(SignedStateSnapshots.class);
 		nodeLocalProps = mock(NodeLocalProperties.class);
 		recordsHistorian = mock(AccountRecordsHistorian.class);
+		networkCtx = mock(MerkleNetworkContext.class);
+		consensusThrottling = mock(ConsensusThrottling.class);
 		ledgerValidator = mock(LedgerValidator.class);
 		accountsExporter = mock(AccountsExporter.class);
 		platformStatus = mock(CurrentPlatformStatus.class);
@@ -171,11 +180,14 @@ public class ServicesMainTest {
 		given(ctx.recordStream()).willReturn(recordStream);
 		given(ctx.stateMigrations()).willReturn(stateMigrations);
 		given(ctx.recordsHistorian()).willReturn(recordsHistorian);
+		given(ctx.networkCtx()).willReturn(networkCtx);
+		given(ctx.consensusThrottling()).willReturn(consensusThrottling);
 		given(ctx.backingAccounts()).willReturn(backingAccounts);
 		given(ctx.systemFilesManager()).willReturn(systemFilesManager);
 		given(ctx.systemAccountsCreator()).willReturn(systemAccountsCreator);
 		given(ctx.accountsExporter()).willReturn(accountsExporter);
 		given(ctx.balancesExporter()).willReturn(balancesExporter);
+		given(ctx.signedStateSnapshots()).willReturn(signedStateSnapshots);
 		given(ctx.statsManager()).willReturn(statsManager);
 		given(ctx.consensusTimeOfLastHandledTxn()).willReturn(Instant.ofEpochSecond(33L, 0));
 		given(ledgerValidator.hasExpectedTotalBalance(any())).willReturn(true);
@@ -253,6 +265,9 @@ public class ServicesMainTest {
 
 	@Test
 	public void initializesSanelyGivenPreconditions() {
+		// setup:
+		long[] throttleUsages = { 1_234_567_000_000_000L };
+		given(networkCtx.throttleUsages()).willReturn(throttleUsages);
 		// given:
 		InOrder inOrder = inOrder(
 				propertySources,
@@ -261,6 +276,7 @@ public class ServicesMainTest {
 				ledgerValidator,
 				recordStreamThread,
 				recordsHistorian,
+				consensusThrottling,
 				fees,
 				grpc,
 				statsManager);
@@ -277,6 +293,7 @@ public class ServicesMainTest {
 		inOrder.verify(ledgerValidator).assertIdsAreValid(accounts);
 		inOrder.verify(ledgerValidator).hasExpectedTotalBalance(accounts);
 		inOrder.verify(recordsHistorian).reviewExistingRecords();
+		inOrder.verify(consensusThrottling).resumeFrom(throttleUsages);
 		inOrder.verify(fees).init();
 		inOrder.verify(statsManager).initializeFor(platform);
 	}
@@ -485,6 +502,23 @@ public class ServicesMainTest {
 		verify(signedState, never()).printHashes();
 	}
 
+	@Test
+	public void updatesSnapshotsForLocalCalls() {
+		// setup:
+		subject.ctx = ctx;
+		var signedState = mock(ServicesState.class);
+		var currentPlatformStatus = mock(CurrentPlatformStatus.class);
+
+		given(currentPlatformStatus.get()).willReturn(PlatformStatus.ACTIVE);
+		given(ctx.platformStatus()).willReturn(currentPlatformStatus);
+
+		// when:
+		subject.newSignedState(signedState, Instant.now(), 1L);
+
+		// then:
+		verify(signedStateSnapshots).update(signedState);
+	}
+
 	@Test
 	public void onlyPrintsHashesIfInMaintenance() {
 		// setup:
@@ -552,24 +586,6 @@ public class ServicesMainTest {
 		verifyNoInteractions(balancesExporter);
 	}
 
-	@Test
-	public void failsFastIfBalanceExportDetectedInvalidState() throws Exception {
-		// setup:
-		subject.ctx = ctx;
-		Instant when = Instant.now();
-		ServicesState signedState = mock(ServicesState.class);
-
-		given(globalDynamicProperties.shouldExportBalances()).willReturn(true);
-		given(balancesExporter.isTimeToExport(when)).willReturn(true);
-		willThrow(IllegalStateException.class).given(balancesExporter).toCsvFile(signedState, when);
-
-		// when:
-		subject.newSignedState(signedState, when, 1L);
-
-		// then:
-		verify(systemExits).fail(1);
-	}
-
 	@Test
 	public void noOpsRun() {
 		// expect:
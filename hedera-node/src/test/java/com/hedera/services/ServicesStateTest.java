@@ -22,10 +22,13 @@ package com.hedera.services;
 
 import com.google.protobuf.ByteString;
 import com.google.protobuf.InvalidProtocolBufferException;
+import com.hedera.services.config.MockGlobalDynamicProps;
 import com.hedera.services.context.ServicesContext;
 import com.hedera.services.state.merkle.MerkleDiskFs;
 import com.hedera.services.state.merkle.MerkleEntityAssociation;
 import com.hedera.services.state.merkle.MerkleNetworkContext;
+import com.hedera.services.state.expiry.ExpiryManager;
+import com.hedera.services.throttling.ConsensusThrottling;
 import com.hedera.services.state.merkle.MerkleAccount;
 import com.hedera.services.state.merkle.MerkleToken;
 import com.hedera.services.state.merkle.MerkleTokenRelStatus;
@@ -37,12 +40,15 @@ import com.hedera.services.legacy.crypto.SignatureStatus;
 import com.hedera.services.sigs.order.HederaSigningOrder;
 import com.hedera.services.sigs.order.SigningOrderResult;
 import com.hedera.services.state.merkle.MerkleBlobMeta;
+import com.hedera.services.state.merkle.MerkleContractSlot;
+import com.hedera.services.state.merkle.MerkleContractSlotId;
 import com.hedera.services.state.merkle.MerkleEntityId;
 import com.hedera.services.state.merkle.MerkleOptionalBlob;
 import com.hedera.services.state.submerkle.ExchangeRates;
 import com.hedera.services.state.submerkle.SequenceNumber;
 import com.hedera.services.txns.ProcessLogic;
 import com.hedera.services.utils.SystemExits;
+import com.hedera.services.utils.TxnAccessorCache;
 import com.hedera.test.factories.txns.PlatformTxnFactory;
 import com.hedera.test.utils.IdUtils;
 import com.hederahashgraph.api.proto.java.AccountID;
@@ -60,6 +66,7 @@ import com.swirlds.common.io.SerializableDataInputStream;
 import com.swirlds.common.io.SerializableDataOutputStream;
 import com.swirlds.common.merkle.MerkleNode;
 import com.swirlds.fcmap.FCMap;
+import com.swirlds.platform.FreezeManager;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.junit.jupiter.api.AfterEach;
@@ -69,6 +76,8 @@ import org.junit.platform.runner.JUnitPlatform;
 import org.junit.runner.RunWith;
 import org.mockito.InOrder;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.time.Instant;
 import java.util.Collections;
@@ -76,7 +85,10 @@ import java.util.List;
 import java.util.function.Consumer;
 
 import static com.hedera.services.context.SingletonContextsManager.CONTEXTS;
+import static com.hedera.services.state.merkle.MerkleNetworkContext.NO_PAYER_EXPIRIES_SNAPSHOT;
+import static com.hedera.services.state.merkle.MerkleNetworkContext.UNKNOWN_CONSENSUS_TIME;
 import static java.util.Collections.EMPTY_LIST;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -103,6 +115,7 @@ class ServicesStateTest {
 	ProcessLogic logic;
 	PropertySources propertySources;
 	ServicesContext ctx;
+	TxnAccessorCache accessorCache;
 	FCMap<MerkleEntityId, MerkleTopic> topics;
 	FCMap<MerkleEntityId, MerkleAccount> accounts;
 	FCMap<MerkleBlobMeta, MerkleOptionalBlob> storage;
@@ -113,6 +126,8 @@ class ServicesStateTest {
 	FCMap<MerkleEntityAssociation, MerkleTokenRelStatus> tokenAssociations;
 	FCMap<MerkleEntityAssociation, MerkleTokenRelStatus> tokenAssociationsCopy;
 	FCMap<MerkleEntityId, MerkleToken> tokensCopy;
+	FCMap<MerkleContractSlotId, MerkleContractSlot> contractStorage;
+	FCMap<MerkleContractSlotId, MerkleContractSlot> contractStorageCopy;
 	MerkleDiskFs diskFs;
 	MerkleDiskFs diskFsCopy;
 	ExchangeRates midnightRates;
@@ -147,6 +162,8 @@ class ServicesStateTest {
 		ctx = mock(ServicesContext.class);
 		given(ctx.id()).willReturn(self);
 		given(ctx.logic()).willReturn(logic);
+		accessorCache = mock(TxnAccessorCache.class);
+		given(ctx.accessorCache()).willReturn(accessorCache);
 
 		topics = mock(FCMap.class);
 		tokens = mock(FCMap.class);
@@ -154,6 +171,8 @@ class ServicesStateTest {
 		tokenAssociations = mock(FCMap.class);
 		tokenAssociationsCopy = mock(FCMap.class);
 		diskFs = mock(MerkleDiskFs.class);
+		contractStorage = mock(FCMap.class);
+		contractStorageCopy = mock(FCMap.class);
 
 		storage = mock(FCMap.class);
 		accounts = mock(FCMap.class);
@@ -167,6 +186,7 @@ class ServicesStateTest {
 		given(tokens.copy()).willReturn(tokensCopy);
 		given(tokenAssociations.copy()).willReturn(tokenAssociationsCopy);
 		given(diskFs.copy()).willReturn(diskFsCopy);
+		given(contractStorage.copy()).willReturn(contractStorageCopy);
 
 		seqNo = mock(SequenceNumber.class);
 		midnightRates = mock(ExchangeRates.class);
@@ -198,6 +218,7 @@ class ServicesStateTest {
 		assertNotNull(subject.tokens());
 		assertNotNull(subject.tokenAssociations());
 		assertNotNull(subject.diskFs());
+		assertNotNull(subject.contractStorage());
 		// and:
 		assertTrue(subject.skipDiskFsHashCheck);
 	}
@@ -211,6 +232,7 @@ class ServicesStateTest {
 		assertEquals(ServicesState.ChildIndices.NUM_070_CHILDREN, subject.getMinimumChildCount(1));
 		assertEquals(ServicesState.ChildIndices.NUM_080_CHILDREN, subject.getMinimumChildCount(2));
 		assertEquals(ServicesState.ChildIndices.NUM_090_CHILDREN, subject.getMinimumChildCount(3));
+		assertEquals(ServicesState.ChildIndices.NUM_091_CHILDREN, subject.getMinimumChildCount(4));
 	}
 
 	@Test
@@ -311,6 +333,7 @@ class ServicesStateTest {
 		subject.setChild(ServicesState.ChildIndices.TOKENS, tokens);
 		subject.setChild(ServicesState.ChildIndices.TOKEN_ASSOCIATIONS, tokenAssociations);
 		subject.setChild(ServicesState.ChildIndices.DISK_FS, diskFs);
+		subject.setChild(ServicesState.ChildIndices.CONTRACT_STORAGE, contractStorage);
 
 		// when:
 		subject.init(platform, book);
@@ -340,13 +363,14 @@ class ServicesStateTest {
 		subject.setChild(ServicesState.ChildIndices.TOKENS, tokens);
 		subject.setChild(ServicesState.ChildIndices.TOKEN_ASSOCIATIONS, tokenAssociations);
 		subject.setChild(ServicesState.ChildIndices.DISK_FS, diskFs);
+		subject.setChild(ServicesState.ChildIndices.CONTRACT_STORAGE, contractStorage);
 
 		// when:
 		subject.init(platform, book);
 
 		// then:
 		InOrder inOrder = inOrder(diskFs, ctx, mockDigest, accounts, storage, topics,
-				tokens, tokenAssociations, networkCtx, book, mockLog);
+				tokens, tokenAssociations, contractStorage, networkCtx, book, mockLog);
 		inOrder.verify(diskFs).setFsBaseDir(any());
 		inOrder.verify(ctx).nodeAccount();
 		inOrder.verify(diskFs).setFsNodeScopedDir(any());
@@ -358,6 +382,7 @@ class ServicesStateTest {
 		inOrder.verify(tokens).getHash();
 		inOrder.verify(tokenAssociations).getHash();
 		inOrder.verify(diskFs).getHash();
+		inOrder.verify(contractStorage).getHash();
 		inOrder.verify(networkCtx).getHash();
 		inOrder.verify(book).getHash();
 		inOrder.verify(mockLog).info(argThat((String s) -> s.startsWith("[SwirldState Hashes]")));
@@ -381,6 +406,7 @@ class ServicesStateTest {
 		Hash accountsRootHash = new Hash("asdfasdfasdfasdfasdfasdfasdfasdfasdfasdfasdfasdf".getBytes());
 		Hash tokenRelsRootHash = new Hash("asdhasdhasdhasdhasdhasdhasdhasdhasdhasdhasdhasdh".getBytes());
 		Hash specialFileSystemHash = new Hash("123456781234567812345678123456781234567812345678".getBytes());
+		Hash contractStorageRootHash = new Hash("876543218765432187654321876543218765432187654321".getBytes());
 
 		// and:
 		Hash overallHash = new Hash("a!dfa!dfa!dfa!dfa!dfa!dfa!dfa!dfa!dfa!dfa!dfa!df".getBytes());
@@ -393,6 +419,7 @@ class ServicesStateTest {
 		subject.setChild(ServicesState.ChildIndices.NETWORK_CTX, networkCtx);
 		subject.setChild(ServicesState.ChildIndices.TOKEN_ASSOCIATIONS, tokenAssociations);
 		subject.setChild(ServicesState.ChildIndices.DISK_FS, diskFs);
+		subject.setChild(ServicesState.ChildIndices.CONTRACT_STORAGE, contractStorage);
 
 		// and:
 		var expected = String.format("[SwirldState Hashes]\n" +
@@ -403,6 +430,7 @@ class ServicesStateTest {
 				"  Tokens            :: %s\n" +
 				"  TokenAssociations :: %s\n" +
 				"  DiskFs            :: %s\n" +
+				"  ContractStorage   :: %s\n" +
 				"  NetworkContext    :: %s\n" +
 				"  AddressBook       :: %s",
 				overallHash,
@@ -412,6 +440,7 @@ class ServicesStateTest {
 				tokensRootHash,
 				tokenRelsRootHash,
 				specialFileSystemHash,
+				contractStorageRootHash,
 				ctxHash,
 				bookHash);
 		subject.setHash(overallHash);
@@ -424,6 +453,7 @@ class ServicesStateTest {
 		given(networkCtx.getHash()).willReturn(ctxHash);
 		given(book.getHash()).willReturn(bookHash);
 		given(diskFs.getHash()).willReturn(specialFileSystemHash);
+		given(contractStorage.getHash()).willReturn(contractStorageRootHash);
 
 		// when:
 		subject.printHashes();
@@ -446,13 +476,33 @@ class ServicesStateTest {
 		subject.setChild(ServicesState.ChildIndices.TOKENS, tokens);
 		subject.setChild(ServicesState.ChildIndices.TOKEN_ASSOCIATIONS, tokenAssociations);
 		subject.setChild(ServicesState.ChildIndices.DISK_FS, diskFs);
+		subject.setChild(ServicesState.ChildIndices.CONTRACT_STORAGE, contractStorage);
 		subject.nodeId = self;
 		subject.ctx = ctx;
+		// and:
+		long[] pendingPayerExpiries = { 1_234_567L, 1_001L };
+		var expiries = mock(ExpiryManager.class);
+		given(expiries.pendingPayerExpiries()).willReturn(pendingPayerExpiries);
+		given(ctx.expiries()).willReturn(expiries);
+		// and:
+		long[] throttleUsages = { 1_234_567_000_000_000L };
+		var consensusThrottling = mock(ConsensusThrottling.class);
+		given(consensusThrottling.usageSnapshot()).willReturn(throttleUsages);
+		given(ctx.consensusThrottling()).willReturn(consensusThrottling);
+		// and:
+		given(ctx.globalDynamicProperties()).willReturn(new MockGlobalDynamicProps());
+		given(networkCtx.consensusTimeOfLastHandledTxn()).willReturn(now);
+		given(networkCtx.lastPayerExpiriesSnapshotSecs()).willReturn(now.getEpochSecond());
+		// and:
+		ServicesState.inFreezePeriod = ignore -> false;
 
 		// when:
 		ServicesState copy = (ServicesState) subject.copy();
 
 		// then:
+		verify(networkCtx, never()).setPayerExpiries(any());
+		verify(networkCtx).setThrottleUsages(throttleUsages);
+		verify(accessorCache).roundDone();
 		assertTrue(subject.isImmutable());
 		assertEquals(self, copy.nodeId);
 		assertEquals(bookCopy, copy.addressBook());
@@ -463,6 +513,172 @@ class ServicesStateTest {
 		assertSame(tokensCopy, copy.tokens());
 		assertSame(tokenAssociationsCopy, copy.tokenAssociations());
 		assertSame(diskFsCopy, copy.diskFs());
+		assertSame(contractStorageCopy, copy.contractStorage());
+	}
+
+	@Test
+	public void fastCopySnapshotsPayerExpiriesOnlyAcrossIndexPeriods() {
+		// setup:
+		givenCopyableChildren();
+		// and:
+		long[] pendingPayerExpiries = { 1_234_567L, 1_001L };
+		var expiries = mock(ExpiryManager.class);
+		given(expiries.pendingPayerExpiries()).willReturn(pendingPayerExpiries);
+		given(ctx.expiries()).willReturn(expiries);
+		given(ctx.consensusThrottling()).willReturn(mock(ConsensusThrottling.class));
+		given(ctx.globalDynamicProperties()).willReturn(new MockGlobalDynamicProps());
+		// and:
+		ServicesState.inFreezePeriod = ignore -> false;
+
+		// when:
+		given(networkCtx.lastPayerExpiriesSnapshotSecs()).willReturn(1_234_567_800L);
+		given(networkCtx.consensusTimeOfLastHandledTxn()).willReturn(Instant.ofEpochSecond(1_234_567_899L));
+		subject.copy();
+		// then:
+		verify(networkCtx, never()).setPayerExpiries(any());
+
+		// and when:
+		givenCopyableChildren();
+		given(networkCtx.consensusTimeOfLastHandledTxn()).willReturn(Instant.ofEpochSecond(1_234_568_100L));
+		subject.copy();
+		// then:
+		verify(networkCtx).setPayerExpiries(pendingPayerExpiries);
+		verify(networkCtx).setLastPayerExpiriesSnapshotSecs(1_234_568_100L);
+	}
+
+	@Test
+	public void fastCopySnapshotsPayerExpiriesInFreezePeriod() {
+		// setup:
+		givenCopyableChildren();
+		// and:
+		long[] pendingPayerExpiries = { 1_234_567L, 1_001L };
+		var expiries = mock(ExpiryManager.class);
+		given(expiries.pendingPayerExpiries()).willReturn(pendingPayerExpiries);
+		given(ctx.expiries()).willReturn(expiries);
+		given(ctx.consensusThrottling()).willReturn(mock(ConsensusThrottling.class));
+		given(ctx.globalDynamicProperties()).willReturn(new MockGlobalDynamicProps());
+		// and:
+		ServicesState.inFreezePeriod = ignore -> true;
+		given(networkCtx.lastPayerExpiriesSnapshotSecs()).willReturn(1_234_567_800L);
+		given(networkCtx.consensusTimeOfLastHandledTxn()).willReturn(Instant.ofEpochSecond(1_234_567_801L));
+
+		// when:
+		subject.copy();
+
+		// then:
+		verify(networkCtx).setPayerExpiries(pendingPayerExpiries);
+	}
+
+	@Test
+	public void fastCopySnapshotsPayerExpiriesIfNeverSnapshotted() {
+		// setup:
+		givenCopyableChildren();
+		// and:
+		long[] pendingPayerExpiries = { 1_234_567L, 1_001L };
+		var expiries = mock(ExpiryManager.class);
+		given(expiries.pendingPayerExpiries()).willReturn(pendingPayerExpiries);
+		given(ctx.expiries()).willReturn(expiries);
+		given(ctx.consensusThrottling()).willReturn(mock(ConsensusThrottling.class));
+		given(ctx.globalDynamicProperties()).willReturn(new MockGlobalDynamicProps());
+		// and:
+		given(networkCtx.lastPayerExpiriesSnapshotSecs()).willReturn(NO_PAYER_EXPIRIES_SNAPSHOT);
+		given(networkCtx.consensusTimeOfLastHandledTxn()).willReturn(Instant.ofEpochSecond(1_234_567_801L));
+
+		// when:
+		subject.copy();
+
+		// then:
+		verify(networkCtx).setPayerExpiries(pendingPayerExpiries);
+		verify(networkCtx).setLastPayerExpiriesSnapshotSecs(1_234_567_801L);
+	}
+
+	@Test
+	public void restartedStateSnapshotsPayerExpiriesLikeContinuouslyCopiedPeer() throws IOException {
+		// setup:
+		long[] pendingPayerExpiries = { 1_234_567L, 1_001L };
+		var expiries = mock(ExpiryManager.class);
+		given(expiries.pendingPayerExpiries()).willReturn(pendingPayerExpiries);
+		given(ctx.expiries()).willReturn(expiries);
+		given(ctx.consensusThrottling()).willReturn(mock(ConsensusThrottling.class));
+		given(ctx.globalDynamicProperties()).willReturn(new MockGlobalDynamicProps());
+		given(ctx.nodeAccount()).willReturn(AccountID.getDefaultInstance());
+		ServicesState.inFreezePeriod = ignore -> false;
+		// and:
+		var peer = stateWith(new MerkleNetworkContext(
+				UNKNOWN_CONSENSUS_TIME, new SequenceNumber(1001), new ExchangeRates()));
+		peer.networkCtx().setConsensusTimeOfLastHandledTxn(Instant.ofEpochSecond(1_234_567_850L));
+		peer = nextRoundOf(peer);
+		peer.networkCtx().setConsensusTimeOfLastHandledTxn(Instant.ofEpochSecond(1_234_567_899L));
+		var saved = peer;
+		peer = nextRoundOf(peer);
+		// and:
+		var restarted = stateWith(deserialized(saved.networkCtx()));
+		CONTEXTS.store(ctx);
+		restarted.init(platform, book);
+
+		// when:
+		var crossingTime = Instant.ofEpochSecond(1_234_568_100L);
+		var peerCtx = peer.networkCtx();
+		var restartedCtx = restarted.networkCtx();
+		peerCtx.setConsensusTimeOfLastHandledTxn(crossingTime);
+		restartedCtx.setConsensusTimeOfLastHandledTxn(crossingTime);
+		peer.copy();
+		restarted.copy();
+
+		// then:
+		assertSame(pendingPayerExpiries, peerCtx.payerExpiries());
+		assertSame(pendingPayerExpiries, restartedCtx.payerExpiries());
+		assertArrayEquals(serialized(peerCtx), serialized(restartedCtx));
+	}
+
+	private ServicesState stateWith(MerkleNetworkContext realNetworkCtx) {
+		var state = new ServicesState();
+		state.setChild(ServicesState.ChildIndices.TOPICS, topics);
+		state.setChild(ServicesState.ChildIndices.STORAGE, storage);
+		state.setChild(ServicesState.ChildIndices.ACCOUNTS, accounts);
+		state.setChild(ServicesState.ChildIndices.ADDRESS_BOOK, book);
+		state.setChild(ServicesState.ChildIndices.NETWORK_CTX, realNetworkCtx);
+		state.setChild(ServicesState.ChildIndices.TOKENS, tokens);
+		state.setChild(ServicesState.ChildIndices.TOKEN_ASSOCIATIONS, tokenAssociations);
+		state.setChild(ServicesState.ChildIndices.DISK_FS, diskFs);
+		state.setChild(ServicesState.ChildIndices.CONTRACT_STORAGE, contractStorage);
+		state.nodeId = self;
+		state.ctx = ctx;
+		return state;
+	}
+
+	private ServicesState nextRoundOf(ServicesState state) {
+		return stateWith(((ServicesState) state.copy()).networkCtx());
+	}
+
+	private MerkleNetworkContext deserialized(MerkleNetworkContext networkCtx) throws IOException {
+		var copy = new MerkleNetworkContext();
+		var in = new SerializableDataInputStream(new ByteArrayInputStream(serialized(networkCtx)));
+		copy.deserialize(in, networkCtx.getVersion());
+		return copy;
+	}
+
+	private byte[] serialized(MerkleNetworkContext networkCtx) throws IOException {
+		var baos = new ByteArrayOutputStream();
+		try (var out = new SerializableDataOutputStream(baos)) {
+			networkCtx.serialize(out);
+		}
+		return baos.toByteArray();
+	}
+
+	private void givenCopyableChildren() {
+		subject = new ServicesState();
+		subject.setChild(ServicesState.ChildIndices.TOPICS, topics);
+		subject.setChild(ServicesState.ChildIndices.STORAGE, storage);
+		subject.setChild(ServicesState.ChildIndices.ACCOUNTS, accounts);
+		subject.setChild(ServicesState.ChildIndices.ADDRESS_BOOK, book);
+		subject.setChild(ServicesState.ChildIndices.NETWORK_CTX, networkCtx);
+		subject.setChild(ServicesState.ChildIndices.TOKENS, tokens);
+		subject.setChild(ServicesState.ChildIndices.TOKEN_ASSOCIATIONS, tokenAssociations);
+		subject.setChild(ServicesState.ChildIndices.DISK_FS, diskFs);
+		subject.setChild(ServicesState.ChildIndices.CONTRACT_STORAGE, contractStorage);
+		subject.nodeId = self;
+		subject.ctx = ctx;
 	}
 
 	@Test
@@ -625,6 +841,8 @@ class ServicesStateTest {
 		// then:
 		assertEquals(1, platformTxn.getSignatures().size());
 		assertEquals(mockPk, ByteString.copyFrom(platformTxn.getSignatures().get(0).getExpandedPublicKeyDirect()));
+		// and:
+		verify(accessorCache).put(argThat(accessor -> accessor.getPlatformTxn() == platformTxn));
 	}
 
 	@Test
@@ -666,5 +884,6 @@ class ServicesStateTest {
 	public void cleanup() {
 		CONTEXTS.clear();
 		ServicesState.merkleDigest = CryptoFactory.getInstance()::digestTreeSync;
+		ServicesState.inFreezePeriod = FreezeManager::isInFreezePeriod;
 	}
 }
@@ -102,6 +102,36 @@ public class MockGlobalDynamicProps extends GlobalDynamicProperties {
 		return true;
 	}
 
+	@Override
+	public boolean shouldExportBinaryBalances() {
+		return false;
+	}
+
+	@Override
+	public boolean shouldCompressBinaryBalances() {
+		return true;
+	}
+
+	@Override
+	public int balancesExportParallelism() {
+		return 1;
+	}
+
+	@Override
+	public int maxRecordPurgesPerTxn() {
+		return 100;
+	}
+
+	@Override
+	public int payerExpiryIndexPeriodSecs() {
+		return 300;
+	}
+
+	@Override
+	public boolean shouldStreamReceivedTxnBytes() {
+		return false;
+	}
+
 	@Override
 	public int maxTransferListSize() {
 		return 10;
@@ -131,4 +161,14 @@ public class MockGlobalDynamicProps extends GlobalDynamicProperties {
 	public int maxGas() {
 		return 300_000;
 	}
+
+	@Override
+	public int maxLocalCallGas() {
+		return 300_000;
+	}
+
+	@Override
+	public long localCallTimeoutMs() {
+		return 5_000L;
+	}
 }
@@ -39,7 +39,7 @@ import com.hedera.services.queries.token.TokenAnswers;
 import com.hedera.services.security.ops.SystemOpPolicies;
 import com.hedera.services.state.expiry.ExpiringCreations;
 import com.hedera.services.state.expiry.ExpiryManager;
-import com.hedera.services.state.exports.SignedStateBalancesExporter;
+import com.hedera.services.state.exports.AsyncBalancesExporter;
 import com.hedera.services.state.initialization.BackedSystemAccountsCreator;
 import com.hedera.services.state.merkle.MerkleAccount;
 import com.hedera.services.state.merkle.MerkleEntityAssociation;
@@ -52,9 +52,11 @@ import com.hedera.services.context.domain.trackers.IssEventInfo;
 import com.hedera.services.context.primitives.StateView;
 import com.hedera.services.context.properties.PropertySource;
 import com.hedera.services.context.properties.PropertySources;
+import com.hedera.services.contracts.execution.CachingCommonConfig;
+import com.hedera.services.contracts.execution.SignedStateSnapshots;
 import com.hedera.services.contracts.execution.SolidityLifecycle;
 import com.hedera.services.contracts.execution.TxnAwareSoliditySigsVerifier;
-import com.hedera.services.contracts.persistence.BlobStoragePersistence;
+import com.hedera.services.contracts.persistence.SlotStoragePersistence;
 import com.hedera.services.fees.calculation.AwareFcfsUsagePrices;
 import com.hedera.services.fees.calculation.UsageBasedFeeCalculator;
 import com.hedera.services.fees.charging.ItemizableFeeCharging;
@@ -83,10 +85,12 @@ import com.hedera.services.state.submerkle.RichInstant;
 import com.hedera.services.state.submerkle.SequenceNumber;
 import com.hedera.services.state.validation.BasedLedgerValidator;
 import com.hedera.services.stats.HapiOpCounters;
+import com.hedera.services.stats.IngestStageLatencies;
 import com.hedera.services.stats.MiscRunningAvgs;
 import com.hedera.services.stats.MiscSpeedometers;
 import com.hedera.services.stats.ServicesStatsManager;
 import com.hedera.services.throttling.BucketThrottling;
+import com.hedera.services.throttling.ConsensusThrottling;
 import com.hedera.services.throttling.TransactionThrottling;
 import com.hedera.services.tokens.HederaTokenStore;
 import com.hedera.services.txns.TransitionLogicLookup;
@@ -101,16 +105,19 @@ import com.hedera.services.queries.meta.MetaAnswers;
 import com.hedera.services.records.TxnAwareRecordsHistorian;
 import com.hedera.services.records.RecordCache;
 import com.hedera.services.sigs.order.HederaSigningOrder;
+import com.hedera.services.sigs.verification.BatchingSyncVerifier;
 import com.hedera.services.sigs.verification.PrecheckVerifier;
 import com.hedera.services.sigs.verification.SyncVerifier;
 import com.hedera.services.state.migration.StdStateMigrations;
 import com.hedera.services.utils.SleepingPause;
+import com.hedera.services.utils.TxnAccessorCache;
 import com.hederahashgraph.api.proto.java.AccountID;
 import com.hedera.services.legacy.handler.FreezeHandler;
 import com.hedera.services.legacy.handler.SmartContractRequestHandler;
 import com.hedera.services.legacy.handler.TransactionHandler;
 import com.hedera.services.contracts.sources.LedgerAccountsSource;
 import com.hedera.services.contracts.sources.BlobStorageSource;
+import com.hedera.services.contracts.sources.BytecodeCache;
 import com.hedera.services.legacy.service.FreezeServiceImpl;
 import com.hedera.services.legacy.service.SmartContractServiceImpl;
 import com.hedera.services.legacy.services.state.AwareProcessLogic;
@@ -196,12 +203,14 @@ public class ServicesContextTest {
 		var newStorage = mock(FCMap.class);
 		var newTokens = mock(FCMap.class);
 		var newTokenRels = mock(FCMap.class);
+		var newContractStorage = mock(FCMap.class);
 
 		given(newState.accounts()).willReturn(newAccounts);
 		given(newState.topics()).willReturn(newTopics);
 		given(newState.tokens()).willReturn(newTokens);
 		given(newState.storage()).willReturn(newStorage);
 		given(newState.tokenAssociations()).willReturn(newTokenRels);
+		given(newState.contractStorage()).willReturn(newContractStorage);
 		// given:
 		var subject = new ServicesContext(id, platform, state, propertySources);
 		// and:
@@ -210,6 +219,7 @@ public class ServicesContextTest {
 		var storageRef = subject.queryableStorage();
 		var tokensRef = subject.queryableTokens();
 		var tokenRelsRef = subject.queryableTokenAssociations();
+		var contractStorageRef = subject.queryableContractStorage();
 
 		// when:
 		subject.update(newState);
@@ -221,12 +231,14 @@ public class ServicesContextTest {
 		assertSame(storageRef, subject.queryableStorage());
 		assertSame(tokensRef, subject.queryableTokens());
 		assertSame(tokenRelsRef, subject.queryableTokenAssociations());
+		assertSame(contractStorageRef, subject.queryableContractStorage());
 		// and:
 		assertSame(newAccounts, subject.queryableAccounts().get());
 		assertSame(newTopics, subject.queryableTopics().get());
 		assertSame(newStorage, subject.queryableStorage().get());
 		assertSame(newTokens, subject.queryableTokens().get());
 		assertSame(newTokenRels, subject.queryableTokenAssociations().get());
+		assertSame(newContractStorage, subject.queryableContractStorage().get());
 	}
 
 	@Test
@@ -242,18 +254,22 @@ public class ServicesContextTest {
 		var actualSeqNo = subject.seqNo();
 		var actualMidnightRates = subject.midnightRates();
 		var actualLastHandleTime = subject.consensusTimeOfLastHandledTxn();
+		var actualNetworkCtx = subject.networkCtx();
 		subject.topics();
 		subject.storage();
 		subject.accounts();
+		subject.contractStorage();
 
 		// then:
 		inOrder.verify(state).addressBook();
 		assertEquals(seqNo, actualSeqNo);
 		assertEquals(midnightRates, actualMidnightRates);
 		assertEquals(consensusTimeOfLastHandledTxn.toJava(), actualLastHandleTime);
+		assertSame(networkCtx, actualNetworkCtx);
 		inOrder.verify(state).topics();
 		inOrder.verify(state).storage();
 		inOrder.verify(state).accounts();
+		inOrder.verify(state).contractStorage();
 	}
 
 	@Test
@@ -325,6 +341,17 @@ public class ServicesContextTest {
 		assertThat(ctx.answerFlow(), instanceOf(ZeroStakeAnswerFlow.class));
 	}
 
+	@Test
+	public void batchesPrecheckSigVerificationIfConfigured() {
+		given(properties.getIntProperty("precheck.sigVerify.maxBatchSize")).willReturn(64);
+
+		// given:
+		ServicesContext ctx = new ServicesContext(id, platform, state, propertySources);
+
+		// expect:
+		assertThat(ctx.precheckSyncVerifier(), instanceOf(BatchingSyncVerifier.class));
+	}
+
 	@Test
 	public void hasExpectedStakedInfrastructure() {
 		// setup:
@@ -373,14 +400,19 @@ public class ServicesContextTest {
 		assertThat(ctx.blobStore(), instanceOf(FcBlobsBytesStore.class));
 		assertThat(ctx.entityExpiries(), instanceOf(Map.class));
 		assertThat(ctx.syncVerifier(), instanceOf(SyncVerifier.class));
+		assertSame(ctx.syncVerifier(), ctx.precheckSyncVerifier());
 		assertThat(ctx.txnThrottling(), instanceOf(TransactionThrottling.class));
 		assertThat(ctx.bucketThrottling(), instanceOf(BucketThrottling.class));
+		assertThat(ctx.consensusThrottling(), instanceOf(ConsensusThrottling.class));
 		assertThat(ctx.accountSource(), instanceOf(LedgerAccountsSource.class));
 		assertThat(ctx.bytecodeDb(), instanceOf(BlobStorageSource.class));
+		assertThat(ctx.bytecodeCache(), instanceOf(BytecodeCache.class));
+		assertThat(ctx.evmConfig(), instanceOf(CachingCommonConfig.class));
+		assertThat(ctx.signedStateSnapshots(), instanceOf(SignedStateSnapshots.class));
 		assertThat(ctx.cryptoAnswers(), instanceOf(CryptoAnswers.class));
 		assertThat(ctx.tokenAnswers(), instanceOf(TokenAnswers.class));
 		assertThat(ctx.consensusGrpc(), instanceOf(ConsensusController.class));
-		assertThat(ctx.storagePersistence(), instanceOf(BlobStoragePersistence.class));
+		assertThat(ctx.storagePersistence(), instanceOf(SlotStoragePersistence.class));
 		assertThat(ctx.filesGrpc(), instanceOf(FileController.class));
 		assertThat(ctx.networkGrpc(), instanceOf(NetworkController.class));
 		assertThat(ctx.entityNums(), instanceOf(EntityNumbers.class));
@@ -399,6 +431,7 @@ public class ServicesContextTest {
 		assertThat(ctx.txnResponseHelper(), instanceOf(TxnResponseHelper.class));
 		assertThat(ctx.statusCounts(), instanceOf(ConsensusStatusCounts.class));
 		assertThat(ctx.queryableStorage(), instanceOf(AtomicReference.class));
+		assertThat(ctx.queryableContractStorage(), instanceOf(AtomicReference.class));
 		assertThat(ctx.systemFilesManager(), instanceOf(HfsSystemFilesManager.class));
 		assertThat(ctx.queryResponseHelper(), instanceOf(QueryResponseHelper.class));
 		assertThat(ctx.solidityLifecycle(), instanceOf(SolidityLifecycle.class));
@@ -425,12 +458,14 @@ public class ServicesContextTest {
 		assertThat(ctx.globalDynamicProperties(), instanceOf(GlobalDynamicProperties.class));
 		assertThat(ctx.tokenGrpc(), instanceOf(TokenController.class));
 		assertThat(ctx.nodeLocalProperties(), instanceOf(NodeLocalProperties.class));
-		assertThat(ctx.balancesExporter(), instanceOf(SignedStateBalancesExporter.class));
+		assertThat(ctx.accessorCache(), instanceOf(TxnAccessorCache.class));
+		assertThat(ctx.balancesExporter(), instanceOf(AsyncBalancesExporter.class));
 		assertThat(ctx.exchange(), instanceOf(AwareHbarCentExchange.class));
 		assertThat(ctx.stateMigrations(), instanceOf(StdStateMigrations.class));
 		assertThat(ctx.opCounters(), instanceOf(HapiOpCounters.class));
 		assertThat(ctx.runningAvgs(), instanceOf(MiscRunningAvgs.class));
 		assertThat(ctx.speedometers(), instanceOf(MiscSpeedometers.class));
+		assertThat(ctx.ingestLatencies(), instanceOf(IngestStageLatencies.class));
 		assertThat(ctx.statsManager(), instanceOf(ServicesStatsManager.class));
 		assertThat(ctx.semVers(), instanceOf(SemanticVersions.class));
 		// and:
@@ -57,6 +57,7 @@ import com.hederahashgraph.api.proto.java.TokenID;
 import com.hederahashgraph.api.proto.java.TokenKycStatus;
 import com.hederahashgraph.api.proto.java.TokenRelationship;
 import com.swirlds.fcmap.FCMap;
+import org.ethereum.datasource.StoragePersistence;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -93,7 +94,7 @@ class StateViewTest {
 	FileGetInfoResponse.FileInfo expected;
 	FileGetInfoResponse.FileInfo expectedImmutable;
 
-	Map<byte[], byte[]> storage;
+	StoragePersistence storage;
 	Map<byte[], byte[]> bytecode;
 	Map<FileID, byte[]> contents;
 	Map<FileID, JFileInfo> attrs;
@@ -171,7 +172,7 @@ class StateViewTest {
 
 		contents = mock(Map.class);
 		attrs = mock(Map.class);
-		storage = mock(Map.class);
+		storage = mock(StoragePersistence.class);
 		bytecode = mock(Map.class);
 		given(storage.get(argThat((byte[] bytes) -> Arrays.equals(cidAddress, bytes)))).willReturn(expectedStorage);
 		given(bytecode.get(argThat((byte[] bytes) -> Arrays.equals(cidAddress, bytes)))).willReturn(expectedBytecode);
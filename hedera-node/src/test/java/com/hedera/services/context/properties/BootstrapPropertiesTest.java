@@ -81,7 +81,12 @@ class BootstrapPropertiesTest {
 			entry("accounts.systemDeleteAdmin", 59L),
 			entry("accounts.systemUndeleteAdmin", 60L),
 			entry("accounts.treasury", 2L),
+			entry("balances.compressBinary", true),
+			entry("balances.exportBinary", false),
+			entry("balances.exportParallelism", 1),
 			entry("contracts.defaultLifetime", 7890000L),
+			entry("contracts.localCall.maxGas", 300000),
+			entry("contracts.localCall.timeoutMs", 5000L),
 			entry("contracts.maxGas", 300000),
 			entry("contracts.maxStorageKb", 1024),
 			entry("files.addressBook", 101L),
@@ -94,6 +99,7 @@ class BootstrapPropertiesTest {
 			entry("files.softwareUpdateZip", 150L),
 			entry("grpc.port", 50211),
 			entry("grpc.tlsPort", 50212),
+			entry("hedera.recordStream.reuseTxnBytes", false),
 			entry("hedera.numReservedSystemEntities", 1_000L),
 			entry("hedera.profiles.active", Profile.PROD),
 			entry("hedera.realm", 0L),
@@ -116,6 +122,15 @@ class BootstrapPropertiesTest {
 			entry("tokens.maxTokenNameLength",100),
 			entry("files.maxSizeKb", 1024),
 			entry("cache.records.ttl", 180),
+			entry("contracts.bytecodeCache.maxBytes", 33554432),
+			entry("grpc.heavyQueries.queueCapacityPerService", 256),
+			entry("grpc.heavyQueries.threadsPerService", 4),
+			entry("hedera.txnAccessorCache.roundsToKeep", 100),
+			entry("ledger.records.maxPurgesPerTxn", 100),
+			entry("ledger.records.expiryIndexPeriodSecs", 300),
+			entry("precheck.sigVerify.maxBatchSize", 1),
+			entry("precheck.sigVerify.maxLingerMicros", 200L),
+			entry("precheck.sigVerify.threads", 2),
 			entry("rates.intradayChangeLimitPercent", 25),
 			entry("stats.runningAvgHalfLifeSecs", 10.0),
 			entry("stats.hapiOps.speedometerUpdateIntervalMs", 3_000L),
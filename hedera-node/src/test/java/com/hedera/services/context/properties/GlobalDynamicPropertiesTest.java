@@ -83,6 +83,14 @@ class GlobalDynamicPropertiesTest {
 		assertEquals(20, subject.minValidityBuffer());
 		assertEquals(21, subject.maxGas());
 		assertEquals(22L, subject.defaultContractLifetime());
+		assertTrue(subject.shouldExportBinaryBalances());
+		assertFalse(subject.shouldCompressBinaryBalances());
+		assertEquals(24, subject.balancesExportParallelism());
+		assertEquals(25, subject.maxRecordPurgesPerTxn());
+		assertEquals(26, subject.maxLocalCallGas());
+		assertEquals(27L, subject.localCallTimeoutMs());
+		assertEquals(28, subject.payerExpiryIndexPeriodSecs());
+		assertTrue(subject.shouldStreamReceivedTxnBytes());
 	}
 
 	@Test
@@ -115,6 +123,14 @@ class GlobalDynamicPropertiesTest {
 		assertEquals(21, subject.minValidityBuffer());
 		assertEquals(22, subject.maxGas());
 		assertEquals(23L, subject.defaultContractLifetime());
+		assertFalse(subject.shouldExportBinaryBalances());
+		assertTrue(subject.shouldCompressBinaryBalances());
+		assertEquals(25, subject.balancesExportParallelism());
+		assertEquals(26, subject.maxRecordPurgesPerTxn());
+		assertEquals(27, subject.maxLocalCallGas());
+		assertEquals(28L, subject.localCallTimeoutMs());
+		assertEquals(29, subject.payerExpiryIndexPeriodSecs());
+		assertFalse(subject.shouldStreamReceivedTxnBytes());
 	}
 
 	private void givenPropsWithSeed(int i) {
@@ -140,6 +156,14 @@ class GlobalDynamicPropertiesTest {
 		given(properties.getIntProperty("hedera.transaction.minValidityBufferSecs")).willReturn(i + 19);
 		given(properties.getIntProperty("contracts.maxGas")).willReturn(i + 20);
 		given(properties.getLongProperty("contracts.defaultLifetime")).willReturn(i + 21L);
+		given(properties.getBooleanProperty("balances.exportBinary")).willReturn((i + 22) % 2 == 1);
+		given(properties.getBooleanProperty("balances.compressBinary")).willReturn((i + 23) % 2 == 1);
+		given(properties.getIntProperty("balances.exportParallelism")).willReturn(i + 23);
+		given(properties.getIntProperty("ledger.records.maxPurgesPerTxn")).willReturn(i + 24);
+		given(properties.getIntProperty("contracts.localCall.maxGas")).willReturn(i + 25);
+		given(properties.getLongProperty("contracts.localCall.timeoutMs")).willReturn(i + 26L);
+		given(properties.getIntProperty("ledger.records.expiryIndexPeriodSecs")).willReturn(i + 27);
+		given(properties.getBooleanProperty("hedera.recordStream.reuseTxnBytes")).willReturn((i + 28) % 2 == 1);
 	}
 
 	private AccountID accountWith(long shard, long realm, long num) {
@@ -61,6 +61,13 @@ class NodeLocalPropertiesTest {
 		assertEquals(6L, subject.statsHapiOpsSpeedometerUpdateIntervalMs());
 		assertEquals(7.0, subject.statsSpeedometerHalfLifeSecs());
 		assertEquals(8.0, subject.statsRunningAvgHalfLifeSecs());
+		assertEquals(10, subject.txnAccessorCacheRoundsToKeep());
+		assertEquals(11, subject.heavyQueryThreadsPerService());
+		assertEquals(12, subject.heavyQueryQueueCapacityPerService());
+		assertEquals(13, subject.precheckSigVerifyMaxBatchSize());
+		assertEquals(14L, subject.precheckSigVerifyMaxLingerMicros());
+		assertEquals(15, subject.precheckSigVerifyThreads());
+		assertEquals(16, subject.bytecodeCacheMaxBytes());
 	}
 
 	@Test
@@ -79,6 +86,13 @@ class NodeLocalPropertiesTest {
 		assertEquals(7L, subject.statsHapiOpsSpeedometerUpdateIntervalMs());
 		assertEquals(8.0, subject.statsSpeedometerHalfLifeSecs());
 		assertEquals(9.0, subject.statsRunningAvgHalfLifeSecs());
+		assertEquals(11, subject.txnAccessorCacheRoundsToKeep());
+		assertEquals(12, subject.heavyQueryThreadsPerService());
+		assertEquals(13, subject.heavyQueryQueueCapacityPerService());
+		assertEquals(14, subject.precheckSigVerifyMaxBatchSize());
+		assertEquals(15L, subject.precheckSigVerifyMaxLingerMicros());
+		assertEquals(16, subject.precheckSigVerifyThreads());
+		assertEquals(17, subject.bytecodeCacheMaxBytes());
 	}
 
 	private void givenPropsWithSeed(int i) {
@@ -90,5 +104,12 @@ class NodeLocalPropertiesTest {
 		given(properties.getLongProperty("stats.hapiOps.speedometerUpdateIntervalMs")).willReturn(i + 5L);
 		given(properties.getDoubleProperty("stats.speedometerHalfLifeSecs")).willReturn(i + 6.0);
 		given(properties.getDoubleProperty("stats.runningAvgHalfLifeSecs")).willReturn(i + 7.0);
+		given(properties.getIntProperty("hedera.txnAccessorCache.roundsToKeep")).willReturn(i + 9);
+		given(properties.getIntProperty("grpc.heavyQueries.threadsPerService")).willReturn(i + 10);
+		given(properties.getIntProperty("grpc.heavyQueries.queueCapacityPerService")).willReturn(i + 11);
+		given(properties.getIntProperty("precheck.sigVerify.maxBatchSize")).willReturn(i + 12);
+		given(properties.getLongProperty("precheck.sigVerify.maxLingerMicros")).willReturn(i + 13L);
+		given(properties.getIntProperty("precheck.sigVerify.threads")).willReturn(i + 14);
+		given(properties.getIntProperty("contracts.bytecodeCache.maxBytes")).willReturn(i + 15);
 	}
 }
@@ -1,4 +1,4 @@
-package com.hedera.services.state.exports;
+package com.hedera.services.contracts.execution;
 
 /*-
  * ‌
@@ -20,38 +20,32 @@ package com.hedera.services.state.exports;
  * ‍
  */
 
+import com.hedera.services.contracts.sources.BytecodeCache;
+import org.ethereum.datasource.Source;
+import org.ethereum.vm.program.ProgramPrecompile;
 import org.junit.jupiter.api.Test;
 import org.junit.platform.runner.JUnitPlatform;
 import org.junit.runner.RunWith;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.mock;
 
 @RunWith(JUnitPlatform.class)
-class AccountBalanceTest {
+class CachingCommonConfigTest {
 	@Test
-	public void comparesAllIdParts() {
+	@SuppressWarnings("unchecked")
+	public void usesCachedPrecompiles() {
 		// setup:
-		var a = new AccountBalance(5, 4, 3, 5);
-		var b = new AccountBalance(15, 20, 1, 25);
-		var c = new AccountBalance(5, 20, 4, 25);
-		var d = new AccountBalance(5, 4, 3, 25);
+		BytecodeCache bytecodeCache = mock(BytecodeCache.class);
+		Source<byte[], ProgramPrecompile> precompiles = mock(Source.class);
 
-		// expect:
-		assertTrue(a.compareTo(b) < 0);
-		assertTrue(a.compareTo(c) < 0);
-		assertTrue(a.compareTo(d) == 0);
-	}
+		given(bytecodeCache.precompiles()).willReturn(precompiles);
 
-	@Test
-	public void beanWorks() {
-		// setup:
-		var a = new AccountBalance(5, 4, 3, 6);
+		// when:
+		var subject = new CachingCommonConfig(bytecodeCache);
 
-		// expect:
-		assertEquals(5, a.getShard());
-		assertEquals(4, a.getRealm());
-		assertEquals(3, a.getNum());
-		assertEquals(6, a.getBalance());
+		// then:
+		assertSame(precompiles, subject.precompileSource());
 	}
-}
\ No newline at end of file
+}
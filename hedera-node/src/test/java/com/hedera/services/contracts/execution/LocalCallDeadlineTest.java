@@ -0,0 +1,75 @@
+package com.hedera.services.contracts.execution;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2020 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import org.ethereum.vm.OpCode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.hedera.services.contracts.execution.LocalCallDeadline.STEPS_PER_CHECK;
+import static com.hedera.services.contracts.execution.LocalCallDeadline.TIMEOUT_ERROR_MSG_TPL;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@RunWith(JUnitPlatform.class)
+class LocalCallDeadlineTest {
+	long timeoutMs = 5;
+	AtomicLong now = new AtomicLong(1_000L);
+
+	LocalCallDeadline subject;
+
+	@BeforeEach
+	private void setup() {
+		subject = new LocalCallDeadline(timeoutMs, now::get);
+	}
+
+	@Test
+	public void neverThrowsBeforeDeadline() {
+		// given:
+		now.addAndGet(timeoutMs * 1_000_000L);
+
+		// expect:
+		assertDoesNotThrow(() -> stepTimes(10 * STEPS_PER_CHECK));
+	}
+
+	@Test
+	public void onlyChecksClockEveryFewSteps() {
+		// given:
+		now.addAndGet(timeoutMs * 1_000_000L + 1);
+
+		// expect:
+		assertDoesNotThrow(() -> stepTimes(STEPS_PER_CHECK - 1));
+		// and:
+		var e = assertThrows(LocalCallDeadline.TimeoutException.class, () -> subject.step(null, OpCode.ADD));
+		assertEquals(String.format(TIMEOUT_ERROR_MSG_TPL, timeoutMs), e.getMessage());
+	}
+
+	private void stepTimes(int n) {
+		for (int i = 0; i < n; i++) {
+			subject.step(null, OpCode.ADD);
+		}
+	}
+}
@@ -0,0 +1,206 @@
+package com.hedera.services.contracts.execution;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2020 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hedera.services.ServicesState;
+import com.hedera.services.state.merkle.MerkleAccount;
+import com.hedera.services.state.merkle.MerkleContractSlot;
+import com.hedera.services.state.merkle.MerkleContractSlotId;
+import com.hedera.services.state.merkle.MerkleEntityId;
+import com.hedera.services.utils.EntityIdUtils;
+import com.swirlds.fcmap.FCMap;
+import org.ethereum.core.AccountState;
+import org.ethereum.datasource.Source;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.BDDMockito.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.mock;
+import static org.mockito.BDDMockito.never;
+import static org.mockito.BDDMockito.times;
+import static org.mockito.BDDMockito.verify;
+
+@RunWith(JUnitPlatform.class)
+class SignedStateSnapshotsTest {
+	byte[] code = { 0x60, 0x00 };
+	byte[] address = EntityIdUtils.asSolidityAddress(0, 0, 1001);
+	byte[] missingAddress = EntityIdUtils.asSolidityAddress(0, 0, 1002);
+	MerkleEntityId id = new MerkleEntityId(0, 0, 1001);
+	MerkleEntityId missingId = new MerkleEntityId(0, 0, 1002);
+
+	Source<byte[], byte[]> bytecode;
+	Source<byte[], AccountState> accountSource;
+	Function<Supplier<FCMap<MerkleEntityId, MerkleAccount>>, Source<byte[], AccountState>> accountSources;
+	ServicesState signedState;
+	ServicesState nextSignedState;
+	FCMap<MerkleEntityId, MerkleAccount> accounts;
+	FCMap<MerkleContractSlotId, MerkleContractSlot> contractStorage;
+	FCMap<MerkleEntityId, MerkleAccount> nextAccounts;
+	FCMap<MerkleContractSlotId, MerkleContractSlot> nextContractStorage;
+
+	SignedStateSnapshots subject;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	private void setup() {
+		bytecode = mock(Source.class);
+		given(bytecode.get(address)).willReturn(code);
+		accountSource = mock(Source.class);
+		accountSources = mock(Function.class);
+		given(accountSources.apply(any())).willReturn(accountSource);
+
+		accounts = mock(FCMap.class);
+		given(accounts.containsKey(id)).willReturn(true);
+		given(accounts.containsKey(missingId)).willReturn(false);
+		contractStorage = mock(FCMap.class);
+		signedState = mock(ServicesState.class);
+		given(signedState.accounts()).willReturn(accounts);
+		given(signedState.contractStorage()).willReturn(contractStorage);
+
+		nextAccounts = mock(FCMap.class);
+		nextContractStorage = mock(FCMap.class);
+		nextSignedState = mock(ServicesState.class);
+		given(nextSignedState.accounts()).willReturn(nextAccounts);
+		given(nextSignedState.contractStorage()).willReturn(nextContractStorage);
+
+		subject = new SignedStateSnapshots(bytecode, accountSources);
+	}
+
+	@Test
+	public void hasNoSnapshotBeforeFirstSignedState() {
+		// expect:
+		assertNull(subject.acquire());
+	}
+
+	@Test
+	public void pinsSignedStateMapsOnUpdate() {
+		// when:
+		subject.update(signedState);
+
+		// then:
+		verify(accounts).incrementReferenceCount();
+		verify(contractStorage).incrementReferenceCount();
+		verify(accounts, never()).decrementReferenceCount();
+	}
+
+	@Test
+	public void releasesSupersededSnapshotWithoutHolders() {
+		// given:
+		subject.update(signedState);
+
+		// when:
+		subject.update(nextSignedState);
+
+		// then:
+		verify(accounts).decrementReferenceCount();
+		verify(contractStorage).decrementReferenceCount();
+		// and:
+		try (var snapshot = subject.acquire()) {
+			assertSame(nextAccounts, snapshot.accounts());
+		}
+	}
+
+	@Test
+	public void keepsSupersededSnapshotUntilLastHolderCloses() {
+		// given:
+		subject.update(signedState);
+		var snapshot = subject.acquire();
+
+		// when:
+		subject.update(nextSignedState);
+
+		// then:
+		verify(accounts, never()).decrementReferenceCount();
+		assertEquals(1, snapshot.holders());
+
+		// and when:
+		snapshot.close();
+
+		// then:
+		verify(accounts).decrementReferenceCount();
+		verify(contractStorage).decrementReferenceCount();
+		assertEquals(0, snapshot.holders());
+	}
+
+	@Test
+	public void cannotReacquireReleasedSnapshot() {
+		// given:
+		subject.update(signedState);
+		var snapshot = subject.acquire();
+		subject.update(nextSignedState);
+		snapshot.close();
+
+		// expect:
+		assertEquals(false, snapshot.tryAcquire());
+	}
+
+	@Test
+	public void pureRepoOnlyReadsBytecodeOfContractsInSnapshot() {
+		// given:
+		subject.update(signedState);
+
+		// when:
+		try (var snapshot = subject.acquire()) {
+			var repo = snapshot.newPureRepo();
+
+			// then:
+			assertNotNull(repo);
+			assertSame(code, repo.getCode(address));
+		}
+
+		// and:
+		try (var snapshot = subject.acquire()) {
+			var repo = snapshot.newPureRepo();
+			assertNull(repo.getCode(missingAddress));
+		}
+		verify(bytecode, never()).get(missingAddress);
+		// and:
+		verify(accountSources, times(1)).apply(any());
+	}
+
+	@Test
+	public void snapshotBytecodeIsReadOnly() {
+		// given:
+		subject.update(signedState);
+
+		// when:
+		try (var snapshot = subject.acquire()) {
+			var repo = snapshot.newPureRepo();
+
+			// then:
+			assertThrows(UnsupportedOperationException.class, () -> {
+				repo.saveCode(address, code);
+				repo.commit();
+			});
+		}
+	}
+}
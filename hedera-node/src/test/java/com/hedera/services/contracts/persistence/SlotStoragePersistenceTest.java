@@ -0,0 +1,197 @@
+package com.hedera.services.contracts.persistence;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2020 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hedera.services.state.merkle.MerkleContractSlot;
+import com.hedera.services.state.merkle.MerkleContractSlotId;
+import com.swirlds.fcmap.FCMap;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+
+import static com.hedera.services.contracts.persistence.SlotStoragePersistence.RECORD_BYTES;
+import static com.hedera.services.state.merkle.MerkleContractSlot.WORD_BYTES;
+import static com.hedera.services.utils.EntityIdUtils.asSolidityAddress;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@RunWith(JUnitPlatform.class)
+class SlotStoragePersistenceTest {
+	long realm = 0, num = 13257;
+	byte[] address = asSolidityAddress(0, realm, num);
+	byte[] otherAddress = asSolidityAddress(0, realm, num + 1);
+
+	FCMap<MerkleContractSlotId, MerkleContractSlot> slots;
+
+	SlotStoragePersistence subject;
+
+	@BeforeEach
+	private void setup() {
+		slots = new FCMap<>();
+
+		subject = new SlotStoragePersistence(() -> slots);
+	}
+
+	@Test
+	public void hasNoStorageUntilPersisted() {
+		// expect:
+		assertFalse(subject.storageExist(address));
+		assertNull(subject.get(address));
+
+		// when:
+		subject.persist(address, storageOf(1, 2), 0, 0);
+
+		// then:
+		assertTrue(subject.storageExist(address));
+		assertArrayEquals(storageOf(1, 2), subject.get(address));
+		// and:
+		assertFalse(subject.storageExist(otherAddress));
+		assertEquals(1, slots.size());
+	}
+
+	@Test
+	public void onlyReplacesSlotsWithChangedValues() {
+		// given:
+		subject.persist(address, storageOf(1, 2, 3, 4, 5, 6), 0, 0);
+		var unchanged = slots.get(new MerkleContractSlotId(realm, num, 0));
+
+		// when:
+		subject.persist(address, storageOf(1, 2, 3, 7, 5, 6), 0, 0);
+
+		// then:
+		assertSame(unchanged, slots.get(new MerkleContractSlotId(realm, num, 0)));
+		assertArrayEquals(word(7), slots.get(new MerkleContractSlotId(realm, num, 1)).getValue());
+		assertEquals(3, slots.size());
+	}
+
+	@Test
+	public void reusesFreedIndicesThenCompacts() {
+		// given:
+		subject.persist(address, storageOf(1, 1, 2, 2, 3, 3, 4, 4, 5, 5), 0, 0);
+
+		// when:
+		subject.persist(address, storageOf(2, 2, 6, 6, 5, 5), 0, 0);
+
+		// then:
+		assertEquals(3, slots.size());
+		assertArrayEquals(word(6), slots.get(new MerkleContractSlotId(realm, num, 0)).getKey());
+		assertArrayEquals(word(2), slots.get(new MerkleContractSlotId(realm, num, 1)).getKey());
+		assertArrayEquals(word(5), slots.get(new MerkleContractSlotId(realm, num, 2)).getKey());
+	}
+
+	@Test
+	public void removesAllSlotsOfEmptyStorage() {
+		// given:
+		subject.persist(address, storageOf(1, 1, 2, 2), 0, 0);
+		subject.persist(otherAddress, storageOf(3, 3), 0, 0);
+
+		// when:
+		subject.persist(address, new byte[0], 0, 0);
+
+		// then:
+		assertFalse(subject.storageExist(address));
+		assertTrue(subject.storageExist(otherAddress));
+		assertEquals(1, slots.size());
+	}
+
+	@Test
+	public void roundTripsRandomEdits() {
+		// setup:
+		var r = new SplittableRandom(42);
+		Map<Integer, Integer> expected = new HashMap<>();
+
+		for (int i = 0; i < 200; i++) {
+			// given:
+			for (int j = 0, n = r.nextInt(10); j < n; j++) {
+				int key = r.nextInt(50);
+				if (r.nextBoolean()) {
+					expected.put(key, r.nextInt(1_000));
+				} else {
+					expected.remove(key);
+				}
+			}
+			var storage = storageOf(new TreeMap<>(expected));
+
+			// when:
+			subject.persist(address, storage, 0, 0);
+
+			// then:
+			assertEquals(expected.size(), slots.size());
+			assertEquals(expected, contentsOf(subject.get(address)));
+		}
+	}
+
+	@Test
+	public void rejectsMalformedStorage() {
+		// expect:
+		assertThrows(IllegalArgumentException.class,
+				() -> subject.persist(address, new byte[RECORD_BYTES - 1], 0, 0));
+	}
+
+	private Map<Integer, Integer> contentsOf(byte[] storage) {
+		Map<Integer, Integer> contents = new HashMap<>();
+		if (storage == null) {
+			return contents;
+		}
+		for (int i = 0; i < storage.length; i += RECORD_BYTES) {
+			contents.put(intOf(Arrays.copyOfRange(storage, i, i + WORD_BYTES)),
+					intOf(Arrays.copyOfRange(storage, i + WORD_BYTES, i + RECORD_BYTES)));
+		}
+		return contents;
+	}
+
+	private byte[] storageOf(int... keysAndValues) {
+		var storage = new byte[keysAndValues.length * WORD_BYTES];
+		for (int i = 0; i < keysAndValues.length; i++) {
+			System.arraycopy(word(keysAndValues[i]), 0, storage, i * WORD_BYTES, WORD_BYTES);
+		}
+		return storage;
+	}
+
+	private byte[] storageOf(TreeMap<Integer, Integer> contents) {
+		return storageOf(contents.entrySet().stream()
+				.flatMapToInt(entry -> Arrays.stream(new int[] { entry.getKey(), entry.getValue() }))
+				.toArray());
+	}
+
+	private int intOf(byte[] word) {
+		return word[WORD_BYTES - 2] << 8 | (word[WORD_BYTES - 1] & 0xff);
+	}
+
+	private byte[] word(int v) {
+		var word = new byte[WORD_BYTES];
+		word[WORD_BYTES - 2] = (byte) (v >> 8);
+		word[WORD_BYTES - 1] = (byte) v;
+		return word;
+	}
+}
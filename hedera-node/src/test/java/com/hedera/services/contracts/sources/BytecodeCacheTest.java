@@ -0,0 +1,202 @@
+package com.hedera.services.contracts.sources;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2020 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hedera.services.stats.MiscRunningAvgs;
+import com.hedera.services.utils.EntityIdUtils;
+import org.ethereum.datasource.Source;
+import org.ethereum.vm.program.ProgramPrecompile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.mock;
+import static org.mockito.BDDMockito.never;
+import static org.mockito.BDDMockito.times;
+import static org.mockito.BDDMockito.verify;
+
+@RunWith(JUnitPlatform.class)
+class BytecodeCacheTest {
+	long maxBytes = 8;
+	/* PUSH1 0x5b, JUMPDEST, STOP */
+	byte[] code = { 0x60, 0x5b, 0x5b, 0x00 };
+	byte[] otherCode = { 0x5b, 0x00, 0x00, 0x00, 0x00 };
+	byte[] address = EntityIdUtils.asSolidityAddress(0, 0, 1001);
+	byte[] otherAddress = EntityIdUtils.asSolidityAddress(0, 0, 1002);
+	byte[] missingAddress = EntityIdUtils.asSolidityAddress(0, 0, 1003);
+
+	Source<byte[], byte[]> delegate;
+	MiscRunningAvgs runningAvgs;
+
+	BytecodeCache subject;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	private void setup() {
+		delegate = mock(Source.class);
+		given(delegate.get(address)).willReturn(code);
+		given(delegate.get(otherAddress)).willReturn(otherCode);
+		runningAvgs = mock(MiscRunningAvgs.class);
+
+		subject = new BytecodeCache(delegate, maxBytes, runningAvgs);
+	}
+
+	@Test
+	public void fetchesFromDelegateOnlyOnce() {
+		// when:
+		var first = subject.get(address);
+		var second = subject.get(address);
+
+		// then:
+		assertSame(code, first);
+		assertSame(code, second);
+		verify(delegate, times(1)).get(address);
+		// and:
+		verify(runningAvgs).recordBytecodeCacheLookup(false);
+		verify(runningAvgs).recordBytecodeCacheLookup(true);
+	}
+
+	@Test
+	public void doesNotCacheMissingCode() {
+		// when:
+		assertNull(subject.get(missingAddress));
+		assertNull(subject.get(missingAddress));
+
+		// then:
+		verify(delegate, times(2)).get(missingAddress);
+		assertEquals(0, subject.size());
+	}
+
+	@Test
+	public void evictsLeastRecentlyUsedBeyondMaxBytes() {
+		// given:
+		subject.get(address);
+		subject.get(otherAddress);
+
+		// expect:
+		assertEquals(1, subject.size());
+		assertEquals(otherCode.length, subject.cachedBytes());
+
+		// and when:
+		subject.get(address);
+
+		// then:
+		verify(delegate, times(2)).get(address);
+		assertEquals(code.length, subject.cachedBytes());
+	}
+
+	@Test
+	public void neverCachesCodeLargerThanMaxBytes() {
+		// setup:
+		var hugeAddress = EntityIdUtils.asSolidityAddress(0, 0, 1004);
+		given(delegate.get(hugeAddress)).willReturn(new byte[(int)maxBytes + 1]);
+
+		// given:
+		subject.get(address);
+
+		// when:
+		subject.get(hugeAddress);
+
+		// then:
+		assertEquals(1, subject.size());
+		assertEquals(code.length, subject.cachedBytes());
+	}
+
+	@Test
+	public void analyzesJumpDestsOnceFromCachedCode() {
+		// when:
+		var first = subject.precompiles().get(address);
+		var second = subject.precompiles().get(address);
+
+		// then:
+		assertSame(first, second);
+		assertFalse(first.hasJumpDest(1));
+		assertTrue(first.hasJumpDest(2));
+		verify(delegate, times(1)).get(address);
+		// and:
+		verify(runningAvgs).recordJumpDestCacheLookup(false);
+		verify(runningAvgs).recordJumpDestCacheLookup(true);
+		verify(runningAvgs, never()).recordBytecodeCacheLookup(false);
+	}
+
+	@Test
+	public void ignoresAnalysesOfUncommittedCode() {
+		// given:
+		var offered = ProgramPrecompile.compile(otherCode);
+
+		// when:
+		subject.precompiles().put(missingAddress, offered);
+
+		// then:
+		assertNull(subject.precompiles().get(missingAddress));
+		verify(runningAvgs, never()).recordJumpDestCacheLookup(false);
+		// and:
+		subject.precompiles().delete(address);
+		assertFalse(subject.precompiles().flush());
+	}
+
+	@Test
+	public void putWritesThroughAndReplacesEntry() {
+		// given:
+		var firstAnalysis = subject.precompiles().get(address);
+
+		// when:
+		subject.put(address, otherCode);
+
+		// then:
+		verify(delegate).put(address, otherCode);
+		assertSame(otherCode, subject.get(address));
+		assertEquals(otherCode.length, subject.cachedBytes());
+		// and:
+		var secondAnalysis = subject.precompiles().get(address);
+		assertTrue(secondAnalysis.hasJumpDest(0));
+		assertFalse(firstAnalysis.hasJumpDest(0));
+	}
+
+	@Test
+	public void deleteRemovesFromDelegateAndCache() {
+		// given:
+		subject.get(address);
+
+		// when:
+		subject.delete(address);
+
+		// then:
+		verify(delegate).delete(address);
+		assertEquals(0, subject.size());
+		assertEquals(0, subject.cachedBytes());
+	}
+
+	@Test
+	public void flushDelegates() {
+		given(delegate.flush()).willReturn(true);
+
+		// expect:
+		assertTrue(subject.flush());
+	}
+}
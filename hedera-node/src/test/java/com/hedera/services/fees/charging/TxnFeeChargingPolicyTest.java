@@ -160,6 +160,24 @@ class TxnFeeChargingPolicyTest {
 		assertEquals(OK, outcome);
 	}
 
+	@Test
+	public void chargesDiscountedFeesAsExpectedForThrottled() {
+		given(charging.isPayerWillingToCover(NETWORK_FEE)).willReturn(true);
+		given(charging.canPayerAfford(NETWORK_FEE)).willReturn(true);
+		given(charging.isPayerWillingToCover(NETWORK_NODE_SERVICE_FEES)).willReturn(true);
+		given(charging.canPayerAfford(NETWORK_NODE_SERVICE_FEES)).willReturn(true);
+
+		// when:
+		ResponseCodeEnum outcome = subject.applyForThrottled(charging, fee);
+
+		// then:
+		verify(charging).setFor(SERVICE, service);
+		verify(charging).setFor(SERVICE, 0);
+		verify(charging).chargePayer(NETWORK_NODE_SERVICE_FEES);
+		// and:
+		assertEquals(OK, outcome);
+	}
+
 	@Test
 	public void chargesFullFeesAsExpected() {
 		given(charging.isPayerWillingToCover(NETWORK_FEE)).willReturn(true);
@@ -0,0 +1,147 @@
+package com.hedera.services.files;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2020 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hedera.test.utils.IdUtils;
+import com.hederahashgraph.api.proto.java.FileID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@RunWith(JUnitPlatform.class)
+class SegmentedFileDataTest {
+	FileID fid = IdUtils.asFile("0.2.3");
+	FileID otherFid = IdUtils.asFile("0.2.4");
+	byte[] first = "A pregnant bank ".getBytes();
+	byte[] second = "swelled up ".getBytes();
+	byte[] third = "to rest".getBytes();
+
+	Map<String, byte[]> store;
+
+	SegmentedFileData subject;
+
+	@BeforeEach
+	private void setup() {
+		store = new HashMap<>();
+
+		subject = new SegmentedFileData(store);
+	}
+
+	@Test
+	public void readsLegacyFileAsSingleSegment() {
+		// given:
+		store.put("/2/f3", first);
+
+		// expect:
+		assertArrayEquals(first, subject.get(fid));
+		assertEquals(first.length, subject.sizeOf(fid));
+		assertNull(subject.get(otherFid));
+		assertEquals(0, subject.sizeOf(otherFid));
+	}
+
+	@Test
+	public void appendsOnlyWriteNewSegmentAndIndex() {
+		// given:
+		subject.put(fid, first);
+
+		// when:
+		subject.append(fid, second);
+		subject.append(fid, third);
+
+		// then:
+		assertStored(first, "/2/f3");
+		assertStored(second, "/2/f3/1");
+		assertStored(third, "/2/f3/2");
+		assertEquals(4, store.size());
+		// and:
+		assertEquals("A pregnant bank swelled up to rest", new String(subject.get(fid)));
+		assertEquals(first.length + second.length + third.length, subject.sizeOf(fid));
+	}
+
+	@Test
+	public void putCollapsesToSingleSegment() {
+		// given:
+		subject.put(fid, first);
+		subject.append(fid, second);
+
+		// when:
+		subject.put(fid, third);
+
+		// then:
+		assertEquals(1, store.size());
+		assertArrayEquals(third, subject.get(fid));
+	}
+
+	@Test
+	public void removeDropsAllSegments() {
+		// given:
+		subject.put(fid, first);
+		subject.append(fid, second);
+		subject.put(otherFid, third);
+
+		// when:
+		subject.remove(fid);
+
+		// then:
+		assertFalse(subject.containsKey(fid));
+		assertTrue(subject.containsKey(otherFid));
+		assertEquals(1, store.size());
+	}
+
+	@Test
+	public void mapViewsOnlyCountFiles() {
+		// given:
+		subject.put(fid, first);
+		subject.append(fid, second);
+		subject.put(otherFid, third);
+
+		// expect:
+		assertEquals(2, subject.size());
+		assertEquals(2, subject.entrySet().size());
+		assertEquals(
+				"A pregnant bank swelled up ",
+				subject.entrySet().stream()
+						.filter(entry -> entry.getKey().equals(fid))
+						.map(entry -> new String(entry.getValue()))
+						.findAny()
+						.get());
+
+		// and when:
+		subject.clear();
+
+		// then:
+		assertTrue(subject.isEmpty());
+	}
+
+	private void assertStored(byte[] expected, String path) {
+		assertArrayEquals(expected, store.get(path));
+	}
+}
@@ -83,7 +83,7 @@ class TieredHederaFsTest {
 	EntityIdSource ids;
 	GlobalDynamicProperties properties;
 	Supplier<Instant> clock;
-	Map<FileID, byte[]> data;
+	SegmentedFileData data;
 	Map<FileID, JFileInfo> metadata;
 	MerkleDiskFs diskFs;
 	TieredHederaFs subject;
@@ -104,7 +104,7 @@ class TieredHederaFsTest {
 		given(highInterceptor.priorityForCandidate(any())).willReturn(OptionalInt.of(Integer.MIN_VALUE));
 
 		ids = mock(EntityIdSource.class);
-		data = mock(Map.class);
+		data = mock(SegmentedFileData.class);
 		metadata = mock(Map.class);
 		diskFs = mock(MerkleDiskFs.class);
 
@@ -134,6 +134,32 @@ class TieredHederaFsTest {
 		given(metadata.containsKey(fid)).willReturn(true);
 		given(metadata.get(fid)).willReturn(livingAttr);
 		// and:
+		given(data.sizeOf(fid)).willReturn((long)origContents.length);
+
+		// when:
+		var result = subject.append(fid, moreContents);
+
+		// then:
+		assertEquals(SUCCESS, result.outcome());
+		assertTrue(result.fileReplaced());
+		// and:
+		verify(data).append(fid, moreContents);
+		verify(data, never()).get(fid);
+		verify(data, never()).put(any(), any());
+	}
+
+	@Test
+	public void appendShowsInterceptorsWholeFile() {
+		// setup:
+		var wholeContents = new String(origContents) + new String(moreContents);
+
+		given(highInterceptor.preUpdate(argThat(fid::equals), argThat(bytes -> wholeContents.equals(new String(bytes)))))
+				.willReturn(new AbstractMap.SimpleEntry<>(SUCCESS, true));
+		subject.register(highInterceptor);
+		// and:
+		given(metadata.containsKey(fid)).willReturn(true);
+		given(metadata.get(fid)).willReturn(livingAttr);
+		given(data.sizeOf(fid)).willReturn((long)origContents.length);
 		given(data.get(fid)).willReturn(origContents);
 
 		// when:
@@ -143,11 +169,30 @@ class TieredHederaFsTest {
 		assertEquals(SUCCESS, result.outcome());
 		assertTrue(result.fileReplaced());
 		// and:
-		verify(data).put(
+		verify(data).append(fid, moreContents);
+		verify(highInterceptor).postUpdate(
 				argThat(fid::equals),
-				argThat(bytes -> new String(bytes).equals(
-						new String(origContents) + new String(moreContents)
-				)));
+				argThat(bytes -> wholeContents.equals(new String(bytes))));
+	}
+
+	@Test
+	public void appendSkippedIfInterceptorRejects() {
+		given(highInterceptor.preUpdate(any(), any()))
+				.willReturn(new AbstractMap.SimpleEntry<>(AUTHORIZATION_FAILED, false));
+		subject.register(highInterceptor);
+		// and:
+		given(metadata.containsKey(fid)).willReturn(true);
+		given(metadata.get(fid)).willReturn(livingAttr);
+		given(data.get(fid)).willReturn(origContents);
+
+		// when:
+		var result = subject.append(fid, moreContents);
+
+		// then:
+		assertEquals(AUTHORIZATION_FAILED, result.outcome());
+		assertFalse(result.fileReplaced());
+		// and:
+		verify(data, never()).append(any(), any());
 	}
 
 	@Test
@@ -251,7 +296,7 @@ class TieredHederaFsTest {
 
 		given(metadata.containsKey(fid)).willReturn(true);
 		given(metadata.get(fid)).willReturn(livingAttr);
-		given(data.get(fid)).willReturn(stretchContents);
+		given(data.sizeOf(fid)).willReturn((long)stretchContents.length);
 		// and:
 		given(properties.maxFileSizeKb()).willReturn(1);
 
@@ -288,11 +333,8 @@ class TieredHederaFsTest {
 		assertEquals(SUCCESS, result.outcome());
 		assertTrue(result.fileReplaced());
 		// and:
-		verify(diskFs).put(
-				argThat(fid::equals),
-				argThat(bytes -> new String(bytes).equals(
-						new String(stretchContents) + new String(burstContents)
-				)));
+		verify(diskFs).append(fid, burstContents);
+		verify(diskFs, never()).contentsOf(fid);
 	}
 
 	@Test
@@ -858,6 +900,6 @@ class TieredHederaFsTest {
 		subject.append(fileID, moreContents);
 
 		// then:
-		verify(diskFs).put(fileID, (new String(newContents) + new String(moreContents)).getBytes());
+		verify(diskFs).append(fileID, moreContents);
 	}
 }
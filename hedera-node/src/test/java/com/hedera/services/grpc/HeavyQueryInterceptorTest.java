@@ -0,0 +1,182 @@
+package com.hedera.services.grpc;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2020 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hedera.services.context.properties.NodeLocalProperties;
+import com.hederahashgraph.api.proto.java.Query;
+import com.hederahashgraph.api.proto.java.Response;
+import com.hederahashgraph.service.proto.java.CryptoServiceGrpc;
+import com.hederahashgraph.service.proto.java.SmartContractServiceGrpc;
+import com.swirlds.common.Platform;
+import com.swirlds.common.StatEntry;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.Status;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.hederahashgraph.api.proto.java.ResponseCodeEnum.BUSY;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.*;
+
+@RunWith(JUnitPlatform.class)
+class HeavyQueryInterceptorTest {
+	Metadata headers = new Metadata();
+	NodeLocalProperties properties;
+	ServerCallHandler<Query, Response> next;
+
+	HeavyQueryInterceptor subject;
+
+	@BeforeEach
+	public void setup() {
+		properties = mock(NodeLocalProperties.class);
+		given(properties.heavyQueryThreadsPerService()).willReturn(1);
+		given(properties.heavyQueryQueueCapacityPerService()).willReturn(1);
+		given(properties.statsRunningAvgHalfLifeSecs()).willReturn(10.0);
+		next = mock(ServerCallHandler.class);
+
+		subject = new HeavyQueryInterceptor(properties);
+	}
+
+	@Test
+	public void leavesCheapQueriesInline() {
+		// setup:
+		var call = callTo(CryptoServiceGrpc.getCryptoGetBalanceMethod());
+		ServerCall.Listener<Query> listener = mock(ServerCall.Listener.class);
+
+		given(next.startCall(call, headers)).willReturn(listener);
+
+		// expect:
+		assertSame(listener, subject.interceptCall(call, headers, next));
+	}
+
+	@Test
+	public void answersHeavyQueriesOffTheCallingThread() throws InterruptedException {
+		// setup:
+		var answered = new CountDownLatch(1);
+		var answeringThread = new String[1];
+		var call = callTo(SmartContractServiceGrpc.getContractCallLocalMethodMethod());
+		ServerCall.Listener<Query> listener = new ServerCall.Listener<>() {
+			@Override
+			public void onHalfClose() {
+				answeringThread[0] = Thread.currentThread().getName();
+				answered.countDown();
+			}
+		};
+
+		given(next.startCall(call, headers)).willReturn(listener);
+
+		// when:
+		subject.interceptCall(call, headers, next).onHalfClose();
+
+		// then:
+		assertTrue(answered.await(5, TimeUnit.SECONDS));
+		assertEquals(String.format(HeavyQueryInterceptor.THREAD_NAME_TPL, "contract", 0), answeringThread[0]);
+	}
+
+	@Test
+	public void shedsWithBusyWhenQueueIsFull() throws InterruptedException {
+		// setup:
+		var running = new CountDownLatch(1);
+		var release = new CountDownLatch(1);
+		ServerCall.Listener<Query> blocking = new ServerCall.Listener<>() {
+			@Override
+			public void onHalfClose() {
+				running.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException ignore) { }
+			}
+		};
+		var runningCall = callTo(CryptoServiceGrpc.getGetAccountRecordsMethod());
+		var queuedCall = callTo(CryptoServiceGrpc.getGetAccountRecordsMethod());
+		var shedCall = callTo(CryptoServiceGrpc.getGetAccountRecordsMethod());
+
+		given(next.startCall(any(), any())).willReturn(blocking);
+
+		// when:
+		subject.interceptCall(runningCall, headers, next).onHalfClose();
+		assertTrue(running.await(5, TimeUnit.SECONDS));
+		subject.interceptCall(queuedCall, headers, next).onHalfClose();
+		subject.interceptCall(shedCall, headers, next).onHalfClose();
+
+		// then:
+		verify(shedCall).sendMessage(argThat(response ->
+				response.getCryptoGetAccountRecords().getHeader().getNodeTransactionPrecheckCode() == BUSY));
+		verify(shedCall).close(argThat(Status::isOk), any());
+		verify(queuedCall, never()).sendMessage(any());
+		// and:
+		var cryptoPool = subject.pools().get(1);
+		assertEquals("crypto", cryptoPool.service);
+		assertEquals(1, cryptoPool.executor.getQueue().size());
+		assertEquals(1L, cryptoPool.numShed.get());
+
+		// cleanup:
+		release.countDown();
+	}
+
+	@Test
+	public void closesCallOnUnhandledException() {
+		// setup:
+		var call = callTo(SmartContractServiceGrpc.getContractCallLocalMethodMethod());
+		ServerCall.Listener<Query> listener = new ServerCall.Listener<>() {
+			@Override
+			public void onHalfClose() {
+				throw new IllegalStateException();
+			}
+		};
+
+		given(next.startCall(call, headers)).willReturn(listener);
+
+		// when:
+		subject.interceptCall(call, headers, next).onHalfClose();
+
+		// then:
+		verify(call, timeout(5_000)).close(argThat(status -> !status.isOk()), any());
+	}
+
+	@Test
+	public void registersThreeStatsPerPool() {
+		// setup:
+		var platform = mock(Platform.class);
+
+		// when:
+		subject.registerWith(platform);
+
+		// then:
+		verify(platform, times(3 * subject.pools().size())).addAppStatEntry(any(StatEntry.class));
+	}
+
+	private ServerCall<Query, Response> callTo(MethodDescriptor<Query, Response> method) {
+		ServerCall<Query, Response> call = mock(ServerCall.class);
+		given(call.getMethodDescriptor()).willReturn(method);
+		return call;
+	}
+}
@@ -23,6 +23,7 @@ package com.hedera.services.grpc;
 import com.hedera.services.legacy.netty.NettyServerManager;
 import io.grpc.BindableService;
 import io.grpc.Server;
+import io.grpc.ServerInterceptor;
 import io.grpc.ServerServiceDefinition;
 import io.grpc.netty.NettyServerBuilder;
 import org.junit.jupiter.api.BeforeEach;
@@ -54,6 +55,7 @@ class NettyGrpcServerManagerTest {
 	List<BindableService> bindableServices;
 	List<ServerServiceDefinition> serviceDefinitions;
 	ServerServiceDefinition d;
+	ServerInterceptor interceptor;
 
 	NettyGrpcServerManager subject;
 
@@ -67,6 +69,7 @@ class NettyGrpcServerManagerTest {
 		bindableServices = List.of(a, b, c);
 		d = mock(ServerServiceDefinition.class);
 		serviceDefinitions = List.of(d);
+		interceptor = mock(ServerInterceptor.class);
 
 		nettyBuilder = mock(NettyServerBuilder.class);
 		given(nettyBuilder.addService(any(BindableService.class))).willReturn(nettyBuilder);
@@ -85,7 +88,7 @@ class NettyGrpcServerManagerTest {
 		println = mock(Consumer.class);
 		hookAdder = mock(Consumer.class);
 
-		subject = new NettyGrpcServerManager(hookAdder, nettyManager, bindableServices, serviceDefinitions);
+		subject = new NettyGrpcServerManager(hookAdder, nettyManager, bindableServices, serviceDefinitions, List.of(interceptor));
 	}
 
 	@Test
@@ -143,6 +146,7 @@ class NettyGrpcServerManagerTest {
 		verify(builder).addService(b);
 		verify(builder).addService(c);
 		verify(builder).addService(d);
+		verify(builder).intercept(interceptor);
 		verify(builder).build();
 	}
 
@@ -0,0 +1,181 @@
+package com.hedera.services.keys;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2020 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hedera.services.legacy.core.jproto.JEd25519Key;
+import com.hedera.services.legacy.core.jproto.JKey;
+import com.hedera.services.legacy.core.jproto.JKeyList;
+import com.hedera.services.legacy.core.jproto.JThresholdKey;
+import com.hedera.test.factories.sigs.SigWrappers;
+import com.swirlds.common.crypto.TransactionSignature;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+import static com.hedera.services.keys.DefaultActivationCharacteristics.DEFAULT_ACTIVATION_CHARACTERISTICS;
+import static com.hedera.services.keys.HederaKeyActivation.INVALID_SIG;
+import static com.hedera.services.keys.HederaKeyActivation.ONLY_IF_SIG_IS_VALID;
+import static com.hedera.services.sigs.factories.PlatformSigFactory.createEd25519;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+@RunWith(JUnitPlatform.class)
+class CompiledKeyTest {
+	final TransactionSignature VALID_SIG = SigWrappers.asValid(
+			List.of(createEd25519("PK".getBytes(), "SIG".getBytes(), "DATA".getBytes()))).get(0);
+
+	@Test
+	public void memoizesCompiledFormOnKey() {
+		// given:
+		var key = new JKeyList(List.of(ed25519(1), ed25519(2)));
+
+		// when:
+		var compiled = CompiledKey.of(key);
+
+		// then:
+		assertSame(compiled, key.getCompiled());
+		assertSame(compiled, CompiledKey.of(key));
+		assertNotSame(compiled, CompiledKey.of(key.clone()));
+		assertEquals(3, compiled.numNodes());
+	}
+
+	@Test
+	public void testsEverySimpleKeyInDfsOrder() {
+		// setup:
+		List<Integer> applied = new ArrayList<>();
+		// and:
+		var key = new JKeyList(List.of(
+				ed25519(1),
+				new JThresholdKey(new JKeyList(List.of(ed25519(2), new JKeyList(List.of(ed25519(3))))), 1),
+				ed25519(4)));
+
+		// when:
+		CompiledKey.of(key).isActive(
+				ed25519 -> {
+					applied.add((int) ed25519[0]);
+					return VALID_SIG;
+				},
+				ONLY_IF_SIG_IS_VALID,
+				DEFAULT_ACTIVATION_CHARACTERISTICS);
+
+		// then:
+		assertEquals(List.of(1, 2, 3, 4), applied);
+	}
+
+	@Test
+	public void usesNonDefaultCharacteristicsOnlyAtTopLevel() {
+		// setup:
+		var inner = new JKeyList(List.of(ed25519(2), ed25519(3)));
+		var key = new JKeyList(List.of(ed25519(1), inner));
+		var characteristics = RevocationServiceCharacteristics.forTopLevelFile(key);
+		Set<Integer> validNums = Set.of(2);
+		Function<byte[], TransactionSignature> sigsFn = ed25519 ->
+				validNums.contains((int) ed25519[0]) ? VALID_SIG : INVALID_SIG;
+
+		// expect:
+		assertEquals(
+				referenceIsActive(key, sigsFn, ONLY_IF_SIG_IS_VALID, characteristics),
+				CompiledKey.of(key).isActive(sigsFn, ONLY_IF_SIG_IS_VALID, characteristics));
+		assertEquals(false, CompiledKey.of(key).isActive(sigsFn, ONLY_IF_SIG_IS_VALID, characteristics));
+	}
+
+	@Test
+	public void agreesWithRecursiveFormOnRandomKeys() {
+		// setup:
+		var r = new Random(42);
+
+		for (int trial = 0; trial < 1_000; trial++) {
+			// given:
+			var key = randomKey(r, 4);
+			Set<Integer> validNums = new HashSet<>();
+			for (int num = 0; num < 64; num++) {
+				if (r.nextBoolean()) {
+					validNums.add(num);
+				}
+			}
+			Function<byte[], TransactionSignature> sigsFn = ed25519 ->
+					validNums.contains((int) ed25519[0]) ? VALID_SIG : INVALID_SIG;
+			var characteristics = key.hasKeyList()
+					? RevocationServiceCharacteristics.forTopLevelFile((JKeyList) key)
+					: DEFAULT_ACTIVATION_CHARACTERISTICS;
+
+			// expect:
+			assertEquals(
+					referenceIsActive(key, sigsFn, ONLY_IF_SIG_IS_VALID, DEFAULT_ACTIVATION_CHARACTERISTICS),
+					CompiledKey.of(key).isActive(sigsFn, ONLY_IF_SIG_IS_VALID, DEFAULT_ACTIVATION_CHARACTERISTICS));
+			assertEquals(
+					referenceIsActive(key, sigsFn, ONLY_IF_SIG_IS_VALID, characteristics),
+					CompiledKey.of(key).isActive(sigsFn, ONLY_IF_SIG_IS_VALID, characteristics));
+		}
+	}
+
+	private JKey randomKey(Random r, int maxDepth) {
+		int choice = (maxDepth == 0) ? 0 : r.nextInt(3);
+		if (choice == 0) {
+			return ed25519(r.nextInt(64));
+		}
+		List<JKey> children = new ArrayList<>();
+		int numChildren = 1 + r.nextInt(4);
+		for (int i = 0; i < numChildren; i++) {
+			children.add(randomKey(r, maxDepth - 1));
+		}
+		return (choice == 1)
+				? new JKeyList(children)
+				: new JThresholdKey(new JKeyList(children), 1 + r.nextInt(numChildren));
+	}
+
+	private JKey ed25519(int num) {
+		var bytes = new byte[32];
+		bytes[0] = (byte) num;
+		return new JEd25519Key(bytes);
+	}
+
+	/* The recursive form that CompiledKey replaced. */
+	private static boolean referenceIsActive(
+			JKey key,
+			Function<byte[], TransactionSignature> sigsFn,
+			BiPredicate<JKey, TransactionSignature> tests,
+			KeyActivationCharacteristics characteristics
+	) {
+		if (!key.hasKeyList() && !key.hasThresholdKey()) {
+			return tests.test(key, sigsFn.apply(key.getEd25519()));
+		} else {
+			List<JKey> children = key.hasKeyList()
+					? key.getKeyList().getKeysList()
+					: key.getThresholdKey().getKeys().getKeysList();
+			int M = key.hasKeyList()
+					? characteristics.sigsNeededForList((JKeyList) key)
+					: characteristics.sigsNeededForThreshold((JThresholdKey) key);
+			return children.stream()
+					.mapToInt(child -> referenceIsActive(child, sigsFn, tests, DEFAULT_ACTIVATION_CHARACTERISTICS) ? 1 : 0)
+					.sum() >= M;
+		}
+	}
+}
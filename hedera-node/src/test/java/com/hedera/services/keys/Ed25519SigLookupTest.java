@@ -0,0 +1,103 @@
+package com.hedera.services.keys;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2020 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.swirlds.common.crypto.TransactionSignature;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.hedera.services.keys.HederaKeyActivation.INVALID_SIG;
+import static com.hedera.services.sigs.factories.PlatformSigFactory.createEd25519;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@RunWith(JUnitPlatform.class)
+class Ed25519SigLookupTest {
+	@Test
+	public void scansFewSigs() {
+		// given:
+		var sigs = sigsFor(Ed25519SigLookup.MAX_SCANNED_SIGS);
+		var subject = new Ed25519SigLookup(sigs);
+
+		// expect:
+		for (TransactionSignature sig : sigs) {
+			assertSame(sig, subject.apply(sig.getExpandedPublicKeyDirect().clone()));
+		}
+		assertSame(INVALID_SIG, subject.apply(pk(Ed25519SigLookup.MAX_SCANNED_SIGS)));
+	}
+
+	@Test
+	public void hashesManySigs() {
+		// given:
+		var sigs = sigsFor(100);
+		var subject = new Ed25519SigLookup(sigs);
+
+		// expect:
+		for (TransactionSignature sig : sigs) {
+			assertSame(sig, subject.apply(sig.getExpandedPublicKeyDirect().clone()));
+		}
+		assertSame(INVALID_SIG, subject.apply(pk(100)));
+		assertSame(INVALID_SIG, subject.apply(new byte[0]));
+	}
+
+	@Test
+	public void prefersFirstSigForDuplicateKeys() {
+		for (int n : new int[] { 2, 2 * Ed25519SigLookup.MAX_SCANNED_SIGS }) {
+			// given:
+			var sigs = sigsFor(n);
+			var first = sigs.get(0);
+			var duplicate = createEd25519(pk(0), "OTHER".getBytes(), "DATA".getBytes());
+			sigs.add(duplicate);
+			var subject = new Ed25519SigLookup(sigs);
+
+			// expect:
+			assertSame(first, subject.apply(pk(0)));
+		}
+	}
+
+	@Test
+	public void rejectsNullKeys() {
+		// given:
+		var subject = new Ed25519SigLookup(sigsFor(1));
+
+		// expect:
+		assertThrows(NullPointerException.class, () -> subject.apply(null));
+	}
+
+	private List<TransactionSignature> sigsFor(int n) {
+		List<TransactionSignature> sigs = new ArrayList<>();
+		for (int i = 0; i < n; i++) {
+			sigs.add(createEd25519(pk(i), ("SIG" + i).getBytes(), ("DATA" + i).getBytes()));
+		}
+		return sigs;
+	}
+
+	private byte[] pk(int i) {
+		var pk = new byte[32];
+		pk[31] = (byte) i;
+		pk[30] = (byte) (i >> 8);
+		return pk;
+	}
+}
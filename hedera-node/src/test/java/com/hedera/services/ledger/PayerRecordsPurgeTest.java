@@ -37,11 +37,14 @@ import static com.hedera.services.ledger.properties.AccountProperty.RECORDS;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.collection.IsIterableContainingInOrder.contains;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.BDDMockito.verify;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 
 @RunWith(JUnitPlatform.class)
 public class PayerRecordsPurgeTest extends BaseHederaLedgerTest {
@@ -83,4 +86,44 @@ public class PayerRecordsPurgeTest extends BaseHederaLedgerTest {
 						.collect(Collectors.toList()),
 				contains(311L, 500L));
 	}
+
+	@Test
+	public void purgesByAccountNumWithReusedId() {
+		// setup:
+		Consumer<ExpirableTxnRecord> cb = (Consumer<ExpirableTxnRecord>) mock(Consumer.class);
+		FCQueue<ExpirableTxnRecord> records = asExpirableRecords(50L, 100L, 311L);
+		List<ExpirableTxnRecord> added = new ArrayList<>(records);
+		addPayerRecords(misc, records);
+
+		// when:
+		long newEarliestExpiry = subject.purgeExpiredRecords(misc.getAccountNum(), 100L, cb);
+		var firstId = subject.purgeIdFor(misc.getAccountNum());
+		subject.purgeExpiredRecords(misc.getAccountNum(), 200L, cb);
+
+		// then:
+		assertEquals(311L, newEarliestExpiry);
+		verify(cb).accept(same(added.get(0)));
+		verify(cb).accept(same(added.get(1)));
+		// and:
+		assertEquals(misc, firstId);
+		assertSame(firstId, subject.purgeIdFor(misc.getAccountNum()));
+		verify(accountsLedger, times(2)).set(
+				argThat(misc::equals),
+				argThat(RECORDS::equals),
+				same(records));
+	}
+
+	@Test
+	public void replacesCachedIdForCollidingNum() {
+		// given:
+		var first = subject.purgeIdFor(1L);
+
+		// when:
+		var colliding = subject.purgeIdFor(1L + 1_024L);
+
+		// then:
+		assertEquals(1L + 1_024L, colliding.getAccountNum());
+		assertNotSame(first, subject.purgeIdFor(1L));
+		assertEquals(first, subject.purgeIdFor(1L));
+	}
 }
@@ -0,0 +1,309 @@
+package com.hedera.services.ledger;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2020 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hedera.services.exceptions.MissingAccountException;
+import com.hedera.services.ledger.accounts.BackingStore;
+import com.hedera.services.ledger.properties.ChangeSummaryManager;
+import com.hedera.services.state.merkle.MerkleAccount;
+import com.hedera.test.factories.accounts.MerkleAccountFactory;
+import com.hederahashgraph.api.proto.java.AccountID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static com.hedera.services.ledger.properties.AccountProperty.BALANCE;
+import static com.hedera.services.ledger.properties.AccountProperty.IS_DELETED;
+import static com.hedera.services.ledger.properties.AccountProperty.MEMO;
+import static com.hedera.test.utils.IdUtils.asAccount;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.any;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.BDDMockito.argThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.inOrder;
+import static org.mockito.BDDMockito.mock;
+import static org.mockito.BDDMockito.never;
+import static org.mockito.BDDMockito.verify;
+import static org.mockito.BDDMockito.willThrow;
+
+@RunWith(JUnitPlatform.class)
+class TransactionalAccountsLedgerTest {
+	long initialBalance = 1_000L;
+	AccountID existing = asAccount("0.0.1001");
+	AccountID fresh = asAccount("0.0.1002");
+	AccountID otherRealm = asAccount("0.1.1001");
+
+	MerkleAccount existingAccount;
+	BackingStore<AccountID, MerkleAccount> backingAccounts;
+
+	TransactionalAccountsLedger subject;
+
+	@BeforeEach
+	void setup() {
+		existingAccount = MerkleAccountFactory.newAccount().balance(initialBalance).memo("a").get();
+
+		backingAccounts = mock(BackingStore.class, CALLS_REAL_METHODS);
+		given(backingAccounts.contains(existing)).willReturn(true);
+		given(backingAccounts.getRef(existing)).willReturn(existingAccount);
+
+		subject = new TransactionalAccountsLedger(backingAccounts, new ChangeSummaryManager<>());
+	}
+
+	@Test
+	public void keepsPendingBalanceUntilCommit() {
+		// given:
+		subject.begin();
+
+		// when:
+		subject.set(existing, BALANCE, initialBalance - 1);
+		subject.set(existing, MEMO, "b");
+
+		// then:
+		assertEquals(initialBalance - 1, (long) subject.get(existing, BALANCE));
+		assertEquals("b", subject.get(existing, MEMO));
+		assertEquals(initialBalance, existingAccount.getBalance());
+		assertEquals("a", existingAccount.getMemo());
+
+		// and when:
+		subject.commit();
+
+		// then:
+		verify(backingAccounts).put(existing, existingAccount);
+		verify(backingAccounts).flushMutableRefs();
+		assertEquals(initialBalance - 1, existingAccount.getBalance());
+		assertEquals("b", existingAccount.getMemo());
+		assertFalse(subject.isInTransaction());
+		assertEquals(0, subject.numPendingChanges());
+	}
+
+	@Test
+	public void readsThroughForUnchangedProperties() {
+		// given:
+		subject.begin();
+		subject.set(existing, MEMO, "b");
+
+		// expect:
+		assertEquals(initialBalance, (long) subject.get(existing, BALANCE));
+		assertEquals(false, subject.get(existing, IS_DELETED));
+		assertEquals(existingAccount, subject.get(existing));
+	}
+
+	@Test
+	public void usesNewAccountForPendingCreations() {
+		// given:
+		subject.begin();
+
+		// when:
+		subject.create(fresh);
+
+		// then:
+		assertTrue(subject.exists(fresh));
+		assertTrue(subject.existsPending(fresh));
+		assertFalse(subject.existsPending(existing));
+		assertEquals(0L, (long) subject.get(fresh, BALANCE));
+
+		// and when:
+		subject.set(fresh, BALANCE, 5L);
+		subject.commit();
+
+		// then:
+		verify(backingAccounts).put(
+				argThat(fresh::equals),
+				argThat(account -> account.getBalance() == 5L));
+		verify(backingAccounts, never()).put(argThat(existing::equals), any());
+	}
+
+	@Test
+	public void distinguishesAccountsWithSameNumInOtherRealms() {
+		// given:
+		subject.begin();
+
+		// when:
+		subject.create(otherRealm);
+		subject.set(otherRealm, BALANCE, 5L);
+		subject.set(existing, BALANCE, 6L);
+
+		// then:
+		assertEquals(5L, (long) subject.get(otherRealm, BALANCE));
+		assertEquals(6L, (long) subject.get(existing, BALANCE));
+		assertEquals(2, subject.numPendingChanges());
+	}
+
+	@Test
+	public void commitsAndDestroysInAccountIdOrderAcrossGrowth() {
+		// setup:
+		InOrder inOrder = inOrder(backingAccounts);
+		List<AccountID> ids = new ArrayList<>();
+		for (long num = 2_000; num < 2_100; num++) {
+			ids.add(AccountID.newBuilder().setAccountNum(num).build());
+		}
+		List<AccountID> shuffled = new ArrayList<>(ids);
+		Collections.shuffle(shuffled, new Random(42));
+
+		// when:
+		subject.begin();
+		shuffled.forEach(subject::create);
+		subject.commit();
+		// and:
+		shuffled.forEach(id -> given(backingAccounts.contains(id)).willReturn(true));
+		subject.begin();
+		shuffled.forEach(subject::destroy);
+		subject.commit();
+
+		// then:
+		ids.forEach(id -> inOrder.verify(backingAccounts).put(argThat(id::equals), any()));
+		ids.forEach(id -> inOrder.verify(backingAccounts).remove(id));
+	}
+
+	@Test
+	public void doesNotSaveDestroyedAccounts() {
+		// given:
+		subject.begin();
+		subject.create(fresh);
+		subject.set(existing, BALANCE, 1L);
+
+		// when:
+		subject.destroy(fresh);
+		subject.destroy(existing);
+
+		// then:
+		assertFalse(subject.exists(fresh));
+		assertFalse(subject.exists(existing));
+		assertEquals(
+				"{*DEAD* 0.0.1001: [BALANCE -> 1], *NEW -> DEAD* 0.0.1002: []}",
+				subject.changeSetSoFar());
+
+		// and when:
+		subject.commit();
+
+		// then:
+		verify(backingAccounts, never()).put(any(), any());
+		verify(backingAccounts).remove(existing);
+		verify(backingAccounts).remove(fresh);
+	}
+
+	@Test
+	public void describesChangesInOrder() {
+		// given:
+		subject.begin();
+
+		// when:
+		subject.create(fresh);
+		subject.set(existing, MEMO, "b");
+		subject.set(existing, BALANCE, 1L);
+		subject.destroy(otherRealm);
+
+		// then:
+		assertEquals(
+				"{0.0.1001: [BALANCE -> 1, MEMO -> b], *DEAD* 0.1.1001, *NEW* 0.0.1002: []}",
+				subject.changeSetSoFar());
+	}
+
+	@Test
+	public void rollbackForgetsPendingChanges() {
+		// given:
+		subject.begin();
+		subject.create(fresh);
+		subject.set(existing, BALANCE, 1L);
+
+		// when:
+		subject.rollback();
+
+		// then:
+		verify(backingAccounts).flushMutableRefs();
+		assertFalse(subject.isInTransaction());
+		assertFalse(subject.exists(fresh));
+		assertEquals(initialBalance, (long) subject.get(existing, BALANCE));
+		assertEquals("{}", subject.changeSetSoFar());
+	}
+
+	@Test
+	public void reusedPendingChangesStartClean() {
+		// given:
+		subject.begin();
+		subject.set(existing, BALANCE, 1L);
+		subject.set(existing, MEMO, "b");
+		subject.rollback();
+
+		// when:
+		subject.begin();
+		subject.create(fresh);
+
+		// then:
+		assertEquals(0L, (long) subject.get(fresh, BALANCE));
+		assertEquals("", subject.get(fresh, MEMO));
+		assertEquals("{*NEW* 0.0.1002: []}", subject.changeSetSoFar());
+	}
+
+	@Test
+	public void requiresManualRollbackIfCommitFails() {
+		willThrow(IllegalStateException.class).given(backingAccounts).put(any(), any());
+
+		// when:
+		subject.begin();
+		subject.set(existing, BALANCE, 1L);
+
+		// then:
+		assertThrows(IllegalStateException.class, () -> subject.commit());
+		assertTrue(subject.isInTransaction());
+		assertEquals(1L, (long) subject.get(existing, BALANCE));
+	}
+
+	@Test
+	public void rejectsNegativeBalanceOnCommit() {
+		// given:
+		subject.begin();
+		subject.set(existing, BALANCE, -1L);
+
+		// expect:
+		assertThrows(IllegalArgumentException.class, () -> subject.commit());
+	}
+
+	@Test
+	public void throwsOnIllegalUsage() {
+		// expect:
+		assertThrows(IllegalStateException.class, () -> subject.set(existing, BALANCE, 1L));
+		assertThrows(IllegalStateException.class, () -> subject.create(fresh));
+		assertThrows(IllegalStateException.class, () -> subject.destroy(existing));
+		assertThrows(IllegalStateException.class, () -> subject.commit());
+		assertThrows(IllegalStateException.class, () -> subject.rollback());
+
+		// and when:
+		subject.begin();
+
+		// then:
+		assertThrows(IllegalArgumentException.class, () -> subject.create(existing));
+		assertThrows(MissingAccountException.class, () -> subject.set(fresh, BALANCE, 1L));
+		assertThrows(MissingAccountException.class, () -> subject.get(fresh, BALANCE));
+		assertThrows(MissingAccountException.class, () -> subject.get(fresh));
+	}
+}
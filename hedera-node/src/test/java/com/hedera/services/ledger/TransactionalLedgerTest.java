@@ -48,6 +48,7 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.BDDMockito.any;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
 import static org.mockito.BDDMockito.argThat;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.inOrder;
@@ -75,7 +76,7 @@ public class TransactionalLedgerTest {
 	private void setup() {
 		token = mock(MerkleToken.class);
 
-		backingAccounts = mock(BackingStore.class);
+		backingAccounts = mock(BackingStore.class, CALLS_REAL_METHODS);
 		given(backingAccounts.getRef(1L)).willReturn(account1);
 		given(backingAccounts.contains(1L)).willReturn(true);
 		newAccountFactory = () -> new TestAccount();
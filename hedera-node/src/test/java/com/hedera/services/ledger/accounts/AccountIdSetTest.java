@@ -0,0 +1,116 @@
+package com.hedera.services.ledger.accounts;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2020 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hederahashgraph.api.proto.java.AccountID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+import java.util.HashSet;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import static com.hedera.test.utils.IdUtils.asAccount;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@RunWith(JUnitPlatform.class)
+class AccountIdSetTest {
+	AccountID a = asAccount("0.0.1001");
+	AccountID b = asAccount("0.0.1002");
+	AccountID elsewhere = asAccount("1.2.1001");
+
+	AccountIdSet subject;
+
+	@BeforeEach
+	public void setup() {
+		subject = new AccountIdSet(2);
+	}
+
+	@Test
+	public void distinguishesShardsAndRealms() {
+		// when:
+		subject.add(a);
+		subject.add(1, 2, 1001);
+
+		// then:
+		assertEquals(2, subject.size());
+		assertTrue(subject.contains(a));
+		assertTrue(subject.contains(elsewhere));
+		assertFalse(subject.contains(b));
+		assertFalse(subject.contains("0.0.1001"));
+		// and:
+		assertTrue(subject.remove(elsewhere));
+		assertFalse(subject.remove(elsewhere));
+		assertFalse(subject.remove("0.0.1001"));
+		assertTrue(subject.contains(a));
+	}
+
+	@Test
+	public void equalsAndIteratesAsPlainSet() {
+		// given:
+		subject.add(a);
+		subject.add(0, 0, 1002);
+		subject.add(elsewhere);
+
+		// expect:
+		assertEquals(Set.of(a, b, elsewhere), subject);
+		assertEquals(Set.of(a, b, elsewhere), new HashSet<>(subject));
+		assertEquals(Set.of(a, b, elsewhere).hashCode(), subject.hashCode());
+	}
+
+	@Test
+	public void iteratorThrowsWhenExhausted() {
+		// given:
+		var iterator = subject.iterator();
+
+		// expect:
+		assertFalse(iterator.hasNext());
+		assertThrows(NoSuchElementException.class, iterator::next);
+	}
+
+	@Test
+	public void clearEmptiesBothIndexes() {
+		// given:
+		subject.add(a);
+		subject.add(elsewhere);
+
+		// when:
+		subject.clear();
+
+		// then:
+		assertTrue(subject.isEmpty());
+	}
+
+	@Test
+	public void defaultConstructorWorks() {
+		// given:
+		subject = new AccountIdSet();
+
+		// expect:
+		assertTrue(subject.add(a));
+		assertFalse(subject.add(a));
+	}
+}
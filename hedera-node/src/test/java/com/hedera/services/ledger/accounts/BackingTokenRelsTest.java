@@ -31,6 +31,7 @@ import org.junit.platform.runner.JUnitPlatform;
 import org.junit.runner.RunWith;
 
 import java.util.Collections;
+import java.util.List;
 
 import static com.hedera.services.ledger.accounts.BackingTokenRels.asTokenRel;
 import static com.hedera.services.ledger.accounts.BackingTokenRels.readableTokenRel;
@@ -123,6 +124,47 @@ class BackingTokenRelsTest {
 		assertFalse(subject.existingRels.contains(asTokenRel(a, at)));
 	}
 
+	@Test
+	public void putAllSavesNewAndReplacesChangedRefsImmediately() {
+		setupMocked();
+		subject.existingRels.add(asTokenRel(a, at));
+
+		given(rels.getForModify(fromAccountTokenRel(a, at))).willReturn(aValue);
+
+		// when:
+		subject.getRef(asTokenRel(a, at));
+		subject.putAll(List.of(asTokenRel(a, at), asTokenRel(c, ct)), List.of(aValue, cValue));
+		// and:
+		subject.flushMutableRefs();
+
+		// then:
+		verify(rels, times(1)).replace(fromAccountTokenRel(a, at), aValue);
+		verify(rels).put(fromAccountTokenRel(c, ct), cValue);
+		// and:
+		assertTrue(subject.existingRels.contains(asTokenRel(c, ct)));
+		assertTrue(subject.cache.isEmpty());
+	}
+
+	@Test
+	public void putAllThrowsOnReplacingUnsafeRef() {
+		// expect:
+		assertThrows(
+				IllegalArgumentException.class,
+				() -> subject.putAll(List.of(asTokenRel(a, at)), List.of(aValue)));
+	}
+
+	@Test
+	public void removeAllUpdatesBothKnownRelsAndDelegate() {
+		// when:
+		subject.removeAll(List.of(asTokenRel(a, at), asTokenRel(b, bt)));
+
+		// then:
+		assertFalse(rels.containsKey(fromAccountTokenRel(a, at)));
+		assertFalse(rels.containsKey(fromAccountTokenRel(b, bt)));
+		// and:
+		assertTrue(subject.existingRels.isEmpty());
+	}
+
 	@Test
 	public void replacesAllMutableRefs() {
 		setupMocked();
@@ -34,6 +34,7 @@ import org.junit.runner.RunWith;
 import org.mockito.InOrder;
 
 import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -223,6 +224,62 @@ class FCMapBackingAccountsTest {
 		inOrder.verify(map).replace(dKey, dValue);
 	}
 
+	@Test
+	public void putAllSavesInOrderAndReplacesChangedRefsImmediately() {
+		// setup:
+		subject.existingAccounts.add(a);
+		subject.existingAccounts.add(b);
+		// and:
+		InOrder inOrder = inOrder(map);
+
+		// given:
+		given(map.getForModify(aKey)).willReturn(aValue);
+		given(map.getForModify(bKey)).willReturn(bValue);
+		subject.getRef(a);
+		subject.getRef(b);
+
+		// when:
+		subject.putAll(List.of(c, a), List.of(cValue, aValue));
+		// and:
+		subject.flushMutableRefs();
+
+		// then:
+		inOrder.verify(map).put(cKey, cValue);
+		inOrder.verify(map).replace(aKey, aValue);
+		inOrder.verify(map).replace(bKey, bValue);
+		verify(map, times(1)).replace(aKey, aValue);
+		// and:
+		assertTrue(subject.existingAccounts.contains(c));
+		assertTrue(subject.cache.isEmpty());
+	}
+
+	@Test
+	public void putAllThrowsIfAttemptToReplaceExistingWithNonmutableRef() {
+		// given:
+		subject.existingAccounts.add(a);
+
+		// expect:
+		assertThrows(IllegalArgumentException.class, () -> subject.putAll(List.of(a), List.of(cValue)));
+	}
+
+	@Test
+	public void removeAllUpdatesKnownAccountsAndDelegate() {
+		// setup:
+		InOrder inOrder = inOrder(map);
+		// and:
+		subject.existingAccounts.add(a);
+		subject.existingAccounts.add(b);
+
+		// when:
+		subject.removeAll(List.of(b, a));
+
+		// then:
+		inOrder.verify(map).remove(bKey);
+		inOrder.verify(map).remove(aKey);
+		// and:
+		assertTrue(subject.existingAccounts.isEmpty());
+	}
+
 	@Test
 	public void returnsExpectedIds() {
 		// setup:
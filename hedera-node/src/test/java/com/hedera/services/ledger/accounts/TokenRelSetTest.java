@@ -0,0 +1,126 @@
+package com.hedera.services.ledger.accounts;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2020 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hederahashgraph.api.proto.java.AccountID;
+import com.hederahashgraph.api.proto.java.TokenID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+import java.util.AbstractMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import static com.hedera.services.ledger.accounts.BackingTokenRels.asTokenRel;
+import static com.hedera.test.utils.IdUtils.asAccount;
+import static com.hedera.test.utils.IdUtils.asToken;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@RunWith(JUnitPlatform.class)
+class TokenRelSetTest {
+	AccountID a = asAccount("0.0.1001");
+	TokenID at = asToken("0.0.1002");
+	TokenID bigToken = asToken("0.0." + (1L << 32));
+	TokenID elsewhere = asToken("0.1.1002");
+
+	Map.Entry<AccountID, TokenID> packable = asTokenRel(a, at);
+	Map.Entry<AccountID, TokenID> tooBig = asTokenRel(a, bigToken);
+	Map.Entry<AccountID, TokenID> notZeroRealm = asTokenRel(a, elsewhere);
+
+	TokenRelSet subject;
+
+	@BeforeEach
+	public void setup() {
+		subject = new TokenRelSet(3);
+	}
+
+	@Test
+	public void keepsUnpackableRelsApart() {
+		// when:
+		subject.add(packable);
+		subject.add(tooBig);
+		subject.add(notZeroRealm);
+
+		// then:
+		assertEquals(3, subject.size());
+		assertTrue(subject.contains(asTokenRel(a, at)));
+		assertTrue(subject.contains(asTokenRel(a, bigToken)));
+		assertFalse(subject.contains(asTokenRel(a, asToken("0.0.0"))));
+		// and:
+		assertTrue(subject.remove(tooBig));
+		assertTrue(subject.remove(packable));
+		assertFalse(subject.remove(packable));
+		assertEquals(Set.of(notZeroRealm), subject);
+	}
+
+	@Test
+	public void rejectsForeignObjects() {
+		// given:
+		subject.add(packable);
+
+		// expect:
+		assertFalse(subject.contains("0.0.1001 <-> 0.0.1002"));
+		assertFalse(subject.contains(new AbstractMap.SimpleImmutableEntry<>(at, a)));
+		assertFalse(subject.remove(new AbstractMap.SimpleImmutableEntry<>(a, a)));
+	}
+
+	@Test
+	public void equalsAndIteratesAsPlainSet() {
+		// given:
+		subject.add(packable);
+		subject.add(tooBig);
+
+		// expect:
+		assertEquals(Set.of(packable, tooBig), new HashSet<>(subject));
+		assertEquals(Set.of(packable, tooBig), subject);
+	}
+
+	@Test
+	public void iteratorThrowsWhenExhausted() {
+		// given:
+		subject = new TokenRelSet();
+		var iterator = subject.iterator();
+
+		// expect:
+		assertFalse(iterator.hasNext());
+		assertThrows(NoSuchElementException.class, iterator::next);
+	}
+
+	@Test
+	public void clearEmptiesBothIndexes() {
+		// given:
+		subject.add(packable);
+		subject.add(notZeroRealm);
+
+		// when:
+		subject.clear();
+
+		// then:
+		assertTrue(subject.isEmpty());
+	}
+}
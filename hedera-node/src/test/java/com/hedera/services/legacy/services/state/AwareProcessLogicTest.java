@@ -40,22 +40,30 @@ import com.hedera.services.state.merkle.MerkleAccount;
 import com.hedera.services.state.submerkle.SequenceNumber;
 import com.hedera.services.stats.MiscRunningAvgs;
 import com.hedera.services.stats.MiscSpeedometers;
+import com.hedera.services.throttling.ConsensusThrottling;
+import com.hedera.services.throttling.TransactionThrottling;
 import com.hedera.services.txns.TransitionLogicLookup;
 import com.hedera.services.txns.validation.OptionValidator;
 import com.hedera.services.utils.PlatformTxnAccessor;
+import com.hedera.services.utils.TxnAccessorCache;
 import com.hedera.test.utils.IdUtils;
 import com.hederahashgraph.api.proto.java.SignedTransaction;
 import com.hederahashgraph.api.proto.java.AccountID;
+import com.hederahashgraph.api.proto.java.ContractCallTransactionBody;
 import com.hederahashgraph.api.proto.java.ContractCreateTransactionBody;
+import com.hederahashgraph.api.proto.java.ContractFunctionResult;
 import com.hederahashgraph.api.proto.java.ContractUpdateTransactionBody;
 import com.hederahashgraph.api.proto.java.Duration;
+import com.hederahashgraph.api.proto.java.ExchangeRateSet;
 import com.hederahashgraph.api.proto.java.FileID;
 import com.hederahashgraph.api.proto.java.ResponseCodeEnum;
 import com.hederahashgraph.api.proto.java.TransactionBody;
 import com.hederahashgraph.api.proto.java.TransactionID;
+import com.hederahashgraph.api.proto.java.TransactionReceipt;
 import com.hederahashgraph.api.proto.java.TransactionRecord;
 import com.swirlds.common.Address;
 import com.swirlds.common.AddressBook;
+import com.swirlds.common.NodeId;
 import com.swirlds.common.Transaction;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -73,6 +81,10 @@ import java.util.Optional;
 
 import static com.hedera.services.context.domain.trackers.IssEventStatus.NO_KNOWN_ISS;
 import static com.hedera.services.txns.diligence.DuplicateClassification.BELIEVED_UNIQUE;
+import static com.hederahashgraph.api.proto.java.HederaFunctionality.ContractCall;
+import static com.hederahashgraph.api.proto.java.HederaFunctionality.CryptoTransfer;
+import static com.hederahashgraph.api.proto.java.ResponseCodeEnum.BUSY;
+import static com.hederahashgraph.api.proto.java.ResponseCodeEnum.INSUFFICIENT_PAYER_BALANCE;
 import static com.hederahashgraph.api.proto.java.ResponseCodeEnum.MEMO_TOO_LONG;
 import static org.mockito.BDDMockito.*;
 
@@ -87,6 +99,9 @@ class AwareProcessLogicTest {
 	TransactionBody nonMockTxnBody;
 	SmartContractRequestHandler contracts;
 	HederaFs hfs;
+	TxnFeeChargingPolicy policy;
+	ConsensusThrottling consensusThrottling;
+	TransactionThrottling txnThrottling;
 
 	AwareProcessLogic subject;
 
@@ -106,7 +121,9 @@ class AwareProcessLogicTest {
 		final BackingStore<AccountID, MerkleAccount> backingAccounts = mock(BackingStore.class);
 		final AccountID accountID = mock(AccountID.class);
 		final OptionValidator validator = mock(OptionValidator.class);
-		final TxnFeeChargingPolicy policy = mock(TxnFeeChargingPolicy.class);
+		policy = mock(TxnFeeChargingPolicy.class);
+		consensusThrottling = mock(ConsensusThrottling.class);
+		txnThrottling = mock(TransactionThrottling.class);
 		final SystemOpPolicies policies = mock(SystemOpPolicies.class);
 		final TransitionLogicLookup lookup = mock(TransitionLogicLookup.class);
 		hfs = mock(HederaFs.class);
@@ -146,10 +163,14 @@ class AwareProcessLogicTest {
 		given(ctx.backingAccounts()).willReturn(backingAccounts);
 		given(ctx.validator()).willReturn(validator);
 		given(ctx.txnChargingPolicy()).willReturn(policy);
+		given(ctx.consensusThrottling()).willReturn(consensusThrottling);
+		given(ctx.txnThrottling()).willReturn(txnThrottling);
+		given(ctx.id()).willReturn(new NodeId(false, 1L));
 		given(ctx.systemOpPolicies()).willReturn(policies);
 		given(ctx.transitionLogic()).willReturn(lookup);
 		given(ctx.hfs()).willReturn(hfs);
 		given(ctx.contracts()).willReturn(contracts);
+		given(ctx.accessorCache()).willReturn(new TxnAccessorCache(10));
 
 		given(txnCtx.accessor()).willReturn(txnAccessor);
 		given(txnCtx.submittingNodeAccount()).willReturn(accountID);
@@ -167,6 +188,7 @@ class AwareProcessLogicTest {
 		given(signedTxn.getSignedTransactionBytes()).willReturn(ByteString.EMPTY);
 		given(txnAccessor.getTxn()).willReturn(txnBody);
 		given(txnBody.getTransactionID()).willReturn(txnId);
+		given(txnId.getAccountID()).willReturn(IdUtils.asAccount("0.0.1001"));
 		given(txnBody.getTransactionValidDuration()).willReturn(Duration.getDefaultInstance());
 
 		given(recentHistory.currentDuplicityFor(anyLong())).willReturn(BELIEVED_UNIQUE);
@@ -237,6 +259,185 @@ class AwareProcessLogicTest {
 		verify(mockLog).warn(argThat((String s) -> s.startsWith("Ignoring a transaction submitted by zero-stake")));
 	}
 
+	@Test
+	public void chargesDiscountedFeesAndSetsBusyWhenThrottledAtConsensus() {
+		// setup:
+		final Instant now = Instant.now();
+		final Instant then = now.minusMillis(10L);
+		final IssEventInfo eventInfo = mock(IssEventInfo.class);
+		given(eventInfo.status()).willReturn(NO_KNOWN_ISS);
+
+		given(ctx.consensusTimeOfLastHandledTxn()).willReturn(then);
+		given(ctx.issEventInfo()).willReturn(eventInfo);
+		given(txnCtx.consensusTime()).willReturn(now);
+		given(txnCtx.accessor().getFunction()).willReturn(CryptoTransfer);
+		given(consensusThrottling.shouldThrottle(CryptoTransfer, now)).willReturn(true);
+		given(policy.applyForThrottled(any(), any())).willReturn(ResponseCodeEnum.OK);
+
+		// when:
+		subject.incorporateConsensusTxn(platformTxn, now, 1);
+
+		// then:
+		verify(policy).applyForThrottled(any(), any());
+		verify(policy, never()).apply(any(), any());
+		verify(txnCtx).setStatus(BUSY);
+	}
+
+	@Test
+	public void reconcilesGasUsedIfSubmittedByThisNode() {
+		// setup:
+		final TransactionRecord record = contractCallRecordUsing(30_000L);
+		givenContractCallAt(Instant.now(), record);
+		given(txnCtx.submittingSwirldsMember()).willReturn(1L);
+
+		// when:
+		subject.incorporateConsensusTxn(platformTxn, txnCtx.consensusTime(), 1);
+
+		// then:
+		verify(txnThrottling).reconcileGasUsed(txnBody, 30_000L);
+	}
+
+	@Test
+	public void doesntReconcileGasUsedIfSubmittedByOtherNode() {
+		// setup:
+		final TransactionRecord record = contractCallRecordUsing(30_000L);
+		givenContractCallAt(Instant.now(), record);
+		given(txnCtx.submittingSwirldsMember()).willReturn(2L);
+
+		// when:
+		subject.incorporateConsensusTxn(platformTxn, txnCtx.consensusTime(), 1);
+
+		// then:
+		verify(txnThrottling, never()).reconcileGasUsed(any(), anyLong());
+	}
+
+	@Test
+	public void doesntReconcileGasUsedIfPayerIsThrottleExempt() {
+		// setup:
+		final TransactionRecord record = contractCallRecordUsing(30_000L);
+		givenContractCallAt(Instant.now(), record);
+		given(txnCtx.submittingSwirldsMember()).willReturn(1L);
+		given(txnBody.getTransactionID().getAccountID()).willReturn(IdUtils.asAccount("0.0.2"));
+
+		// when:
+		subject.incorporateConsensusTxn(platformTxn, txnCtx.consensusTime(), 1);
+
+		// then:
+		verify(txnThrottling, never()).reconcileGasUsed(any(), anyLong());
+	}
+
+	@Test
+	public void refundsAllGasOfferedIfSubmittedByThisNodeButThrottledAtConsensus() {
+		// setup:
+		final Instant now = Instant.now();
+		givenContractCallAt(now, contractCallRecordUsing(30_000L));
+		given(txnCtx.submittingSwirldsMember()).willReturn(1L);
+		given(txnCtx.accessor().getFunction()).willReturn(ContractCall);
+		given(consensusThrottling.shouldThrottle(ContractCall, now)).willReturn(true);
+		given(policy.applyForThrottled(any(), any())).willReturn(ResponseCodeEnum.OK);
+
+		// when:
+		subject.incorporateConsensusTxn(platformTxn, now, 1);
+
+		// then:
+		verify(txnCtx).setStatus(BUSY);
+		verify(contracts, never()).contractCall(any(), any(), any());
+		verify(txnThrottling).reconcileGasUsed(txnBody, 0L);
+	}
+
+	@Test
+	public void refundsAllGasOfferedIfSubmittedByThisNodeButPayerCannotBeCharged() {
+		// setup:
+		final Instant now = Instant.now();
+		givenContractCallAt(now, contractCallRecordUsing(30_000L));
+		given(txnCtx.submittingSwirldsMember()).willReturn(1L);
+		given(policy.apply(any(), any())).willReturn(INSUFFICIENT_PAYER_BALANCE);
+
+		// when:
+		subject.incorporateConsensusTxn(platformTxn, now, 1);
+
+		// then:
+		verify(txnCtx).setStatus(INSUFFICIENT_PAYER_BALANCE);
+		verify(contracts, never()).contractCall(any(), any(), any());
+		verify(txnThrottling).reconcileGasUsed(txnBody, 0L);
+	}
+
+	@Test
+	public void refundsAllGasOfferedIfSubmittedByThisNodeButProcessingFails() {
+		// setup:
+		final Instant now = Instant.now();
+		givenContractCallAt(now, contractCallRecordUsing(30_000L));
+		given(txnCtx.submittingSwirldsMember()).willReturn(1L);
+		given(policy.apply(any(), any())).willThrow(IllegalStateException.class);
+
+		// when:
+		subject.incorporateConsensusTxn(platformTxn, now, 1);
+
+		// then:
+		verify(txnThrottling).reconcileGasUsed(txnBody, 0L);
+	}
+
+	@Test
+	public void doesntRefundGasOfferedIfSubmittedByOtherNodeAndThrottledAtConsensus() {
+		// setup:
+		final Instant now = Instant.now();
+		givenContractCallAt(now, contractCallRecordUsing(30_000L));
+		given(txnCtx.submittingSwirldsMember()).willReturn(2L);
+		given(txnCtx.accessor().getFunction()).willReturn(ContractCall);
+		given(consensusThrottling.shouldThrottle(ContractCall, now)).willReturn(true);
+		given(policy.applyForThrottled(any(), any())).willReturn(ResponseCodeEnum.OK);
+
+		// when:
+		subject.incorporateConsensusTxn(platformTxn, now, 1);
+
+		// then:
+		verify(txnThrottling, never()).reconcileGasUsed(any(), anyLong());
+	}
+
+	private void givenContractCallAt(Instant now, TransactionRecord record) {
+		final IssEventInfo eventInfo = mock(IssEventInfo.class);
+		given(eventInfo.status()).willReturn(NO_KNOWN_ISS);
+
+		given(ctx.consensusTimeOfLastHandledTxn()).willReturn(now.minusMillis(10L));
+		given(ctx.issEventInfo()).willReturn(eventInfo);
+		given(txnCtx.consensusTime()).willReturn(now);
+		given(txnBody.hasContractCall()).willReturn(true);
+		given(txnBody.getContractCall()).willReturn(ContractCallTransactionBody.newBuilder().setGas(100_000L).build());
+		given(contracts.contractCall(any(), any(), any())).willReturn(record);
+	}
+
+	private TransactionRecord contractCallRecordUsing(long gasUsed) {
+		return TransactionRecord.newBuilder()
+				.setReceipt(TransactionReceipt.newBuilder()
+						.setStatus(ResponseCodeEnum.SUCCESS)
+						.setExchangeRate(ExchangeRateSet.getDefaultInstance()))
+				.setContractCallResult(ContractFunctionResult.newBuilder().setGasUsed(gasUsed))
+				.build();
+	}
+
+	@Test
+	public void reportsChargingFailureWhenThrottledAtConsensus() {
+		// setup:
+		final Instant now = Instant.now();
+		final Instant then = now.minusMillis(10L);
+		final IssEventInfo eventInfo = mock(IssEventInfo.class);
+		given(eventInfo.status()).willReturn(NO_KNOWN_ISS);
+
+		given(ctx.consensusTimeOfLastHandledTxn()).willReturn(then);
+		given(ctx.issEventInfo()).willReturn(eventInfo);
+		given(txnCtx.consensusTime()).willReturn(now);
+		given(txnCtx.accessor().getFunction()).willReturn(CryptoTransfer);
+		given(consensusThrottling.shouldThrottle(CryptoTransfer, now)).willReturn(true);
+		given(policy.applyForThrottled(any(), any())).willReturn(INSUFFICIENT_PAYER_BALANCE);
+
+		// when:
+		subject.incorporateConsensusTxn(platformTxn, now, 1);
+
+		// then:
+		verify(txnCtx).setStatus(INSUFFICIENT_PAYER_BALANCE);
+		verify(txnCtx, never()).setStatus(BUSY);
+	}
+
 	@Test
 	@DisplayName("incorporateConsensusTxn assigns a failure due to memo size for ContractCreateInstance")
 	public void shortCircuitsOnMemoSizeForContractCreate() {
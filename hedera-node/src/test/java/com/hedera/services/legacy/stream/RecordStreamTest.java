@@ -0,0 +1,324 @@
+package com.hedera.services.legacy.stream;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2020 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.google.protobuf.ByteString;
+import com.hedera.services.context.properties.PropertySource;
+import com.hedera.services.stats.MiscRunningAvgs;
+import com.hederahashgraph.api.proto.java.Transaction;
+import com.hederahashgraph.api.proto.java.TransactionRecord;
+import com.swirlds.common.Platform;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static com.hedera.test.utils.IdUtils.asAccount;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@RunWith(JUnitPlatform.class)
+class RecordStreamTest {
+	long logPeriod = 2L;
+	byte[] pretendSig = "not-really-a-sig".getBytes();
+	Instant firstPeriod = Instant.ofEpochSecond(1_600_000_000L);
+	Instant secondPeriod = firstPeriod.plusSeconds(logPeriod);
+
+	@TempDir
+	Path tmpDir;
+
+	Platform platform;
+	MiscRunningAvgs runningAvgs;
+	PropertySource properties;
+	ExecutorService fileCompletion;
+
+	RecordStream subject;
+
+	@BeforeEach
+	void setup() {
+		platform = mock(Platform.class);
+		given(platform.sign(any())).willReturn(pretendSig);
+		runningAvgs = mock(MiscRunningAvgs.class);
+		properties = mock(PropertySource.class);
+		given(properties.getLongProperty("hedera.recordStream.logPeriod")).willReturn(logPeriod);
+		fileCompletion = Executors.newSingleThreadExecutor();
+
+		subject = new RecordStream(
+				platform,
+				runningAvgs,
+				asAccount("0.0.3"),
+				tmpDir.toString(),
+				properties,
+				fileCompletion);
+	}
+
+	@AfterEach
+	void cleanup() {
+		fileCompletion.shutdownNow();
+	}
+
+	@Test
+	public void writesOneBatchPerDrainAndClosesFileOnNewPeriod() throws Exception {
+		// given:
+		subject.addRecord(txn(1), record(1), firstPeriod);
+		subject.addRecord(txn(2), record(2), firstPeriod.plusMillis(1));
+		subject.addRecord(txn(3), record(3), secondPeriod);
+
+		// when:
+		subject.writeNextBatch();
+		awaitCompletion();
+
+		// then:
+		assertEquals(0, subject.getRecordStreamQueueSize());
+		verify(runningAvgs).recordStreamQueueSize(2);
+		// and:
+		var sigFiles = sigFiles();
+		assertEquals(1, sigFiles.size());
+		var sigFile = sigFiles.get(0);
+		var recordFile = recordFileFor(sigFile);
+		assertTrue(recordFile.getName().startsWith(firstPeriod.toString().replace(":", "_")));
+		assertArrayEquals(pretendSig, RecordStream.parseSigFile(sigFile).getRight());
+		assertArrayEquals(
+				expectedHash(Files.readAllBytes(recordFile.toPath())),
+				RecordStream.getFileHashFromSigFile(sigFile));
+	}
+
+	@Test
+	public void chainsFileHashesAndCompletesOnFreeze() throws Exception {
+		// given:
+		subject.addRecord(txn(1), record(1), firstPeriod);
+		subject.addRecord(txn(2), record(2), secondPeriod);
+		subject.writeNextBatch();
+		// and:
+		subject.setInFreeze(true);
+
+		// when:
+		subject.writeNextBatch();
+
+		// then:
+		var sigFiles = sigFiles();
+		assertEquals(2, sigFiles.size());
+		var firstHash = RecordStream.getFileHashFromSigFile(sigFiles.get(0));
+		var secondContents = Files.readAllBytes(recordFileFor(sigFiles.get(1)).toPath());
+		assertArrayEquals(firstHash, Arrays.copyOfRange(secondContents, 9, 57));
+		assertArrayEquals(
+				expectedHash(secondContents),
+				RecordStream.getFileHashFromSigFile(sigFiles.get(1)));
+	}
+
+	@Test
+	public void resumesHashChainFromLastSigFile() throws Exception {
+		// given:
+		subject.addRecord(txn(1), record(1), firstPeriod);
+		subject.writeNextBatch();
+		subject.setInFreeze(true);
+		subject.writeNextBatch();
+		var lastHash = RecordStream.getFileHashFromSigFile(sigFiles().get(0));
+
+		// when:
+		subject = new RecordStream(
+				platform,
+				runningAvgs,
+				asAccount("0.0.3"),
+				tmpDir.toString(),
+				properties,
+				fileCompletion);
+		subject.addRecord(txn(2), record(2), secondPeriod);
+		subject.writeNextBatch();
+		subject.setInFreeze(true);
+		subject.writeNextBatch();
+
+		// then:
+		var secondContents = Files.readAllBytes(recordFileFor(sigFiles().get(1)).toPath());
+		assertArrayEquals(lastHash, Arrays.copyOfRange(secondContents, 9, 57));
+	}
+
+	@Test
+	public void writesSameFileForPreSerializedRecords() throws Exception {
+		// given:
+		subject.addRecord(txn(1), record(1), firstPeriod);
+		subject.addRecord(txn(2), record(2), firstPeriod.plusMillis(1));
+		subject.writeNextBatch();
+		subject.setInFreeze(true);
+		subject.writeNextBatch();
+		var expectedContents = Files.readAllBytes(recordFileFor(sigFiles().get(0)).toPath());
+		// and:
+		subject = new RecordStream(
+				platform,
+				runningAvgs,
+				asAccount("0.0.3"),
+				tmpDir.resolve("serialized").toString(),
+				properties,
+				fileCompletion);
+
+		// when:
+		subject.addSerializedRecord(txn(1).toByteArray(), record(1).toByteArray(), firstPeriod);
+		subject.addSerializedRecord(txn(2).toByteArray(), record(2).toByteArray(), firstPeriod.plusMillis(1));
+		subject.writeNextBatch();
+		subject.setInFreeze(true);
+		subject.writeNextBatch();
+
+		// then:
+		var serializedRecordDir = tmpDir.resolve("serialized").resolve("record0.0.3").toFile();
+		var actualContents = Files.readAllBytes(Arrays.stream(serializedRecordDir.listFiles())
+				.filter(f -> f.getName().endsWith(".rcd"))
+				.findAny()
+				.get()
+				.toPath());
+		assertArrayEquals(expectedContents, actualContents);
+	}
+
+	@Test
+	public void keepsRecordsAfterFailedOneForNextFile() throws Exception {
+		// given:
+		subject.addRecord(txn(1), record(1), firstPeriod);
+		subject.addSerializedRecord(txn(2).toByteArray(), null, firstPeriod.plusMillis(1));
+		subject.addRecord(txn(3), record(3), firstPeriod.plusMillis(2));
+		subject.addRecord(txn(4), record(4), firstPeriod.plusMillis(3));
+
+		// when:
+		assertThrows(NullPointerException.class, subject::writeNextBatch);
+		subject.close();
+		// and:
+		subject.writeNextBatch();
+		subject.setInFreeze(true);
+		subject.writeNextBatch();
+		awaitCompletion();
+
+		// then:
+		var sigFiles = sigFiles();
+		assertEquals(2, sigFiles.size());
+		var retryPrefix = firstPeriod.plusMillis(2).toString().replace(":", "_");
+		var retryFile = sigFiles.stream()
+				.map(this::recordFileFor)
+				.filter(f -> f.getName().startsWith(retryPrefix))
+				.findAny()
+				.get();
+		var retryContents = new String(Files.readAllBytes(retryFile.toPath()));
+		assertFalse(retryContents.contains("record2"));
+		assertTrue(retryContents.contains("record3"));
+		assertTrue(retryContents.contains("record4"));
+		assertEquals(0, subject.getRecordStreamQueueSize());
+	}
+
+	@Test
+	public void closesButDoesNotSignFileThatCannotBeFlushed() throws Exception {
+		// setup:
+		var stream = mock(FileOutputStream.class);
+		var dos = mock(DataOutputStream.class);
+
+		willThrow(IOException.class).given(dos).flush();
+
+		// when:
+		subject.completeFile(tmpDir.resolve("unflushed.rcd").toString(), stream, dos, new byte[48]);
+
+		// then:
+		verify(dos).close();
+		verify(stream).close();
+		verify(platform, never()).sign(any());
+		assertFalse(tmpDir.resolve("unflushed.rcd_sig").toFile().exists());
+	}
+
+	@Test
+	public void stillSignsFlushedFileThatCannotBeSynced() throws Exception {
+		// setup:
+		var stream = mock(FileOutputStream.class);
+		var channel = mock(FileChannel.class);
+		var dos = mock(DataOutputStream.class);
+
+		given(stream.getChannel()).willReturn(channel);
+		willThrow(IOException.class).given(channel).force(true);
+
+		// when:
+		subject.completeFile(tmpDir.resolve("unsynced.rcd").toString(), stream, dos, new byte[48]);
+
+		// then:
+		verify(dos).close();
+		verify(stream).close();
+		assertTrue(tmpDir.resolve("unsynced.rcd_sig").toFile().exists());
+	}
+
+	private void awaitCompletion() throws InterruptedException {
+		fileCompletion.shutdown();
+		fileCompletion.awaitTermination(5, TimeUnit.SECONDS);
+	}
+
+	private List<File> sigFiles() {
+		return Arrays.stream(tmpDir.resolve("record0.0.3").toFile().listFiles())
+				.filter(RecordStream::isRecordSigFile)
+				.sorted()
+				.collect(Collectors.toList());
+	}
+
+	private File recordFileFor(File sigFile) {
+		var path = sigFile.getPath();
+		return new File(path.substring(0, path.length() - "_sig".length()));
+	}
+
+	/* The legacy check: h[i] = hash(p[i-1] || h[i-1] || hash(c[i-1])) */
+	private byte[] expectedHash(byte[] contents) throws Exception {
+		var contentHash = MessageDigest.getInstance("SHA-384")
+				.digest(Arrays.copyOfRange(contents, 57, contents.length));
+		var md = MessageDigest.getInstance("SHA-384");
+		md.update(Arrays.copyOfRange(contents, 0, 57));
+		md.update(contentHash);
+		return md.digest();
+	}
+
+	private Transaction txn(int i) {
+		return Transaction.newBuilder()
+				.setSignedTransactionBytes(ByteString.copyFromUtf8("txn" + i))
+				.build();
+	}
+
+	private TransactionRecord record(int i) {
+		return TransactionRecord.newBuilder()
+				.setMemo("record" + i)
+				.build();
+	}
+}
@@ -38,13 +38,17 @@ import com.hedera.services.legacy.util.MockStorageWrapper;
 import com.hedera.services.queries.validation.QueryFeeCheck;
 import com.hedera.services.records.RecordCache;
 import com.hedera.services.sigs.verification.PrecheckVerifier;
+import com.hedera.services.throttling.FunctionalityThrottling;
 import com.hedera.services.txns.validation.BasicPrecheck;
 import com.hedera.services.utils.MiscUtils;
+import com.hedera.services.utils.SignedTxnAccessor;
 import com.hedera.test.mocks.TestContextValidator;
 import com.hedera.test.mocks.TestFeesFactory;
 import com.hedera.test.mocks.TestProperties;
 import com.hedera.test.utils.IdUtils;
 import com.hederahashgraph.api.proto.java.AccountID;
+import com.hederahashgraph.api.proto.java.ContractCallTransactionBody;
+import com.hederahashgraph.api.proto.java.ContractID;
 import com.hederahashgraph.api.proto.java.Duration;
 import com.hederahashgraph.api.proto.java.FeeData;
 import com.hederahashgraph.api.proto.java.HederaFunctionality;
@@ -99,13 +103,17 @@ import org.mockito.Mock;
 
 import static com.hedera.test.mocks.TestExchangeRates.TEST_EXCHANGE;
 import static com.hedera.test.mocks.TestUsagePricesProvider.TEST_USAGE_PRICES;
+import static com.hederahashgraph.api.proto.java.ResponseCodeEnum.CONTRACT_NEGATIVE_VALUE;
 import static com.hederahashgraph.api.proto.java.ResponseCodeEnum.INVALID_TRANSACTION;
 import static com.hederahashgraph.api.proto.java.ResponseCodeEnum.INVALID_TRANSACTION_BODY;
 import static com.hederahashgraph.api.proto.java.ResponseCodeEnum.NOT_SUPPORTED;
 import static com.hederahashgraph.api.proto.java.ResponseCodeEnum.OK;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 @RunWith(JUnitPlatform.class)
 @TestInstance(Lifecycle.PER_CLASS)
@@ -234,6 +242,21 @@ class PreCheckValidationTest {
 		assert (result.getRequiredFee() == 0L);
 	}
 
+	@Test
+	void testCreateAccountPreCheckPositiveWithParsedAccessor() throws Exception {
+		Transaction origTransaction = createPossibleTransaction();
+
+		Transaction signedTransaction = TransactionSigner.signTransactionWithSignatureMap(origTransaction,
+				Collections.singletonList(payerKeyGenerated.getPrivate()),
+				Collections.singletonList(payerKeyGenerated.getPublic()));
+		SignedTxnAccessor accessor = new SignedTxnAccessor(signedTransaction);
+
+		TxnValidityAndFeeReq result =
+				transactionHandler.validateTransactionPreConsensus(accessor, false);
+		Assertions.assertEquals(OK, result.getValidity());
+		verify(precheckVerifier).hasNecessarySignatures(accessor);
+	}
+
 	@Test
 	void testCreateAccountPreCheckPayerAccountNotFound() throws Exception {
 		Transaction origTransaction = createPossibleTransaction();
@@ -457,6 +480,39 @@ class PreCheckValidationTest {
 		assert (result.getRequiredFee() == 0L);
 	}
 
+	@Test
+	void rejectsContractCallWithNegativeValueBeforeChargingGasOffered() throws Exception {
+		TransactionBody trBody = CommonUtils.extractTransactionBody(createPossibleTransaction());
+		trBody = trBody.toBuilder()
+				.setContractCall(ContractCallTransactionBody.newBuilder()
+						.setContractID(ContractID.newBuilder().setContractNum(1001))
+						.setGas(100_000L)
+						.setAmount(-1L))
+				.build();
+		Transaction origTransaction = Transaction.newBuilder().setBodyBytes(trBody.toByteString()).build();
+		long correctFee = getCalculatedTransactionFee(origTransaction,
+				Collections.singletonList(payerKeyGenerated.getPrivate()),
+				Collections.singletonList(payerKeyGenerated.getPublic()), transactionHandler);
+		trBody = trBody.toBuilder().setTransactionFee(correctFee).build();
+		origTransaction = origTransaction.toBuilder().setBodyBytes(trBody.toByteString()).build();
+
+		Transaction signedTransaction = TransactionSigner.signTransactionWithSignatureMap(origTransaction,
+				Collections.singletonList(payerKeyGenerated.getPrivate()),
+				Collections.singletonList(payerKeyGenerated.getPublic()));
+		assert (signedTransaction != null);
+
+		FunctionalityThrottling throttling = mock(FunctionalityThrottling.class);
+		transactionHandler.setThrottling(throttling);
+		try {
+			TxnValidityAndFeeReq result =
+					transactionHandler.validateTransactionPreConsensus(signedTransaction, false);
+			Assertions.assertEquals(CONTRACT_NEGATIVE_VALUE, result.getValidity());
+			verify(throttling, never()).shouldThrottleGas(any(), anyLong());
+		} finally {
+			transactionHandler.setThrottling(function -> false);
+		}
+	}
+
 	@Test
 	void testCreateDuplicate() throws Exception {
 		Transaction origTransaction = createPossibleTransaction();
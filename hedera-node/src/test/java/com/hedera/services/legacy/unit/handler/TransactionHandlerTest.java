@@ -39,19 +39,24 @@ import com.hedera.services.throttling.FunctionalityThrottling;
 import com.hedera.services.throttling.TransactionThrottling;
 import com.hedera.services.txns.validation.BasicPrecheck;
 import com.hederahashgraph.api.proto.java.AccountID;
+import com.hederahashgraph.api.proto.java.ContractCallTransactionBody;
 import com.hederahashgraph.api.proto.java.Transaction;
+import com.hederahashgraph.api.proto.java.TransactionBody;
 import com.hederahashgraph.api.proto.java.TransactionID;
 import com.swirlds.common.Platform;
 import com.swirlds.common.PlatformStatus;
 import com.swirlds.fcmap.FCMap;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 import org.junit.platform.runner.JUnitPlatform;
 import org.junit.runner.RunWith;
 
 import java.util.function.Supplier;
 
+import static com.hedera.test.utils.IdUtils.asAccount;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 @RunWith(JUnitPlatform.class)
@@ -115,4 +120,32 @@ public class TransactionHandlerTest {
 				new StandardExemptions(new MockAccountNumbers(), policies),
 				platformStatus);
 	}
+
+	@Test
+	public void refundsGasOfferedToNonExemptPayer() {
+		// given:
+		var txn = contractCallPaidBy(asAccount("0.0.1001"));
+
+		// when:
+		subject.refundGasOffered(txn);
+
+		// then:
+		verify(txnThrottling).refundGasOffered(txn);
+	}
+
+	@Test
+	public void doesntRefundGasOfferedToThrottleExemptPayer() {
+		// when:
+		subject.refundGasOffered(contractCallPaidBy(asAccount("0.0.2")));
+
+		// then:
+		verify(txnThrottling, never()).refundGasOffered(any());
+	}
+
+	private TransactionBody contractCallPaidBy(AccountID payer) {
+		return TransactionBody.newBuilder()
+				.setTransactionID(TransactionID.newBuilder().setAccountID(payer))
+				.setContractCall(ContractCallTransactionBody.newBuilder().setGas(100_000L))
+				.build();
+	}
 }
@@ -34,6 +34,7 @@ import static org.mockito.Mockito.when;
 
 import com.google.common.cache.CacheBuilder;
 import com.google.protobuf.ByteString;
+import com.hedera.services.contracts.execution.SignedStateSnapshots;
 import com.hedera.services.config.MockAccountNumbers;
 import com.hedera.services.config.MockEntityNumbers;
 import com.hedera.services.config.MockGlobalDynamicProps;
@@ -109,6 +110,7 @@ import java.util.Map;
 
 import net.i2p.crypto.eddsa.EdDSAPublicKey;
 import net.i2p.crypto.eddsa.KeyPairGenerator;
+import org.ethereum.config.CommonConfig;
 import org.ethereum.core.AccountState;
 import org.ethereum.datasource.DbSource;
 import org.ethereum.datasource.Source;
@@ -294,7 +296,9 @@ public class SmartContractServiceImplTest {
 				SolidityLifecycleFactory.newTestInstance(),
 				ignore -> true,
 				null,
-				new MockGlobalDynamicProps());
+				new MockGlobalDynamicProps(),
+				CommonConfig.getDefault(),
+				new SignedStateSnapshots(null, null));
 
 		genKpair = new KeyPairGenerator().generateKeyPair();
 		genPubKey = ((EdDSAPublicKey) genKpair.getPublic()).getAbyte();
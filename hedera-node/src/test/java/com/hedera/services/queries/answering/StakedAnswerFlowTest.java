@@ -252,7 +252,7 @@ class StakedAnswerFlowTest {
 				argThat(view::equals),
 				argThat(at::equals),
 				any())).willReturn(costs);
-		given(legacyHandler.validateTransactionPreConsensus(userTxn, true))
+		given(legacyHandler.validateTransactionPreConsensus(accessorFor(userTxn), eq(true)))
 				.willReturn(new TxnValidityAndFeeReq(INVALID_ACCOUNT_ID));
 		given(service.responseGiven(query, view, INVALID_ACCOUNT_ID, 6)).willReturn(response);
 
@@ -280,7 +280,7 @@ class StakedAnswerFlowTest {
 				argThat(view::equals),
 				argThat(at::equals),
 				any())).willReturn(zeroCosts);
-		given(legacyHandler.validateTransactionPreConsensus(userTxn, true))
+		given(legacyHandler.validateTransactionPreConsensus(accessorFor(userTxn), eq(true)))
 				.willReturn(new TxnValidityAndFeeReq(INVALID_ACCOUNT_ID));
 		given(service.responseGiven(query, view, INVALID_ACCOUNT_ID, 6)).willReturn(response);
 
@@ -289,7 +289,7 @@ class StakedAnswerFlowTest {
 
 		// then:
 		verify(service, times(2)).requiresNodePayment(query);
-		verify(legacyHandler, never()).validateTransactionPreConsensus(any(), anyBoolean());
+		verify(legacyHandler, never()).validateTransactionPreConsensus(any(SignedTxnAccessor.class), anyBoolean());
 	}
 
 	@Test
@@ -307,7 +307,7 @@ class StakedAnswerFlowTest {
 				argThat(view::equals),
 				argThat(at::equals),
 				any())).willReturn(costs);
-		given(legacyHandler.validateTransactionPreConsensus(userTxn, true))
+		given(legacyHandler.validateTransactionPreConsensus(accessorFor(userTxn), eq(true)))
 				.willReturn(new TxnValidityAndFeeReq(OK));
 		given(legacyHandler.nodePaymentValidity(userTxn, 6)).willReturn(INSUFFICIENT_PAYER_BALANCE);
 		given(service.responseGiven(query, view, INSUFFICIENT_PAYER_BALANCE, 6)).willReturn(response);
@@ -336,7 +336,7 @@ class StakedAnswerFlowTest {
 				argThat(view::equals),
 				argThat(at::equals),
 				any())).willReturn(costs);
-		given(legacyHandler.validateTransactionPreConsensus(userTxn, true))
+		given(legacyHandler.validateTransactionPreConsensus(accessorFor(userTxn), eq(true)))
 				.willReturn(new TxnValidityAndFeeReq(OK));
 		given(legacyHandler.nodePaymentValidity(userTxn, 6)).willReturn(OK);
 		given(service.responseGiven(
@@ -370,7 +370,7 @@ class StakedAnswerFlowTest {
 				argThat(view::equals),
 				argThat(at::equals),
 				any())).willReturn(costs);
-		given(legacyHandler.validateTransactionPreConsensus(userTxn, true))
+		given(legacyHandler.validateTransactionPreConsensus(accessorFor(userTxn), eq(true)))
 				.willReturn(new TxnValidityAndFeeReq(OK));
 		given(legacyHandler.nodePaymentValidity(userTxn, 6)).willReturn(OK);
 		given(submissionManager.trySubmission(any())).willReturn(PLATFORM_TRANSACTION_NOT_CREATED);
@@ -384,4 +384,8 @@ class StakedAnswerFlowTest {
 		verify(service, times(2)).requiresNodePayment(query);
 		verify(submissionManager).trySubmission(any());
 	}
+
+	private SignedTxnAccessor accessorFor(Transaction txn) {
+		return argThat(accessor -> txn.equals(accessor.getSignedTxn()));
+	}
 }
@@ -27,6 +27,7 @@ import com.hedera.services.state.expiry.ExpiringCreations;
 import com.hedera.services.state.expiry.ExpiryManager;
 import com.hedera.services.state.merkle.MerkleAccount;
 import com.hedera.services.state.merkle.MerkleEntityId;
+import com.hedera.services.state.merkle.MerkleNetworkContext;
 import com.hedera.services.state.submerkle.ExpirableTxnRecord;
 import com.hedera.services.utils.PlatformTxnAccessor;
 import com.hederahashgraph.api.proto.java.AccountID;
@@ -90,6 +91,7 @@ public class TxnAwareRecordsHistorianTest {
 	private ExpiringCreations creator;
 	private TransactionContext txnCtx;
 	private FCMap<MerkleEntityId, MerkleAccount> accounts;
+	private MerkleNetworkContext networkCtx;
 
 	private TxnAwareRecordsHistorian subject;
 
@@ -128,7 +130,7 @@ public class TxnAwareRecordsHistorianTest {
 		subject.reviewExistingRecords();
 
 		// then:
-		verify(expiries).resumeTrackingFrom(accounts);
+		verify(expiries).resumeTrackingFrom(accounts, networkCtx);
 	}
 
 	@Test
@@ -173,6 +175,7 @@ public class TxnAwareRecordsHistorianTest {
 		given(txnCtx.effectivePayer()).willReturn(effPayer);
 
 		accounts = mock(FCMap.class);
+		networkCtx = mock(MerkleNetworkContext.class);
 
 		recordCache = mock(RecordCache.class);
 
@@ -180,6 +183,7 @@ public class TxnAwareRecordsHistorianTest {
 				recordCache,
 				txnCtx,
 				() -> accounts,
+				() -> networkCtx,
 				expiries);
 		subject.setLedger(ledger);
 		subject.setCreator(creator);
@@ -197,6 +201,7 @@ public class TxnAwareRecordsHistorianTest {
 				recordCache,
 				txnCtx,
 				() -> accounts,
+				() -> networkCtx,
 				expiries);
 		subject.setLedger(ledger);
 	}
@@ -0,0 +1,273 @@
+package com.hedera.services.sigs.verification;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2020 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.swirlds.common.crypto.TransactionSignature;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeout;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.*;
+
+@RunWith(JUnitPlatform.class)
+class BatchingSyncVerifierTest {
+	List<List<TransactionSignature>> delegateCalls = Collections.synchronizedList(new ArrayList<>());
+	SyncVerifier recordingDelegate = delegateCalls::add;
+
+	TransactionSignature blocker = mock(TransactionSignature.class);
+	CountDownLatch blockerEntered = new CountDownLatch(1);
+	CountDownLatch releaseBlocker = new CountDownLatch(1);
+	ExecutorService blockingCaller = Executors.newSingleThreadExecutor();
+
+	BatchingSyncVerifier subject;
+
+	@AfterEach
+	public void releaseBlockedCaller() {
+		releaseBlocker.countDown();
+		blockingCaller.shutdown();
+	}
+
+	@Test
+	public void ignoresEmptyLists() {
+		// setup:
+		var delegate = mock(SyncVerifier.class);
+
+		// given:
+		subject = new BatchingSyncVerifier(delegate, 2, 1_000L, 1);
+
+		// when:
+		subject.verifySync(Collections.emptyList());
+
+		// then:
+		verify(delegate, never()).verifySync(any());
+	}
+
+	@Test
+	public void verifiesLoneRequestOnCallerThreadWithoutLinger() {
+		// setup:
+		var sigs = List.of(mock(TransactionSignature.class));
+		List<Thread> verifyingThreads = new ArrayList<>();
+		SyncVerifier delegate = unknownSigs -> {
+			verifyingThreads.add(Thread.currentThread());
+			delegateCalls.add(unknownSigs);
+		};
+
+		// given:
+		subject = new BatchingSyncVerifier(delegate, 64, 60_000_000L, 1);
+
+		// when:
+		assertTimeout(Duration.ofSeconds(5), () -> subject.verifySync(sigs));
+
+		// then:
+		assertEquals(List.of(Thread.currentThread()), verifyingThreads);
+		assertSame(sigs, delegateCalls.get(0));
+	}
+
+	@Test
+	public void combinesConcurrentRequestsIntoOneBatch() throws Exception {
+		// setup:
+		int numCallers = 4;
+		var barrier = new CyclicBarrier(numCallers);
+		ExecutorService callers = Executors.newFixedThreadPool(numCallers);
+		List<Future<?>> done = new ArrayList<>();
+
+		// given:
+		subject = new BatchingSyncVerifier(blockingThen(recordingDelegate), numCallers, 5_000_000L, 1);
+		var inFlight = occupyVerifier();
+
+		// when:
+		for (int i = 0; i < numCallers; i++) {
+			done.add(callers.submit(() -> {
+				barrier.await();
+				subject.verifySync(List.of(mock(TransactionSignature.class)));
+				return null;
+			}));
+		}
+		for (Future<?> f : done) {
+			f.get(5, TimeUnit.SECONDS);
+		}
+		callers.shutdown();
+		releaseBlocker.countDown();
+		inFlight.get(5, TimeUnit.SECONDS);
+
+		// then:
+		assertEquals(1, delegateCalls.size());
+		assertEquals(numCallers, delegateCalls.get(0).size());
+	}
+
+	@Test
+	public void closesBatchOnceFull() throws Exception {
+		// setup:
+		var verified = new CountDownLatch(1);
+		SyncVerifier delegate = sigs -> {
+			delegateCalls.add(sigs);
+			verified.countDown();
+		};
+
+		// given:
+		subject = new BatchingSyncVerifier(blockingThen(delegate), 2, 60_000_000L, 1);
+		occupyVerifier();
+
+		// when:
+		subject.verifySync(List.of(mock(TransactionSignature.class), mock(TransactionSignature.class)));
+
+		// then:
+		assertTrue(verified.await(5, TimeUnit.SECONDS));
+		assertEquals(2, delegateCalls.get(0).size());
+	}
+
+	@Test
+	public void propagatesDelegateFailureToCaller() {
+		// setup:
+		var failure = new IllegalStateException("Bad crypto!");
+		SyncVerifier delegate = sigs -> {
+			throw failure;
+		};
+
+		// given:
+		subject = new BatchingSyncVerifier(delegate, 64, 0L, 1);
+
+		// when:
+		var thrown = assertThrows(
+				IllegalStateException.class,
+				() -> subject.verifySync(List.of(mock(TransactionSignature.class))));
+
+		// then:
+		assertSame(failure, thrown);
+	}
+
+	@Test
+	public void propagatesDelegateErrorToCallerInsteadOfBlockingIt() throws Exception {
+		// setup:
+		var failure = new AssertionError("Really bad crypto!");
+		SyncVerifier delegate = sigs -> {
+			throw failure;
+		};
+
+		// given:
+		subject = new BatchingSyncVerifier(blockingThen(delegate), 64, 0L, 1);
+		occupyVerifier();
+
+		// when:
+		var thrown = assertTimeoutPreemptively(Duration.ofSeconds(5), () -> assertThrows(
+				AssertionError.class,
+				() -> subject.verifySync(List.of(mock(TransactionSignature.class)))));
+
+		// then:
+		assertSame(failure, thrown);
+	}
+
+	@Test
+	public void verifiesEachRequestAloneIfBatchFails() throws Exception {
+		// setup:
+		var good = mock(TransactionSignature.class);
+		var bad = mock(TransactionSignature.class);
+		var failure = new IllegalArgumentException("Malformed sig!");
+		SyncVerifier delegate = sigs -> {
+			delegateCalls.add(sigs);
+			if (sigs.contains(bad)) {
+				throw failure;
+			}
+		};
+		var barrier = new CyclicBarrier(2);
+		ExecutorService callers = Executors.newFixedThreadPool(2);
+
+		// given:
+		subject = new BatchingSyncVerifier(blockingThen(delegate), 2, 5_000_000L, 1);
+		occupyVerifier();
+
+		// when:
+		Future<?> goodDone = callers.submit(() -> {
+			barrier.await();
+			subject.verifySync(List.of(good));
+			return null;
+		});
+		Future<?> badDone = callers.submit(() -> {
+			barrier.await();
+			subject.verifySync(List.of(bad));
+			return null;
+		});
+
+		// then:
+		goodDone.get(5, TimeUnit.SECONDS);
+		var thrown = assertThrows(ExecutionException.class, () -> badDone.get(5, TimeUnit.SECONDS));
+		assertSame(failure, thrown.getCause());
+		// and:
+		assertEquals(3, delegateCalls.size());
+		assertEquals(2, delegateCalls.get(0).size());
+		assertTrue(delegateCalls.contains(List.of(good)));
+		assertTrue(delegateCalls.contains(List.of(bad)));
+		callers.shutdown();
+	}
+
+	@Test
+	public void sanitizesTunables() {
+		// given:
+		subject = new BatchingSyncVerifier(recordingDelegate, 0, -1L, 0);
+
+		// when:
+		subject.verifySync(List.of(mock(TransactionSignature.class)));
+
+		// then:
+		assertEquals(1, delegateCalls.size());
+	}
+
+	/* Starts a verification that stays in flight until released, so later callers are batched. */
+	private Future<?> occupyVerifier() throws InterruptedException {
+		var inFlight = blockingCaller.submit(() -> subject.verifySync(List.of(blocker)));
+		assertTrue(blockerEntered.await(5, TimeUnit.SECONDS));
+		return inFlight;
+	}
+
+	private SyncVerifier blockingThen(SyncVerifier delegate) {
+		return sigs -> {
+			if (sigs.contains(blocker)) {
+				blockerEntered.countDown();
+				try {
+					releaseBlocker.await();
+				} catch (InterruptedException ignore) {
+					Thread.currentThread().interrupt();
+				}
+			} else {
+				delegate.verifySync(sigs);
+			}
+		};
+	}
+}
@@ -20,6 +20,8 @@ package com.hedera.services.state.expiry;
  * ‍
  */
 
+import com.hedera.services.config.MockGlobalDynamicProps;
+import com.hedera.services.context.properties.GlobalDynamicProperties;
 import com.hedera.services.ledger.HederaLedger;
 import com.hedera.services.legacy.core.jproto.TxnId;
 import com.hedera.services.legacy.core.jproto.TxnReceipt;
@@ -27,6 +29,7 @@ import com.hedera.services.records.RecordCache;
 import com.hedera.services.records.TxnIdRecentHistory;
 import com.hedera.services.state.merkle.MerkleAccount;
 import com.hedera.services.state.merkle.MerkleEntityId;
+import com.hedera.services.state.merkle.MerkleNetworkContext;
 import com.hedera.services.state.submerkle.ExpirableTxnRecord;
 import com.hedera.services.state.submerkle.RichInstant;
 import com.hedera.test.utils.IdUtils;
@@ -41,22 +44,26 @@ import org.junit.runner.RunWith;
 import org.mockito.InOrder;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.stream.Stream;
 
 import static com.hederahashgraph.api.proto.java.ResponseCodeEnum.SUCCESS;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.longThat;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.inOrder;
 import static org.mockito.BDDMockito.mock;
+import static org.mockito.BDDMockito.never;
 import static org.mockito.BDDMockito.verify;
 import static org.mockito.Mockito.times;
 
@@ -73,18 +80,23 @@ class ExpiryManagerTest {
 	HederaLedger ledger;
 	FCMap<MerkleEntityId, MerkleAccount> accounts;
 	Map<TransactionID, TxnIdRecentHistory> txnHistories;
+	GlobalDynamicProperties dynamicProperties;
+	MerkleNetworkContext networkCtx;
 
 	ExpiryManager subject;
 
 	@BeforeEach
 	public void setup() {
 		accounts = new FCMap<>();
+		networkCtx = new MerkleNetworkContext();
 		txnHistories = new HashMap<>();
 		recordCache = mock(RecordCache.class);
 
 		ledger = mock(HederaLedger.class);
 
-		subject = new ExpiryManager(recordCache, txnHistories);
+		dynamicProperties = new MockGlobalDynamicProps();
+
+		subject = new ExpiryManager(recordCache, txnHistories, dynamicProperties);
 	}
 
 	@Test
@@ -95,24 +107,20 @@ class ExpiryManagerTest {
 		givenAccount(a, aPayer);
 		givenAccount(b, bPayer);
 		// given:
-		subject.resumeTrackingFrom(accounts);
+		subject.resumeTrackingFrom(accounts, networkCtx);
 
 		// when:
 		subject.purgeExpiredRecordsAt(33, ledger);
 
 		// then:
 		inOrder.verify(ledger).purgeExpiredRecords(
-				argThat(asAccount(b)::equals),
+				longThat(l -> l == b),
 				longThat(l -> l == 33),
 				any());
 		// and:
 		verify(recordCache).forgetAnyOtherExpiredHistory(33);
 	}
 
-	private AccountID asAccount(long num) {
-		return IdUtils.asAccount(String.format("0.0.%d", num));
-	}
-
 	@Test
 	public void resumesTrackingAsExpected() {
 		givenAccount(a, aPayer);
@@ -121,17 +129,16 @@ class ExpiryManagerTest {
 		// when:
 		txnHistories.clear();
 		// and:
-		subject.resumeTrackingFrom(accounts);
+		subject.resumeTrackingFrom(accounts, networkCtx);
 
 		// then:
-		var e1 = subject.payerExpiries.allExpiries.poll();
-		assertEquals(b, e1.getId());
-		assertEquals(33, e1.getExpiry());
-		var e2 = subject.payerExpiries.allExpiries.poll();
-		assertEquals(a, e2.getId());
-		assertEquals(55, e2.getExpiry());
-		// and:
-		assertTrue(subject.payerExpiries.allExpiries.isEmpty());
+		List<Long> drained = new ArrayList<>();
+		subject.payerExpiries.expireUpTo(55, Integer.MAX_VALUE, (num, second) -> {
+			drained.add(num);
+			drained.add(second);
+		});
+		assertEquals(List.of(b, 33L, a, 55L), drained);
+		assertEquals(0, subject.payerExpiries.numPending());
 		// and:
 		long[] allPayerTs = Stream.of(aPayer, bPayer)
 				.flatMap(a -> Arrays.stream(a).boxed())
@@ -142,6 +149,39 @@ class ExpiryManagerTest {
 		assertTrue(txnHistories.values().stream().noneMatch(TxnIdRecentHistory::isStagePending));
 	}
 
+	@Test
+	public void resumesTrackingFromIndexWithoutScanningUnindexedAccounts() {
+		// setup:
+		long c = 12345, unindexedExpiry = 77;
+		givenAccount(a, aPayer);
+		givenAccount(b, bPayer);
+		givenAccount(c, new long[] { unindexedExpiry });
+		// and:
+		networkCtx.setPayerExpiries(new long[] { 33, b, 55, a });
+
+		// when:
+		subject.resumeTrackingFrom(accounts, networkCtx);
+
+		// then:
+		assertArrayEquals(new long[] { 33, b, 55, a }, subject.pendingPayerExpiries());
+		// and:
+		verify(txnHistories.get(txnIdOf(aPayer[0]).toGrpc())).stage(any());
+		verify(txnHistories.get(txnIdOf(bPayer[0]).toGrpc())).stage(any());
+		verify(txnHistories.get(txnIdOf(unindexedExpiry).toGrpc()), never()).stage(any());
+	}
+
+	@Test
+	public void scansAllAccountsToIndexWhenNoIndexSaved() {
+		givenAccount(a, aPayer);
+		givenAccount(b, bPayer);
+
+		// when:
+		subject.resumeTrackingFrom(accounts, networkCtx);
+
+		// then:
+		assertArrayEquals(new long[] { 33, b, 55, a }, subject.pendingPayerExpiries());
+	}
+
 	private void givenAccount(long num, long[] payerExpiries) {
 		var account = new MerkleAccount();
 		for (long t : payerExpiries) {
@@ -268,12 +308,46 @@ class ExpiryManagerTest {
 	@Test
 	public void addsExpectedExpiryForPayer() {
 		// setup:
-		subject.payerExpiries = (MonotonicFullQueueExpiries<Long>) mock(MonotonicFullQueueExpiries.class);
+		subject.payerExpiries = mock(TimingWheelExpiries.class);
 
 		// when:
 		subject.trackRecord(payer, expiry);
 
 		// then:
-		verify(subject.payerExpiries).track(Long.valueOf(13257), expiry);
+		verify(subject.payerExpiries).track(13257L, expiry);
+	}
+
+	@Test
+	public void purgesAtMostBudgetedAccountsPerTxnUpToTheirExpiries() {
+		// setup:
+		InOrder inOrder = inOrder(ledger);
+		dynamicProperties = mock(GlobalDynamicProperties.class);
+		given(dynamicProperties.maxRecordPurgesPerTxn()).willReturn(1);
+		subject = new ExpiryManager(recordCache, txnHistories, dynamicProperties);
+
+		givenAccount(a, aPayer);
+		givenAccount(b, bPayer);
+		// given:
+		subject.resumeTrackingFrom(accounts, networkCtx);
+
+		// when:
+		subject.purgeExpiredRecordsAt(100, ledger);
+
+		// then:
+		inOrder.verify(ledger).purgeExpiredRecords(
+				longThat(l -> l == b),
+				longThat(l -> l == 33),
+				any());
+		verify(ledger, never()).purgeExpiredRecords(longThat(l -> l == a), anyLong(), any());
+
+		// and when:
+		subject.purgeExpiredRecordsAt(101, ledger);
+
+		// then:
+		inOrder.verify(ledger).purgeExpiredRecords(
+				longThat(l -> l == a),
+				longThat(l -> l == 55),
+				any());
+		verify(recordCache).forgetAnyOtherExpiredHistory(101);
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,210 @@
+package com.hedera.services.state.expiry;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2020 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static com.hedera.services.state.expiry.TimingWheelExpiries.WHEEL_SECONDS;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+@RunWith(JUnitPlatform.class)
+class TimingWheelExpiriesTest {
+	List<Long> drained;
+
+	TimingWheelExpiries subject;
+
+	@BeforeEach
+	public void setup() {
+		drained = new ArrayList<>();
+
+		subject = new TimingWheelExpiries();
+	}
+
+	@Test
+	public void drainsInSecondThenNumOrderWithoutDuplicates() {
+		// given:
+		subject.track(3, 100);
+		subject.track(1, 101);
+		subject.track(2, 100);
+		subject.track(3, 100);
+		subject.track(1, 99);
+
+		// when:
+		int used = subject.expireUpTo(100, Integer.MAX_VALUE, this::drain);
+
+		// then:
+		assertEquals(3, used);
+		assertEquals(List.of(1L, 99L, 2L, 100L, 3L, 100L), drained);
+		assertEquals(1, subject.numPending());
+	}
+
+	@Test
+	public void respectsBudgetAcrossCalls() {
+		// given:
+		subject.track(3, 10);
+		subject.track(2, 10);
+		subject.track(1, 11);
+
+		// when:
+		int firstUsed = subject.expireUpTo(20, 2, this::drain);
+		int secondUsed = subject.expireUpTo(20, 2, this::drain);
+		int thirdUsed = subject.expireUpTo(20, 2, this::drain);
+
+		// then:
+		assertEquals(2, firstUsed);
+		assertEquals(1, secondUsed);
+		assertEquals(0, thirdUsed);
+		assertEquals(List.of(2L, 10L, 3L, 10L, 1L, 11L), drained);
+	}
+
+	@Test
+	public void tracksPastSecondsAtCursor() {
+		// given:
+		subject.track(1, 10);
+		subject.expireUpTo(10, Integer.MAX_VALUE, this::drain);
+		drained.clear();
+
+		// when:
+		subject.track(2, 5);
+		subject.expireUpTo(10, Integer.MAX_VALUE, this::drain);
+
+		// then:
+		assertEquals(List.of(2L, 10L), drained);
+	}
+
+	@Test
+	public void cascadesFromOverflowBeyondHorizon() {
+		// given:
+		subject.track(1, 1);
+		subject.expireUpTo(1, Integer.MAX_VALUE, this::drain);
+		drained.clear();
+		// and:
+		long farSecond = 1 + 3L * WHEEL_SECONDS + 7;
+		subject.track(2, farSecond);
+		subject.track(3, WHEEL_SECONDS);
+		subject.track(4, farSecond + 1);
+
+		// when:
+		subject.expireUpTo(farSecond - 1, Integer.MAX_VALUE, this::drain);
+
+		// then:
+		assertEquals(List.of(3L, (long) WHEEL_SECONDS), drained);
+		assertEquals(2, subject.numPending());
+
+		// and when:
+		subject.expireUpTo(farSecond + 1, Integer.MAX_VALUE, this::drain);
+
+		// then:
+		assertEquals(List.of(3L, (long) WHEEL_SECONDS, 2L, farSecond, 4L, farSecond + 1), drained);
+		assertEquals(0, subject.numPending());
+	}
+
+	@Test
+	public void snapshotsDistinctPendingExpiriesInDrainOrder() {
+		// given:
+		subject.track(3, 10);
+		subject.track(2, 10);
+		subject.track(2, 10);
+		subject.track(1, 11);
+		subject.track(4, 10 + 2L * WHEEL_SECONDS);
+		subject.expireUpTo(10, 1, this::drain);
+
+		// when:
+		long[] pending = subject.pendingExpiries();
+
+		// then:
+		assertArrayEquals(new long[] { 10, 3, 11, 1, 10 + 2L * WHEEL_SECONDS, 4 }, pending);
+		assertSame(pending, subject.pendingExpiries());
+
+		// and when:
+		subject.track(5, 11);
+
+		// then:
+		assertArrayEquals(
+				new long[] { 10, 3, 11, 1, 11, 5, 10 + 2L * WHEEL_SECONDS, 4 },
+				subject.pendingExpiries());
+	}
+
+	@Test
+	public void rebuiltWheelDrainsRemainderInSameOrder() {
+		// setup:
+		var random = new Random(42);
+		List<long[]> pairs = new ArrayList<>();
+		for (int i = 0; i < 5_000; i++) {
+			pairs.add(new long[] { random.nextInt(1_000), random.nextInt(2 * WHEEL_SECONDS) });
+		}
+		// and:
+		var live = new TimingWheelExpiries();
+		pairs.forEach(pair -> live.track(pair[0], pair[1]));
+		List<Long> liveDrained = new ArrayList<>();
+		live.expireUpTo(WHEEL_SECONDS, 1_000, (num, second) -> {
+			liveDrained.add(num);
+			liveDrained.add(second);
+		});
+		long lastSecond = liveDrained.get(liveDrained.size() - 1);
+
+		// given:
+		List<long[]> remaining = new ArrayList<>();
+		for (long[] pair : pairs) {
+			if (pair[1] > lastSecond || (pair[1] == lastSecond && !wasDrained(liveDrained, pair))) {
+				remaining.add(pair);
+			}
+		}
+		Collections.shuffle(remaining, random);
+		remaining.forEach(pair -> subject.track(pair[0], pair[1]));
+
+		// when:
+		live.expireUpTo(Long.MAX_VALUE - 1, Integer.MAX_VALUE, (num, second) -> {
+			drained.add(num);
+			drained.add(second);
+		});
+		List<Long> liveRest = new ArrayList<>(drained);
+		drained.clear();
+		subject.expireUpTo(Long.MAX_VALUE - 1, Integer.MAX_VALUE, this::drain);
+
+		// then:
+		assertEquals(liveRest, drained);
+	}
+
+	private boolean wasDrained(List<Long> drained, long[] pair) {
+		for (int i = 0; i < drained.size(); i += 2) {
+			if (drained.get(i) == pair[0] && drained.get(i + 1) == pair[1]) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void drain(long num, long second) {
+		drained.add(num);
+		drained.add(second);
+	}
+}
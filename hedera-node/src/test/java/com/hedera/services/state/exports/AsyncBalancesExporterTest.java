@@ -0,0 +1,210 @@
+package com.hedera.services.state.exports;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2020 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hedera.services.ServicesState;
+import com.hedera.services.context.properties.NodeLocalProperties;
+import com.hedera.services.utils.SystemExits;
+import com.swirlds.common.Platform;
+import com.swirlds.common.StatEntry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.*;
+
+@RunWith(JUnitPlatform.class)
+class AsyncBalancesExporterTest {
+	Instant now = Instant.ofEpochSecond(1_234_567L);
+	Instant later = now.plusSeconds(900);
+	Instant evenLater = later.plusSeconds(900);
+
+	List<Runnable> queued = new ArrayList<>();
+	ServicesState first, second, third;
+	SystemExits systemExits;
+	BalancesExporter delegate;
+	ExecutorService exporter;
+	NodeLocalProperties properties;
+
+	AsyncBalancesExporter subject;
+
+	@BeforeEach
+	public void setup() {
+		first = mock(ServicesState.class);
+		second = mock(ServicesState.class);
+		third = mock(ServicesState.class);
+		delegate = mock(BalancesExporter.class);
+		systemExits = mock(SystemExits.class);
+		properties = mock(NodeLocalProperties.class);
+		given(properties.statsRunningAvgHalfLifeSecs()).willReturn(10.0);
+		exporter = mock(ExecutorService.class);
+		willAnswer(invocation -> queued.add(invocation.getArgument(0))).given(exporter).execute(any());
+
+		subject = new AsyncBalancesExporter(delegate, systemExits, properties, exporter);
+	}
+
+	@Test
+	public void delegatesTimingDecision() {
+		given(delegate.isTimeToExport(now)).willReturn(true);
+
+		// expect:
+		assertTrue(subject.isTimeToExport(now));
+		assertFalse(subject.isTimeToExport(later));
+	}
+
+	@Test
+	public void reservesStateUntilExportFinishes() {
+		// when:
+		subject.toCsvFile(first, now);
+
+		// then:
+		verify(first).incrementReferenceCount();
+		verify(delegate, never()).toCsvFile(any(), any());
+		verify(first, never()).decrementReferenceCount();
+
+		// and when:
+		runQueued();
+
+		// then:
+		var inOrder = inOrder(delegate, first);
+		inOrder.verify(delegate).toCsvFile(first, now);
+		inOrder.verify(first).decrementReferenceCount();
+	}
+
+	@Test
+	public void coalescesPeriodsWhileExportIsBusy() {
+		// given:
+		subject.toCsvFile(first, now);
+
+		// when:
+		subject.toCsvFile(second, later);
+		subject.toCsvFile(third, evenLater);
+		runQueued();
+
+		// then:
+		verify(delegate, never()).toCsvFile(first, now);
+		verify(delegate, never()).toCsvFile(second, later);
+		verify(delegate).toCsvFile(third, evenLater);
+		// and:
+		verify(first).decrementReferenceCount();
+		verify(second).decrementReferenceCount();
+		verify(third).decrementReferenceCount();
+		assertEquals(2L, subject.numSkipped.get());
+		verify(exporter, times(1)).execute(any());
+	}
+
+	@Test
+	public void queuesNextExportBehindRunningOne() {
+		// given:
+		subject.toCsvFile(first, now);
+		willAnswer(invocation -> {
+			subject.toCsvFile(second, later);
+			return null;
+		}).given(delegate).toCsvFile(first, now);
+
+		// when:
+		runQueued();
+
+		// then:
+		verify(delegate).toCsvFile(first, now);
+		verify(delegate).toCsvFile(second, later);
+		assertEquals(0L, subject.numSkipped.get());
+	}
+
+	@Test
+	public void closeReleasesQueuedStateAndClosesDelegate() {
+		// given:
+		subject.toCsvFile(first, now);
+
+		// when:
+		subject.close();
+		runQueued();
+
+		// then:
+		verify(first).decrementReferenceCount();
+		verify(exporter).shutdownNow();
+		verify(delegate).close();
+		verify(delegate, never()).toCsvFile(any(), any());
+	}
+
+	@Test
+	public void failsFastOnInvalidTotalBalance() {
+		// setup:
+		willThrow(IllegalStateException.class).given(delegate).toCsvFile(first, now);
+
+		// when:
+		subject.toCsvFile(first, now);
+		runQueued();
+
+		// then:
+		verify(systemExits).fail(1);
+		verify(first).decrementReferenceCount();
+	}
+
+	@Test
+	public void survivesOtherExportFailures() {
+		// setup:
+		willThrow(UnsupportedOperationException.class).given(delegate).toCsvFile(first, now);
+
+		// when:
+		subject.toCsvFile(first, now);
+		subject.exportWaiting();
+		runQueued();
+
+		// then:
+		verify(systemExits, never()).fail(anyInt());
+		verify(first).decrementReferenceCount();
+	}
+
+	@Test
+	public void registersDurationLagAndSkippedStats() {
+		// setup:
+		var platform = mock(Platform.class);
+
+		// when:
+		subject.registerWith(platform);
+
+		// then:
+		verify(platform, times(3)).addAppStatEntry(any(StatEntry.class));
+	}
+
+	@Test
+	public void constructsWithDaemonExporterThread() {
+		// expect:
+		new AsyncBalancesExporter(delegate, systemExits, properties).toCsvFile(first, now);
+		verify(delegate, timeout(5_000)).toCsvFile(first, now);
+	}
+
+	private void runQueued() {
+		while (!queued.isEmpty()) {
+			queued.remove(0).run();
+		}
+	}
+}
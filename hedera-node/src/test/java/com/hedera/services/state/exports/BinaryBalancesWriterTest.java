@@ -0,0 +1,124 @@
+package com.hedera.services.state.exports;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2020 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hederahashgraph.api.proto.java.CryptoGetAccountBalanceResponse;
+import com.hederahashgraph.api.proto.java.Timestamp;
+import com.hederahashgraph.api.proto.java.TokenBalance;
+import com.hederahashgraph.api.proto.java.TokenBalances;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.zip.GZIPInputStream;
+
+import static com.hedera.services.legacy.proto.utils.CommonUtils.noThrowSha384HashOf;
+import static com.hedera.test.utils.IdUtils.asAccount;
+import static com.hedera.test.utils.IdUtils.asToken;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@RunWith(JUnitPlatform.class)
+class BinaryBalancesWriterTest {
+	Instant now = Instant.ofEpochSecond(1_234_567L, 890);
+	TokenBalance someTokenBalance = TokenBalance.newBuilder()
+			.setTokenId(asToken("0.0.1004"))
+			.setBalance(100L)
+			.build();
+
+	@TempDir
+	Path tmpDir;
+
+	BinaryBalancesWriter subject;
+
+	@Test
+	public void writesDelimitedGzippedEntries() throws Exception {
+		// setup:
+		var loc = tmpDir.resolve("balances.pb.gz").toString();
+
+		// given:
+		subject = new BinaryBalancesWriter(loc, true);
+
+		// when:
+		writeTwoAccounts();
+		var hash = subject.finish();
+
+		// then:
+		try (var in = new GZIPInputStream(Files.newInputStream(Path.of(loc)))) {
+			assertTwoAccountsIn(in);
+		}
+		assertArrayEquals(noThrowSha384HashOf(Files.readAllBytes(Paths.get(loc))), hash);
+	}
+
+	@Test
+	public void writesUncompressedIfNotConfigured() throws Exception {
+		// setup:
+		var loc = tmpDir.resolve("balances.pb").toString();
+
+		// given:
+		subject = new BinaryBalancesWriter(loc, false);
+
+		// when:
+		writeTwoAccounts();
+		var hash = subject.finish();
+
+		// then:
+		try (var in = Files.newInputStream(Path.of(loc))) {
+			assertTwoAccountsIn(in);
+		}
+		assertArrayEquals(noThrowSha384HashOf(Files.readAllBytes(Paths.get(loc))), hash);
+		assertEquals(loc, subject.location());
+	}
+
+	private void writeTwoAccounts() throws IOException {
+		subject.begin(now);
+		subject.append(0, 0, 3, 400L, null);
+		subject.append(0, 0, 1002, 250L, TokenBalances.newBuilder().addTokenBalances(someTokenBalance).build());
+	}
+
+	private void assertTwoAccountsIn(InputStream in) throws IOException {
+		assertEquals(
+				Timestamp.newBuilder().setSeconds(now.getEpochSecond()).setNanos(now.getNano()).build(),
+				Timestamp.parseDelimitedFrom(in));
+		assertEquals(
+				CryptoGetAccountBalanceResponse.newBuilder()
+						.setAccountID(asAccount("0.0.3"))
+						.setBalance(400L)
+						.build(),
+				CryptoGetAccountBalanceResponse.parseDelimitedFrom(in));
+		assertEquals(
+				CryptoGetAccountBalanceResponse.newBuilder()
+						.setAccountID(asAccount("0.0.1002"))
+						.setBalance(250L)
+						.addTokenBalances(someTokenBalance)
+						.build(),
+				CryptoGetAccountBalanceResponse.parseDelimitedFrom(in));
+		assertNull(CryptoGetAccountBalanceResponse.parseDelimitedFrom(in));
+	}
+}
@@ -0,0 +1,121 @@
+package com.hedera.services.state.exports;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2020 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hederahashgraph.api.proto.java.TokenBalance;
+import com.hederahashgraph.api.proto.java.TokenBalances;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.List;
+
+import static com.hedera.services.legacy.proto.utils.CommonUtils.noThrowSha384HashOf;
+import static com.hedera.services.state.exports.CsvBalancesWriter.CURRENT_VERSION;
+import static com.hedera.services.state.exports.CsvBalancesWriter.b64Encode;
+import static com.hedera.test.utils.IdUtils.asToken;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@RunWith(JUnitPlatform.class)
+class CsvBalancesWriterTest {
+	Instant now = Instant.ofEpochSecond(1_234_567L, 890);
+	TokenBalances someTokenBalances = TokenBalances.newBuilder()
+			.addTokenBalances(TokenBalance.newBuilder()
+					.setTokenId(asToken("0.0.1004"))
+					.setBalance(100L))
+			.build();
+
+	@TempDir
+	Path tmpDir;
+
+	CsvBalancesWriter subject;
+
+	@Test
+	public void writesTokenBalancesFormatAndHashesAsWritten() throws Exception {
+		// setup:
+		var loc = tmpDir.resolve("balances.csv").toString();
+
+		// given:
+		subject = new CsvBalancesWriter(loc, true);
+
+		// when:
+		subject.begin(now);
+		subject.append(0, 0, 3, 400L, null);
+		subject.append(0, 0, 1002, 250L, someTokenBalances);
+		var hash = subject.finish();
+
+		// then:
+		assertEquals(List.of(
+				"# " + CURRENT_VERSION,
+				"# TimeStamp:" + now,
+				"shardNum,realmNum,accountNum,balance,tokenBalances",
+				"0,0,3,400,",
+				"0,0,1002,250," + b64Encode(someTokenBalances)
+		), Files.readAllLines(Path.of(loc)));
+		assertArrayEquals(noThrowSha384HashOf(Files.readAllBytes(Paths.get(loc))), hash);
+		assertEquals(loc, subject.location());
+	}
+
+	@Test
+	public void writesLegacyFormatWithoutTokenBalances() throws Exception {
+		// setup:
+		var loc = tmpDir.resolve("balances.csv").toString();
+
+		// given:
+		subject = new CsvBalancesWriter(loc, false);
+
+		// when:
+		subject.begin(now);
+		subject.append(0, 0, 1002, 250L, someTokenBalances);
+		subject.finish();
+
+		// then:
+		assertEquals(List.of(
+				"TimeStamp:" + now,
+				"shardNum,realmNum,accountNum,balance",
+				"0,0,1002,250"
+		), Files.readAllLines(Path.of(loc)));
+	}
+
+	@Test
+	public void abandonClosesQuietly() throws Exception {
+		// setup:
+		var loc = tmpDir.resolve("balances.csv").toString();
+
+		// given:
+		subject = new CsvBalancesWriter(loc, true);
+
+		// when:
+		subject.begin(now);
+		subject.abandon();
+		subject.abandon();
+
+		// then:
+		assertFalse(Files.readAllLines(Path.of(loc)).isEmpty());
+	}
+}
@@ -32,6 +32,8 @@ import com.hedera.services.state.merkle.MerkleToken;
 import com.hedera.services.state.merkle.MerkleTokenRelStatus;
 import com.hedera.test.factories.accounts.MerkleAccountFactory;
 import com.hederahashgraph.api.proto.java.AccountID;
+import com.hederahashgraph.api.proto.java.CryptoGetAccountBalanceResponse;
+import com.hederahashgraph.api.proto.java.Timestamp;
 import com.hederahashgraph.api.proto.java.TokenBalance;
 import com.hederahashgraph.api.proto.java.TokenBalances;
 import com.hederahashgraph.api.proto.java.TokenID;
@@ -42,6 +44,7 @@ import org.apache.logging.log4j.Logger;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.platform.runner.JUnitPlatform;
 import org.junit.runner.RunWith;
 
@@ -51,10 +54,14 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 import java.util.function.UnaryOperator;
+import java.util.zip.GZIPInputStream;
 
+import static com.hedera.services.legacy.proto.utils.CommonUtils.noThrowSha384HashOf;
 import static com.hedera.services.state.exports.SignedStateBalancesExporter.GOOD_SIGNING_ATTEMPT_DEBUG_MSG_TPL;
 import static com.hedera.services.state.exports.SignedStateBalancesExporter.b64Encode;
 import static com.hedera.services.state.merkle.MerkleEntityAssociation.fromAccountTokenRel;
@@ -62,15 +69,20 @@ import static com.hedera.services.state.merkle.MerkleEntityId.fromAccountId;
 import static com.hedera.services.state.merkle.MerkleEntityId.fromTokenId;
 import static com.hedera.test.utils.IdUtils.asAccount;
 import static com.hedera.test.utils.IdUtils.asToken;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 
 @RunWith(JUnitPlatform.class)
 class SignedStateBalancesExporterTest {
@@ -101,7 +113,6 @@ class SignedStateBalancesExporterTest {
 	long secondNonNodeDeletedTokenBalance = 100;
 
 	byte[] sig = "not-really-a-sig".getBytes();
-	byte[] fileHash = "not-really-a-hash".getBytes();
 
 	MerkleAccount thisNodeAccount, anotherNodeAccount, firstNonNodeAccount, secondNonNodeAccount, deletedAccount;
 
@@ -115,7 +126,6 @@ class SignedStateBalancesExporterTest {
 	PropertySource properties;
 	UnaryOperator<byte[]> signer;
 	SigFileWriter sigFileWriter;
-	FileHashReader hashReader;
 	DirectoryAssurance assurance;
 
 	SignedStateBalancesExporter subject;
@@ -178,13 +188,11 @@ class SignedStateBalancesExporterTest {
 		given(state.addressBook()).willReturn(book);
 
 		signer = mock(UnaryOperator.class);
-		given(signer.apply(fileHash)).willReturn(sig);
+		given(signer.apply(any())).willReturn(sig);
 		subject = new SignedStateBalancesExporter(properties, signer, dynamicProperties);
 
 		sigFileWriter = mock(SigFileWriter.class);
-		hashReader = mock(FileHashReader.class);
 		subject.sigFileWriter = sigFileWriter;
-		subject.hashReader = hashReader;
 	}
 
 	@Test
@@ -213,7 +221,7 @@ class SignedStateBalancesExporterTest {
 		// setup:
 		var loc = testExportLoc();
 
-		given(hashReader.readHash(loc)).willThrow(IllegalStateException.class);
+		given(signer.apply(any())).willThrow(IllegalStateException.class);
 
 		// when:
 		subject.toCsvFile(state, now);
@@ -230,7 +238,6 @@ class SignedStateBalancesExporterTest {
 		// setup:
 		var loc = testExportLoc();
 
-		given(hashReader.readHash(loc)).willReturn(fileHash);
 		given(sigFileWriter.writeSigFile(any(), any(), any())).willReturn(loc + "_sig");
 
 		// when:
@@ -254,7 +261,7 @@ class SignedStateBalancesExporterTest {
 					entry.getB64TokenBalances()), lines.get(i + 3));
 		}
 		// and:
-		verify(sigFileWriter).writeSigFile(loc, sig, fileHash);
+		verify(sigFileWriter).writeSigFile(loc, sig, noThrowSha384HashOf(Files.readAllBytes(Paths.get(loc))));
 		// and:
 		verify(mockLog).debug(String.format(GOOD_SIGNING_ATTEMPT_DEBUG_MSG_TPL, loc + "_sig"));
 
@@ -273,7 +280,6 @@ class SignedStateBalancesExporterTest {
 		};
 		subject = new SignedStateBalancesExporter(properties, signer, otherDynamicProperties);
 		subject.sigFileWriter = sigFileWriter;
-		subject.hashReader = hashReader;
 
 		// when:
 		subject.toCsvFile(state, now);
@@ -307,41 +313,228 @@ class SignedStateBalancesExporterTest {
 	}
 
 	@Test
-	public void summarizesAsExpected() {
-		// given:
-		List<AccountBalance> expectedBalances = theExpectedBalances();
+	public void streamsBalancesAsExpected() throws IOException {
+		// setup:
+		var writer = mock(BalancesWriter.class);
 
 		// when:
-		var summary = subject.summarized(state);
+		var totalFloat = subject.streamBalances(state, List.of(writer));
 
 		// then:
-		assertEquals(ledgerFloat, summary.getTotalFloat().longValue());
-		assertEquals(expectedBalances, summary.getOrderedBalances());
+		assertEquals(ledgerFloat, totalFloat);
+		// and:
+		var inOrder = inOrder(writer);
+		inOrder.verify(writer).append(0, 0, 3, thisNodeBalance, null);
+		inOrder.verify(writer).append(0, 0, 4, anotherNodeBalance, null);
+		inOrder.verify(writer).append(0, 0, 1001, firstNonNodeAccountBalance, null);
+		inOrder.verify(writer).append(0, 0, 1002, secondNonNodeAccountBalance, TokenBalances.newBuilder()
+				.addTokenBalances(TokenBalance.newBuilder()
+						.setTokenId(theToken)
+						.setBalance(secondNonNodeTokenBalance))
+				.build());
+		verifyNoMoreInteractions(writer);
 		// and:
 		verify(mockLog).warn(String.format(
 				SignedStateBalancesExporter.LOW_NODE_BALANCE_WARN_MSG_TPL,
 				"0.0.4", anotherNodeBalance));
 	}
 
-	private List<AccountBalance> theExpectedBalances() {
-		var expThisNode = new AccountBalance(0, 0, 3, thisNodeBalance);
-		var expAnotherNode = new AccountBalance(0, 0, 4, anotherNodeBalance);
-		var expFirstNon = new AccountBalance(0, 0, 1001, firstNonNodeAccountBalance);
-		var expSecondNon = new AccountBalance(0, 0, 1002, secondNonNodeAccountBalance);
+	@Test
+	public void rangedStreamingIsByteIdenticalToSequential(@TempDir Path tmpDir) throws IOException {
+		// setup:
+		var ids = accounts.keySet().toArray(new MerkleEntityId[0]);
+		Arrays.sort(ids, SignedStateBalancesExporter.CANONICAL_ORDER);
+		var sequential = new CsvBalancesWriter(tmpDir.resolve("sequential.csv").toString(), true);
+		var sequentialBinary = new BinaryBalancesWriter(tmpDir.resolve("sequential.pb.gz").toString(), true);
+		var ranged = new CsvBalancesWriter(tmpDir.resolve("ranged.csv").toString(), true);
+		var rangedBinary = new BinaryBalancesWriter(tmpDir.resolve("ranged.pb.gz").toString(), true);
+
+		var chunksBefore = chunkFilesInTmpDir();
+
+		// given:
+		sequential.begin(now);
+		sequentialBinary.begin(now);
+		var sequentialTotal = subject.streamBalances(
+				state, ids, 0, ids.length, List.of(sequential, sequentialBinary));
+		var sequentialHash = sequential.finish();
+		var sequentialBinaryHash = sequentialBinary.finish();
+		// and:
+		ranged.begin(now);
+		rangedBinary.begin(now);
+
+		// when:
+		var rangedTotal = subject.streamBalancesInRanges(state, ids, 3, List.of(ranged, rangedBinary));
+		var rangedHash = ranged.finish();
+		var rangedBinaryHash = rangedBinary.finish();
+
+		// then:
+		assertEquals(ledgerFloat, rangedTotal);
+		assertEquals(sequentialTotal, rangedTotal);
+		assertArrayEquals(sequentialHash, rangedHash);
+		assertArrayEquals(sequentialBinaryHash, rangedBinaryHash);
+		assertArrayEquals(
+				Files.readAllBytes(Paths.get(sequential.location())),
+				Files.readAllBytes(Paths.get(ranged.location())));
+		assertArrayEquals(
+				Files.readAllBytes(Paths.get(sequentialBinary.location())),
+				Files.readAllBytes(Paths.get(rangedBinary.location())));
+		// and:
+		assertEquals(4, tmpDir.toFile().list().length);
+		assertEquals(chunksBefore, chunkFilesInTmpDir());
+	}
+
+	@Test
+	public void discardsChunksIfRangeFails(@TempDir Path tmpDir) throws IOException {
+		// setup:
+		var ids = accounts.keySet().toArray(new MerkleEntityId[0]);
+		Arrays.sort(ids, SignedStateBalancesExporter.CANONICAL_ORDER);
+		var csv = new CsvBalancesWriter(tmpDir.resolve("ranged.csv").toString(), true);
+		var ranged = mock(BalancesWriter.class);
+		var chunksBefore = chunkFilesInTmpDir();
+
+		given(ranged.newRange()).willReturn(csv.newRange(), failingRange(), csv.newRange());
+
+		// expect:
+		assertThrows(IOException.class,
+				() -> subject.streamBalancesInRanges(state, ids, 3, List.of(ranged)));
+		// and:
+		assertEquals(chunksBefore, chunkFilesInTmpDir());
+	}
+
+	@Test
+	public void reusesOnePoolUntilClosed(@TempDir Path tmpDir) throws IOException {
+		// setup:
+		var ids = accounts.keySet().toArray(new MerkleEntityId[0]);
+		Arrays.sort(ids, SignedStateBalancesExporter.CANONICAL_ORDER);
+
+		var first = new CsvBalancesWriter(tmpDir.resolve("first.csv").toString(), true);
+		var second = new CsvBalancesWriter(tmpDir.resolve("second.csv").toString(), true);
+
+		// given:
+		first.begin(now);
+		subject.streamBalancesInRanges(state, ids, 2, List.of(first));
+		first.finish();
+		var pool = subject.pool;
+		// and:
+		second.begin(now);
+		subject.streamBalancesInRanges(state, ids, 2, List.of(second));
+		second.finish();
+
+		// expect:
+		assertSame(pool, subject.pool);
+
+		// and when:
+		subject.close();
+
+		// then:
+		assertTrue(pool.isShutdown());
+		assertNull(subject.pool);
+	}
+
+	private BalancesWriter.Range failingRange() throws IOException {
+		return new BalancesChunk() {
+			@Override
+			public void append(long shard, long realm, long num, long balance, TokenBalances tokenBalances)
+					throws IOException {
+				throw new IOException("Disk full!");
+			}
+		};
+	}
+
+	private long chunkFilesInTmpDir() {
+		var chunks = Paths.get(System.getProperty("java.io.tmpdir")).toFile().list((dir, name) ->
+				name.startsWith(BalancesChunk.CHUNK_PREFIX) && name.endsWith(BalancesChunk.CHUNK_SUFFIX));
+		return chunks == null ? 0 : chunks.length;
+	}
+
+	@Test
+	public void alsoExportsSignedBinaryFileIfConfigured() throws IOException {
+		// setup:
+		var otherDynamicProperties = new MockGlobalDynamicProps() {
+			@Override
+			public boolean shouldExportBinaryBalances() {
+				return true;
+			}
+		};
+		subject = new SignedStateBalancesExporter(properties, signer, otherDynamicProperties);
+		subject.sigFileWriter = sigFileWriter;
+		// and:
+		var pbLoc = testExportLoc().replace(".csv", ".pb.gz");
+
+		// when:
+		subject.toCsvFile(state, now);
+
+		// then:
+		List<CryptoGetAccountBalanceResponse> entries = new ArrayList<>();
+		try (var in = new GZIPInputStream(Files.newInputStream(Paths.get(pbLoc)))) {
+			var timestamp = Timestamp.parseDelimitedFrom(in);
+			assertEquals(now, Instant.ofEpochSecond(timestamp.getSeconds(), timestamp.getNanos()));
+			CryptoGetAccountBalanceResponse entry;
+			while ((entry = CryptoGetAccountBalanceResponse.parseDelimitedFrom(in)) != null) {
+				entries.add(entry);
+			}
+		}
+		var expected = theExpectedBalances();
+		assertEquals(expected.size(), entries.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i).getNum(), entries.get(i).getAccountID().getAccountNum());
+			assertEquals(expected.get(i).getBalance(), entries.get(i).getBalance());
+		}
+		assertEquals(theToken, entries.get(3).getTokenBalances(0).getTokenId());
+		// and:
+		verify(sigFileWriter).writeSigFile(pbLoc, sig, noThrowSha384HashOf(Files.readAllBytes(Paths.get(pbLoc))));
+
+		// cleanup:
+		new File(testExportLoc()).delete();
+		new File(pbLoc).delete();
+	}
+
+	private List<ExpectedBalance> theExpectedBalances() {
 		TokenBalances expB64Balances = TokenBalances.newBuilder()
 				.addTokenBalances(TokenBalance.newBuilder()
 						.setTokenId(theToken)
 						.setBalance(secondNonNodeTokenBalance))
 				.build();
-		expSecondNon.setB64TokenBalances(b64Encode(expB64Balances));
 		return List.of(
-				expThisNode,
-				expAnotherNode,
-				expFirstNon,
-				expSecondNon
+				new ExpectedBalance(3, thisNodeBalance, ""),
+				new ExpectedBalance(4, anotherNodeBalance, ""),
+				new ExpectedBalance(1001, firstNonNodeAccountBalance, ""),
+				new ExpectedBalance(1002, secondNonNodeAccountBalance, b64Encode(expB64Balances))
 		);
 	}
 
+	private static class ExpectedBalance {
+		private final long num;
+		private final long balance;
+		private final String b64TokenBalances;
+
+		ExpectedBalance(long num, long balance, String b64TokenBalances) {
+			this.num = num;
+			this.balance = balance;
+			this.b64TokenBalances = b64TokenBalances;
+		}
+
+		long getShard() {
+			return 0;
+		}
+
+		long getRealm() {
+			return 0;
+		}
+
+		long getNum() {
+			return num;
+		}
+
+		long getBalance() {
+			return balance;
+		}
+
+		String getB64TokenBalances() {
+			return b64TokenBalances;
+		}
+	}
+
 	@Test
 	public void assuresExpectedDir() throws IOException {
 		// given:
@@ -361,6 +554,8 @@ class SignedStateBalancesExporterTest {
 
 		// then:
 		assertThrows(IllegalStateException.class, () -> subject.toCsvFile(state, now));
+		// and:
+		assertFalse(new File(testExportLoc()).exists());
 	}
 
 	@Test
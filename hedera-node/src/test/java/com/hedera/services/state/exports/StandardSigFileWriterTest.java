@@ -32,6 +32,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 
+import static com.hedera.services.legacy.proto.utils.CommonUtils.noThrowSha384HashOf;
 import static com.hedera.services.legacy.stream.RecordStream.TYPE_FILE_HASH;
 import static com.hedera.services.legacy.stream.RecordStream.TYPE_SIGNATURE;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
@@ -42,7 +43,6 @@ class StandardSigFileWriterTest {
 	String toSign = "src/test/resources/bootstrap/standard.properties";
 	String cannotSign = "src/test/resources/oops/bootstrap/not-so-standard.properties";
 	byte[] pretendSig = "not-really-a-sig-at-all".getBytes();
-	FileHashReader hashReader = new Sha384HashReader();
 
 	SigFileWriter subject = new StandardSigFileWriter();
 
@@ -56,7 +56,7 @@ class StandardSigFileWriterTest {
 	@Test
 	public void writesExpectedFile() throws Exception {
 		// setup:
-		var hash = hashReader.readHash(toSign);
+		var hash = noThrowSha384HashOf(Files.readAllBytes(Paths.get(toSign)));
 
 		// given:
 		var expectedWritten = legacy(toSign, pretendSig, hash);
@@ -0,0 +1,145 @@
+package com.hedera.services.state.merkle;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2020 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.swirlds.common.io.SerializableDataInputStream;
+import com.swirlds.common.io.SerializableDataOutputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.inOrder;
+import static org.mockito.BDDMockito.mock;
+
+@RunWith(JUnitPlatform.class)
+class MerkleContractSlotIdTest {
+	long realm = 2, contractNum = 1_234;
+	int index = 7;
+
+	MerkleContractSlotId subject;
+
+	@BeforeEach
+	private void setup() {
+		subject = new MerkleContractSlotId(realm, contractNum, index);
+	}
+
+	@Test
+	public void objectContractMet() {
+		// given:
+		var one = new MerkleContractSlotId();
+		var two = new MerkleContractSlotId(realm + 1, contractNum, index);
+		var three = new MerkleContractSlotId(realm, contractNum + 1, index);
+		var four = new MerkleContractSlotId(realm, contractNum, index + 1);
+		var five = new MerkleContractSlotId(realm, contractNum, index);
+
+		// then:
+		assertNotEquals(one, null);
+		assertNotEquals(one, new Object());
+		assertNotEquals(subject, two);
+		assertNotEquals(subject, three);
+		assertNotEquals(subject, four);
+		assertEquals(subject, five);
+		assertEquals(subject, subject);
+		// and:
+		assertNotEquals(subject.hashCode(), four.hashCode());
+		assertEquals(subject.hashCode(), five.hashCode());
+		// and:
+		assertEquals(realm, subject.getRealm());
+		assertEquals(contractNum, subject.getContractNum());
+		assertEquals(index, subject.getIndex());
+	}
+
+	@Test
+	public void unsupportedOperationsThrow() {
+		// expect:
+		assertThrows(UnsupportedOperationException.class, () -> subject.copyFrom(null));
+		assertThrows(UnsupportedOperationException.class, () -> subject.copyFromExtra(null));
+		assertThrows(UnsupportedOperationException.class, ()
+				-> MerkleContractSlotId.LEGACY_PROVIDER.deserialize(null));
+	}
+
+	@Test
+	public void merkleMethodsWork() {
+		// expect:
+		assertEquals(MerkleContractSlotId.MERKLE_VERSION, subject.getVersion());
+		assertEquals(MerkleContractSlotId.RUNTIME_CONSTRUCTABLE_ID, subject.getClassId());
+		assertTrue(subject.isLeaf());
+	}
+
+	@Test
+	public void serializeWorks() throws IOException {
+		// setup:
+		var out = mock(SerializableDataOutputStream.class);
+		// and:
+		InOrder inOrder = inOrder(out);
+
+		// when:
+		subject.serialize(out);
+
+		// then:
+		inOrder.verify(out).writeLong(realm);
+		inOrder.verify(out).writeLong(contractNum);
+		inOrder.verify(out).writeInt(index);
+	}
+
+	@Test
+	public void deserializeWorks() throws IOException {
+		// setup:
+		var in = mock(SerializableDataInputStream.class);
+		// and:
+		var defaultSubject = new MerkleContractSlotId();
+
+		given(in.readLong()).willReturn(realm).willReturn(contractNum);
+		given(in.readInt()).willReturn(index);
+
+		// when:
+		defaultSubject.deserialize(in, MerkleContractSlotId.MERKLE_VERSION);
+
+		// then:
+		assertEquals(subject, defaultSubject);
+	}
+
+	@Test
+	public void toStringWorks() {
+		// expect:
+		assertEquals("MerkleContractSlotId{contract=0.2.1234, index=7}", subject.toString());
+	}
+
+	@Test
+	public void copyWorks() {
+		// when:
+		var subjectCopy = subject.copy();
+
+		// then:
+		assertNotSame(subjectCopy, subject);
+		assertEquals(subject, subjectCopy);
+	}
+}
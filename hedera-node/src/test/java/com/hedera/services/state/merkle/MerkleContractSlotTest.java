@@ -0,0 +1,165 @@
+package com.hedera.services.state.merkle;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2020 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.swirlds.common.io.SerializableDataInputStream;
+import com.swirlds.common.io.SerializableDataOutputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import static com.hedera.services.state.merkle.MerkleContractSlot.WORD_BYTES;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.inOrder;
+import static org.mockito.BDDMockito.mock;
+import static org.mockito.BDDMockito.willAnswer;
+
+@RunWith(JUnitPlatform.class)
+class MerkleContractSlotTest {
+	byte[] key = wordOf((byte) 1);
+	byte[] value = wordOf((byte) 2);
+
+	MerkleContractSlot subject;
+
+	@BeforeEach
+	private void setup() {
+		subject = new MerkleContractSlot(key, value);
+	}
+
+	@Test
+	public void objectContractMet() {
+		// given:
+		var one = new MerkleContractSlot();
+		var two = new MerkleContractSlot(wordOf((byte) 3), value);
+		var three = new MerkleContractSlot(key, wordOf((byte) 3));
+		var four = new MerkleContractSlot(key.clone(), value.clone());
+
+		// then:
+		assertNotEquals(one, null);
+		assertNotEquals(one, new Object());
+		assertNotEquals(subject, two);
+		assertNotEquals(subject, three);
+		assertEquals(subject, four);
+		assertEquals(subject, subject);
+		// and:
+		assertNotEquals(subject.hashCode(), three.hashCode());
+		assertEquals(subject.hashCode(), four.hashCode());
+		// and:
+		assertSame(key, subject.getKey());
+		assertSame(value, subject.getValue());
+	}
+
+	@Test
+	public void rejectsNonWords() {
+		// expect:
+		assertThrows(IllegalArgumentException.class, () -> new MerkleContractSlot(new byte[WORD_BYTES - 1], value));
+		assertThrows(IllegalArgumentException.class, () -> new MerkleContractSlot(key, new byte[WORD_BYTES + 1]));
+	}
+
+	@Test
+	public void unsupportedOperationsThrow() {
+		// expect:
+		assertThrows(UnsupportedOperationException.class, () -> subject.copyFrom(null));
+		assertThrows(UnsupportedOperationException.class, () -> subject.copyFromExtra(null));
+		assertThrows(UnsupportedOperationException.class, ()
+				-> MerkleContractSlot.LEGACY_PROVIDER.deserialize(null));
+	}
+
+	@Test
+	public void merkleMethodsWork() {
+		// expect:
+		assertEquals(MerkleContractSlot.MERKLE_VERSION, subject.getVersion());
+		assertEquals(MerkleContractSlot.RUNTIME_CONSTRUCTABLE_ID, subject.getClassId());
+		assertTrue(subject.isLeaf());
+	}
+
+	@Test
+	public void serializeWorks() throws IOException {
+		// setup:
+		var out = mock(SerializableDataOutputStream.class);
+		// and:
+		InOrder inOrder = inOrder(out);
+
+		// when:
+		subject.serialize(out);
+
+		// then:
+		inOrder.verify(out).write(key);
+		inOrder.verify(out).write(value);
+	}
+
+	@Test
+	public void deserializeWorks() throws IOException {
+		// setup:
+		var in = mock(SerializableDataInputStream.class);
+		// and:
+		var defaultSubject = new MerkleContractSlot();
+
+		willAnswer(invocation -> {
+			Arrays.fill((byte[]) invocation.getArgument(0), (byte) 1);
+			return null;
+		}).willAnswer(invocation -> {
+			Arrays.fill((byte[]) invocation.getArgument(0), (byte) 2);
+			return null;
+		}).given(in).readFully(any());
+
+		// when:
+		defaultSubject.deserialize(in, MerkleContractSlot.MERKLE_VERSION);
+
+		// then:
+		assertEquals(subject, defaultSubject);
+	}
+
+	@Test
+	public void toStringWorks() {
+		// expect:
+		assertEquals(
+				"MerkleContractSlot{key=" + "01".repeat(WORD_BYTES) + ", value=" + "02".repeat(WORD_BYTES) + "}",
+				subject.toString());
+	}
+
+	@Test
+	public void copyWorks() {
+		// when:
+		var subjectCopy = subject.copy();
+
+		// then:
+		assertNotSame(subjectCopy, subject);
+		assertEquals(subject, subjectCopy);
+	}
+
+	private static byte[] wordOf(byte b) {
+		var word = new byte[WORD_BYTES];
+		Arrays.fill(word, b);
+		return word;
+	}
+}
@@ -29,7 +29,6 @@ import com.swirlds.common.CommonUtils;
 import com.swirlds.common.crypto.Hash;
 import com.swirlds.common.io.SerializableDataInputStream;
 import com.swirlds.common.io.SerializableDataOutputStream;
-import org.apache.commons.io.FileUtils;
 import org.apache.logging.log4j.Logger;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
@@ -57,7 +56,12 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -77,6 +81,7 @@ public class MerkleDiskFsTest {
 
 	MerkleDiskFs.ThrowingBytesGetter getter;
 	MerkleDiskFs.ThrowingBytesWriter writer;
+	MerkleDiskFs.ThrowingDigestUpdater digester;
 
 	@BeforeEach
 	private void setup() throws Exception {
@@ -93,19 +98,30 @@ public class MerkleDiskFsTest {
 		getter = mock(MerkleDiskFs.ThrowingBytesGetter.class);
 		MerkleDiskFs.bytesHelper = getter;
 		writer = mock(MerkleDiskFs.ThrowingBytesWriter.class);
+		willAnswer(invocation -> {
+			invocation.getArgument(2, MessageDigest.class).update(invocation.getArgument(1, byte[].class));
+			return null;
+		}).given(writer).allBytesTo(any(), any(), any(), anyBoolean());
 		MerkleDiskFs.writeHelper = writer;
+		digester = mock(MerkleDiskFs.ThrowingDigestUpdater.class);
+		willAnswer(invocation -> {
+			invocation.getArgument(1, MessageDigest.class).update(origContents);
+			return null;
+		}).given(digester).allBytesInto(argThat(subject.pathToContentsOf(file150)::equals), any());
+		MerkleDiskFs.digestHelper = digester;
 
 		given(getter.allBytesFrom(subject.pathToContentsOf(file150))).willReturn(origContents);
 	}
 
 	@AfterEach
 	private void cleanup() {
-		MerkleDiskFs.writeHelper = (p, c) -> FileUtils.writeByteArrayToFile(p.toFile(), c);
-		MerkleDiskFs.bytesHelper = p -> FileUtils.readFileToByteArray(p.toFile());
+		MerkleDiskFs.writeHelper = MerkleDiskFs::writeHashing;
+		MerkleDiskFs.bytesHelper = MerkleDiskFs::readFully;
+		MerkleDiskFs.digestHelper = MerkleDiskFs::readHashing;
 	}
 
 	@Test
-	public void helpersSanityCheck() throws IOException {
+	public void helpersSanityCheck() throws Exception {
 		// setup:
 		cleanup();
 
@@ -113,9 +129,27 @@ public class MerkleDiskFsTest {
 		String tmpBase = MOCK_DISKFS_DIR + File.separator + "a" + File.separator + "b" + File.separator;
 		Path tmpLoc = Paths.get(tmpBase + "c.txt");
 		byte[] tmpMsg = "Testing-1-2-3".getBytes();
+		byte[] moreMsg = "-4-5".getBytes();
+		var writeDigest = MessageDigest.getInstance("SHA-384");
+		var readDigest = MessageDigest.getInstance("SHA-384");
 
 		// when:
-		MerkleDiskFs.writeHelper.allBytesTo(tmpLoc, tmpMsg);
+		MerkleDiskFs.writeHelper.allBytesTo(tmpLoc, tmpMsg, writeDigest, false);
+
+		// then:
+		assertArrayEquals(tmpMsg, MerkleDiskFs.bytesHelper.allBytesFrom(tmpLoc));
+
+		// and when:
+		MerkleDiskFs.writeHelper.allBytesTo(tmpLoc, moreMsg, writeDigest, true);
+		MerkleDiskFs.digestHelper.allBytesInto(tmpLoc, readDigest);
+
+		// then:
+		assertEquals("Testing-1-2-3-4-5", new String(MerkleDiskFs.bytesHelper.allBytesFrom(tmpLoc)));
+		assertArrayEquals(noThrowSha384HashOf("Testing-1-2-3-4-5".getBytes()), writeDigest.digest());
+		assertArrayEquals(noThrowSha384HashOf("Testing-1-2-3-4-5".getBytes()), readDigest.digest());
+
+		// and when:
+		MerkleDiskFs.writeHelper.allBytesTo(tmpLoc, tmpMsg, MessageDigest.getInstance("SHA-384"), false);
 
 		// then:
 		assertArrayEquals(tmpMsg, MerkleDiskFs.bytesHelper.allBytesFrom(tmpLoc));
@@ -152,7 +186,97 @@ public class MerkleDiskFsTest {
 
 		verify(MerkleDiskFs.log, never()).error(any(String.class));
 		// and:
-		verify(writer).allBytesTo(subject.pathToContentsOf(file150), origContents);
+		verify(writer).allBytesTo(
+				argThat(subject.pathToContentsOf(file150)::equals),
+				argThat(origContents::equals),
+				any(),
+				eq(false));
+	}
+
+	@Test
+	public void checkWarnsOfMismatchedDiskContents() throws Exception {
+		// setup:
+		willAnswer(invocation -> {
+			invocation.getArgument(1, MessageDigest.class).update(newContents);
+			return null;
+		}).given(digester).allBytesInto(any(), any());
+		MerkleDiskFs.log = mock(Logger.class);
+
+		// when:
+		subject.checkHashesAgainstDiskContents();
+
+		// then:
+		verify(MerkleDiskFs.log).error(
+				any(String.class),
+				argThat("0.0.150"::equals),
+				argThat(CommonUtils.hex(origFileHash)::equals),
+				argThat(CommonUtils.hex(newFileHash)::equals));
+	}
+
+	@Test
+	public void appendOnlyHashesNewBytesAfterPut() throws IOException {
+		// given:
+		subject.put(file150, origContents);
+
+		// when:
+		subject.append(file150, newContents);
+
+		// then:
+		assertArrayEquals(hashWithFileHash(concatHash()), subject.getHash().getValue());
+		verify(digester, never()).allBytesInto(any(), any());
+		verify(writer).allBytesTo(
+				argThat(subject.pathToContentsOf(file150)::equals),
+				argThat(newContents::equals),
+				any(),
+				eq(true));
+	}
+
+	@Test
+	public void appendRebuildsDigestFromDiskIfUnknown() throws IOException {
+		// when:
+		subject.append(file150, newContents);
+
+		// then:
+		assertArrayEquals(hashWithFileHash(concatHash()), subject.getHash().getValue());
+		verify(digester).allBytesInto(argThat(subject.pathToContentsOf(file150)::equals), any());
+	}
+
+	@Test
+	public void appendTreatsUnreadableContentsAsMissing() throws IOException {
+		// setup:
+		willThrow(IOException.class).given(digester).allBytesInto(any(), any());
+
+		// when:
+		subject.append(file150, newContents);
+
+		// then:
+		assertArrayEquals(hashWithFileHash(newFileHash), subject.getHash().getValue());
+		verify(writer).allBytesTo(
+				argThat(subject.pathToContentsOf(file150)::equals),
+				argThat(newContents::equals),
+				any(),
+				eq(false));
+	}
+
+	@Test
+	public void failedWriteLeavesHashUnchanged() throws IOException {
+		// setup:
+		willThrow(IOException.class).given(writer).allBytesTo(any(), any(), any(), anyBoolean());
+
+		// when:
+		subject.put(file150, newContents);
+
+		// then:
+		assertArrayEquals(hashWithOrigContents(), subject.getHash().getValue());
+	}
+
+	@Test
+	public void unreadableContentsHaveEmptyHash() throws IOException {
+		// setup:
+		willThrow(IOException.class).given(digester).allBytesInto(any(), any());
+
+		// expect:
+		assertArrayEquals(noThrowSha384HashOf(new byte[0]), subject.diskContentHash(file150));
 	}
 
 	@Test
@@ -163,7 +287,11 @@ public class MerkleDiskFsTest {
 		// then:
 		assertArrayEquals(hashWithFileHash(newFileHash), subject.getHash().getValue());
 		// and:
-		verify(writer).allBytesTo(subject.pathToContentsOf(file150), newContents);
+		verify(writer).allBytesTo(
+				argThat(subject.pathToContentsOf(file150)::equals),
+				argThat(newContents::equals),
+				any(),
+				eq(false));
 	}
 
 	@Test
@@ -283,7 +411,11 @@ public class MerkleDiskFsTest {
 		// and:
 		assertEquals(expectedHash, read.getHash());
 		// and:
-		verify(writer).allBytesTo(subject.pathToContentsOf(file150), origContents);
+		verify(writer).allBytesTo(
+				argThat(subject.pathToContentsOf(file150)::equals),
+				argThat(origContents::equals),
+				any(),
+				eq(false));
 	}
 
 	@Test
@@ -298,6 +430,13 @@ public class MerkleDiskFsTest {
 		assertEquals(new Hash(noThrowSha384HashOf(new byte[0])), new MerkleDiskFs().getHash());
 	}
 
+	private byte[] concatHash() {
+		var both = new byte[origContents.length + newContents.length];
+		System.arraycopy(origContents, 0, both, 0, origContents.length);
+		System.arraycopy(newContents, 0, both, origContents.length, newContents.length);
+		return noThrowSha384HashOf(both);
+	}
+
 	private byte[] hashWithOrigContents() {
 		return hashWithFileHash(origFileHash);
 	}
@@ -39,13 +39,19 @@ import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.booleanThat;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.inOrder;
 import static org.mockito.BDDMockito.mock;
+import static org.mockito.BDDMockito.never;
+import static org.mockito.BDDMockito.times;
+import static org.mockito.BDDMockito.verify;
 
 @RunWith(JUnitPlatform.class)
 class MerkleNetworkContextTest {
@@ -54,6 +60,8 @@ class MerkleNetworkContextTest {
 	SequenceNumber seqNoCopy;
 	ExchangeRates midnightRateSet;
 	ExchangeRates midnightRateSetCopy;
+	long[] payerExpiries = { 1_234_567L, 1_001L, 1_234_568L, 1_002L };
+	long[] throttleUsages = { 1_234_567_000_000_000L, 1_234_568_000_000_000L };
 
 	DomainSerdes serdes;
 
@@ -74,6 +82,9 @@ class MerkleNetworkContextTest {
 		MerkleNetworkContext.serdes = serdes;
 
 		subject = new MerkleNetworkContext(consensusTimeOfLastHandledTxn, seqNo, midnightRateSet);
+		subject.setPayerExpiries(payerExpiries);
+		subject.setThrottleUsages(throttleUsages);
+		subject.setLastPayerExpiriesSnapshotSecs(1_234_567L);
 	}
 
 	@AfterEach
@@ -90,6 +101,9 @@ class MerkleNetworkContextTest {
 		assertTrue(subjectCopy.consensusTimeOfLastHandledTxn == subject.consensusTimeOfLastHandledTxn);
 		assertEquals(seqNoCopy, subjectCopy.seqNo);
 		assertEquals(midnightRateSetCopy, subjectCopy.midnightRates);
+		assertNull(subjectCopy.payerExpiries);
+		assertSame(subject.throttleUsages, subjectCopy.throttleUsages);
+		assertEquals(1_234_567L, subjectCopy.lastPayerExpiriesSnapshotSecs());
 	}
 
 	@Test
@@ -101,15 +115,70 @@ class MerkleNetworkContextTest {
 		InOrder inOrder = inOrder(in, midnightRateSet, seqNo);
 
 		given(serdes.readNullableInstant(in)).willReturn(consensusTimeOfLastHandledTxn);
+		given(in.readBoolean()).willReturn(true);
+		given(in.readLongArray(MerkleNetworkContext.MAX_CONCEIVABLE_PAYER_EXPIRY_PARTS)).willReturn(payerExpiries);
+		given(in.readLongArray(MerkleNetworkContext.MAX_CONCEIVABLE_THROTTLE_BUCKETS)).willReturn(throttleUsages);
+		given(in.readLong()).willReturn(1_234_567L);
+		// and:
+		subject = new MerkleNetworkContext();
 
 		// when:
 		subject.deserialize(in, MerkleNetworkContext.MERKLE_VERSION);
 
 		// then:
 		assertEquals(consensusTimeOfLastHandledTxn, subject.consensusTimeOfLastHandledTxn);
+		assertSame(payerExpiries, subject.payerExpiries());
+		assertSame(throttleUsages, subject.throttleUsages());
+		assertEquals(1_234_567L, subject.lastPayerExpiriesSnapshotSecs());
 		// and:
 		inOrder.verify(seqNo).deserialize(in);
 		inOrder.verify(in).readSerializable(booleanThat(Boolean.TRUE::equals), any(Supplier.class));
+		inOrder.verify(in).readLongArray(MerkleNetworkContext.MAX_CONCEIVABLE_PAYER_EXPIRY_PARTS);
+		inOrder.verify(in).readLongArray(MerkleNetworkContext.MAX_CONCEIVABLE_THROTTLE_BUCKETS);
+		inOrder.verify(in).readLong();
+	}
+
+	@Test
+	public void deserializesAbsentIndexAndUsagesAsUnknown() throws IOException {
+		// setup:
+		var in = mock(SerializableDataInputStream.class);
+		MerkleNetworkContext.ratesSupplier = () -> midnightRateSet;
+		MerkleNetworkContext.seqNoSupplier = () -> seqNo;
+
+		given(serdes.readNullableInstant(in)).willReturn(consensusTimeOfLastHandledTxn);
+		given(in.readBoolean()).willReturn(false);
+		// and:
+		subject = new MerkleNetworkContext();
+
+		// when:
+		subject.deserialize(in, MerkleNetworkContext.RELEASE_091_VERSION);
+
+		// then:
+		assertNull(subject.payerExpiries());
+		assertNull(subject.throttleUsages());
+		verify(in, times(2)).readBoolean();
+		verify(in, never()).readLongArray(anyInt());
+	}
+
+	@Test
+	public void deserializesPreIndexVersionWithUnknownPayerExpiries() throws IOException {
+		// setup:
+		var in = mock(SerializableDataInputStream.class);
+		MerkleNetworkContext.ratesSupplier = () -> midnightRateSet;
+		MerkleNetworkContext.seqNoSupplier = () -> seqNo;
+
+		given(serdes.readNullableInstant(in)).willReturn(consensusTimeOfLastHandledTxn);
+		// and:
+		subject = new MerkleNetworkContext();
+
+		// when:
+		subject.deserialize(in, MerkleNetworkContext.RELEASE_070_VERSION);
+
+		// then:
+		assertNull(subject.payerExpiries());
+		assertEquals(MerkleNetworkContext.NO_PAYER_EXPIRIES_SNAPSHOT, subject.lastPayerExpiriesSnapshotSecs());
+		verify(in, never()).readBoolean();
+		verify(in, never()).readLongArray(anyInt());
 	}
 
 	@Test
@@ -125,6 +194,27 @@ class MerkleNetworkContextTest {
 		inOrder.verify(serdes).writeNullableInstant(consensusTimeOfLastHandledTxn, out);
 		inOrder.verify(seqNo).serialize(out);
 		inOrder.verify(out).writeSerializable(midnightRateSet, true);
+		inOrder.verify(out).writeBoolean(true);
+		inOrder.verify(out).writeLongArray(payerExpiries);
+		inOrder.verify(out).writeBoolean(true);
+		inOrder.verify(out).writeLongArray(throttleUsages);
+		inOrder.verify(out).writeLong(1_234_567L);
+	}
+
+	@Test
+	public void serializesUnknownPayerExpiriesAndThrottleUsages() throws IOException {
+		// setup:
+		var out = mock(SerializableDataOutputStream.class);
+		// and:
+		subject.setPayerExpiries(null);
+		subject.setThrottleUsages(null);
+
+		// when:
+		subject.serialize(out);
+
+		// then:
+		verify(out, times(2)).writeBoolean(false);
+		verify(out, never()).writeLongArray(any());
 	}
 
 	@Test
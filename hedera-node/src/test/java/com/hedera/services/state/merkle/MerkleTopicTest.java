@@ -21,6 +21,7 @@ package com.hedera.services.state.merkle;
  */
 
 import com.hedera.services.context.domain.topic.LegacyTopicsTest;
+import com.hedera.services.legacy.proto.utils.CommonUtils;
 import com.hedera.services.state.serdes.DomainSerdes;
 import com.hedera.services.state.serdes.TopicSerde;
 import com.hedera.services.state.submerkle.EntityId;
@@ -37,11 +38,15 @@ import org.junit.jupiter.api.Test;
 import org.junit.platform.runner.JUnitPlatform;
 import org.junit.runner.RunWith;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
 import java.util.List;
+import java.util.SplittableRandom;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.mock;
@@ -160,6 +165,81 @@ class MerkleTopicTest {
 				topicFrom(2).toString());
 	}
 
+	@Test
+	public void runningHashMatchesObjectStreamVersion3OverRandomInputs() throws IOException {
+		// setup:
+		var r = new SplittableRandom(1_234_567L);
+		var topic = new MerkleTopic();
+		var expectedTopic = new MerkleTopic();
+
+		for (int i = 0; i < 1_000; i++) {
+			// given:
+			var payer = AccountID.newBuilder()
+					.setShardNum(r.nextLong())
+					.setRealmNum(r.nextLong())
+					.setAccountNum(r.nextLong())
+					.build();
+			var topicId = (i % 10 == 0) ? null : TopicID.newBuilder()
+					.setShardNum(r.nextLong())
+					.setRealmNum(r.nextLong())
+					.setTopicNum(r.nextLong())
+					.build();
+			var consensusTime = (i % 10 == 1) ? null : Instant.ofEpochSecond(
+					r.nextLong(Instant.MIN.getEpochSecond(), Instant.MAX.getEpochSecond()),
+					r.nextInt(1_000_000_000));
+			var message = (i % 10 == 2) ? null : new byte[r.nextInt(i % 10 == 3 ? 1 : 6_000)];
+			if (message != null) {
+				r.nextBytes(message);
+			}
+			// and:
+			if (i % 100 == 4) {
+				var prevHash = new byte[1 + r.nextInt(300)];
+				r.nextBytes(prevHash);
+				topic.setRunningHash(prevHash);
+				expectedTopic.setRunningHash(prevHash);
+			}
+
+			// when:
+			topic.updateRunningHashAndSequenceNumber(payer, message, topicId, consensusTime);
+			objectStreamUpdate(expectedTopic, payer, message, topicId, consensusTime);
+
+			// then:
+			assertArrayEquals(expectedTopic.getRunningHash(), topic.getRunningHash());
+			assertEquals(expectedTopic.getSequenceNumber(), topic.getSequenceNumber());
+		}
+	}
+
+	private void objectStreamUpdate(
+			MerkleTopic topic,
+			AccountID payer,
+			byte[] message,
+			TopicID topicId,
+			Instant consensusTimestamp
+	) throws IOException {
+		message = (message == null) ? new byte[0] : message;
+		topicId = (topicId == null) ? TopicID.getDefaultInstance() : topicId;
+		consensusTimestamp = (consensusTimestamp == null) ? Instant.ofEpochSecond(0) : consensusTimestamp;
+
+		var boas = new ByteArrayOutputStream();
+		try (var out = new ObjectOutputStream(boas)) {
+			out.writeObject(topic.getRunningHash());
+			out.writeLong(MerkleTopic.RUNNING_HASH_VERSION);
+			out.writeLong(payer.getShardNum());
+			out.writeLong(payer.getRealmNum());
+			out.writeLong(payer.getAccountNum());
+			out.writeLong(topicId.getShardNum());
+			out.writeLong(topicId.getRealmNum());
+			out.writeLong(topicId.getTopicNum());
+			out.writeLong(consensusTimestamp.getEpochSecond());
+			out.writeInt(consensusTimestamp.getNano());
+			out.writeLong(topic.getSequenceNumber() + 1);
+			out.writeObject(CommonUtils.noThrowSha384HashOf(message));
+			out.flush();
+			topic.setSequenceNumber(topic.getSequenceNumber() + 1);
+			topic.setRunningHash(CommonUtils.noThrowSha384HashOf(boas.toByteArray()));
+		}
+	}
+
 	private MerkleTopic topicFrom(int s) throws IOException, NoSuchAlgorithmException {
 		long v = 1_234_567L + s * 1_000_000L;
 		long t = s + 1;
@@ -9,9 +9,9 @@ package com.hedera.services.state.migrations;
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
  * You may obtain a copy of the License at
- * 
+ *
  *      http://www.apache.org/licenses/LICENSE-2.0
- * 
+ *
  * Unless required by applicable law or agreed to in writing, software
  * distributed under the License is distributed on an "AS IS" BASIS,
  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
@@ -23,30 +23,86 @@ package com.hedera.services.state.migrations;
 import com.hedera.services.context.ServicesContext;
 import com.hedera.services.state.migration.StdStateMigrations;
 import com.hedera.services.utils.Pause;
+import org.ethereum.datasource.StoragePersistence;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.platform.runner.JUnitPlatform;
 import org.junit.runner.RunWith;
+import org.mockito.InOrder;
 
-import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.hedera.services.utils.EntityIdUtils.asSolidityAddress;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.argThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.inOrder;
 import static org.mockito.BDDMockito.mock;
+import static org.mockito.BDDMockito.verify;
+import static org.mockito.Mockito.never;
 
 @RunWith(JUnitPlatform.class)
 public class StdStateMigrationsTest {
-	Pause pause;
+	byte[] aStorage = "A".repeat(64).getBytes();
+	byte[] bStorage = "B".repeat(128).getBytes();
+	byte[] bytecode = "CODE".getBytes();
+
+	Map<String, byte[]> blobStore;
+	StoragePersistence storagePersistence;
 	ServicesContext ctx;
+
 	StdStateMigrations subject;
 
 	@BeforeEach
 	private void setup() {
+		blobStore = new HashMap<>();
+		storagePersistence = mock(StoragePersistence.class);
 		ctx = mock(ServicesContext.class);
-		pause = mock(Pause.class);
-		subject = new StdStateMigrations(pause);
+		given(ctx.blobStore()).willReturn(blobStore);
+		given(ctx.storagePersistence()).willReturn(storagePersistence);
+
+		subject = new StdStateMigrations(mock(Pause.class));
 	}
 
 	@Test
-	public void isNoop() {
-		// expect:
-		assertDoesNotThrow(() -> subject.runAllFor(ctx));
+	public void migratesLegacyContractStorageInIdOrder() {
+		// setup:
+		InOrder inOrder = inOrder(storagePersistence);
+		// given:
+		blobStore.put("/1/d1001", bStorage);
+		blobStore.put("/0/d1002", aStorage);
+		blobStore.put("/0/s1002", bytecode);
+
+		// when:
+		subject.runAllFor(ctx);
+
+		// then:
+		inOrder.verify(storagePersistence).persist(
+				argThat((byte[] address) -> Arrays.equals(asSolidityAddress(0, 0, 1002), address)),
+				argThat((byte[] storage) -> Arrays.equals(aStorage, storage)),
+				anyLong(),
+				anyLong());
+		inOrder.verify(storagePersistence).persist(
+				argThat((byte[] address) -> Arrays.equals(asSolidityAddress(0, 1, 1001), address)),
+				argThat((byte[] storage) -> Arrays.equals(bStorage, storage)),
+				anyLong(),
+				anyLong());
+		// and:
+		assertEquals(Map.of("/0/s1002", bytecode), blobStore);
+	}
+
+	@Test
+	public void doesNothingWithoutLegacyContractStorage() {
+		// given:
+		blobStore.put("/0/s1002", bytecode);
+
+		// when:
+		subject.runAllFor(ctx);
+
+		// then:
+		verify(ctx, never()).storagePersistence();
 	}
 }
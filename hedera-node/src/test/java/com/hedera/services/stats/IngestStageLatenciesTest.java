@@ -0,0 +1,119 @@
+package com.hedera.services.stats;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2020 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.swirlds.common.Platform;
+import com.swirlds.common.StatEntry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+
+import java.util.function.Supplier;
+
+import static com.hedera.services.stats.IngestStageLatencies.Stage.PRECHECK;
+import static com.hedera.services.stats.IngestStageLatencies.Stage.SUBMISSION;
+import static com.hedera.services.stats.IngestStageLatencies.Stage.SYNTAX_CHECK;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.BDDMockito.*;
+
+@RunWith(JUnitPlatform.class)
+class IngestStageLatenciesTest {
+	Platform platform;
+	CounterFactory factory;
+
+	IngestStageLatencies subject;
+
+	@BeforeEach
+	public void setup() {
+		platform = mock(Platform.class);
+		factory = mock(CounterFactory.class);
+
+		subject = new IngestStageLatencies(factory);
+	}
+
+	@Test
+	public void registersPercentilesForEachStage() {
+		// setup:
+		ArgumentCaptor<Supplier<Object>> samples = ArgumentCaptor.forClass(Supplier.class);
+		StatEntry entry = mock(StatEntry.class);
+
+		given(factory.from(any(), any(), samples.capture())).willReturn(entry);
+		// and:
+		subject.record(PRECHECK, 3_000L);
+
+		// when:
+		subject.registerWith(platform);
+
+		// then:
+		verify(platform, times(2 * IngestStageLatencies.Stage.values().length)).addAppStatEntry(entry);
+		verify(factory).from(
+				argThat("precheckP50Us"::equals),
+				argThat(String.format(IngestStageLatencies.Descriptions.P50_TPL, "precheck")::equals),
+				any());
+		verify(factory).from(argThat("syntaxCheckP99Us"::equals), any(), any());
+		verify(factory).from(argThat("submissionP99Us"::equals), any(), any());
+		// and:
+		assertEquals(4L, samples.getAllValues().get(0).get());
+		assertEquals(0L, samples.getAllValues().get(2).get());
+	}
+
+	@Test
+	public void bucketsByPowersOfTwoMicros() {
+		// when:
+		subject.record(SUBMISSION, 999L);
+		subject.record(SUBMISSION, 1_000L);
+		subject.record(SUBMISSION, 1_999L);
+		subject.record(SUBMISSION, 2_000L);
+
+		// then:
+		assertEquals(1L, subject.percentileMicros(SUBMISSION, 0.25));
+		assertEquals(2L, subject.percentileMicros(SUBMISSION, 0.50));
+		assertEquals(4L, subject.percentileMicros(SUBMISSION, 0.99));
+	}
+
+	@Test
+	public void estimatesPercentilesPerStage() {
+		// given:
+		for (int i = 0; i < 98; i++) {
+			subject.record(PRECHECK, 100_000L);
+		}
+		subject.record(PRECHECK, 10_000_000L);
+		subject.record(PRECHECK, 10_000_000L);
+
+		// expect:
+		assertEquals(128L, subject.percentileMicros(PRECHECK, 0.50));
+		assertEquals(16_384L, subject.percentileMicros(PRECHECK, 0.99));
+		assertEquals(0L, subject.percentileMicros(SYNTAX_CHECK, 0.50));
+	}
+
+	@Test
+	public void capsLatenciesInLastBucket() {
+		// when:
+		subject.record(SYNTAX_CHECK, Long.MAX_VALUE);
+		subject.record(SYNTAX_CHECK, -1L);
+
+		// then:
+		assertEquals(1L, subject.percentileMicros(SYNTAX_CHECK, 0.50));
+		assertEquals(1L << (IngestStageLatencies.NUM_BUCKETS - 1), subject.percentileMicros(SYNTAX_CHECK, 0.99));
+	}
+}
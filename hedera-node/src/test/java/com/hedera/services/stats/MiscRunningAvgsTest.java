@@ -61,6 +61,8 @@ class MiscRunningAvgsTest {
 		StatEntry waitMs = mock(StatEntry.class);
 		StatEntry queueSizes = mock(StatEntry.class);
 		StatEntry submitSizes = mock(StatEntry.class);
+		StatEntry bytecodeHits = mock(StatEntry.class);
+		StatEntry jumpDestHits = mock(StatEntry.class);
 
 		given(factory.from(
 				argThat(MiscRunningAvgs.Names.ACCOUNT_LOOKUP_RETRIES::equals),
@@ -78,6 +80,14 @@ class MiscRunningAvgsTest {
 				argThat(MiscRunningAvgs.Names.HANDLED_SUBMIT_MESSAGE_SIZE::equals),
 				argThat(MiscRunningAvgs.Descriptions.HANDLED_SUBMIT_MESSAGE_SIZE::equals),
 				argThat(subject.handledSubmitMessageSize::equals))).willReturn(submitSizes);
+		given(factory.from(
+				argThat(MiscRunningAvgs.Names.BYTECODE_CACHE_HIT_RATE::equals),
+				argThat(MiscRunningAvgs.Descriptions.BYTECODE_CACHE_HIT_RATE::equals),
+				argThat(subject.bytecodeCacheHitRate::equals))).willReturn(bytecodeHits);
+		given(factory.from(
+				argThat(MiscRunningAvgs.Names.JUMP_DEST_CACHE_HIT_RATE::equals),
+				argThat(MiscRunningAvgs.Descriptions.JUMP_DEST_CACHE_HIT_RATE::equals),
+				argThat(subject.jumpDestCacheHitRate::equals))).willReturn(jumpDestHits);
 
 		// when:
 		subject.registerWith(platform);
@@ -87,6 +97,8 @@ class MiscRunningAvgsTest {
 		verify(platform).addAppStatEntry(waitMs);
 		verify(platform).addAppStatEntry(queueSizes);
 		verify(platform).addAppStatEntry(submitSizes);
+		verify(platform).addAppStatEntry(bytecodeHits);
+		verify(platform).addAppStatEntry(jumpDestHits);
 	}
 
 	@Test
@@ -96,22 +108,30 @@ class MiscRunningAvgsTest {
 		StatsRunningAverage waitMs = mock(StatsRunningAverage.class);
 		StatsRunningAverage queueSize = mock(StatsRunningAverage.class);
 		StatsRunningAverage submitSizes = mock(StatsRunningAverage.class);
+		StatsRunningAverage bytecodeHits = mock(StatsRunningAverage.class);
+		StatsRunningAverage jumpDestHits = mock(StatsRunningAverage.class);
 		// and:
 		subject.accountLookupRetries = retries;
 		subject.accountRetryWaitMs = waitMs;
 		subject.handledSubmitMessageSize = submitSizes;
 		subject.recordStreamQueueSize = queueSize;
+		subject.bytecodeCacheHitRate = bytecodeHits;
+		subject.jumpDestCacheHitRate = jumpDestHits;
 
 		// when:
 		subject.recordAccountLookupRetries(1);
 		subject.recordAccountRetryWaitMs(2.0);
 		subject.recordHandledSubmitMessageSize(3);
 		subject.recordStreamQueueSize(4);
+		subject.recordBytecodeCacheLookup(true);
+		subject.recordJumpDestCacheLookup(false);
 
 		// then:
 		verify(retries).recordValue(1.0);
 		verify(waitMs).recordValue(2.0);
 		verify(submitSizes).recordValue(3.0);
 		verify(queueSize).recordValue(4.0);
+		verify(bytecodeHits).recordValue(1.0);
+		verify(jumpDestHits).recordValue(0.0);
 	}
 }
\ No newline at end of file
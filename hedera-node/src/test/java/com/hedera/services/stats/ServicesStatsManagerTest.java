@@ -21,6 +21,8 @@ package com.hedera.services.stats;
  */
 
 import com.hedera.services.context.properties.NodeLocalProperties;
+import com.hedera.services.grpc.HeavyQueryInterceptor;
+import com.hedera.services.state.exports.AsyncBalancesExporter;
 import com.hedera.services.utils.Pause;
 import com.hedera.services.utils.SleepingPause;
 import com.swirlds.common.NodeId;
@@ -51,6 +53,9 @@ class ServicesStatsManagerTest {
 	MiscRunningAvgs runningAvgs;
 	MiscSpeedometers miscSpeedometers;
 	HapiOpSpeedometers speedometers;
+	IngestStageLatencies ingestLatencies;
+	HeavyQueryInterceptor heavyQueries;
+	AsyncBalancesExporter balancesExporter;
 	NodeLocalProperties properties;
 
 	ServicesStatsManager subject;
@@ -69,10 +74,21 @@ class ServicesStatsManagerTest {
 		runningAvgs = mock(MiscRunningAvgs.class);
 		speedometers = mock(HapiOpSpeedometers.class);
 		miscSpeedometers = mock(MiscSpeedometers.class);
+		ingestLatencies = mock(IngestStageLatencies.class);
+		heavyQueries = mock(HeavyQueryInterceptor.class);
+		balancesExporter = mock(AsyncBalancesExporter.class);
 		properties = mock(NodeLocalProperties.class);
 		given(properties.statsHapiOpsSpeedometerUpdateIntervalMs()).willReturn(updateIntervalMs);
 
-		subject = new ServicesStatsManager(counters, runningAvgs, miscSpeedometers, speedometers, properties);
+		subject = new ServicesStatsManager(
+				counters,
+				runningAvgs,
+				miscSpeedometers,
+				speedometers,
+				ingestLatencies,
+				heavyQueries,
+				balancesExporter,
+				properties);
 	}
 
 
@@ -103,6 +119,9 @@ class ServicesStatsManagerTest {
 		verify(speedometers).registerWith(platform);
 		verify(miscSpeedometers).registerWith(platform);
 		verify(runningAvgs).registerWith(platform);
+		verify(ingestLatencies).registerWith(platform);
+		verify(heavyQueries).registerWith(platform);
+		verify(balancesExporter).registerWith(platform);
 		verify(platform).appStatInit();
 		// and:
 		verify(thread).start();
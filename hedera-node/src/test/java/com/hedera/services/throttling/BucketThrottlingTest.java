@@ -24,27 +24,32 @@ import com.hedera.services.context.properties.PropertySource;
 import com.hedera.services.throttling.bucket.BucketConfig;
 import com.hedera.services.throttling.bucket.BucketThrottle;
 import com.hedera.services.throttling.bucket.CapacityTest;
+import com.hedera.services.throttling.bucket.GasCapacityTest;
 import com.hederahashgraph.api.proto.java.HederaFunctionality;
 import com.swirlds.common.AddressBook;
-import com.swirlds.common.throttle.Throttle;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.platform.runner.JUnitPlatform;
 import org.junit.runner.RunWith;
 
-import java.util.EnumMap;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
 import static com.hederahashgraph.api.proto.java.HederaFunctionality.ConsensusGetTopicInfo;
+import static com.hederahashgraph.api.proto.java.HederaFunctionality.ContractCall;
+import static com.hederahashgraph.api.proto.java.HederaFunctionality.ContractCreate;
 import static com.hederahashgraph.api.proto.java.HederaFunctionality.FileAppend;
 import static junit.framework.TestCase.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.BDDMockito.*;
 import static com.hedera.services.throttling.bucket.BucketConfig.*;
 import static com.hedera.services.throttling.ThrottlingPropsBuilder.*;
@@ -58,8 +63,6 @@ class BucketThrottlingTest {
 	double queryRequired = 1.0;
 	double txnRequired = 10.0;
 
-	Throttle unitThrottle;
-	Throttle deciThrottle;
 	BucketConfig txnBucketConfig;
 	BucketConfig queryBucketConfig;
 	BucketConfig bucketConfig;
@@ -85,12 +88,10 @@ class BucketThrottlingTest {
 	@BeforeEach
 	@SuppressWarnings("unchecked")
 	private void setup() {
-		unitThrottle = new Throttle(1.0, 1.0);
-		deciThrottle = new Throttle(10.0, 1.0);
-		bucket = new BucketThrottle(unitThrottle);
-		overflow = new BucketThrottle(deciThrottle);
-		queryBucket = new BucketThrottle(deciThrottle);
-		txnBucket = new BucketThrottle(deciThrottle);
+		bucket = new BucketThrottle(b, 1.0, 1.0);
+		overflow = new BucketThrottle(o, 10.0, 1.0);
+		queryBucket = new BucketThrottle(queries, 10.0, 1.0);
+		txnBucket = new BucketThrottle(txns, 10.0, 1.0);
 
 		bucketConfig = mock(BucketConfig.class);
 		given(bucketConfig.asNodeThrottle(networkSize)).willReturn(bucket);
@@ -149,8 +150,10 @@ class BucketThrottlingTest {
 		subject.rebuild();
 
 		// then:
-		assertEquals(2, subject.capacities.size());
+		assertEquals(2, Arrays.stream(subject.capacities).filter(Objects::nonNull).count());
+		assertNotNull(subject.capacities[FileAppend.ordinal()]);
 		assertNotSame(oldCapacities, subject.capacities);
+		assertEquals(buckets.keySet(), subject.buckets.keySet());
 
 		// cleanup:
 		BucketThrottling.displayFn = oldDisplay;
@@ -237,11 +240,11 @@ class BucketThrottlingTest {
 	void doesntThrottleIfCapAvail() {
 		// setup:
 		var test = mock(CapacityTest.class);
-		subject.capacities = new EnumMap<>(HederaFunctionality.class);
+		subject.capacities = new CapacityTest[HederaFunctionality.values().length];
 
 		given(test.isAvailable()).willReturn(true);
 		// and:
-		subject.capacities.put(txn, test);
+		subject.capacities[txn.ordinal()] = test;
 
 		// when:
 		var flag = subject.shouldThrottle(txn);
@@ -255,11 +258,11 @@ class BucketThrottlingTest {
 	void throttlesIfCapNotAvail() {
 		// setup:
 		var test = mock(CapacityTest.class);
-		subject.capacities = new EnumMap<>(HederaFunctionality.class);
+		subject.capacities = new CapacityTest[HederaFunctionality.values().length];
 
 		given(test.isAvailable()).willReturn(false);
 		// and:
-		subject.capacities.put(txn, test);
+		subject.capacities[txn.ordinal()] = test;
 
 		// when:
 		var flag = subject.shouldThrottle(txn);
@@ -269,10 +272,56 @@ class BucketThrottlingTest {
 		verify(test).isAvailable();
 	}
 
+	@Test
+	void buildsGasTestOnlyIfConfigured() {
+		given(throttleProps.containsProperty(asGasBucketProperty.apply(txn))).willReturn(true);
+		given(throttleProps.getStringProperty(asGasBucketProperty.apply(txn))).willReturn(b);
+		given(throttleProps.containsProperty(asGasBucketProperty.apply(query))).willReturn(true);
+		given(throttleProps.getStringProperty(asGasBucketProperty.apply(query))).willReturn("MISSING");
+		// and:
+		var throttles = subject.throttlesGiven(throttleProps, buckets);
+
+		// expect:
+		assertEquals(bucket, subject.gasTestGiven(throttleProps, txn, throttles).getBucket());
+		assertNull(subject.gasTestGiven(throttleProps, query, throttles));
+		assertNull(subject.gasTestGiven(throttleProps, ContractCall, throttles));
+	}
+
+	@Test
+	void throttlesGasOnlyWithGasTest() {
+		// setup:
+		var gasTest = mock(GasCapacityTest.class);
+		subject.gasCapacities = new GasCapacityTest[HederaFunctionality.values().length];
+		subject.gasCapacities[ContractCall.ordinal()] = gasTest;
+
+		given(gasTest.isAvailable(100_000L)).willReturn(false);
+
+		// expect:
+		assertTrue(subject.shouldThrottleGas(ContractCall, 100_000L));
+		assertFalse(subject.shouldThrottleGas(ContractCreate, 100_000L));
+	}
+
+	@Test
+	void refundsGasOnlyWithGasTest() {
+		// setup:
+		var gasTest = mock(GasCapacityTest.class);
+		subject.gasCapacities = new GasCapacityTest[HederaFunctionality.values().length];
+		subject.gasCapacities[ContractCall.ordinal()] = gasTest;
+
+		// when:
+		subject.refundGas(ContractCall, 70_000L);
+		subject.refundGas(ContractCall, 0L);
+		subject.refundGas(ContractCreate, 70_000L);
+
+		// then:
+		verify(gasTest, times(1)).refund(anyLong());
+		verify(gasTest).refund(70_000L);
+	}
+
 	@Test
 	void throttlesByDefault() {
 		// setup:
-		subject.capacities = new EnumMap<>(HederaFunctionality.class);
+		subject.capacities = new CapacityTest[HederaFunctionality.values().length];
 
 		// when:
 		var flag = subject.shouldThrottle(txn);
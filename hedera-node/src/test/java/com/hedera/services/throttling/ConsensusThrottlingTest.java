@@ -0,0 +1,233 @@
+package com.hedera.services.throttling;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2020 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hedera.services.context.properties.PropertySource;
+import com.hedera.services.throttling.bucket.BucketConfig;
+import com.hedera.services.throttling.bucket.BucketThrottle;
+import com.hederahashgraph.api.proto.java.HederaFunctionality;
+import com.swirlds.common.AddressBook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static com.hedera.services.throttling.ThrottlingPropsBuilder.DEFAULT_QUERY_CAPACITY_REQUIRED_PROPERTY;
+import static com.hedera.services.throttling.ThrottlingPropsBuilder.DEFAULT_TXN_CAPACITY_REQUIRED_PROPERTY;
+import static com.hedera.services.throttling.ThrottlingPropsBuilder.asBucketProperty;
+import static com.hedera.services.throttling.bucket.BucketConfig.DEFAULT_QUERY_BUCKET_PROPERTY;
+import static com.hedera.services.throttling.bucket.BucketConfig.DEFAULT_TXN_BUCKET_PROPERTY;
+import static com.hederahashgraph.api.proto.java.HederaFunctionality.CryptoTransfer;
+import static com.hederahashgraph.api.proto.java.HederaFunctionality.FileAppend;
+import static com.hederahashgraph.api.proto.java.HederaFunctionality.NONE;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.*;
+
+@RunWith(JUnitPlatform.class)
+class ConsensusThrottlingTest {
+	int networkSize = 4;
+	String txns = "defaultTxnBucket";
+	String queries = "defaultQueryBucket";
+	String appends = "appendBucket";
+	Instant consensusNow = Instant.ofEpochSecond(1_600_000_000L, 123);
+
+	BucketConfig txnConfig;
+	BucketConfig queryConfig;
+	BucketConfig appendConfig;
+
+	AddressBook book;
+	PropertySource properties;
+	PropertySource throttleProps;
+	Function<PropertySource, Map<String, BucketConfig>> getBuckets;
+	BiFunction<PropertySource, Integer, PropertySource> getThrottleProps;
+	Consumer<String> oldDisplay;
+
+	ConsensusThrottling subject;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	private void setup() {
+		oldDisplay = BucketThrottling.displayFn;
+		BucketThrottling.displayFn = ignore -> { };
+
+		txnConfig = mock(BucketConfig.class);
+		given(txnConfig.asNetworkThrottle()).willAnswer(ignore -> new BucketThrottle(txns, 1.0, 1.0));
+		queryConfig = mock(BucketConfig.class);
+		given(queryConfig.asNetworkThrottle()).willAnswer(ignore -> new BucketThrottle(queries, 10.0, 1.0));
+		appendConfig = mock(BucketConfig.class);
+		given(appendConfig.asNetworkThrottle()).willAnswer(ignore -> new BucketThrottle(appends, 2.0, 1.0));
+
+		book = mock(AddressBook.class);
+		given(book.getSize()).willReturn(networkSize);
+
+		throttleProps = mock(PropertySource.class);
+		given(throttleProps.getStringProperty(DEFAULT_TXN_BUCKET_PROPERTY)).willReturn(txns);
+		given(throttleProps.getStringProperty(DEFAULT_QUERY_BUCKET_PROPERTY)).willReturn(queries);
+		given(throttleProps.getDoubleProperty(DEFAULT_TXN_CAPACITY_REQUIRED_PROPERTY)).willReturn(1.0);
+		given(throttleProps.getDoubleProperty(DEFAULT_QUERY_CAPACITY_REQUIRED_PROPERTY)).willReturn(1.0);
+		given(throttleProps.containsProperty(asBucketProperty.apply(FileAppend))).willReturn(true);
+		given(throttleProps.getStringProperty(asBucketProperty.apply(FileAppend))).willReturn(appends);
+
+		properties = mock(PropertySource.class);
+
+		getBuckets = mock(Function.class);
+		given(getBuckets.apply(throttleProps)).willReturn(Map.of(
+				txns, txnConfig,
+				queries, queryConfig,
+				appends, appendConfig));
+		getThrottleProps = mock(BiFunction.class);
+		given(getThrottleProps.apply(properties, networkSize)).willReturn(throttleProps);
+
+		subject = new ConsensusThrottling(() -> book, properties, getBuckets, getThrottleProps);
+		subject.functions = new HederaFunctionality[] { CryptoTransfer, FileAppend };
+	}
+
+	@AfterEach
+	public void cleanup() {
+		BucketThrottling.displayFn = oldDisplay;
+	}
+
+	@Test
+	public void usesFullNetworkCapacity() {
+		// when:
+		subject.rebuild();
+
+		// then:
+		verify(txnConfig).asNetworkThrottle();
+		verify(txnConfig, never()).asNodeThrottle(anyInt());
+	}
+
+	@Test
+	public void startsBucketsEmptyOnConsensusClock() {
+		// when:
+		subject.rebuild();
+
+		// then:
+		assertArrayEquals(
+				new long[] { ConsensusThrottling.EMPTY, ConsensusThrottling.EMPTY, ConsensusThrottling.EMPTY },
+				subject.usageSnapshot());
+	}
+
+	@Test
+	public void throttlesByConsensusTime() {
+		// given:
+		subject.rebuild();
+
+		// expect:
+		assertFalse(subject.shouldThrottle(CryptoTransfer, consensusNow));
+		assertTrue(subject.shouldThrottle(CryptoTransfer, consensusNow.plusMillis(500)));
+		assertFalse(subject.shouldThrottle(CryptoTransfer, consensusNow.plusSeconds(1)));
+		// and:
+		assertFalse(subject.shouldThrottle(FileAppend, consensusNow));
+		assertFalse(subject.shouldThrottle(FileAppend, consensusNow));
+		assertTrue(subject.shouldThrottle(FileAppend, consensusNow));
+		assertFalse(subject.shouldThrottle(FileAppend, consensusNow.plusMillis(500)));
+	}
+
+	@Test
+	public void doesntThrottleFunctionWithoutTest() {
+		// given:
+		subject.rebuild();
+
+		// expect:
+		assertFalse(subject.shouldThrottle(NONE, consensusNow));
+	}
+
+	@Test
+	public void snapshotsUsageInBucketNameOrder() {
+		// given:
+		subject.rebuild();
+		// and:
+		subject.shouldThrottle(FileAppend, consensusNow);
+		subject.shouldThrottle(CryptoTransfer, consensusNow);
+
+		// when:
+		var usages = subject.usageSnapshot();
+
+		// then:
+		long now = ConsensusThrottling.nanosOf(consensusNow);
+		assertArrayEquals(new long[] { now + 500_000_000L, ConsensusThrottling.EMPTY, now + 1_000_000_000L }, usages);
+	}
+
+	@Test
+	public void keepsUsageOfSameNamedBucketsOnRebuild() {
+		// given:
+		subject.rebuild();
+		subject.shouldThrottle(CryptoTransfer, consensusNow);
+
+		// when:
+		subject.rebuild();
+
+		// then:
+		assertTrue(subject.shouldThrottle(CryptoTransfer, consensusNow.plusMillis(500)));
+	}
+
+	@Test
+	public void resumesFromMatchingUsage() {
+		// setup:
+		long now = ConsensusThrottling.nanosOf(consensusNow);
+
+		// when:
+		subject.resumeFrom(new long[] { ConsensusThrottling.EMPTY, ConsensusThrottling.EMPTY, now + 1_000_000_000L });
+
+		// then:
+		assertTrue(subject.shouldThrottle(CryptoTransfer, consensusNow.plusMillis(500)));
+		assertFalse(subject.shouldThrottle(FileAppend, consensusNow.plusMillis(500)));
+	}
+
+	@Test
+	public void ignoresMismatchedOrMissingUsage() {
+		// when:
+		subject.resumeFrom(new long[] { Long.MAX_VALUE });
+		subject.resumeFrom(null);
+
+		// then:
+		assertFalse(subject.shouldThrottle(CryptoTransfer, consensusNow));
+	}
+
+	@Test
+	public void onlyRebuildsToResumeIfNeverBuilt() {
+		// given:
+		subject.rebuild();
+
+		// when:
+		subject.resumeFrom(null);
+
+		// then:
+		verify(getBuckets, times(1)).apply(throttleProps);
+	}
+
+	@Test
+	public void convertsConsensusTimeToNanos() {
+		// expect:
+		assertEquals(1_600_000_000_000_000_123L, ConsensusThrottling.nanosOf(consensusNow));
+	}
+}
@@ -24,6 +24,8 @@ import com.hederahashgraph.api.proto.java.ConsensusCreateTopicTransactionBody;
 import com.hederahashgraph.api.proto.java.ConsensusDeleteTopicTransactionBody;
 import com.hederahashgraph.api.proto.java.ConsensusSubmitMessageTransactionBody;
 import com.hederahashgraph.api.proto.java.ConsensusUpdateTopicTransactionBody;
+import com.hederahashgraph.api.proto.java.ContractCallTransactionBody;
+import com.hederahashgraph.api.proto.java.ContractCreateTransactionBody;
 import com.hederahashgraph.api.proto.java.TransactionBody;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -36,13 +38,20 @@ import static com.hederahashgraph.api.proto.java.HederaFunctionality.ConsensusCr
 import static com.hederahashgraph.api.proto.java.HederaFunctionality.ConsensusDeleteTopic;
 import static com.hederahashgraph.api.proto.java.HederaFunctionality.ConsensusSubmitMessage;
 import static com.hederahashgraph.api.proto.java.HederaFunctionality.ConsensusUpdateTopic;
+import static com.hederahashgraph.api.proto.java.HederaFunctionality.ContractCall;
+import static com.hederahashgraph.api.proto.java.HederaFunctionality.ContractCreate;
+import static junit.framework.TestCase.assertFalse;
 import static junit.framework.TestCase.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.mock;
+import static org.mockito.BDDMockito.never;
 import static org.mockito.BDDMockito.verify;
 
 @RunWith(JUnitPlatform.class)
 class TransactionThrottlingTest {
+	int maxGas = 300_000;
 	FunctionalityThrottling functionalThrottling;
 
 	TransactionThrottling subject;
@@ -51,7 +60,98 @@ class TransactionThrottlingTest {
 	private void setup() {
 		functionalThrottling = mock(FunctionalityThrottling.class);
 
-		subject = new TransactionThrottling(functionalThrottling);
+		subject = new TransactionThrottling(functionalThrottling, () -> maxGas);
+	}
+
+	@Test
+	public void throttlesContractCallByGasBeforeCount() {
+		given(functionalThrottling.shouldThrottleGas(ContractCall, 100_000L)).willReturn(true);
+
+		// when:
+		boolean should = subject.shouldThrottle(callOffering(100_000L));
+
+		// then:
+		assertTrue(should);
+		verify(functionalThrottling, never()).shouldThrottle(ContractCall);
+	}
+
+	@Test
+	public void refundsGasIfThrottledByCount() {
+		given(functionalThrottling.shouldThrottle(ContractCall)).willReturn(true);
+
+		// when:
+		boolean should = subject.shouldThrottle(callOffering(100_000L));
+
+		// then:
+		assertTrue(should);
+		verify(functionalThrottling).shouldThrottleGas(ContractCall, 100_000L);
+		verify(functionalThrottling).refundGas(ContractCall, 100_000L);
+	}
+
+	@Test
+	public void admitsContractCreateWithGasAndCountCapacity() {
+		// setup:
+		TransactionBody createTxn = TransactionBody.newBuilder()
+				.setContractCreateInstance(ContractCreateTransactionBody.newBuilder().setGas(2 * maxGas))
+				.build();
+
+		// when:
+		boolean should = subject.shouldThrottle(createTxn);
+
+		// then:
+		assertFalse(should);
+		verify(functionalThrottling).shouldThrottleGas(ContractCreate, maxGas);
+		verify(functionalThrottling, never()).refundGas(any(), anyLong());
+	}
+
+	@Test
+	public void doesntThrottleGasOfNonContractOps() {
+		// setup:
+		TransactionBody createTxn = TransactionBody.newBuilder()
+				.setConsensusCreateTopic(ConsensusCreateTopicTransactionBody.newBuilder().setMemo("Hi!"))
+				.build();
+
+		// when:
+		subject.shouldThrottle(createTxn);
+
+		// then:
+		verify(functionalThrottling, never()).shouldThrottleGas(any(), anyLong());
+	}
+
+	@Test
+	public void refundsUnusedGasOnReconciliation() {
+		// when:
+		subject.reconcileGasUsed(callOffering(100_000L), 30_000L);
+
+		// then:
+		verify(functionalThrottling).refundGas(ContractCall, 70_000L);
+	}
+
+	@Test
+	public void refundsNothingIfAllGasUsed() {
+		// when:
+		subject.reconcileGasUsed(callOffering(100_000L), 100_000L);
+		subject.reconcileGasUsed(TransactionBody.getDefaultInstance(), 0L);
+
+		// then:
+		verify(functionalThrottling, never()).refundGas(any(), anyLong());
+	}
+
+	@Test
+	public void refundsAllGasOffered() {
+		// when:
+		subject.refundGasOffered(callOffering(100_000L));
+		subject.refundGasOffered(TransactionBody.getDefaultInstance());
+
+		// then:
+		verify(functionalThrottling).refundGas(ContractCall, 100_000L);
+		verify(functionalThrottling, never()).refundGas(ContractCall, 0L);
+	}
+
+	private TransactionBody callOffering(long gas) {
+		return TransactionBody.newBuilder()
+				.setContractCall(ContractCallTransactionBody.newBuilder().setGas(gas))
+				.build();
 	}
 
 	@Test
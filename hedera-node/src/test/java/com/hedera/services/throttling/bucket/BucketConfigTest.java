@@ -94,14 +94,17 @@ class BucketConfigTest {
 		var config = namedIn(properties, bucket);
 		// and:
 		var throttle = config.asNodeThrottle(5);
+		var networkThrottle = config.asNetworkThrottle();
 
 		// then:
 		assertEquals(555, config.capacity());
 		assertEquals(111, config.burstPeriod());
 		assertEquals(overflow, config.overflow());
 		// and:
-		assertEquals(1.0, throttle.primary().getTps());
-		assertEquals(111.0, throttle.primary().getBurstPeriod());
+		assertEquals(1.0, throttle.tps());
+		assertEquals(111.0, throttle.burstPeriod());
+		assertEquals(5.0, networkThrottle.tps());
+		assertEquals(111.0, networkThrottle.burstPeriod());
 	}
 
 	@Test
@@ -20,93 +20,157 @@ package com.hedera.services.throttling.bucket;
  * ‍
  */
 
-import com.swirlds.common.throttle.Throttle;
-import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.platform.runner.JUnitPlatform;
 import org.junit.runner.RunWith;
 
 import static com.hedera.services.throttling.bucket.BucketThrottle.EFFECTIVELY_UNLIMITED_CAPACITY;
+import static com.hedera.services.throttling.bucket.BucketThrottle.NEVER_AVAILABLE;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
-import static org.mockito.BDDMockito.*;
 
 @RunWith(JUnitPlatform.class)
 class BucketThrottleTest {
-	double amount = 123.0;
-
-	Throttle p;
-	Throttle o;
-	Throttle s;
+	long now;
+	long sec = 1_000_000_000L;
 
 	BucketThrottle subject;
 	BucketThrottle overflow;
 	BucketThrottle spillover;
 
 	@BeforeEach
-	private void setup() {
-		p = mock(Throttle.class);
-		o = mock(Throttle.class);
-		s = mock(Throttle.class);
-
-		subject = new BucketThrottle("P", p);
-		overflow = new BucketThrottle("O", o);
-		spillover = new BucketThrottle("S", s);
+	public void setup() {
+		subject = new BucketThrottle("P", 50.0, 2.0);
+		overflow = new BucketThrottle("O", EFFECTIVELY_UNLIMITED_CAPACITY, 1.0);
+		spillover = new BucketThrottle("S", 200.0, 0.5);
+		now = System.nanoTime();
 	}
 
 	@Test
-	public void autoReconfiguresWhenInsufficientCapacity() {
-		// given:
-		subject = new BucketThrottle("T", new Throttle(0.358, 2.6));
+	public void costsAmountInDrainNanos() {
+		// expect:
+		assertEquals(20_000_000L, subject.costNanosOf(1.0));
+		assertEquals(2_000_000_000L, subject.costNanosOf(100.0));
+		assertEquals(NEVER_AVAILABLE, new BucketThrottle("Z", 0.0, 1.0).costNanosOf(1.0));
+	}
+
+	@Test
+	public void admitsUpToBurstCapacityThenDrains() {
+		// setup:
+		subject = new BucketThrottle("T", 10.0, 1.0);
+		long cost = subject.costNanosOf(1.0);
+		now = System.nanoTime();
 
 		// when:
-		var avail = subject.hasAvailableCapacity(1.0);
+		for (int i = 0; i < 10; i++) {
+			assertTrue(subject.tryConsume(cost, now));
+		}
 
 		// then:
-		assertTrue(avail);
-		Assertions.assertEquals(2.8, subject.primary.getBurstPeriod(), 0.01);
-		Assertions.assertEquals(.358, subject.primary.getTps(), 0.01);
+		assertFalse(subject.tryConsume(cost, now));
+		assertFalse(subject.tryConsume(cost, now + cost - 1));
+		assertTrue(subject.tryConsume(cost, now + cost));
+		// and:
+		assertTrue(subject.tryConsume(cost * 10, now + 3 * sec));
 	}
 
 	@Test
-	void usesPrimary() {
-		given(p.allow(amount)).willReturn(true);
+	public void drainsOnAnyClockOnceEmptyTimeIsSet() {
+		// setup:
+		long consensusNow = 1_600_000_000_000_000_000L;
+		long cost = subject.costNanosOf(100.0);
 
-		// expect:
-		assertTrue(subject.hasAvailableCapacity(amount));
+		// given:
+		subject.setEmptyAt(0L);
+
+		// when:
+		assertTrue(subject.tryConsume(cost, consensusNow));
+
+		// then:
+		assertEquals(consensusNow + cost, subject.emptyAt());
+		assertFalse(subject.tryConsume(cost, consensusNow + cost - 1));
 	}
 
 	@Test
-	void usesOverflowIfAvailable() {
+	public void refundsUnusedCostButNoEarlierThanNow() {
 		// setup:
-		subject.setOverflow(overflow);
+		long cost = subject.costNanosOf(10.0);
 
-		given(p.allow(amount)).willReturn(false);
-		given(o.allow(amount)).willReturn(true);
+		// given:
+		assertTrue(subject.tryConsume(cost * 4, now));
+
+		// when:
+		subject.refund(cost, now);
+		// then:
+		assertEquals(now + cost * 3, subject.emptyAt());
+
+		// and when:
+		subject.refund(cost * 10, now + cost);
+		// then:
+		assertEquals(now + cost, subject.emptyAt());
+
+		// and when:
+		subject.refund(cost, now + cost * 2);
+		subject.refund(NEVER_AVAILABLE, now);
+		// then:
+		assertEquals(now + cost, subject.emptyAt());
+	}
+
+	@Test
+	public void neverAdmitsIfNoDrain() {
+		// given:
+		subject = new BucketThrottle("Z", 0.0, 1.0);
 
 		// expect:
-		assertTrue(subject.hasAvailableCapacity(amount));
+		assertFalse(subject.tryConsume(subject.costNanosOf(1.0), now));
 	}
 
 	@Test
-	void chainingWorks() {
-		// setup:
-		subject.setOverflow(overflow);
-		overflow.setOverflow(spillover);
+	public void widensBurstToFitRequiredCost() {
+		// given:
+		subject = new BucketThrottle("T", 0.358, 2.6);
+		long cost = subject.costNanosOf(1.0);
+		now = System.nanoTime();
+
+		// when:
+		subject.ensureRoomFor(cost);
+		subject.ensureRoomFor(NEVER_AVAILABLE);
+
+		// then:
+		assertEquals(2.8, subject.burstPeriod(), 0.01);
+		assertEquals(.358, subject.tps(), 0.01);
+		assertTrue(subject.tryConsume(cost, now));
+		assertFalse(subject.tryConsume(cost, now));
+	}
+
+	@Test
+	public void keepsBurstIfAlreadyWideEnough() {
+		// when:
+		subject.ensureRoomFor(subject.costNanosOf(1.0));
 
-		given(p.allow(amount)).willReturn(false);
-		given(o.allow(amount)).willReturn(false);
-		given(s.allow(amount)).willReturn(true);
+		// then:
+		assertEquals(2.0, subject.burstPeriod());
+	}
 
+	@Test
+	public void tracksOverflow() {
 		// expect:
-		assertTrue(subject.hasAvailableCapacity(amount));
+		assertFalse(subject.hasOverflow());
+
+		// when:
+		subject.setOverflow(overflow);
+
+		// then:
+		assertTrue(subject.hasOverflow());
+		assertEquals(overflow, subject.overflow());
+		assertEquals("P", subject.name());
 	}
 
 	@Test
 	public void representsExpected() {
-		givenRealThrottles();
-		// and:
+		// given:
 		overflow.setOverflow(spillover);
 		subject.setOverflow(overflow);
 
@@ -120,14 +184,4 @@ class BucketThrottleTest {
 		// then:
 		assertEquals(expected, repr);
 	}
-
-	private void givenRealThrottles() {
-		p = new Throttle(50.0, 2.0);
-		o = new Throttle(EFFECTIVELY_UNLIMITED_CAPACITY, 1.0);
-		s = new Throttle(200.0, 0.5);
-
-		subject = new BucketThrottle("P", p);
-		overflow = new BucketThrottle("O", o);
-		spillover = new BucketThrottle("S", s);
-	}
 }
@@ -20,53 +20,93 @@ package com.hedera.services.throttling.bucket;
  * ‍
  */
 
-import com.swirlds.common.throttle.Throttle;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.platform.runner.JUnitPlatform;
 import org.junit.runner.RunWith;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
-import static org.mockito.BDDMockito.given;
-import static org.mockito.BDDMockito.mock;
-import static org.mockito.BDDMockito.verify;
-import static org.mockito.Mockito.times;
 
 @RunWith(JUnitPlatform.class)
 class CapacityTestTest {
-	double req = 123.0;
+	double req = 1.0;
 	BucketThrottle bucket;
+	BucketThrottle overflow;
 
 	CapacityTest subject;
 
 	@BeforeEach
-	private void setup() {
-		bucket = mock(BucketThrottle.class);
+	public void setup() {
+		bucket = new BucketThrottle("B", 0.001, 1_000.0);
+		overflow = new BucketThrottle("O", 0.001, 1_000.0);
 
 		subject = new CapacityTest(req, bucket);
 	}
 
 	@Test
-	public void delegatesAsExpected() {
-		given(bucket.hasAvailableCapacity(req)).willReturn(true);
+	public void consumesFromBucket() {
+		// expect:
+		assertTrue(subject.isAvailable());
+		assertFalse(subject.isAvailable());
+		// and:
+		assertSame(bucket, subject.getBucket());
+		assertEquals(req, subject.getCapacityRequired());
+	}
 
-		// when:
-		boolean flag = subject.isAvailable();
+	@Test
+	public void fallsBackToResolvedOverflow() {
+		// given:
+		bucket.setOverflow(overflow);
+		subject = new CapacityTest(req, bucket);
 
-		// then:
-		assertTrue(flag);
-		// and:
-		verify(bucket, times(2)).hasAvailableCapacity(req);
+		// expect:
+		assertTrue(subject.isAvailable());
+		assertTrue(subject.isAvailable());
+		assertFalse(subject.isAvailable());
 	}
 
 	@Test
-	void toStringWorks() {
+	public void survivesOverflowCycles() {
+		// given:
+		bucket.setOverflow(overflow);
+		overflow.setOverflow(bucket);
+		subject = new CapacityTest(req, bucket);
+
+		// expect:
+		assertTrue(subject.isAvailable());
+		assertTrue(subject.isAvailable());
+		assertFalse(subject.isAvailable());
+	}
+
+	@Test
+	public void widensBucketsTooSmallForRequirement() {
+		// given:
+		subject = new CapacityTest(3.0, bucket);
+
+		// expect:
+		assertTrue(subject.isAvailable());
+		assertFalse(subject.isAvailable());
+	}
+
+	@Test
+	public void consumesAtGivenTime() {
 		// setup:
-		var t = new Throttle(5.0, 1.0);
+		long then = 1_600_000_000_000_000_000L;
+		bucket.setEmptyAt(0L);
+
+		// expect:
+		assertTrue(subject.isAvailableAt(then));
+		assertFalse(subject.isAvailableAt(then));
+		assertTrue(subject.isAvailableAt(then + bucket.costNanosOf(req)));
+	}
 
+	@Test
+	void toStringWorks() {
 		// given:
-		subject = new CapacityTest(1.011, new BucketThrottle("B", t));
+		subject = new CapacityTest(1.011, new BucketThrottle("B", 5.0, 1.0));
 
 		// when:
 		var repr = subject.toString();
@@ -0,0 +1,90 @@
+package com.hedera.services.throttling.bucket;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2020 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@RunWith(JUnitPlatform.class)
+class GasCapacityTestTest {
+	long maxGas = 300_000L;
+	BucketThrottle bucket;
+	BucketThrottle overflow;
+
+	GasCapacityTest subject;
+
+	@BeforeEach
+	public void setup() {
+		/* Each bucket drains so slowly that it only admits its burst capacity during a test. */
+		bucket = new BucketThrottle("G", 0.6, 1_000_000.0);
+		overflow = new BucketThrottle("H", 0.3, 1_000_000.0);
+
+		subject = new GasCapacityTest(bucket);
+	}
+
+	@Test
+	public void consumesOfferedGas() {
+		// expect:
+		assertTrue(subject.isAvailable(maxGas));
+		assertTrue(subject.isAvailable(maxGas));
+		assertFalse(subject.isAvailable(1_000L));
+		// and:
+		assertSame(bucket, subject.getBucket());
+	}
+
+	@Test
+	public void fallsBackToOverflowForMoreGas() {
+		// given:
+		bucket.setOverflow(overflow);
+		subject = new GasCapacityTest(bucket);
+
+		// expect:
+		assertTrue(subject.isAvailable(2 * maxGas));
+		assertTrue(subject.isAvailable(maxGas));
+		assertFalse(subject.isAvailable(1_000L));
+	}
+
+	@Test
+	public void refundsUnusedGas() {
+		// given:
+		assertTrue(subject.isAvailable(2 * maxGas));
+
+		// when:
+		subject.refund(maxGas);
+
+		// then:
+		assertTrue(subject.isAvailable(maxGas));
+		assertFalse(subject.isAvailable(1_000L));
+	}
+
+	@Test
+	void toStringWorks() {
+		// expect:
+		assertEquals("GasTest{in=" + bucket + "}", subject.toString());
+	}
+}
@@ -29,11 +29,16 @@ import static com.hederahashgraph.api.proto.java.ResponseCodeEnum.NOT_SUPPORTED;
 import static com.hederahashgraph.api.proto.java.ResponseCodeEnum.OK;
 import static com.hederahashgraph.api.proto.java.ResponseCodeEnum.PLATFORM_TRANSACTION_NOT_CREATED;
 import static com.hedera.services.context.ServicesNodeType.*;
+import static com.hedera.services.stats.IngestStageLatencies.Stage.PRECHECK;
+import static com.hedera.services.stats.IngestStageLatencies.Stage.SUBMISSION;
+import static com.hedera.services.stats.IngestStageLatencies.Stage.SYNTAX_CHECK;
 
 import com.google.protobuf.ByteString;
 import com.hedera.services.legacy.proto.utils.CommonUtils;
+import com.hedera.services.stats.IngestStageLatencies;
 import com.hedera.services.txns.TransitionLogic;
 import com.hedera.services.txns.TransitionLogicLookup;
+import com.hedera.services.utils.SignedTxnAccessor;
 import com.hederahashgraph.api.proto.java.CryptoTransferTransactionBody;
 import com.hederahashgraph.api.proto.java.ResponseCodeEnum;
 import com.hederahashgraph.api.proto.java.SignedTransaction;
@@ -73,6 +78,7 @@ class TxnHandlerSubmissionFlowTest {
 	private TransactionHandler txnHandler;
 	private TransitionLogicLookup logicLookup;
 	private PlatformSubmissionManager submissionManager;
+	private IngestStageLatencies latencies;
 	private Function<TransactionBody, ResponseCodeEnum> syntaxCheck;
 
 	private TxnHandlerSubmissionFlow subject;
@@ -97,8 +103,9 @@ class TxnHandlerSubmissionFlowTest {
 		logicLookup = mock(TransitionLogicLookup.class);
 		given(logicLookup.lookupFor(CryptoTransfer, CommonUtils.extractTransactionBody(signedTxn))).willReturn(Optional.of(logic));
 		submissionManager = mock(PlatformSubmissionManager.class);
+		latencies = mock(IngestStageLatencies.class);
 
-		subject = new TxnHandlerSubmissionFlow(STAKED_NODE, txnHandler, logicLookup, submissionManager);
+		subject = new TxnHandlerSubmissionFlow(STAKED_NODE, txnHandler, logicLookup, submissionManager, latencies);
 
 		given(logicLookup.lookupFor(CryptoTransfer, CommonUtils.extractTransactionBody(newTxn))).willReturn(Optional.of(logic));
 	}
@@ -106,7 +113,7 @@ class TxnHandlerSubmissionFlowTest {
 	@Test
 	public void rejectsAllTxnsOnZeroStakeNode() {
 		// given:
-		subject = new TxnHandlerSubmissionFlow(ZERO_STAKE_NODE, txnHandler, logicLookup, submissionManager);
+		subject = new TxnHandlerSubmissionFlow(ZERO_STAKE_NODE, txnHandler, logicLookup, submissionManager, latencies);
 
 		// when:
 		TransactionResponse response = subject.submit(Transaction.getDefaultInstance());
@@ -134,7 +141,7 @@ class TxnHandlerSubmissionFlowTest {
 		// setup:
 		TxnValidityAndFeeReq metaValidity = new TxnValidityAndFeeReq(INSUFFICIENT_PAYER_BALANCE, feeRequired);
 
-		given(txnHandler.validateTransactionPreConsensus(signedTxn, false)).willReturn(metaValidity);
+		given(txnHandler.validateTransactionPreConsensus(accessorFor(signedTxn), eq(false))).willReturn(metaValidity);
 
 		// when:
 		TransactionResponse response = subject.submit(signedTxn);
@@ -142,11 +149,13 @@ class TxnHandlerSubmissionFlowTest {
 		// then:
 		assertEquals(INSUFFICIENT_PAYER_BALANCE, response.getNodeTransactionPrecheckCode());
 		assertEquals(feeRequired, response.getCost());
+		// and:
+		verify(txnHandler, never()).refundGasOffered(any());
 	}
 
 	@Test
-	public void rejectsInvalidSyntax() {
-		given(txnHandler.validateTransactionPreConsensus(signedTxn, false)).willReturn(okMeta);
+	public void rejectsInvalidSyntax() throws Exception {
+		given(txnHandler.validateTransactionPreConsensus(accessorFor(signedTxn), eq(false))).willReturn(okMeta);
 		given(syntaxCheck.apply(any())).willReturn(INVALID_ACCOUNT_ID);
 
 		// when:
@@ -154,11 +163,13 @@ class TxnHandlerSubmissionFlowTest {
 
 		// then:
 		assertEquals(INVALID_ACCOUNT_ID, response.getNodeTransactionPrecheckCode());
+		// and:
+		verify(txnHandler).refundGasOffered(CommonUtils.extractTransactionBody(signedTxn));
 	}
 
 	@Test
 	public void catchesPlatformCreateEx() throws Exception {
-		given(txnHandler.validateTransactionPreConsensus(signedTxn, false)).willReturn(okMeta);
+		given(txnHandler.validateTransactionPreConsensus(accessorFor(signedTxn), eq(false))).willReturn(okMeta);
 		given(syntaxCheck.apply(any())).willReturn(OK);
 		given(submissionManager.trySubmission(any())).willReturn(PLATFORM_TRANSACTION_NOT_CREATED);
 
@@ -167,11 +178,13 @@ class TxnHandlerSubmissionFlowTest {
 
 		// then:
 		assertEquals(PLATFORM_TRANSACTION_NOT_CREATED, response.getNodeTransactionPrecheckCode());
+		// and:
+		verify(txnHandler).refundGasOffered(CommonUtils.extractTransactionBody(signedTxn));
 	}
 
 	@Test
 	public void followsHappyPathToOk() throws Exception {
-		given(txnHandler.validateTransactionPreConsensus(signedTxn, false)).willReturn(okMeta);
+		given(txnHandler.validateTransactionPreConsensus(accessorFor(signedTxn), eq(false))).willReturn(okMeta);
 		given(syntaxCheck.apply(any())).willReturn(OK);
 		given(submissionManager.trySubmission(any())).willReturn(OK);
 
@@ -180,11 +193,17 @@ class TxnHandlerSubmissionFlowTest {
 
 		// then:
 		assertEquals(OK, response.getNodeTransactionPrecheckCode());
+		// and:
+		verify(txnHandler, never()).validateTransactionPreConsensus(any(Transaction.class), anyBoolean());
+		verify(latencies).record(eq(PRECHECK), anyLong());
+		verify(latencies).record(eq(SYNTAX_CHECK), anyLong());
+		verify(latencies).record(eq(SUBMISSION), anyLong());
+		verify(txnHandler, never()).refundGasOffered(any());
 	}
 
 	@Test
 	public void usesFallbackSyntaxCheckIfNotSupported() throws Exception {
-		given(txnHandler.validateTransactionPreConsensus(signedTxn, false)).willReturn(okMeta);
+		given(txnHandler.validateTransactionPreConsensus(accessorFor(signedTxn), eq(false))).willReturn(okMeta);
 		given(logicLookup.lookupFor(any(), any())).willReturn(Optional.empty());
 
 		// when:
@@ -199,7 +218,7 @@ class TxnHandlerSubmissionFlowTest {
 		// setup:
 		TxnValidityAndFeeReq metaValidity = new TxnValidityAndFeeReq(INSUFFICIENT_PAYER_BALANCE, feeRequired);
 
-		given(txnHandler.validateTransactionPreConsensus(newTxn, false)).willReturn(metaValidity);
+		given(txnHandler.validateTransactionPreConsensus(accessorFor(newTxn), eq(false))).willReturn(metaValidity);
 
 		// when:
 		TransactionResponse response = subject.submit(newTxn);
@@ -211,7 +230,7 @@ class TxnHandlerSubmissionFlowTest {
 
 	@Test
 	public void followsSignedTxnHappyPathToOk() throws Exception {
-		given(txnHandler.validateTransactionPreConsensus(newTxn, false)).willReturn(okMeta);
+		given(txnHandler.validateTransactionPreConsensus(accessorFor(newTxn), eq(false))).willReturn(okMeta);
 		given(syntaxCheck.apply(any())).willReturn(OK);
 		given(submissionManager.trySubmission(any())).willReturn(OK);
 
@@ -221,4 +240,8 @@ class TxnHandlerSubmissionFlowTest {
 		// then:
 		assertEquals(OK, response.getNodeTransactionPrecheckCode());
 	}
+
+	private SignedTxnAccessor accessorFor(Transaction txn) {
+		return argThat(accessor -> txn.equals(accessor.getSignedTxn()));
+	}
 }
@@ -0,0 +1,136 @@
+package com.hedera.services.utils;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2020 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+import java.util.HashSet;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@RunWith(JUnitPlatform.class)
+class LongHashSetTest {
+	LongHashSet subject;
+
+	@BeforeEach
+	public void setup() {
+		subject = new LongHashSet();
+	}
+
+	@Test
+	public void addsAndRemovesOnlyOnce() {
+		// expect:
+		assertTrue(subject.add(1_001L));
+		assertFalse(subject.add(1_001L));
+		assertTrue(subject.contains(1_001L));
+		assertEquals(1, subject.size());
+		// and:
+		assertTrue(subject.remove(1_001L));
+		assertFalse(subject.remove(1_001L));
+		assertFalse(subject.contains(1_001L));
+		assertTrue(subject.isEmpty());
+	}
+
+	@Test
+	public void tracksZeroSeparately() {
+		// when:
+		subject.add(0L);
+		subject.add(-1L);
+
+		// then:
+		assertTrue(subject.contains(0L));
+		assertEquals(2, subject.size());
+		assertFalse(subject.add(0L));
+		// and:
+		assertTrue(subject.remove(0L));
+		assertFalse(subject.remove(0L));
+		assertFalse(subject.contains(0L));
+		assertTrue(subject.contains(-1L));
+	}
+
+	@Test
+	public void agreesWithHashSetUnderRandomChurn() {
+		// setup:
+		var r = new SplittableRandom(42L);
+		Set<Long> expected = new HashSet<>();
+
+		// when:
+		for (int i = 0; i < 100_000; i++) {
+			long value = r.nextInt(5_000);
+			if (r.nextBoolean()) {
+				assertEquals(expected.add(value), subject.add(value));
+			} else {
+				assertEquals(expected.remove(value), subject.remove(value));
+			}
+		}
+
+		// then:
+		assertEquals(expected.size(), subject.size());
+		for (long value = 0; value < 5_000; value++) {
+			assertEquals(expected.contains(value), subject.contains(value));
+		}
+	}
+
+	@Test
+	public void cursorVisitsEveryValueOnce() {
+		// given:
+		subject = new LongHashSet(2);
+		for (long value = 0; value < 100; value++) {
+			subject.add(value);
+		}
+		Set<Long> visited = new HashSet<>();
+
+		// when:
+		var cursor = subject.cursor();
+		while (cursor.hasNext()) {
+			assertTrue(visited.add(cursor.next()));
+		}
+
+		// then:
+		assertEquals(100, visited.size());
+		assertThrows(NoSuchElementException.class, cursor::next);
+	}
+
+	@Test
+	public void clearEmptiesSet() {
+		// given:
+		subject.add(0L);
+		subject.add(1L);
+
+		// when:
+		subject.clear();
+
+		// then:
+		assertTrue(subject.isEmpty());
+		assertFalse(subject.contains(0L));
+		assertFalse(subject.contains(1L));
+		assertFalse(subject.cursor().hasNext());
+	}
+}
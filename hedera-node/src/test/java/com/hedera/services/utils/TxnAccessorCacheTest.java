@@ -0,0 +1,145 @@
+package com.hedera.services.utils;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2020 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.hederahashgraph.api.proto.java.Transaction;
+import com.hederahashgraph.api.proto.java.TransactionBody;
+import com.hederahashgraph.api.proto.java.TransactionID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+import static com.hedera.test.utils.IdUtils.asAccount;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@RunWith(JUnitPlatform.class)
+class TxnAccessorCacheTest {
+	byte[] contents = Transaction.newBuilder()
+			.setBodyBytes(TransactionBody.newBuilder()
+					.setTransactionID(TransactionID.newBuilder().setAccountID(asAccount("0.0.2")))
+					.setMemo("Hi!")
+					.build()
+					.toByteString())
+			.build()
+			.toByteArray();
+
+	TxnAccessorCache subject;
+
+	@BeforeEach
+	public void setup() {
+		subject = new TxnAccessorCache(2);
+	}
+
+	@Test
+	public void takesCachedAccessorOnlyOnce() throws InvalidProtocolBufferException {
+		// given:
+		var platformTxn = new com.swirlds.common.Transaction(contents);
+		var accessor = new PlatformTxnAccessor(platformTxn);
+
+		// when:
+		subject.put(accessor);
+
+		// then:
+		assertSame(accessor, subject.takeOrParse(platformTxn));
+		assertEquals(0, subject.size());
+		// and:
+		var reparsed = subject.takeOrParse(platformTxn);
+		assertNotSame(accessor, reparsed);
+		assertSame(platformTxn, reparsed.getPlatformTxn());
+	}
+
+	@Test
+	public void keysByTxnIdentityNotContents() throws InvalidProtocolBufferException {
+		// given:
+		var platformTxn = new com.swirlds.common.Transaction(contents);
+		var equalTxn = new com.swirlds.common.Transaction(contents.clone());
+		var accessor = new PlatformTxnAccessor(platformTxn);
+
+		// when:
+		subject.put(accessor);
+
+		// then:
+		var other = subject.takeOrParse(equalTxn);
+		assertNotSame(accessor, other);
+		assertSame(equalTxn, other.getPlatformTxn());
+		assertEquals(1, subject.size());
+	}
+
+	@Test
+	public void evictsOnlyAccessorsPendingForMoreThanRoundsToKeep() throws InvalidProtocolBufferException {
+		// given:
+		var first = new PlatformTxnAccessor(new com.swirlds.common.Transaction(contents));
+		var second = new PlatformTxnAccessor(new com.swirlds.common.Transaction(contents));
+		var third = new PlatformTxnAccessor(new com.swirlds.common.Transaction(contents));
+
+		// when:
+		subject.put(first);
+		subject.roundDone();
+		subject.put(second);
+		subject.put(third);
+		subject.roundDone();
+		// then:
+		assertEquals(3, subject.size());
+
+		// and when:
+		subject.roundDone();
+		// then:
+		assertEquals(2, subject.size());
+		assertNotSame(first, subject.takeOrParse(first.getPlatformTxn()));
+		assertSame(second, subject.takeOrParse(second.getPlatformTxn()));
+		assertSame(third, subject.takeOrParse(third.getPlatformTxn()));
+	}
+
+	@Test
+	public void neverEvictsForBacklogAlone() throws InvalidProtocolBufferException {
+		// given:
+		var accessors = new PlatformTxnAccessor[100];
+		for (int i = 0; i < accessors.length; i++) {
+			accessors[i] = new PlatformTxnAccessor(new com.swirlds.common.Transaction(contents));
+		}
+
+		// when:
+		for (PlatformTxnAccessor accessor : accessors) {
+			subject.put(accessor);
+		}
+		subject.roundDone();
+
+		// then:
+		assertEquals(accessors.length, subject.size());
+		for (PlatformTxnAccessor accessor : accessors) {
+			assertSame(accessor, subject.takeOrParse(accessor.getPlatformTxn()));
+		}
+	}
+
+	@Test
+	public void propagatesParseFailureWithoutCachedAccessor() {
+		// given:
+		var platformTxn = new com.swirlds.common.Transaction("not-a-grpc-txn".getBytes());
+
+		// expect:
+		assertThrows(InvalidProtocolBufferException.class, () -> subject.takeOrParse(platformTxn));
+	}
+}
@@ -0,0 +1,202 @@
+package com.hedera.services.bench;
+
+/*-
+ * ‌
+ * Hedera Services JMH Benchmarks
+ * ​
+ * Copyright (C) 2018 - 2020 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.swirlds.common.Address;
+import com.swirlds.common.AddressBook;
+import com.swirlds.common.Console;
+import com.swirlds.common.InvalidSignedStateListener;
+import com.swirlds.common.NodeId;
+import com.swirlds.common.Platform;
+import com.swirlds.common.StatEntry;
+import com.swirlds.common.Statistics;
+import com.swirlds.common.SwirldState;
+import com.swirlds.common.Transaction;
+import com.swirlds.common.crypto.CryptoFactory;
+import com.swirlds.common.crypto.Cryptography;
+import com.swirlds.common.events.Event;
+
+import javax.swing.JFrame;
+import java.time.Instant;
+
+/**
+ * A {@link Platform} with just enough behavior to let a {@link com.hedera.services.context.ServicesContext}
+ * handle transactions in-process; every gossip- or UI-related method is a no-op.
+ */
+public class BenchPlatform implements Platform {
+	private final NodeId selfId;
+	private final AddressBook book;
+
+	public BenchPlatform(NodeId selfId, AddressBook book) {
+		this.selfId = selfId;
+		this.book = book;
+	}
+
+	@Override
+	public Cryptography getCryptography() {
+		return CryptoFactory.getInstance();
+	}
+
+	@Override
+	public byte[] sign(byte[] data) {
+		return new byte[0];
+	}
+
+	@Override
+	public NodeId getSelfId() {
+		return selfId;
+	}
+
+	@Override
+	public Address getAddress() {
+		return book.getAddress(selfId.getId());
+	}
+
+	@Override
+	public Address getAddress(long id) {
+		return book.getAddress(id);
+	}
+
+	@Override
+	public int getNumMembers() {
+		return book.getSize();
+	}
+
+	@Override
+	public boolean createTransaction(Transaction trans) {
+		return true;
+	}
+
+	@Override
+	public void addAppStatEntry(StatEntry newEntry) {
+		/* No-op. */
+	}
+
+	@Override
+	public void addSignedStateListener(InvalidSignedStateListener listener) {
+		/* No-op. */
+	}
+
+	@Override
+	public void appStatInit() {
+		/* No-op. */
+	}
+
+	@Override
+	public Console createConsole(boolean visible) {
+		return null;
+	}
+
+	@Override
+	public JFrame createWindow(boolean visible) {
+		return null;
+	}
+
+	@Override
+	public Instant estimateTime() {
+		return Instant.now();
+	}
+
+	@Override
+	public String getAbout() {
+		return "";
+	}
+
+	@Override
+	public Event[] getAllEvents() {
+		return new Event[0];
+	}
+
+	@Override
+	public long[] getLastSeqByCreator() {
+		return new long[0];
+	}
+
+	@Override
+	public double getLastSyncSpeed(int nodeId) {
+		return 0;
+	}
+
+	@Override
+	public String[] getParameters() {
+		return new String[0];
+	}
+
+	@Override
+	public long getSleepAfterSync() {
+		return 0;
+	}
+
+	@Override
+	public <T extends SwirldState> T getState() {
+		return null;
+	}
+
+	@Override
+	public Statistics getStats() {
+		return null;
+	}
+
+	@Override
+	public byte[] getSwirldId() {
+		return new byte[0];
+	}
+
+	@Override
+	public boolean isMirrorNode() {
+		return false;
+	}
+
+	@Override
+	public boolean isZeroStakeNode() {
+		return false;
+	}
+
+	@Override
+	public void releaseState() {
+		/* No-op. */
+	}
+
+	@Override
+	public void setAbout(String about) {
+		/* No-op. */
+	}
+
+	@Override
+	public void setFreezeTime(int startHour, int startMin, int endHour, int endMin) {
+		/* No-op. */
+	}
+
+	@Override
+	public void setLastSyncSpeed(int nodeId, double syncSpeed) {
+		/* No-op. */
+	}
+
+	@Override
+	public void setSleepAfterSync(long delay) {
+		/* No-op. */
+	}
+
+	@Override
+	public Instant getLastSignedStateTimestamp() {
+		return null;
+	}
+}
@@ -0,0 +1,369 @@
+package com.hedera.services.bench;
+
+/*-
+ * ‌
+ * Hedera Services JMH Benchmarks
+ * ​
+ * Copyright (C) 2018 - 2020 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hedera.services.ServicesState;
+import com.hedera.services.context.ServicesContext;
+import com.hedera.services.context.properties.BootstrapProperties;
+import com.hedera.services.context.properties.StandardizedPropertySources;
+import com.hedera.services.fees.bootstrap.JsonToProtoSerde;
+import com.hedera.services.files.TieredHederaFs;
+import com.hedera.services.legacy.core.jproto.JEd25519Key;
+import com.hedera.services.legacy.core.jproto.JFileInfo;
+import com.hedera.services.legacy.core.jproto.JKey;
+import com.hedera.services.legacy.core.jproto.JKeyList;
+import com.hedera.services.state.merkle.MerkleAccount;
+import com.hedera.services.state.merkle.MerkleBlobMeta;
+import com.hedera.services.state.merkle.MerkleDiskFs;
+import com.hedera.services.state.merkle.MerkleEntityAssociation;
+import com.hedera.services.state.merkle.MerkleEntityId;
+import com.hedera.services.state.merkle.MerkleNetworkContext;
+import com.hedera.services.state.merkle.MerkleOptionalBlob;
+import com.hedera.services.state.merkle.MerkleToken;
+import com.hedera.services.state.merkle.MerkleTokenRelStatus;
+import com.hedera.services.state.merkle.MerkleTopic;
+import com.hedera.services.state.submerkle.EntityId;
+import com.hedera.services.state.submerkle.ExchangeRates;
+import com.hedera.services.state.submerkle.RichInstant;
+import com.hedera.services.state.submerkle.SequenceNumber;
+import com.hederahashgraph.api.proto.java.ExchangeRate;
+import com.hederahashgraph.api.proto.java.ExchangeRateSet;
+import com.hederahashgraph.api.proto.java.TimestampSeconds;
+import com.hederahashgraph.api.proto.java.TokenID;
+import com.swirlds.common.Address;
+import com.swirlds.common.AddressBook;
+import com.swirlds.common.NodeId;
+import com.swirlds.fcmap.FCMap;
+import net.i2p.crypto.eddsa.EdDSAPrivateKey;
+import net.i2p.crypto.eddsa.EdDSAPublicKey;
+import net.i2p.crypto.eddsa.spec.EdDSANamedCurveTable;
+import net.i2p.crypto.eddsa.spec.EdDSAPrivateKeySpec;
+import net.i2p.crypto.eddsa.spec.EdDSAPublicKeySpec;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.security.KeyPair;
+import java.security.PublicKey;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.LongFunction;
+
+import static com.hedera.services.state.merkle.MerkleNetworkContext.UNKNOWN_CONSENSUS_TIME;
+
+/**
+ * Builds a fully-wired {@link ServicesContext} over an in-memory {@link ServicesState}
+ * populated with a configurable number of accounts, tokens, token associations, and
+ * topics; so that benchmarks can drive the real handle-thread code paths without a
+ * network, a saved state, or any of the files in a node's {@code data/} directory.
+ */
+public class InMemoryServices {
+	public static final long TREASURY_NUM = 2L;
+	public static final long NODE_NUM = 3L;
+	public static final long FUNDING_NUM = 98L;
+	public static final long FIRST_USER_NUM = 1_001L;
+
+	static final long ONE_HBAR = 100_000_000L;
+	static final long FAR_FUTURE_EXPIRY = 4_102_444_800L;
+	static final long TOTAL_TINYBAR_FLOAT = 5_000_000_000_000_000_000L;
+	static final long INITIAL_USER_BALANCE = 1_000_000 * ONE_HBAR;
+	static final long INITIAL_TOKEN_BALANCE = 1_000_000_000L;
+
+	private final int numAccounts;
+	private final int numTokens;
+	private final int numTopics;
+	private final int tokensPerAccount;
+	private final BenchKeys keys;
+
+	private ServicesState state;
+	private ServicesContext ctx;
+
+	public InMemoryServices(
+			int numAccounts,
+			int numTokens,
+			int numTopics,
+			int tokensPerAccount,
+			BenchKeys keys
+	) {
+		this.numAccounts = numAccounts;
+		this.numTokens = numTokens;
+		this.numTopics = numTopics;
+		this.tokensPerAccount = Math.min(tokensPerAccount, numTokens);
+		this.keys = keys;
+	}
+
+	public InMemoryServices initialize() throws Exception {
+		var nodeId = new NodeId(false, 0L);
+		var book = singleNodeBook();
+
+		state = new ServicesState(List.of(
+				book,
+				new MerkleNetworkContext(UNKNOWN_CONSENSUS_TIME, new SequenceNumber(firstFreeNum()), new ExchangeRates()),
+				new FCMap<>(new MerkleEntityId.Provider(), new MerkleTopic.Provider()),
+				new FCMap<>(new MerkleBlobMeta.Provider(), new MerkleOptionalBlob.Provider()),
+				new FCMap<>(new MerkleEntityId.Provider(), MerkleAccount.LEGACY_PROVIDER),
+				new FCMap<>(new MerkleEntityId.Provider(), MerkleToken.LEGACY_PROVIDER),
+				new FCMap<>(MerkleEntityAssociation.LEGACY_PROVIDER, MerkleTokenRelStatus.LEGACY_PROVIDER),
+				new MerkleDiskFs(tmpDiskFsDir(), "0.0." + NODE_NUM)));
+		populateAccounts();
+		populateTokens();
+		populateTopics();
+
+		var properties = new StandardizedPropertySources(new BootstrapProperties(), ignore -> true);
+		ctx = new ServicesContext(nodeId, new BenchPlatform(nodeId, book), state, properties);
+		ctx.update(state);
+
+		loadSystemFiles();
+		return this;
+	}
+
+	public ServicesContext ctx() {
+		return ctx;
+	}
+
+	public ServicesState state() {
+		return state;
+	}
+
+	public BenchKeys keys() {
+		return keys;
+	}
+
+	public int numAccounts() {
+		return numAccounts;
+	}
+
+	public int numTokens() {
+		return numTokens;
+	}
+
+	public int numTopics() {
+		return numTopics;
+	}
+
+	public long firstTokenNum() {
+		return FIRST_USER_NUM + numAccounts;
+	}
+
+	public long firstTopicNum() {
+		return firstTokenNum() + numTokens;
+	}
+
+	public int tokensPerAccount() {
+		return tokensPerAccount;
+	}
+
+	private long firstFreeNum() {
+		return firstTopicNum() + numTopics;
+	}
+
+	private void populateAccounts() throws Exception {
+		var accounts = state.accounts();
+		long userTotal = (long) numAccounts * INITIAL_USER_BALANCE;
+		var treasury = accountWith(TOTAL_TINYBAR_FLOAT - userTotal, keys.keyFor(TREASURY_NUM));
+		treasury.tokens().associateAll(allTokens());
+		accounts.put(idOf(TREASURY_NUM), treasury);
+		accounts.put(idOf(NODE_NUM), accountWith(0L, keys.keyFor(NODE_NUM)));
+		accounts.put(idOf(FUNDING_NUM), accountWith(0L, keys.keyFor(FUNDING_NUM)));
+		for (long num = FIRST_USER_NUM, last = FIRST_USER_NUM + numAccounts; num < last; num++) {
+			var account = accountWith(INITIAL_USER_BALANCE, keys.keyFor(num));
+			if (tokensPerAccount > 0) {
+				account.tokens().associateAll(tokensFor(num));
+			}
+			accounts.put(idOf(num), account);
+		}
+	}
+
+	private void populateTokens() {
+		var tokens = state.tokens();
+		var rels = state.tokenAssociations();
+		var treasury = new EntityId(0, 0, TREASURY_NUM);
+		for (long num = firstTokenNum(), last = firstTokenNum() + numTokens; num < last; num++) {
+			var token = new MerkleToken(
+					FAR_FUTURE_EXPIRY,
+					Long.MAX_VALUE / 2,
+					0,
+					"T" + num,
+					"Token" + num,
+					false,
+					true,
+					treasury);
+			tokens.put(idOf(num), token);
+			rels.put(
+					new MerkleEntityAssociation(0, 0, TREASURY_NUM, 0, 0, num),
+					new MerkleTokenRelStatus(Long.MAX_VALUE / 2, false, true));
+		}
+		for (long num = FIRST_USER_NUM, last = FIRST_USER_NUM + numAccounts; num < last; num++) {
+			for (var token : tokensFor(num)) {
+				rels.put(
+						new MerkleEntityAssociation(0, 0, num, 0, 0, token.getTokenNum()),
+						new MerkleTokenRelStatus(INITIAL_TOKEN_BALANCE, false, true));
+			}
+		}
+	}
+
+	private void populateTopics() {
+		var topics = state.topics();
+		var expiry = new RichInstant(FAR_FUTURE_EXPIRY, 0);
+		for (long num = firstTopicNum(), last = firstTopicNum() + numTopics; num < last; num++) {
+			var topic = new MerkleTopic("Topic" + num, null, null, 7_776_000L, null, expiry);
+			topic.setRunningHash(new byte[48]);
+			topics.put(idOf(num), topic);
+		}
+	}
+
+	/**
+	 * Returns the tokens associated to the given user account; each account is
+	 * associated to a window of {@code tokensPerAccount} consecutive tokens.
+	 *
+	 * @param accountNum the user account number
+	 * @return its associated tokens
+	 */
+	public Set<TokenID> tokensFor(long accountNum) {
+		Set<TokenID> associated = new HashSet<>();
+		for (int i = 0; i < tokensPerAccount; i++) {
+			long offset = (accountNum - FIRST_USER_NUM + i) % numTokens;
+			associated.add(TokenID.newBuilder().setTokenNum(firstTokenNum() + offset).build());
+		}
+		return associated;
+	}
+
+	private Set<TokenID> allTokens() {
+		Set<TokenID> all = new HashSet<>();
+		for (long num = firstTokenNum(), last = firstTokenNum() + numTokens; num < last; num++) {
+			all.add(TokenID.newBuilder().setTokenNum(num).build());
+		}
+		return all;
+	}
+
+	private void loadSystemFiles() throws Exception {
+		var fileNums = ctx.fileNums();
+		var hfs = (TieredHederaFs) ctx.hfs();
+		var systemFileInfo = new JFileInfo(
+				false,
+				new JKeyList(List.of(keys.keyFor(TREASURY_NUM))),
+				FAR_FUTURE_EXPIRY);
+
+		var schedulesFid = fileNums.toFid(fileNums.feeSchedules());
+		var schedules = JsonToProtoSerde.loadFeeScheduleFromJson(
+				ctx.properties().getStringProperty("bootstrap.feeSchedulesJson.resource"));
+		hfs.getMetadata().put(schedulesFid, systemFileInfo);
+		hfs.getData().put(schedulesFid, schedules.toByteArray());
+
+		var ratesFid = fileNums.toFid(fileNums.exchangeRates());
+		var rates = defaultRates();
+		hfs.getMetadata().put(ratesFid, systemFileInfo);
+		hfs.getData().put(ratesFid, rates.toByteArray());
+		ctx.exchange().updateRates(rates);
+		ctx.midnightRates().replaceWith(rates);
+
+		ctx.fees().init();
+	}
+
+	private ExchangeRateSet defaultRates() {
+		var props = ctx.properties();
+		return ExchangeRateSet.newBuilder()
+				.setCurrentRate(ExchangeRate.newBuilder()
+						.setHbarEquiv(props.getIntProperty("bootstrap.rates.currentHbarEquiv"))
+						.setCentEquiv(props.getIntProperty("bootstrap.rates.currentCentEquiv"))
+						.setExpirationTime(TimestampSeconds.newBuilder()
+								.setSeconds(props.getLongProperty("bootstrap.rates.currentExpiry"))))
+				.setNextRate(ExchangeRate.newBuilder()
+						.setHbarEquiv(props.getIntProperty("bootstrap.rates.nextHbarEquiv"))
+						.setCentEquiv(props.getIntProperty("bootstrap.rates.nextCentEquiv"))
+						.setExpirationTime(TimestampSeconds.newBuilder()
+								.setSeconds(props.getLongProperty("bootstrap.rates.nextExpiry"))))
+				.build();
+	}
+
+	private MerkleAccount accountWith(long balance, JKey key) throws Exception {
+		var account = new MerkleAccount();
+		account.setBalance(balance);
+		account.setKey(key);
+		account.setExpiry(FAR_FUTURE_EXPIRY);
+		account.setAutoRenewSecs(7_776_000L);
+		account.setMemo("");
+		return account;
+	}
+
+	private AddressBook singleNodeBook() {
+		var address = new Address(
+				0L, "node0", "node0", 1L, false,
+				new byte[] { 127, 0, 0, 1 }, 50204, new byte[] { 127, 0, 0, 1 }, 50204,
+				null, -1, null, -1,
+				(PublicKey) null, (PublicKey) null, (PublicKey) null,
+				"0.0." + NODE_NUM);
+		List<Address> addresses = new ArrayList<>();
+		addresses.add(address);
+		return new AddressBook(addresses);
+	}
+
+	private static String tmpDiskFsDir() throws IOException {
+		var dir = Files.createTempDirectory("bench-diskFs");
+		dir.toFile().deleteOnExit();
+		return dir.toString() + "/";
+	}
+
+	static MerkleEntityId idOf(long num) {
+		return new MerkleEntityId(0, 0, num);
+	}
+
+	/**
+	 * A deterministic pool of Ed25519 key pairs, assigned to accounts round-robin
+	 * so that building a large population does not require generating a distinct
+	 * key pair per account.
+	 */
+	public static class BenchKeys {
+		private final KeyPair[] pairs;
+		private final JKey[] keys;
+
+		public static BenchKeys deterministic(int poolSize) {
+			var spec = EdDSANamedCurveTable.getByName(EdDSANamedCurveTable.ED_25519);
+			return new BenchKeys(poolSize, i -> {
+				var seed = new byte[32];
+				ByteBuffer.wrap(seed).putLong(i + 1);
+				var privateSpec = new EdDSAPrivateKeySpec(seed, spec);
+				return new KeyPair(
+						new EdDSAPublicKey(new EdDSAPublicKeySpec(privateSpec.getA(), spec)),
+						new EdDSAPrivateKey(privateSpec));
+			});
+		}
+
+		public BenchKeys(int poolSize, LongFunction<KeyPair> generator) {
+			pairs = new KeyPair[poolSize];
+			keys = new JKey[poolSize];
+			for (int i = 0; i < poolSize; i++) {
+				pairs[i] = generator.apply(i);
+				keys[i] = new JEd25519Key(((EdDSAPublicKey) pairs[i].getPublic()).getAbyte());
+			}
+		}
+
+		public KeyPair pairFor(long num) {
+			return pairs[(int) (num % pairs.length)];
+		}
+
+		public JKey keyFor(long num) {
+			return keys[(int) (num % keys.length)];
+		}
+	}
+}
@@ -0,0 +1,192 @@
+package com.hedera.services.bench;
+
+/*-
+ * ‌
+ * Hedera Services JMH Benchmarks
+ * ​
+ * Copyright (C) 2018 - 2020 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.google.protobuf.ByteString;
+import com.hederahashgraph.api.proto.java.AccountAmount;
+import com.hederahashgraph.api.proto.java.AccountID;
+import com.hederahashgraph.api.proto.java.ConsensusSubmitMessageTransactionBody;
+import com.hederahashgraph.api.proto.java.CryptoTransferTransactionBody;
+import com.hederahashgraph.api.proto.java.Duration;
+import com.hederahashgraph.api.proto.java.SignatureMap;
+import com.hederahashgraph.api.proto.java.SignaturePair;
+import com.hederahashgraph.api.proto.java.SignedTransaction;
+import com.hederahashgraph.api.proto.java.Timestamp;
+import com.hederahashgraph.api.proto.java.TokenID;
+import com.hederahashgraph.api.proto.java.TokenTransferList;
+import com.hederahashgraph.api.proto.java.TopicID;
+import com.hederahashgraph.api.proto.java.TransactionBody;
+import com.hederahashgraph.api.proto.java.TransactionID;
+import com.hederahashgraph.api.proto.java.TransferList;
+import com.swirlds.common.Transaction;
+import net.i2p.crypto.eddsa.EdDSAEngine;
+import net.i2p.crypto.eddsa.EdDSAPublicKey;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.SplittableRandom;
+
+import static com.hedera.services.bench.InMemoryServices.FIRST_USER_NUM;
+import static com.hedera.services.bench.InMemoryServices.NODE_NUM;
+import static com.hedera.services.bench.InMemoryServices.ONE_HBAR;
+import static com.hedera.services.bench.InMemoryServices.TREASURY_NUM;
+
+/**
+ * Creates signed platform transactions of a few high-volume types, with payers,
+ * counterparties, tokens, and topics drawn from an {@link InMemoryServices} population.
+ */
+public class SignedTxnFactory {
+	static final int MESSAGE_BYTES = 100;
+	static final long VALID_DURATION_SECS = 120L;
+
+	public enum TxnKind {
+		CRYPTO_TRANSFER, TOKEN_TRANSFER, SUBMIT_MESSAGE
+	}
+
+	private final SplittableRandom r;
+	private final InMemoryServices services;
+	private final EdDSAEngine engine;
+
+	public SignedTxnFactory(InMemoryServices services, long seed) throws GeneralSecurityException {
+		this.services = services;
+		this.r = new SplittableRandom(seed);
+		this.engine = new EdDSAEngine(MessageDigest.getInstance("SHA-512"));
+	}
+
+	/**
+	 * Returns a new platform transaction of the given kind, valid starting at the given instant.
+	 *
+	 * @param kind the type of transaction to create
+	 * @param validStart the start of the transaction's valid duration; also makes its id unique
+	 * @return a signed platform transaction ready for {@code incorporateConsensusTxn}
+	 */
+	public Transaction platformTxn(TxnKind kind, Instant validStart) {
+		long payerNum = randomUser();
+		var body = baseBody(payerNum, validStart);
+		switch (kind) {
+			case CRYPTO_TRANSFER:
+				body.setCryptoTransfer(hbarTransfer(payerNum, counterpartyOf(payerNum)));
+				break;
+			case TOKEN_TRANSFER:
+				body.setCryptoTransfer(tokenTransfer(payerNum));
+				break;
+			case SUBMIT_MESSAGE:
+				body.setConsensusSubmitMessage(submitMessage());
+				break;
+		}
+		return new Transaction(signed(body.build(), services.keys().pairFor(payerNum)));
+	}
+
+	private TransactionBody.Builder baseBody(long payerNum, Instant validStart) {
+		return TransactionBody.newBuilder()
+				.setTransactionID(TransactionID.newBuilder()
+						.setAccountID(idOf(payerNum))
+						.setTransactionValidStart(Timestamp.newBuilder()
+								.setSeconds(validStart.getEpochSecond())
+								.setNanos(validStart.getNano())))
+				.setNodeAccountID(idOf(NODE_NUM))
+				.setTransactionFee(10 * ONE_HBAR)
+				.setTransactionValidDuration(Duration.newBuilder().setSeconds(VALID_DURATION_SECS));
+	}
+
+	private CryptoTransferTransactionBody hbarTransfer(long from, long to) {
+		return CryptoTransferTransactionBody.newBuilder()
+				.setTransfers(TransferList.newBuilder()
+						.addAccountAmounts(adjust(from, -1L))
+						.addAccountAmounts(adjust(to, +1L)))
+				.build();
+	}
+
+	private CryptoTransferTransactionBody tokenTransfer(long from) {
+		long to;
+		long tokenNum;
+		if (services.tokensPerAccount() < 2) {
+			to = TREASURY_NUM;
+			tokenNum = services.tokensFor(from).iterator().next().getTokenNum();
+		} else {
+			/* Consecutive accounts share all but one token of their association windows. */
+			to = counterpartyOf(from);
+			long offset = (Math.max(from, to) - FIRST_USER_NUM) % services.numTokens();
+			tokenNum = services.firstTokenNum() + offset;
+		}
+		return CryptoTransferTransactionBody.newBuilder()
+				.addTokenTransfers(TokenTransferList.newBuilder()
+						.setToken(TokenID.newBuilder().setTokenNum(tokenNum))
+						.addTransfers(adjust(from, -1L))
+						.addTransfers(adjust(to, +1L)))
+				.build();
+	}
+
+	private ConsensusSubmitMessageTransactionBody submitMessage() {
+		byte[] message = new byte[MESSAGE_BYTES];
+		for (int i = 0; i < MESSAGE_BYTES; i++) {
+			message[i] = (byte) r.nextInt(256);
+		}
+		long topicNum = services.firstTopicNum() + r.nextInt(services.numTopics());
+		return ConsensusSubmitMessageTransactionBody.newBuilder()
+				.setTopicID(TopicID.newBuilder().setTopicNum(topicNum))
+				.setMessage(ByteString.copyFrom(message))
+				.build();
+	}
+
+	private byte[] signed(TransactionBody body, KeyPair payerPair) {
+		var bodyBytes = body.toByteArray();
+		byte[] sig;
+		try {
+			engine.initSign(payerPair.getPrivate());
+			engine.update(bodyBytes);
+			sig = engine.sign();
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException(e);
+		}
+		var pubKey = ((EdDSAPublicKey) payerPair.getPublic()).getAbyte();
+		return com.hederahashgraph.api.proto.java.Transaction.newBuilder()
+				.setSignedTransactionBytes(SignedTransaction.newBuilder()
+						.setBodyBytes(ByteString.copyFrom(bodyBytes))
+						.setSigMap(SignatureMap.newBuilder()
+								.addSigPair(SignaturePair.newBuilder()
+										.setPubKeyPrefix(ByteString.copyFrom(pubKey))
+										.setEd25519(ByteString.copyFrom(sig))))
+						.build()
+						.toByteString())
+				.build()
+				.toByteArray();
+	}
+
+	private long randomUser() {
+		return FIRST_USER_NUM + r.nextInt(services.numAccounts());
+	}
+
+	private long counterpartyOf(long num) {
+		long next = num + 1;
+		return (next < FIRST_USER_NUM + services.numAccounts()) ? next : num - 1;
+	}
+
+	private static AccountAmount adjust(long num, long amount) {
+		return AccountAmount.newBuilder().setAccountID(idOf(num)).setAmount(amount).build();
+	}
+
+	private static AccountID idOf(long num) {
+		return AccountID.newBuilder().setAccountNum(num).build();
+	}
+}
@@ -0,0 +1,101 @@
+package com.hedera.services.ledger;
+
+/*-
+ * ‌
+ * Hedera Services JMH Benchmarks
+ * ​
+ * Copyright (C) 2018 - 2020 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hedera.services.bench.InMemoryServices;
+import com.hedera.services.ledger.accounts.FCMapBackingAccounts;
+import com.hedera.services.ledger.properties.AccountProperty;
+import com.hedera.services.ledger.properties.ChangeSummaryManager;
+import com.hedera.services.state.merkle.MerkleAccount;
+import com.hederahashgraph.api.proto.java.AccountID;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static com.hedera.services.bench.InMemoryServices.BenchKeys.deterministic;
+import static com.hedera.services.bench.InMemoryServices.FIRST_USER_NUM;
+import static com.hedera.services.ledger.HederaLedger.ACCOUNT_ID_COMPARATOR;
+import static com.hedera.services.ledger.properties.AccountProperty.BALANCE;
+
+/**
+ * Measures the {@link TransactionalLedger#commit()} stage of handling a transfer with
+ * {@code numParties} distinct accounts, against an {@link FCMapBackingAccounts} over the
+ * same in-memory state used by the handle-thread benchmarks; for both the generic ledger
+ * and the {@link TransactionalAccountsLedger} specialization used by the node.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TransactionalLedgerBench {
+	@Param("100000")
+	int numAccounts;
+	@Param("2")
+	int numParties;
+	@Param({ "GENERIC", "ACCOUNTS" })
+	String impl;
+
+	private SplittableRandom r;
+	private TransactionalLedger<AccountID, AccountProperty, MerkleAccount> ledger;
+
+	@Setup(Level.Trial)
+	public void setupLedger() throws Exception {
+		var services = new InMemoryServices(numAccounts, 0, 0, 0, deterministic(1_000)).initialize();
+		var backingAccounts = new FCMapBackingAccounts(services.state()::accounts);
+		if ("ACCOUNTS".equals(impl)) {
+			ledger = new TransactionalAccountsLedger(backingAccounts, new ChangeSummaryManager<>());
+		} else {
+			ledger = new TransactionalLedger<>(
+					AccountProperty.class,
+					MerkleAccount::new,
+					backingAccounts,
+					new ChangeSummaryManager<>());
+			ledger.setKeyComparator(ACCOUNT_ID_COMPARATOR);
+		}
+		r = new SplittableRandom(42L);
+	}
+
+	@Benchmark
+	public void commitTransfer() {
+		ledger.begin();
+		long start = FIRST_USER_NUM + r.nextInt(numAccounts - numParties);
+		for (int i = 0; i < numParties; i++) {
+			var id = AccountID.newBuilder().setAccountNum(start + i).build();
+			long adjustment = (i == 0) ? -(numParties - 1) : +1;
+			ledger.set(id, BALANCE, (long) ledger.get(id, BALANCE) + adjustment);
+		}
+		ledger.commit();
+	}
+}
@@ -0,0 +1,112 @@
+package com.hedera.services.ledger.accounts;
+
+/*-
+ * ‌
+ * Hedera Services JMH Benchmarks
+ * ​
+ * Copyright (C) 2018 - 2020 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hedera.services.bench.InMemoryServices;
+import com.hedera.services.exceptions.NegativeAccountBalanceException;
+import com.hedera.services.state.merkle.MerkleAccount;
+import com.hederahashgraph.api.proto.java.AccountID;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static com.hedera.services.bench.InMemoryServices.BenchKeys.deterministic;
+import static com.hedera.services.bench.InMemoryServices.FIRST_USER_NUM;
+
+/**
+ * Compares saving the accounts changed by a {@code numParties}-party transfer to an
+ * {@link FCMapBackingAccounts} one key at a time with {@link BackingStore#put(Object, Object)},
+ * versus in one batch with {@link BackingStore#putAll(List, List)}; in both cases followed
+ * by the {@link BackingStore#flushMutableRefs()} that ends every ledger transaction.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BackingStoreCommitBench {
+	@Param("100000")
+	int numAccounts;
+	@Param({ "2", "10", "100" })
+	int numParties;
+
+	private SplittableRandom r;
+	private AccountID[] ids;
+	private FCMapBackingAccounts backingAccounts;
+	private final List<AccountID> changedIds = new ArrayList<>();
+	private final List<MerkleAccount> changedAccounts = new ArrayList<>();
+
+	@Setup(Level.Trial)
+	public void setupBackingAccounts() throws Exception {
+		var services = new InMemoryServices(numAccounts, 0, 0, 0, deterministic(1_000)).initialize();
+		backingAccounts = new FCMapBackingAccounts(services.state()::accounts);
+		ids = new AccountID[numAccounts];
+		for (int i = 0; i < numAccounts; i++) {
+			ids[i] = AccountID.newBuilder().setAccountNum(FIRST_USER_NUM + i).build();
+		}
+		r = new SplittableRandom(42L);
+	}
+
+	@Benchmark
+	public void perKeyCommit() throws NegativeAccountBalanceException {
+		changeTransferParties();
+		for (int i = 0; i < numParties; i++) {
+			backingAccounts.put(changedIds.get(i), changedAccounts.get(i));
+		}
+		backingAccounts.flushMutableRefs();
+	}
+
+	@Benchmark
+	public void batchedCommit() throws NegativeAccountBalanceException {
+		changeTransferParties();
+		backingAccounts.putAll(changedIds, changedAccounts);
+		backingAccounts.flushMutableRefs();
+	}
+
+	private void changeTransferParties() throws NegativeAccountBalanceException {
+		changedIds.clear();
+		changedAccounts.clear();
+		int start = r.nextInt(numAccounts - numParties);
+		for (int i = 0; i < numParties; i++) {
+			var id = ids[start + i];
+			var account = backingAccounts.getRef(id);
+			long adjustment = (i == 0) ? -(numParties - 1) : +1;
+			account.setBalance(account.getBalance() + adjustment);
+			changedIds.add(id);
+			changedAccounts.add(account);
+		}
+	}
+}
@@ -0,0 +1,124 @@
+package com.hedera.services.legacy.services.state;
+
+/*-
+ * ‌
+ * Hedera Services JMH Benchmarks
+ * ​
+ * Copyright (C) 2018 - 2020 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hedera.services.bench.InMemoryServices;
+import com.hedera.services.bench.SignedTxnFactory;
+import com.hedera.services.bench.SignedTxnFactory.TxnKind;
+import com.hedera.services.txns.ProcessLogic;
+import com.swirlds.common.Transaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import static com.hedera.services.bench.InMemoryServices.BenchKeys.deterministic;
+
+/**
+ * Measures end-to-end handle-thread throughput of {@link AwareProcessLogic#incorporateConsensusTxn}
+ * over an in-memory state; see {@link HandleStagesBench} for a breakdown of the major stages.
+ *
+ * Each iteration pre-signs {@code txnsPerIteration} transactions whose valid start precedes
+ * their consensus time by one second, and whose consensus times are spaced {@code consensusSpacingMicros}
+ * apart; so record expiry and purging proceed at a realistic rate. If an iteration exhausts its
+ * pre-signed transactions, the remainder are signed inline and the measurement is skewed; so
+ * {@code txnsPerIteration} should comfortably exceed the expected throughput times the iteration time.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class AwareProcessLogicBench {
+	@Param("100000")
+	int numAccounts;
+	@Param("1000")
+	int numTokens;
+	@Param("100")
+	int numTopics;
+	@Param("10")
+	int tokensPerAccount;
+	@Param({ "CRYPTO_TRANSFER", "TOKEN_TRANSFER", "SUBMIT_MESSAGE" })
+	TxnKind kind;
+	@Param("200000")
+	int txnsPerIteration;
+	@Param("100")
+	long consensusSpacingMicros;
+
+	private int next;
+	private Instant consensusNow;
+	private Instant[] consensusTimes;
+	private Transaction[] txns;
+	private ProcessLogic logic;
+	private SignedTxnFactory factory;
+
+	@Setup(Level.Trial)
+	public void setupServices() throws Exception {
+		var services = new InMemoryServices(
+				numAccounts,
+				numTokens,
+				numTopics,
+				tokensPerAccount,
+				deterministic(1_000)).initialize();
+		factory = new SignedTxnFactory(services, 42L);
+		logic = services.ctx().logic();
+		consensusNow = Instant.now();
+		txns = new Transaction[txnsPerIteration];
+		consensusTimes = new Instant[txnsPerIteration];
+	}
+
+	@Setup(Level.Iteration)
+	public void presignTxns() {
+		for (int i = 0; i < txnsPerIteration; i++) {
+			consensusTimes[i] = nextConsensusTime();
+			txns[i] = factory.platformTxn(kind, consensusTimes[i].minusSeconds(1));
+		}
+		next = 0;
+	}
+
+	@Benchmark
+	public void incorporateConsensusTxn() {
+		if (next < txnsPerIteration) {
+			logic.incorporateConsensusTxn(txns[next], consensusTimes[next], 0L);
+			next++;
+		} else {
+			var consensusTime = nextConsensusTime();
+			logic.incorporateConsensusTxn(factory.platformTxn(kind, consensusTime.minusSeconds(1)), consensusTime, 0L);
+		}
+	}
+
+	private Instant nextConsensusTime() {
+		consensusNow = consensusNow.plusNanos(consensusSpacingMicros * 1_000L);
+		return consensusNow;
+	}
+}
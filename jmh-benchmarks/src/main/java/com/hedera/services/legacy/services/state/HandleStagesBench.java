@@ -0,0 +1,144 @@
+package com.hedera.services.legacy.services.state;
+
+/*-
+ * ‌
+ * Hedera Services JMH Benchmarks
+ * ​
+ * Copyright (C) 2018 - 2020 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hedera.services.bench.InMemoryServices;
+import com.hedera.services.bench.SignedTxnFactory;
+import com.hedera.services.bench.SignedTxnFactory.TxnKind;
+import com.hedera.services.context.ServicesContext;
+import com.hedera.services.legacy.crypto.SignatureStatus;
+import com.hedera.services.utils.PlatformTxnAccessor;
+import com.hederahashgraph.fee.FeeObject;
+import com.swirlds.common.Transaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import static com.hedera.services.bench.InMemoryServices.BenchKeys.deterministic;
+import static com.hedera.services.sigs.HederaToPlatformSigOps.rationalizeIn;
+import static com.hedera.services.sigs.sourcing.DefaultSigBytesProvider.DEFAULT_SIG_BYTES;
+import static com.hedera.services.state.merkle.MerkleEntityId.fromAccountId;
+import static com.hederahashgraph.api.proto.java.ResponseCodeEnum.SUCCESS;
+
+/**
+ * Breaks the work done by {@link AwareProcessLogic} for one transaction into its major stages,
+ * each measured in isolation against the same in-memory state used by {@link AwareProcessLogicBench}.
+ * (The {@code TransactionalLedger.commit} stage is measured by
+ * {@link com.hedera.services.ledger.TransactionalLedgerBench}, which needs package access.)
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class HandleStagesBench {
+	@Param("100000")
+	int numAccounts;
+	@Param("1000")
+	int numTokens;
+	@Param("100")
+	int numTopics;
+	@Param("10")
+	int tokensPerAccount;
+	@Param({ "CRYPTO_TRANSFER", "TOKEN_TRANSFER", "SUBMIT_MESSAGE" })
+	TxnKind kind;
+	@Param("10000")
+	int numDistinctTxns;
+
+	private int next;
+	private Instant consensusNow;
+	private byte[][] signedTxns;
+	private PlatformTxnAccessor[] accessors;
+	private ServicesContext ctx;
+
+	@Setup(Level.Trial)
+	public void setupServices() throws Exception {
+		var services = new InMemoryServices(
+				numAccounts,
+				numTokens,
+				numTopics,
+				tokensPerAccount,
+				deterministic(1_000)).initialize();
+		ctx = services.ctx();
+
+		var factory = new SignedTxnFactory(services, 42L);
+		consensusNow = Instant.now();
+		signedTxns = new byte[numDistinctTxns][];
+		accessors = new PlatformTxnAccessor[numDistinctTxns];
+		for (int i = 0; i < numDistinctTxns; i++) {
+			var platformTxn = factory.platformTxn(kind, consensusNow.plusNanos(i));
+			signedTxns[i] = platformTxn.getContents();
+			accessors[i] = new PlatformTxnAccessor(platformTxn);
+		}
+		consensusNow = consensusNow.plusSeconds(1);
+	}
+
+	/**
+	 * Rationalizes the signatures of a fresh platform transaction; since it was never
+	 * passed through {@code expandSignatures}, this includes synchronous Ed25519 verification.
+	 */
+	@Benchmark
+	public SignatureStatus sigRationalization() throws Exception {
+		var accessor = new PlatformTxnAccessor(new Transaction(signedTxns[nextIndex()]));
+		return rationalizeIn(accessor, ctx.syncVerifier(), ctx.backedKeyOrder(), DEFAULT_SIG_BYTES);
+	}
+
+	@Benchmark
+	public FeeObject feeComputation() {
+		var accessor = accessors[nextIndex()];
+		var payerKey = ctx.accounts().get(fromAccountId(accessor.getPayer())).getKey();
+		return ctx.fees().computeFee(accessor, payerKey, ctx.currentView());
+	}
+
+	/**
+	 * Creates the record for a successful transaction, and tracks it for expiry; includes the
+	 * purge of expired records done at the start of every {@code handleTransaction}.
+	 */
+	@Benchmark
+	public void recordCreation() {
+		var accessor = accessors[nextIndex()];
+		consensusNow = consensusNow.plusNanos(1_000L);
+		var txnCtx = ctx.txnCtx();
+		txnCtx.resetFor(accessor, consensusNow, 0L);
+		txnCtx.setStatus(SUCCESS);
+		ctx.recordsHistorian().purgeExpiredRecords();
+		ctx.recordsHistorian().addNewRecords();
+	}
+
+	private int nextIndex() {
+		int i = next;
+		next = (next + 1) % numDistinctTxns;
+		return i;
+	}
+}
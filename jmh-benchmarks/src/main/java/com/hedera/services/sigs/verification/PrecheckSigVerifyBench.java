@@ -0,0 +1,122 @@
+package com.hedera.services.sigs.verification;
+
+/*-
+ * ‌
+ * Hedera Services JMH Benchmarks
+ * ​
+ * Copyright (C) 2018 - 2020 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hedera.services.bench.InMemoryServices;
+import com.hedera.services.sigs.factories.PlatformSigFactory;
+import com.swirlds.common.crypto.CryptoFactory;
+import com.swirlds.common.crypto.TransactionSignature;
+import com.swirlds.common.crypto.VerificationStatus;
+import net.i2p.crypto.eddsa.EdDSAEngine;
+import net.i2p.crypto.eddsa.EdDSAPublicKey;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of precheck signature verification from 16 concurrent callers,
+ * each verifying one fresh Ed25519 signature per operation (as for a typical single-sig
+ * HAPI transaction); either calling the platform {@code Cryptography} directly
+ * ({@code SYNC}, the path used before {@link BatchingSyncVerifier}), or through a
+ * {@link BatchingSyncVerifier} with the given batch size and linger ({@code BATCHED}).
+ *
+ * Only signs and verifies in memory, so needs no PostgreSQL.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Threads(16)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PrecheckSigVerifyBench {
+	private static final int NUM_SIGNED_MESSAGES = 1_024;
+	private static final int MESSAGE_LEN = 256;
+
+	@Param({ "SYNC", "BATCHED" })
+	String mode;
+	@Param("64")
+	int maxBatchSize;
+	@Param("200")
+	long maxLingerMicros;
+	@Param("2")
+	int verifierThreads;
+
+	private byte[][] pubKeys;
+	private byte[][] sigs;
+	private byte[][] messages;
+	private SyncVerifier subject;
+
+	@Setup(Level.Trial)
+	public void setup() throws GeneralSecurityException {
+		var r = new SplittableRandom(42L);
+		var keys = InMemoryServices.BenchKeys.deterministic(NUM_SIGNED_MESSAGES);
+		var engine = new EdDSAEngine(MessageDigest.getInstance("SHA-512"));
+
+		pubKeys = new byte[NUM_SIGNED_MESSAGES][];
+		sigs = new byte[NUM_SIGNED_MESSAGES][];
+		messages = new byte[NUM_SIGNED_MESSAGES][MESSAGE_LEN];
+		for (int i = 0; i < NUM_SIGNED_MESSAGES; i++) {
+			var pair = keys.pairFor(i);
+			for (int j = 0; j < MESSAGE_LEN; j++) {
+				messages[i][j] = (byte) r.nextInt();
+			}
+			engine.initSign(pair.getPrivate());
+			engine.update(messages[i]);
+			sigs[i] = engine.sign();
+			pubKeys[i] = ((EdDSAPublicKey) pair.getPublic()).getAbyte();
+		}
+
+		SyncVerifier platformVerifier = CryptoFactory.getInstance()::verifySync;
+		subject = "BATCHED".equals(mode)
+				? new BatchingSyncVerifier(platformVerifier, maxBatchSize, maxLingerMicros, verifierThreads)
+				: platformVerifier;
+	}
+
+	@State(Scope.Thread)
+	public static class Caller {
+		private final SplittableRandom r = new SplittableRandom();
+	}
+
+	@Benchmark
+	public VerificationStatus verifyOne(Caller caller) {
+		int i = caller.r.nextInt(NUM_SIGNED_MESSAGES);
+		TransactionSignature sig = PlatformSigFactory.createEd25519(pubKeys[i], sigs[i], messages[i]);
+		subject.verifySync(List.of(sig));
+		return sig.getSignatureStatus();
+	}
+}
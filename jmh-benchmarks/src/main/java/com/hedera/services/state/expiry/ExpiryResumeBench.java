@@ -0,0 +1,141 @@
+package com.hedera.services.state.expiry;
+
+/*-
+ * ‌
+ * Hedera Services JMH Benchmarks
+ * ​
+ * Copyright (C) 2018 - 2020 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hedera.services.legacy.core.jproto.TxnId;
+import com.hedera.services.legacy.core.jproto.TxnReceipt;
+import com.hedera.services.state.merkle.MerkleAccount;
+import com.hedera.services.state.merkle.MerkleEntityId;
+import com.hedera.services.state.merkle.MerkleNetworkContext;
+import com.hedera.services.state.submerkle.ExpirableTxnRecord;
+import com.hedera.services.state.submerkle.RichInstant;
+import com.hederahashgraph.api.proto.java.AccountID;
+import com.hederahashgraph.api.proto.java.Timestamp;
+import com.hederahashgraph.api.proto.java.TransactionID;
+import com.hederahashgraph.api.proto.java.TransactionReceipt;
+import com.swirlds.fcmap.FCMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static com.hederahashgraph.api.proto.java.ResponseCodeEnum.SUCCESS;
+
+/**
+ * Measures {@link ExpiryManager#resumeTrackingFrom(FCMap, MerkleNetworkContext)} at startup
+ * over {@code numAccounts} accounts, of which {@code numPayers} hold payer records; either
+ * scanning every account ({@code FULL_SCAN}, as for a state saved without an expiry index),
+ * or rehydrating from the index saved in the network context ({@code INDEX}).
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ExpiryResumeBench {
+	private static final long FIRST_USER_NUM = 1_001L;
+	private static final long START_SECOND = 1_600_000_000L;
+	private static final int RECORDS_TTL_SECS = 180;
+
+	@Param("1000000")
+	int numAccounts;
+	@Param("10000")
+	int numPayers;
+	@Param("3")
+	int recordsPerPayer;
+	@Param({ "FULL_SCAN", "INDEX" })
+	String mode;
+
+	private FCMap<MerkleEntityId, MerkleAccount> accounts;
+	private long[] savedIndex;
+	private MerkleNetworkContext networkCtx;
+	private ExpiryManager subject;
+
+	@Setup(Level.Trial)
+	public void setupAccounts() {
+		var r = new SplittableRandom(42L);
+		accounts = new FCMap<>(new MerkleEntityId.Provider(), MerkleAccount.LEGACY_PROVIDER);
+		var tracker = new ExpiryManager(null, new HashMap<>(), null);
+		int payerStride = numAccounts / numPayers;
+		for (int i = 0; i < numAccounts; i++) {
+			long num = FIRST_USER_NUM + i;
+			var account = new MerkleAccount();
+			if (i % payerStride == 0) {
+				long expiry = START_SECOND + r.nextInt(RECORDS_TTL_SECS);
+				for (int j = 0; j < recordsPerPayer; j++, expiry += r.nextInt(3)) {
+					account.records().offer(recordWith(num, j, expiry));
+					tracker.trackRecord(AccountID.newBuilder().setAccountNum(num).build(), expiry);
+				}
+			}
+			accounts.put(new MerkleEntityId(0, 0, num), account);
+		}
+		savedIndex = tracker.pendingPayerExpiries();
+	}
+
+	@Setup(Level.Iteration)
+	public void setupSubject() {
+		networkCtx = new MerkleNetworkContext();
+		if ("INDEX".equals(mode)) {
+			networkCtx.setPayerExpiries(savedIndex);
+		}
+		/* Neither the record cache nor the dynamic properties are used to resume tracking. */
+		subject = new ExpiryManager(null, new HashMap<>(), null);
+	}
+
+	@Benchmark
+	public long[] resumeTracking() {
+		subject.resumeTrackingFrom(accounts, networkCtx);
+		return subject.pendingPayerExpiries();
+	}
+
+	private ExpirableTxnRecord recordWith(long payerNum, int nonce, long expiry) {
+		var txnId = TransactionID.newBuilder()
+				.setAccountID(AccountID.newBuilder().setAccountNum(payerNum))
+				.setTransactionValidStart(Timestamp.newBuilder().setSeconds(START_SECOND).setNanos(nonce))
+				.build();
+		var record = new ExpirableTxnRecord(
+				TxnReceipt.fromGrpc(TransactionReceipt.newBuilder().setStatus(SUCCESS).build()),
+				"NOPE".getBytes(),
+				TxnId.fromGrpc(txnId),
+				RichInstant.fromJava(Instant.ofEpochSecond(START_SECOND)),
+				null,
+				0,
+				null,
+				null,
+				null);
+		record.setExpiry(expiry);
+		return record;
+	}
+}
@@ -0,0 +1,110 @@
+package com.hedera.services.state.merkle;
+
+/*-
+ * ‌
+ * Hedera Services JMH Benchmarks
+ * ​
+ * Copyright (C) 2018 - 2020 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hedera.services.legacy.proto.utils.CommonUtils;
+import com.hederahashgraph.api.proto.java.AccountID;
+import com.hederahashgraph.api.proto.java.TopicID;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.time.Instant;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the per-message cost of advancing a topic's running hash; either through
+ * {@link MerkleTopic#updateRunningHashAndSequenceNumber} ({@code INCREMENTAL}), or by serializing
+ * the same fields with an {@link ObjectOutputStream} and hashing the result, as before ({@code OBJECT_STREAM}).
+ *
+ * Run with {@code -prof gc} to compare allocations per message. Needs no PostgreSQL.
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TopicRunningHashBench {
+	@Param({ "INCREMENTAL", "OBJECT_STREAM" })
+	String mode;
+	@Param({ "100", "1024" })
+	int messageBytes;
+
+	private byte[] message;
+	private MerkleTopic topic;
+	private Instant consensusTime;
+	private final AccountID payer = AccountID.newBuilder().setAccountNum(1_001L).build();
+	private final TopicID topicId = TopicID.newBuilder().setTopicNum(1_002L).build();
+
+	@Setup(Level.Iteration)
+	public void setup() {
+		message = new byte[messageBytes];
+		new SplittableRandom(messageBytes).nextBytes(message);
+		topic = new MerkleTopic();
+		consensusTime = Instant.ofEpochSecond(1_600_000_000L);
+	}
+
+	@Benchmark
+	public byte[] updateRunningHash() throws IOException {
+		consensusTime = consensusTime.plusNanos(1_000L);
+		if ("INCREMENTAL".equals(mode)) {
+			topic.updateRunningHashAndSequenceNumber(payer, message, topicId, consensusTime);
+		} else {
+			objectStreamUpdate();
+		}
+		return topic.getRunningHash();
+	}
+
+	private void objectStreamUpdate() throws IOException {
+		var boas = new ByteArrayOutputStream();
+		try (var out = new ObjectOutputStream(boas)) {
+			out.writeObject(topic.getRunningHash());
+			out.writeLong(MerkleTopic.RUNNING_HASH_VERSION);
+			out.writeLong(payer.getShardNum());
+			out.writeLong(payer.getRealmNum());
+			out.writeLong(payer.getAccountNum());
+			out.writeLong(topicId.getShardNum());
+			out.writeLong(topicId.getRealmNum());
+			out.writeLong(topicId.getTopicNum());
+			out.writeLong(consensusTime.getEpochSecond());
+			out.writeInt(consensusTime.getNano());
+			topic.setSequenceNumber(topic.getSequenceNumber() + 1);
+			out.writeLong(topic.getSequenceNumber());
+			out.writeObject(CommonUtils.noThrowSha384HashOf(message));
+			out.flush();
+			topic.setRunningHash(CommonUtils.noThrowSha384HashOf(boas.toByteArray()));
+		}
+	}
+}
@@ -0,0 +1,118 @@
+package com.hedera.services.throttling;
+
+/*-
+ * ‌
+ * Hedera Services JMH Benchmarks
+ * ​
+ * Copyright (C) 2018 - 2020 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hedera.services.context.properties.DeferringPropertySource;
+import com.hedera.services.context.properties.SupplierMapPropertySource;
+import com.hederahashgraph.api.proto.java.HederaFunctionality;
+import com.swirlds.common.AddressBook;
+import com.swirlds.common.throttle.Throttle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.hedera.services.throttling.bucket.BucketConfig.bucketsIn;
+import static com.hedera.services.throttling.bucket.BucketConfig.namedIn;
+import static com.hederahashgraph.api.proto.java.HederaFunctionality.CryptoTransfer;
+import static java.util.stream.Collectors.toMap;
+
+/**
+ * Measures {@code shouldThrottle(CryptoTransfer)} from 64 threads contending for a single
+ * bucket, as all gRPC threads do for the default transaction bucket; either through the
+ * lock-free {@link BucketThrottling} ({@code LOCK_FREE}), or through an {@code EnumMap} of
+ * the synchronized platform {@link Throttle} that buckets wrapped before ({@code SYNCHRONIZED}).
+ *
+ * With a low {@code tps} most calls are refused, so measure contended reads; with a high
+ * one most are admitted, so measure contended updates. Needs no PostgreSQL.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Threads(64)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ThrottlingBench {
+	private static final String BUCKET = "benchBucket";
+	private static final double BURST_PERIOD = 1.0;
+
+	@Param({ "LOCK_FREE", "SYNCHRONIZED" })
+	String mode;
+	@Param({ "10000", "1000000000" })
+	double tps;
+
+	private FunctionalityThrottling subject;
+
+	@Setup(Level.Iteration)
+	public void setup() {
+		if ("LOCK_FREE".equals(mode)) {
+			subject = bucketThrottling();
+		} else {
+			var throttles = new EnumMap<HederaFunctionality, Throttle>(HederaFunctionality.class);
+			throttles.put(CryptoTransfer, new Throttle(tps, BURST_PERIOD));
+			subject = function -> !throttles.get(function).allow(1.0);
+		}
+	}
+
+	@Benchmark
+	public boolean shouldThrottle() {
+		return subject.shouldThrottle(CryptoTransfer);
+	}
+
+	private BucketThrottling bucketThrottling() {
+		Map<String, Object> props = new HashMap<>();
+		props.put("hapi.throttling.defaults.txnBucket", BUCKET);
+		props.put("hapi.throttling.defaults.queryBucket", BUCKET);
+		props.put("hapi.throttling.buckets." + BUCKET + ".capacity", tps * BURST_PERIOD);
+		props.put("hapi.throttling.buckets." + BUCKET + ".burstPeriod", BURST_PERIOD);
+		var properties = new DeferringPropertySource(new SupplierMapPropertySource(Map.of()), props);
+		var singleNodeBook = new AddressBook() {
+			@Override
+			public int getSize() {
+				return 1;
+			}
+		};
+		BucketThrottling.displayFn = ignore -> { };
+		ThrottlingPropsBuilder.displayFn = ignore -> { };
+		var throttling = new BucketThrottling(
+				() -> singleNodeBook,
+				properties,
+				source -> bucketsIn(source).stream().collect(toMap(b -> b, b -> namedIn(source, b))),
+				ThrottlingPropsBuilder::withPrioritySource);
+		throttling.rebuild();
+		return throttling;
+	}
+}